@@ -41,11 +41,15 @@ public class HttpPrefs implements Prefs {
     public static final String USER_AGENT_HEADER = "User-Agent Header";
     public static final String SOCKET_TIMEOUT = "Socket Timeout";
     public static final String MAX_RESPONSE_SIZE = "Max response size";
+    public static final String RESPONSE_SPILL_SIZE = "Response spill size";
     public static final String ENCODED_URLS = "Pre-encoded Endpoints";
     public static final String MAX_CONNECTIONS_PER_HOST = "Max Connections Per Host";
     public static final String MAX_TOTAL_CONNECTIONS = "Max Total Connections";
+    public static final String NON_BLOCKING_IO_THREADS = "Non-blocking I/O threads";
     public static final String BIND_ADDRESS = "Bind Address";
     public static final String LEAVE_MOCKENGINE = "Leave MockEngine";
+    public static final String MOCK_MAX_THREADS = "Mock Max Threads";
+    public static final String MOCK_MAX_QUEUED = "Mock Max Queued";
     public static final String CHUNKING_THRESHOLD = "Chunking Threshold";
     public static final String HTTP_VERSION = "HTTP Version";
     public static final String ENABLE_MOCK_WIRE_LOG = "Enable Mock HTTP Log";
@@ -99,12 +103,20 @@ public class HttpPrefs implements Prefs {
                     "Includes the time it took to read the entire response in time-taken", true);
             httpForm.appendTextField(HttpPrefs.SOCKET_TIMEOUT, "Socket timeout in milliseconds");
             httpForm.appendTextField(HttpPrefs.MAX_RESPONSE_SIZE, "Maximum size to read from response (0 = no limit)");
+            httpForm.appendTextField(HttpPrefs.RESPONSE_SPILL_SIZE,
+                    "Responses larger than this are buffered in a temporary file instead of memory (0 = never)");
             httpForm.appendTextField(HttpPrefs.MAX_CONNECTIONS_PER_HOST, "Maximum number of Connections Per Host");
             httpForm.appendTextField(HttpPrefs.MAX_TOTAL_CONNECTIONS, "Maximum number of Total Connections");
+            httpForm.appendTextField(HttpPrefs.NON_BLOCKING_IO_THREADS,
+                    "Number of I/O threads for non-blocking requests (0 = number of processors)");
             httpForm.appendSeparator();
             httpForm.appendCheckBox(HttpPrefs.LEAVE_MOCKENGINE, "Leave MockEngine running when stopping MockServices",
                     false);
             httpForm.appendCheckBox(HttpPrefs.ENABLE_MOCK_WIRE_LOG, "Logs wire content of all mock requests", false);
+            httpForm.appendTextField(HttpPrefs.MOCK_MAX_THREADS,
+                    "Maximum number of threads serving the MockServices on each port");
+            httpForm.appendTextField(HttpPrefs.MOCK_MAX_QUEUED,
+                    "Maximum number of queued mock requests on each port before responding with 503");
             httpForm.addSpace(5);
         }
 
@@ -132,14 +144,18 @@ public class HttpPrefs implements Prefs {
         settings.setString(HttpSettings.ENCODED_URLS, httpValues.get(ENCODED_URLS));
         settings.setString(HttpSettings.FORWARD_SLASHES, httpValues.get(FORWARD_SLASHES));
         settings.setString(HttpSettings.MAX_RESPONSE_SIZE, httpValues.get(MAX_RESPONSE_SIZE));
+        settings.setString(HttpSettings.RESPONSE_SPILL_SIZE, httpValues.get(RESPONSE_SPILL_SIZE));
         settings.setString(HttpSettings.INCLUDE_REQUEST_IN_TIME_TAKEN, httpValues.get(INCLUDE_REQUEST_IN_TIME_TAKEN));
         settings
                 .setString(HttpSettings.INCLUDE_RESPONSE_IN_TIME_TAKEN, httpValues.get(INCLUDE_RESPONSE_IN_TIME_TAKEN));
         settings.setString(HttpSettings.MAX_CONNECTIONS_PER_HOST, httpValues.get(MAX_CONNECTIONS_PER_HOST));
         settings.setString(HttpSettings.MAX_TOTAL_CONNECTIONS, httpValues.get(MAX_TOTAL_CONNECTIONS));
+        settings.setString(HttpSettings.NON_BLOCKING_IO_THREADS, httpValues.get(NON_BLOCKING_IO_THREADS));
         settings.setString(HttpSettings.BIND_ADDRESS, httpValues.get(BIND_ADDRESS));
         settings.setString(HttpSettings.LEAVE_MOCKENGINE, httpValues.get(LEAVE_MOCKENGINE));
         settings.setString(HttpSettings.ENABLE_MOCK_WIRE_LOG, httpValues.get(ENABLE_MOCK_WIRE_LOG));
+        settings.setString(HttpSettings.MOCK_MAX_THREADS, httpValues.get(MOCK_MAX_THREADS));
+        settings.setString(HttpSettings.MOCK_MAX_QUEUED, httpValues.get(MOCK_MAX_QUEUED));
     }
 
     public void setFormValues(Settings settings) {
@@ -166,12 +182,16 @@ public class HttpPrefs implements Prefs {
         httpValues.put(SOCKET_TIMEOUT, settings.getString(HttpSettings.SOCKET_TIMEOUT, null));
         httpValues.put(ENCODED_URLS, settings.getString(HttpSettings.ENCODED_URLS, null));
         httpValues.put(MAX_RESPONSE_SIZE, settings.getString(HttpSettings.MAX_RESPONSE_SIZE, "0"));
+        httpValues.put(RESPONSE_SPILL_SIZE, settings.getString(HttpSettings.RESPONSE_SPILL_SIZE, "8388608"));
         httpValues.put(MAX_CONNECTIONS_PER_HOST, settings.getString(HttpSettings.MAX_CONNECTIONS_PER_HOST, "500"));
         httpValues.put(MAX_TOTAL_CONNECTIONS, settings.getString(HttpSettings.MAX_TOTAL_CONNECTIONS, "2000"));
+        httpValues.put(NON_BLOCKING_IO_THREADS, settings.getString(HttpSettings.NON_BLOCKING_IO_THREADS, "0"));
         httpValues.put(BIND_ADDRESS, settings.getString(HttpSettings.BIND_ADDRESS, ""));
         httpValues.put(FORWARD_SLASHES, settings.getString(HttpSettings.FORWARD_SLASHES, ""));
         httpValues.put(LEAVE_MOCKENGINE, settings.getString(HttpSettings.LEAVE_MOCKENGINE, null));
         httpValues.put(ENABLE_MOCK_WIRE_LOG, settings.getString(HttpSettings.ENABLE_MOCK_WIRE_LOG, null));
+        httpValues.put(MOCK_MAX_THREADS, settings.getString(HttpSettings.MOCK_MAX_THREADS, "100"));
+        httpValues.put(MOCK_MAX_QUEUED, settings.getString(HttpSettings.MOCK_MAX_QUEUED, "1000"));
         return httpValues;
     }
 
@@ -29,10 +29,31 @@ import com.eviware.soapui.support.StringUtils;
 import com.eviware.soapui.support.xml.XmlUtils;
 import net.sf.json.JSON;
 import net.sf.json.JSONException;
+import org.apache.log4j.Logger;
 
 import java.net.URL;
 
 public class JsonMediaTypeHandler implements MediaTypeHandler {
+    public static final String MAX_XML_CONVERSION_SIZE_PROPERTY = "soapui.json.xml.maxsize";
+
+    /**
+     * JSON content larger than this is not converted, the XML tree would be several times the size of the
+     * response and is rarely used for payloads of that size
+     */
+
+    static final int DEFAULT_MAX_XML_CONVERSION_SIZE = 10 * 1024 * 1024;
+
+    private final static Logger log = Logger.getLogger(JsonMediaTypeHandler.class);
+
+    private final int maxXmlConversionSize;
+
+    public JsonMediaTypeHandler() {
+        this(Integer.getInteger(MAX_XML_CONVERSION_SIZE_PROPERTY, DEFAULT_MAX_XML_CONVERSION_SIZE));
+    }
+
+    JsonMediaTypeHandler(int maxXmlConversionSize) {
+        this.maxXmlConversionSize = maxXmlConversionSize;
+    }
 
     public boolean canHandle(String contentType) {
         return JsonUtil.seemsToBeJsonContentType(contentType);
@@ -40,50 +61,47 @@ public class JsonMediaTypeHandler implements MediaTypeHandler {
 
     @Override
     public String createXmlRepresentation(HttpResponse response) {
+        if (response == null || response.getContentAsString() == null) {
+            return null;
+        }
+
+        String rootName = HttpUtils.isErrorStatus(response.getStatusCode()) ? "Fault" : "Response";
         try {
-            if (response == null || response.getContentAsString() == null) {
-                return null;
-            }
-            String content = response.getContentAsString().trim();
-            if (!StringUtils.hasContent(content)) {
-                return null;
-            }
-            // remove nulls - workaround for bug in xmlserializer!?
-            content = content.replaceAll("\\\\u0000", "");
-            JSON json = new JsonUtil().parseTrimmedText(content);
-            JsonXmlSerializer serializer = new JsonXmlSerializer();
-            serializer.setTypeHintsEnabled(false);
-            serializer.setRootName(HttpUtils.isErrorStatus(response.getStatusCode()) ? "Fault" : "Response");
-            URL url = response.getURL();
             String originalUri = readOriginalUriFrom(response.getRequest());
-            String namespaceUri = originalUri != null ? originalUri : makeNamespaceUriFrom(url);
-            serializer.setNamespace("", namespaceUri);
-            content = serializer.write(json);
-            content = XmlUtils.prettyPrintXml(content);
-
-            return content;
-        } catch (JSONException ignore) {
-            // if the content is not valid JSON, empty XML will be returned
+            String namespaceUri = originalUri != null ? originalUri : makeNamespaceUriFrom(response.getURL());
+            return convertToXml(response.getContentAsString(), rootName, namespaceUri);
         } catch (Exception e) {
             SoapUI.logError(e);
         }
         return "<xml/>";
-
     }
 
     public String createXmlRepresentation(TypedContent typedContent) {
+        return convertToXml(typedContent.getContentAsString(), "Response", "json");
+    }
+
+    private String convertToXml(String content, String rootName, String namespaceUri) {
         try {
-            String content = typedContent.getContentAsString().trim();
+            content = content.trim();
             if (!StringUtils.hasContent(content)) {
                 return null;
             }
+
+            if (content.length() > maxXmlConversionSize) {
+                log.warn("Skipping XML representation of " + content.length() + " bytes of JSON, limit is "
+                        + maxXmlConversionSize + " (" + MAX_XML_CONVERSION_SIZE_PROPERTY + ")");
+                return "<xml/>";
+            }
+
             // remove nulls - workaround for bug in xmlserializer!?
-            content = content.replaceAll("\\\\u0000", "");
+            if (content.contains("\\u0000")) {
+                content = content.replace("\\u0000", "");
+            }
             JSON json = new JsonUtil().parseTrimmedText(content);
             JsonXmlSerializer serializer = new JsonXmlSerializer();
             serializer.setTypeHintsEnabled(false);
-            serializer.setRootName("Response");
-            serializer.setNamespace("", "json");
+            serializer.setRootName(rootName);
+            serializer.setNamespace("", namespaceUri);
             content = serializer.write(json);
             content = XmlUtils.prettyPrintXml(content);
 
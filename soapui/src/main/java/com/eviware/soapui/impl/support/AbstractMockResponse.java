@@ -63,6 +63,7 @@ import javax.mail.internet.MimeBodyPart;
 import javax.mail.internet.MimeMessage;
 import javax.mail.internet.MimeMultipart;
 import javax.mail.internet.PreencodedMimeBodyPart;
+import javax.servlet.http.HttpServletRequest;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Arrays;
@@ -74,6 +75,16 @@ public abstract class AbstractMockResponse<MockResponseConfigType extends BaseMo
         implements MockResponse, MutableWsdlAttachmentContainer, PropertyExpansionContainer, TestPropertyHolder {
     public static final String AUTO_RESPONSE_COMPRESSION = "<auto>";
     public static final String NO_RESPONSE_COMPRESSION = "<none>";
+
+    /**
+     * Request attribute set by a mock engine that can suspend the request instead of blocking a thread for the
+     * response delay; the delay is then added to the DEFERRED_RESPONSE_DELAY attribute and left to the engine,
+     * which also reports the result to the MockService set in DEFERRED_MOCK_SERVICE once the delay has passed
+     */
+
+    public static final String DEFER_RESPONSE_DELAY = "soapui.mock.deferResponseDelay";
+    public static final String DEFERRED_RESPONSE_DELAY = "soapui.mock.deferredResponseDelay";
+    public static final String DEFERRED_MOCK_SERVICE = "soapui.mock.deferredMockService";
     private MapTestPropertyHolder propertyHolder;
 
     private String responseContent;
@@ -236,7 +247,7 @@ public abstract class AbstractMockResponse<MockResponseConfigType extends BaseMo
             getProperty("Request").setValue(request.getRequestContent());
 
             long delay = getResponseDelay();
-            if (delay > 0) {
+            if (delay > 0 && !deferResponseDelay(request, delay)) {
                 Thread.sleep(delay);
             }
 
@@ -281,6 +292,17 @@ public abstract class AbstractMockResponse<MockResponseConfigType extends BaseMo
         }
     }
 
+    private static boolean deferResponseDelay(MockRequest request, long delay) {
+        HttpServletRequest httpRequest = request.getHttpRequest();
+        if (httpRequest == null || httpRequest.getAttribute(DEFER_RESPONSE_DELAY) == null) {
+            return false;
+        }
+
+        Long deferred = (Long) httpRequest.getAttribute(DEFERRED_RESPONSE_DELAY);
+        httpRequest.setAttribute(DEFERRED_RESPONSE_DELAY, deferred == null ? delay : deferred + delay);
+        return true;
+    }
+
     public String writeResponse(MockResult result, String responseContent) throws Exception {
         MimeMultipart mp = null;
 
@@ -567,6 +567,14 @@ public abstract class AbstractMockService<MockOperationType extends MockOperatio
 
     public void fireOnMockResult(Object result) {
         if (result != null && result instanceof MockResult) {
+            MockRequest mockRequest = ((MockResult) result).getMockRequest();
+            HttpServletRequest httpRequest = mockRequest == null ? null : mockRequest.getHttpRequest();
+            if (httpRequest != null && httpRequest.getAttribute(AbstractMockResponse.DEFERRED_RESPONSE_DELAY) != null) {
+                // the mock engine reports the result once the response has been sent after its delay
+                httpRequest.setAttribute(AbstractMockResponse.DEFERRED_MOCK_SERVICE, this);
+                return;
+            }
+
             for (MockRunListener listener : getMockRunListeners()) {
                 listener.onMockResult((MockResult) result);
             }
@@ -34,9 +34,11 @@ import org.apache.xmlbeans.SchemaTypeLoader;
 import org.apache.xmlbeans.SchemaTypeSystem;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 
 /**
  * Holder for InterfaceDefinitions and related SchemaTypeLoader types
@@ -55,8 +57,11 @@ public abstract class AbstractDefinitionContext<T extends AbstractInterface<?>,
 
     private T2 currentLoader;
     private T iface;
+    private Preload preload;
 
-    private static Map<String, InterfaceDefinition<?>> definitionCache = new HashMap<String, InterfaceDefinition<?>>();
+    // definitions of different interfaces can be loaded in parallel, see DefinitionPreloader
+    private static Map<String, InterfaceDefinition<?>> definitionCache = Collections
+            .synchronizedMap(new HashMap<String, InterfaceDefinition<?>>());
     private static Map<String, Integer> urlReferences = new HashMap<String, Integer>();
 
     public AbstractDefinitionContext(String url, T iface) {
@@ -101,6 +106,9 @@ public abstract class AbstractDefinitionContext<T extends AbstractInterface<?>,
 
             // FIXME Refactoring: loaded = (definition != null) ?
             loaded = iface != null && definitionCache.containsKey(url);
+
+            // a running preload is for the previous url, its result is dropped
+            preload = null;
         }
     }
 
@@ -121,20 +129,112 @@ public abstract class AbstractDefinitionContext<T extends AbstractInterface<?>,
             return true;
         }
 
+        // take over a running preload instead of loading the definition a second time
+        Preload running = preload;
+        if (running != null) {
+            preload = null;
+            getProgressDialog().run(running.createWaiter());
+            if (!running.isDone()) {
+                throw new Exception("Interrupted while waiting for Definition from [" + url + "]");
+            }
+
+            return checkLoader(running.loader);
+        }
+
         Loader loader = new Loader(wsdlLoader);
+        getProgressDialog().run(loader);
 
-        if (progressDialog != null) {
-            progressDialog.run(loader);
-        } else {
+        // Get the value. It is the responsibility of the progressDialog to
+        // wait for the other thread to finish.
+        return checkLoader(loader);
+    }
+
+    private static synchronized XProgressDialog getProgressDialog() {
+        if (progressDialog == null) {
             // always use progressDialog since files can import http urls
             progressDialog = UISupport.getDialogs().createProgressDialog("Loading Definition", 3, "Loading definition..",
                     true);
+        }
+
+        return progressDialog;
+    }
+
+    /**
+     * Loads the definition on the calling thread without showing any progress, so that the definitions of several
+     * interfaces can be loaded in parallel. The monitor of this context is not held while loading; a thread that
+     * needs the definition meanwhile waits for this load in {@link #load(DefinitionLoader)}, with the usual
+     * progress dialog, and takes over its result.
+     *
+     * @return false if the definition is already being loaded by another thread
+     */
+
+    public boolean loadInCurrentThread() throws Exception {
+        Preload running;
+        synchronized (this) {
+            if (!loaded && iface != null) {
+                loaded = definitionCache.containsKey(url);
+            }
+
+            if (loaded) {
+                return true;
+            }
+
+            if (preload != null) {
+                return false;
+            }
 
-            progressDialog.run(loader);
+            running = preload = new Preload();
         }
 
-        // Get the value. It is the responsibility of the progressDialog to
-        // wait for the other thread to finish.
+        try {
+            running.loader.construct(new XProgressMonitor() {
+                public void setProgress(int value, String string) {
+                    log.debug(string);
+                }
+            });
+        } finally {
+            running.done.countDown();
+        }
+
+        synchronized (this) {
+            if (preload != running) {
+                // taken over by load() or dropped by setDefinition()
+                return loaded;
+            }
+
+            preload = null;
+            return checkLoader(running.loader);
+        }
+    }
+
+    /**
+     * A load started by {@link #loadInCurrentThread()}
+     */
+
+    private class Preload {
+        private final Loader loader = new Loader(null);
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        private boolean isDone() {
+            return done.getCount() == 0;
+        }
+
+        private Worker createWaiter() {
+            return new Worker.WorkerAdapter() {
+                public Object construct(XProgressMonitor monitor) {
+                    monitor.setProgress(1, "Loading Definition from [" + url + "]");
+                    try {
+                        done.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return null;
+                }
+            };
+        }
+    }
+
+    private boolean checkLoader(Loader loader) throws Exception {
         if (loader.hasError()) {
             if (loader.getError() instanceof InvalidDefinitionException) {
                 throw (InvalidDefinitionException) loader.getError();
@@ -251,10 +351,12 @@ public abstract class AbstractDefinitionContext<T extends AbstractInterface<?>,
 
         if (!currentLoader.isAborted() && iface != null && iface.isDefinitionShareble()) {
             definitionCache.put(url, definition);
-            if (urlReferences.containsKey(url)) {
-                urlReferences.put(url, urlReferences.get(url) + 1);
-            } else {
-                urlReferences.put(url, 1);
+            synchronized (urlReferences) {
+                if (urlReferences.containsKey(url)) {
+                    urlReferences.put(url, urlReferences.get(url) + 1);
+                } else {
+                    urlReferences.put(url, 1);
+                }
             }
         }
 
@@ -272,13 +374,15 @@ public abstract class AbstractDefinitionContext<T extends AbstractInterface<?>,
     protected abstract T3 loadDefinition(T2 loader) throws Exception;
 
     public void release() {
-        if (iface != null && urlReferences.containsKey(url)) {
-            Integer i = urlReferences.get(url);
-            if (i.intValue() <= 1) {
-                urlReferences.remove(url);
-                definitionCache.remove(url);
-            } else {
-                urlReferences.put(url, i - 1);
+        synchronized (urlReferences) {
+            if (iface != null && urlReferences.containsKey(url)) {
+                Integer i = urlReferences.get(url);
+                if (i.intValue() <= 1) {
+                    urlReferences.remove(url);
+                    definitionCache.remove(url);
+                } else {
+                    urlReferences.put(url, i - 1);
+                }
             }
         }
     }
@@ -337,7 +441,9 @@ public abstract class AbstractDefinitionContext<T extends AbstractInterface<?>,
 
     public static void uncache(String url) {
         definitionCache.remove(url);
-        urlReferences.remove(url);
+        synchronized (urlReferences) {
+            urlReferences.remove(url);
+        }
     }
 
     public void reload() throws Exception {
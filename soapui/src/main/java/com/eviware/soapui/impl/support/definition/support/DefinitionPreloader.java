@@ -0,0 +1,120 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.impl.support.definition.support;
+
+import com.eviware.soapui.impl.support.AbstractInterface;
+import com.eviware.soapui.model.iface.Interface;
+import com.eviware.soapui.support.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Loads the definitions of several interfaces in parallel.
+ * <p/>
+ * Definitions are otherwise loaded one at a time when an interface is first used, and parsing the cached
+ * definition parts, reading the WSDL and building its schema types can take a long time for large interfaces.
+ * Each definition is loaded by its own task on a fork-join pool with soapui.definition.preload.threads threads
+ * (the number of processors by default, 0 disables preloading). Definitions that fail to load are logged and
+ * fail again, with the usual error handling, when their interface is used.
+ */
+
+public final class DefinitionPreloader {
+    private final static Logger log = Logger.getLogger(DefinitionPreloader.class);
+
+    private DefinitionPreloader() {
+    }
+
+    public static int getParallelism() {
+        try {
+            return Math.max(0, Integer.parseInt(System.getProperty("soapui.definition.preload.threads")));
+        } catch (Exception e) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+    }
+
+    /**
+     * Loads the definitions of the specified interfaces that have not been loaded yet and waits for them to finish
+     */
+
+    public static void preload(Collection<? extends Interface> interfaces) {
+        if (getParallelism() == 0) {
+            return;
+        }
+
+        List<AbstractDefinitionContext<?, ?, ?>> contexts = new ArrayList<AbstractDefinitionContext<?, ?, ?>>();
+        for (Interface iface : interfaces) {
+            if (!(iface instanceof AbstractInterface)) {
+                continue;
+            }
+
+            AbstractInterface<?> abstractInterface = (AbstractInterface<?>) iface;
+            if (StringUtils.hasContent(abstractInterface.getDefinition())) {
+                AbstractDefinitionContext<?, ?, ?> context = abstractInterface.getDefinitionContext();
+                if (context != null && !context.isLoaded()) {
+                    contexts.add(context);
+                }
+            }
+        }
+
+        if (contexts.isEmpty()) {
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        int parallelism = Math.min(getParallelism(), contexts.size());
+
+        if (parallelism < 2) {
+            for (AbstractDefinitionContext<?, ?, ?> context : contexts) {
+                load(context);
+            }
+        } else {
+            List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+            for (final AbstractDefinitionContext<?, ?, ?> context : contexts) {
+                tasks.add(new Callable<Object>() {
+                    public Object call() {
+                        load(context);
+                        return null;
+                    }
+                });
+            }
+
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invokeAll(tasks);
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        log.info("Loaded " + contexts.size() + " definitions using " + parallelism + " threads in "
+                + (System.nanoTime() - startTime) / 1000000 + "ms");
+    }
+
+    private static void load(AbstractDefinitionContext<?, ?, ?> context) {
+        try {
+            context.loadInCurrentThread();
+        } catch (Throwable e) {
+            log.warn("Failed to preload definition from [" + context.getUrl() + "]: " + e);
+        }
+    }
+}
@@ -43,6 +43,10 @@ public class InterfaceCacheDefinitionLoader extends AbstractWsdlDefinitionLoader
         this.config = config;
     }
 
+    public DefinitionCache getDefinitionCache() {
+        return config;
+    }
+
     public InputStream load(String url) throws Exception {
         XmlObject xmlObject = loadXmlObject(url, null);
         return xmlObject == null ? null : xmlObject.newInputStream();
@@ -67,6 +67,24 @@ public abstract class AbstractTestPropertyHolderWsdlModelItem<T extends ModelIte
         return propertyHolderSupport;
     }
 
+    /**
+     * Reads and writes this item's properties through a map of the specified run until the matching
+     * {@link #endPropertyRunScope(Object, boolean)}, see
+     * {@link XmlBeansPropertiesTestPropertyHolder#beginRunScope(Object)}
+     */
+
+    public void beginPropertyRunScope(Object owner) {
+        if (propertyHolderSupport != null) {
+            propertyHolderSupport.beginRunScope(owner);
+        }
+    }
+
+    public void endPropertyRunScope(Object owner, boolean writeBack) {
+        if (propertyHolderSupport != null) {
+            propertyHolderSupport.endRunScope(owner, writeBack);
+        }
+    }
+
     private String createPropertyName(String str) {
         if (str == null) {
             return null;
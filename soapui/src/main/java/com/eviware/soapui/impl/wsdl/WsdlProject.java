@@ -41,14 +41,17 @@ import com.eviware.soapui.impl.rest.support.RestRequestConverter.RestConversionE
 import com.eviware.soapui.impl.settings.XmlBeansSettingsImpl;
 import com.eviware.soapui.impl.support.AbstractInterface;
 import com.eviware.soapui.impl.support.EndpointSupport;
+import com.eviware.soapui.impl.support.definition.support.DefinitionPreloader;
 import com.eviware.soapui.impl.wsdl.endpoint.DefaultEndpointStrategy;
 import com.eviware.soapui.impl.wsdl.mock.WsdlMockService;
 import com.eviware.soapui.impl.wsdl.support.ExternalDependency;
+import com.eviware.soapui.impl.wsdl.support.LazyModelItemList;
 import com.eviware.soapui.impl.wsdl.support.PathUtils;
 import com.eviware.soapui.impl.wsdl.support.wsdl.UrlWsdlLoader;
 import com.eviware.soapui.impl.wsdl.support.wsdl.WsdlLoader;
 import com.eviware.soapui.impl.wsdl.support.wss.DefaultWssContainer;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlProjectRunner;
+import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
 import com.eviware.soapui.impl.wsdl.teststeps.WsdlTestStep;
 import com.eviware.soapui.model.ModelItem;
 import com.eviware.soapui.model.environment.DefaultEnvironment;
@@ -136,6 +139,14 @@ public class WsdlProject extends AbstractTestPropertyHolderWsdlModelItem<Project
     public final static String AFTER_LOAD_SCRIPT_PROPERTY = WsdlProject.class.getName() + "@setupScript";
     public final static String BEFORE_SAVE_SCRIPT_PROPERTY = WsdlProject.class.getName() + "@tearDownScript";
     public final static String RESOURCE_ROOT_PROPERTY = WsdlProject.class.getName() + "@resourceRoot";
+    public final static String VIRTUAL_THREADS_PROPERTY = WsdlProject.class.getName() + "@virtual-threads";
+
+    /**
+     * System property that enables the lazy model when running without a graphical environment; TestSuites and
+     * TestCases are then only built when they are first accessed
+     */
+
+    public final static String LAZY_MODEL_SYSTEM_PROPERTY = "soapui.project.lazy";
     public static final String ICON_NAME = "/project.png";
     public static final SoapUIVersionInfo VERSION_IN_READY_API_PROJECT = new SoapUIVersionInfo("6.0.0");
     protected final static Logger log = Logger.getLogger(WsdlProject.class);
@@ -143,7 +154,18 @@ public class WsdlProject extends AbstractTestPropertyHolderWsdlModelItem<Project
     private static final String XML_EXTENSION = ".xml";
     protected String path;
     protected List<AbstractInterface<?>> interfaces = new ArrayList<AbstractInterface<?>>();
-    protected List<WsdlTestSuite> testSuites = new ArrayList<WsdlTestSuite>();
+    protected LazyModelItemList<WsdlTestSuite, TestSuiteConfig> testSuites =
+            new LazyModelItemList<WsdlTestSuite, TestSuiteConfig>() {
+                protected WsdlTestSuite build(TestSuiteConfig config) {
+                    return buildTestSuite(config);
+                }
+
+                protected void afterBuild(WsdlTestSuite testSuite) {
+                    if (testSuitesLoaded) {
+                        testSuite.afterLoad();
+                    }
+                }
+            };
     protected List<WsdlMockService> mockServices = new ArrayList<WsdlMockService>();
     protected List<RestMockService> restMockServices = new ArrayList<RestMockService>();
     protected Set<ProjectListener> projectListeners = new HashSet<ProjectListener>();
@@ -175,6 +197,8 @@ public class WsdlProject extends AbstractTestPropertyHolderWsdlModelItem<Project
     private SoapUIScriptEngine beforeRunScriptEngine;
     private Set<ProjectRunListener> runListeners = new HashSet<ProjectRunListener>();
     private Environment environment;
+    private boolean lazyModel;
+    private boolean testSuitesLoaded;
 
     public WsdlProject() throws XmlException, IOException, SoapUIException {
         this((WorkspaceImpl) null);
@@ -385,9 +409,15 @@ public class WsdlProject extends AbstractTestPropertyHolderWsdlModelItem<Project
             interfaces.add(iface);
         }
 
+        lazyModel = Boolean.getBoolean(LAZY_MODEL_SYSTEM_PROPERTY) && !SoapUI.usingGraphicalEnvironment();
+
         List<TestSuiteConfig> testSuiteConfigs = getConfig().getTestSuiteList();
         for (TestSuiteConfig config : testSuiteConfigs) {
-            testSuites.add(buildTestSuite(config));
+            if (lazyModel) {
+                testSuites.addUnbuilt(config);
+            } else {
+                testSuites.add(buildTestSuite(config));
+            }
         }
 
         List<MockServiceConfig> mockServiceConfigs = getConfig().getMockServiceList();
@@ -529,7 +559,20 @@ public class WsdlProject extends AbstractTestPropertyHolderWsdlModelItem<Project
 
     @Override
     public void afterLoad() {
-        super.afterLoad();
+        // TestSuites that have not been built yet get their afterLoad when they are built
+        List<ModelItem> children = new ArrayList<ModelItem>();
+        children.addAll(getInterfaceList());
+        children.addAll(testSuites.getBuiltItems());
+        children.addAll(getMockServiceList());
+        children.addAll(getRestMockServiceList());
+
+        for (ModelItem modelItem : children) {
+            if (modelItem instanceof AbstractWsdlModelItem<?>) {
+                ((AbstractWsdlModelItem<?>) modelItem).afterLoad();
+            }
+        }
+
+        testSuitesLoaded = true;
 
         try {
             ProjectListener[] a = projectListeners.toArray(new ProjectListener[projectListeners.size()]);
@@ -542,6 +585,31 @@ public class WsdlProject extends AbstractTestPropertyHolderWsdlModelItem<Project
         } catch (Exception e) {
             SoapUI.logError(e);
         }
+
+        if (SoapUI.usingGraphicalEnvironment() && SoapUI.getSettings().getBoolean(WsdlSettings.PRELOAD_DEFINITIONS)) {
+            preloadDefinitions();
+        }
+    }
+
+    /**
+     * Loads the definitions of all interfaces in parallel in the background, interfaces that are used before
+     * their definition has been loaded wait for it instead of loading it again
+     */
+
+    public void preloadDefinitions() {
+        final List<Interface> interfaceList = getInterfaceList();
+        if (interfaceList.isEmpty()) {
+            return;
+        }
+
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                DefinitionPreloader.preload(interfaceList);
+            }
+        }, "Preload definitions for [" + getName() + "]");
+
+        thread.setDaemon(true);
+        thread.start();
     }
 
     protected void setProjectRoot(String path) {
@@ -914,7 +982,8 @@ public class WsdlProject extends AbstractTestPropertyHolderWsdlModelItem<Project
             iface.beforeSave();
         }
 
-        for (WsdlTestSuite testSuite : testSuites) {
+        // TestSuites that have not been built have not been changed either
+        for (WsdlTestSuite testSuite : testSuites.getBuiltItems()) {
             testSuite.beforeSave();
         }
 
@@ -1128,8 +1197,60 @@ public class WsdlProject extends AbstractTestPropertyHolderWsdlModelItem<Project
         return testSuites.get(index);
     }
 
+    /**
+     * Returns the name of the TestSuite at the specified index without building it
+     */
+
+    public String getTestSuiteNameAt(int index) {
+        return testSuites.getNameAt(index);
+    }
+
+    /**
+     * Returns if the TestSuite at the specified index is disabled without building it
+     */
+
+    public boolean isTestSuiteDisabledAt(int index) {
+        return testSuites.getConfig(index).getDisabled();
+    }
+
     public WsdlTestSuite getTestSuiteByName(String testSuiteName) {
-        return (WsdlTestSuite) getWsdlModelItemByName(testSuites, testSuiteName);
+        int ix = testSuites.indexOfName(testSuiteName);
+        return ix == -1 ? null : testSuites.get(ix);
+    }
+
+    /**
+     * Finds a TestCase in any TestSuite by its id, only building the TestSuite and TestCase that contain it
+     */
+
+    public WsdlTestCase findTestCaseById(String testCaseId) {
+        if (testCaseId == null) {
+            return null;
+        }
+
+        for (int c = 0; c < testSuites.size(); c++) {
+            if (testSuites.isBuilt(c) || containsTestCase(testSuites.getConfig(c), testCaseId)) {
+                WsdlTestCase testCase = testSuites.get(c).findTestCaseById(testCaseId);
+                if (testCase != null) {
+                    return testCase;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean containsTestCase(TestSuiteConfig config, String testCaseId) {
+        for (TestCaseConfig testCaseConfig : config.getTestCaseList()) {
+            if (testCaseId.equals(testCaseConfig.getId())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public boolean isLazyModel() {
+        return lazyModel;
     }
 
     @Override
@@ -1180,7 +1301,7 @@ public class WsdlProject extends AbstractTestPropertyHolderWsdlModelItem<Project
         if (isOpen()) {
             endpointStrategy.release();
 
-            for (WsdlTestSuite testSuite : testSuites) {
+            for (WsdlTestSuite testSuite : testSuites.getBuiltItems()) {
                 testSuite.release();
             }
 
@@ -1937,6 +2058,22 @@ public class WsdlProject extends AbstractTestPropertyHolderWsdlModelItem<Project
         }
     }
 
+    /**
+     * If TestSuites of a parallel run, and parallel TestCases in all TestSuites, are executed on virtual threads
+     */
+
+    public boolean getUseVirtualThreads() {
+        return getSettings().getBoolean(VIRTUAL_THREADS_PROPERTY);
+    }
+
+    public void setUseVirtualThreads(boolean useVirtualThreads) {
+        boolean old = getUseVirtualThreads();
+        if (old != useVirtualThreads) {
+            getSettings().setBoolean(VIRTUAL_THREADS_PROPERTY, useVirtualThreads);
+            notifyPropertyChanged(VIRTUAL_THREADS_PROPERTY, old, useVirtualThreads);
+        }
+    }
+
     public WsdlTestSuite moveTestSuite(int ix, int offset) {
         WsdlTestSuite testSuite = testSuites.get(ix);
 
@@ -1975,7 +2112,11 @@ public class WsdlProject extends AbstractTestPropertyHolderWsdlModelItem<Project
 
         getConfig().setTestSuiteArray(configs);
         for (int c = 0; c < configs.length; c++) {
-            testSuites.get(c).resetConfigOnMove(getConfig().getTestSuiteArray(c));
+            if (testSuites.isBuilt(c)) {
+                testSuites.get(c).resetConfigOnMove(getConfig().getTestSuiteArray(c));
+            } else {
+                testSuites.setUnbuiltConfig(c, getConfig().getTestSuiteArray(c));
+            }
         }
 
         fireTestSuiteMoved(testSuite, ix, offset);
@@ -26,6 +26,7 @@ import com.eviware.soapui.config.TestSuiteConfig;
 import com.eviware.soapui.config.TestSuiteRunTypesConfig;
 import com.eviware.soapui.config.TestSuiteRunTypesConfig.Enum;
 import com.eviware.soapui.impl.wsdl.loadtest.WsdlLoadTest;
+import com.eviware.soapui.impl.wsdl.support.LazyModelItemList;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlTestSuiteRunner;
 import com.eviware.soapui.impl.wsdl.teststeps.WsdlTestStep;
@@ -65,10 +66,23 @@ import java.util.UUID;
 public class WsdlTestSuite extends AbstractTestPropertyHolderWsdlModelItem<TestSuiteConfig> implements TestSuite {
     public final static String SETUP_SCRIPT_PROPERTY = WsdlTestSuite.class.getName() + "@setupScript";
     public final static String TEARDOWN_SCRIPT_PROPERTY = WsdlTestSuite.class.getName() + "@tearDownScript";
+    public final static String VIRTUAL_THREADS_PROPERTY = WsdlTestSuite.class.getName() + "@virtual-threads";
     public static final String ICON_NAME = "/test_suite.png";
 
     private final WsdlProject project;
-    private List<WsdlTestCase> testCases = new ArrayList<WsdlTestCase>();
+    private LazyModelItemList<WsdlTestCase, TestCaseConfig> testCases =
+            new LazyModelItemList<WsdlTestCase, TestCaseConfig>() {
+                protected WsdlTestCase build(TestCaseConfig config) {
+                    return buildTestCase(config, false);
+                }
+
+                protected void afterBuild(WsdlTestCase testCase) {
+                    if (testCasesLoaded) {
+                        testCase.afterLoad();
+                    }
+                }
+            };
+    private boolean testCasesLoaded;
     private Set<TestSuiteListener> testSuiteListeners = new HashSet<TestSuiteListener>();
     private Set<TestSuiteRunListener> testSuiteRunListeners = new HashSet<TestSuiteRunListener>();
     private SoapUIScriptEngine setupScriptEngine;
@@ -86,7 +100,11 @@ public class WsdlTestSuite extends AbstractTestPropertyHolderWsdlModelItem<TestS
 
         List<TestCaseConfig> testCaseConfigs = config.getTestCaseList();
         for (int i = 0; i < testCaseConfigs.size(); i++) {
-            testCases.add(buildTestCase(testCaseConfigs.get(i), false));
+            if (project.isLazyModel()) {
+                testCases.addUnbuilt(testCaseConfigs.get(i));
+            } else {
+                testCases.add(buildTestCase(testCaseConfigs.get(i), false));
+            }
         }
 
         if (!config.isSetRunType()) {
@@ -129,6 +147,22 @@ public class WsdlTestSuite extends AbstractTestPropertyHolderWsdlModelItem<TestS
         }
     }
 
+    /**
+     * If TestCases of a parallel run are executed on virtual threads instead of the shared thread pool
+     */
+
+    public boolean getUseVirtualThreads() {
+        return getSettings().getBoolean(VIRTUAL_THREADS_PROPERTY);
+    }
+
+    public void setUseVirtualThreads(boolean useVirtualThreads) {
+        boolean old = getUseVirtualThreads();
+        if (old != useVirtualThreads) {
+            getSettings().setBoolean(VIRTUAL_THREADS_PROPERTY, useVirtualThreads);
+            notifyPropertyChanged(VIRTUAL_THREADS_PROPERTY, old, useVirtualThreads);
+        }
+    }
+
     public WsdlProject getProject() {
         return project;
     }
@@ -141,13 +175,35 @@ public class WsdlTestSuite extends AbstractTestPropertyHolderWsdlModelItem<TestS
         return testCases.get(index);
     }
 
+    /**
+     * Returns the name of the TestCase at the specified index without building it
+     */
+
+    public String getTestCaseNameAt(int index) {
+        return testCases.getNameAt(index);
+    }
+
+    /**
+     * Returns if the TestCase at the specified index is disabled without building it
+     */
+
+    public boolean isTestCaseDisabledAt(int index) {
+        return testCases.getConfig(index).getDisabled();
+    }
+
     public WsdlTestCase getTestCaseByName(String testCaseName) {
-        return (WsdlTestCase) getWsdlModelItemByName(testCases, testCaseName);
+        int ix = testCases.indexOfName(testCaseName);
+        return ix == -1 ? null : testCases.get(ix);
     }
 
     @Override
     public TestCase getTestCaseById(UUID testCaseId) {
-        return (WsdlTestCase) getWsdlModelItemById(testCases, testCaseId);
+        return findTestCaseById(testCaseId.toString());
+    }
+
+    public WsdlTestCase findTestCaseById(String testCaseId) {
+        int ix = testCases.indexOfId(testCaseId);
+        return ix == -1 ? null : testCases.get(ix);
     }
 
     public WsdlTestCase cloneTestCase(WsdlTestCase testCase, String name) {
@@ -326,7 +382,7 @@ public class WsdlTestSuite extends AbstractTestPropertyHolderWsdlModelItem<TestS
     public void release() {
         super.release();
 
-        for (WsdlTestCase testCase : testCases) {
+        for (WsdlTestCase testCase : testCases.getBuiltItems()) {
             testCase.release();
         }
 
@@ -406,7 +462,7 @@ public class WsdlTestSuite extends AbstractTestPropertyHolderWsdlModelItem<TestS
 
         getConfig().setTestCaseArray(configs);
         for (int c = 0; c < configs.length; c++) {
-            testCases.get(c).resetConfigOnMove(getConfig().getTestCaseArray(c));
+            resetTestCaseConfigOnMove(c, getConfig().getTestCaseArray(c));
         }
 
         fireTestCaseMoved(testCase, ix, offset);
@@ -417,10 +473,42 @@ public class WsdlTestSuite extends AbstractTestPropertyHolderWsdlModelItem<TestS
         return testCases.indexOf(testCase);
     }
 
+    private void resetTestCaseConfigOnMove(int index, TestCaseConfig config) {
+        if (testCases.isBuilt(index)) {
+            testCases.get(index).resetConfigOnMove(config);
+        } else {
+            testCases.setUnbuiltConfig(index, config);
+        }
+    }
+
     public List<? extends ModelItem> getChildren() {
         return getTestCaseList();
     }
 
+    /**
+     * TestCases that have not been built yet get their afterLoad when they are built
+     */
+
+    @Override
+    public void afterLoad() {
+        for (WsdlTestCase testCase : testCases.getBuiltItems()) {
+            testCase.afterLoad();
+        }
+
+        testCasesLoaded = true;
+    }
+
+    /**
+     * TestCases that have not been built have not been changed either
+     */
+
+    @Override
+    public void beforeSave() {
+        for (WsdlTestCase testCase : testCases.getBuiltItems()) {
+            testCase.beforeSave();
+        }
+    }
+
     public void setSetupScript(String script) {
         String oldScript = getSetupScript();
 
@@ -685,7 +773,7 @@ public class WsdlTestSuite extends AbstractTestPropertyHolderWsdlModelItem<TestS
 
         List<TestCaseConfig> configs = getConfig().getTestCaseList();
         for (int c = 0; c < configs.size(); c++) {
-            testCases.get(c).resetConfigOnMove(configs.get(c));
+            resetTestCaseConfigOnMove(c, configs.get(c));
         }
 
         setPropertiesConfig(testSuiteConfig.getProperties());
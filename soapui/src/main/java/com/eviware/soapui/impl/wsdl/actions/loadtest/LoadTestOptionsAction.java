@@ -60,6 +60,10 @@ public class LoadTestOptionsAction extends AbstractSoapUIAction<WsdlLoadTest> {
         dialog.setIntValue(SettingsForm.STRATEGY_INTERVAL, (int) loadTest.getStrategyInterval());
         dialog.setBooleanValue(SettingsForm.CANCEL_EXCESSIVE, loadTest.getCancelExcessiveThreads());
         dialog.setBooleanValue(SettingsForm.TESTSTEP_STATISTICS, loadTest.getUpdateStatisticsPerTestStep());
+        dialog.setBooleanValue(SettingsForm.VIRTUAL_THREADS, loadTest.getUseVirtualThreads());
+        dialog.setBooleanValue(SettingsForm.NON_BLOCKING_TRANSPORT, loadTest.getUseNonBlockingTransport());
+        dialog.setBooleanValue(SettingsForm.RUN_SNAPSHOT, loadTest.getUseRunSnapshot());
+        dialog.setBooleanValue(SettingsForm.WRITE_BACK_PROPERTIES, loadTest.getWriteBackProperties());
 
         Settings settings = loadTest.getSettings();
 
@@ -72,6 +76,7 @@ public class LoadTestOptionsAction extends AbstractSoapUIAction<WsdlLoadTest> {
         dialog.setValue(LogForm.LOG_FOLDER, loadTest.getStatisticsLogFolder());
         dialog.setIntValue(LogForm.LOG_INTERVAL, (int) loadTest.getStatisticsLogInterval());
         dialog.setBooleanValue(LogForm.LOG_ON_THREADCOUNT_CHANGE, loadTest.getLogStatisticsOnThreadChange());
+        dialog.setValue(LogForm.SAMPLE_LOG_FILE, loadTest.getSampleLogFile());
 
         if (dialog.show() && !loadTest.isRunning()) {
             try {
@@ -87,6 +92,10 @@ public class LoadTestOptionsAction extends AbstractSoapUIAction<WsdlLoadTest> {
                         WsdlLoadTest.DEFAULT_STRATEGY_INTERVAL));
                 loadTest.setCancelExcessiveThreads(dialog.getBooleanValue(SettingsForm.CANCEL_EXCESSIVE));
                 loadTest.setUpdateStatisticsPerTestStep(dialog.getBooleanValue(SettingsForm.TESTSTEP_STATISTICS));
+                loadTest.setUseVirtualThreads(dialog.getBooleanValue(SettingsForm.VIRTUAL_THREADS));
+                loadTest.setUseNonBlockingTransport(dialog.getBooleanValue(SettingsForm.NON_BLOCKING_TRANSPORT));
+                loadTest.setUseRunSnapshot(dialog.getBooleanValue(SettingsForm.RUN_SNAPSHOT));
+                loadTest.setWriteBackProperties(dialog.getBooleanValue(SettingsForm.WRITE_BACK_PROPERTIES));
 
                 settings.setBoolean(HttpSettings.INCLUDE_REQUEST_IN_TIME_TAKEN,
                         dialog.getBooleanValue(SettingsForm.INCLUDE_REQUEST));
@@ -99,6 +108,7 @@ public class LoadTestOptionsAction extends AbstractSoapUIAction<WsdlLoadTest> {
                 loadTest.setStatisticsLogFolder(dialog.getValue(LogForm.LOG_FOLDER));
                 loadTest.setStatisticsLogInterval(dialog.getIntValue(LogForm.LOG_INTERVAL,
                         (int) loadTest.getStatisticsLogInterval()));
+                loadTest.setSampleLogFile(dialog.getValue(LogForm.SAMPLE_LOG_FILE));
             } catch (NumberFormatException ex) {
                 ex.printStackTrace();
             }
@@ -164,6 +174,18 @@ public class LoadTestOptionsAction extends AbstractSoapUIAction<WsdlLoadTest> {
         @AField(name = "Strategy Interval", description = "LoadTest Strategy application interval in milliseconds", type = AFieldType.INT)
         public final static String STRATEGY_INTERVAL = "Strategy Interval";
 
+        @AField(name = "Virtual Threads", description = "Run each thread as a virtual thread (requires Java 21)", type = AFieldType.BOOLEAN)
+        public final static String VIRTUAL_THREADS = "Virtual Threads";
+
+        @AField(name = "Non-blocking Transport", description = "Send HTTP requests over non-blocking connections, threads are virtual when available", type = AFieldType.BOOLEAN)
+        public final static String NON_BLOCKING_TRANSPORT = "Non-blocking Transport";
+
+        @AField(name = "Run Snapshot", description = "Read settings and properties from a snapshot while running", type = AFieldType.BOOLEAN)
+        public final static String RUN_SNAPSHOT = "Run Snapshot";
+
+        @AField(name = "Write Back Properties", description = "Keep property values changed during a snapshot run", type = AFieldType.BOOLEAN)
+        public final static String WRITE_BACK_PROPERTIES = "Write Back Properties";
+
     }
 
     @AForm(name = "Logging", description = "", helpUrl = HelpUrls.LOADTESTOPTIONS_HELP_URL, icon = UISupport.OPTIONS_ICON_PATH)
@@ -176,5 +198,8 @@ public class LoadTestOptionsAction extends AbstractSoapUIAction<WsdlLoadTest> {
 
         @AField(name = "Log on ThreadCount change", description = "Log every time the number of threads changes", type = AFieldType.BOOLEAN)
         public final static String LOG_ON_THREADCOUNT_CHANGE = "Log on ThreadCount change";
+
+        @AField(name = "Sample Log File", description = "Binary file to record every sample to, empty disables recording", type = AFieldType.FILE)
+        public final static String SAMPLE_LOG_FILE = "Sample Log File";
     }
 }
@@ -0,0 +1,61 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.impl.wsdl.loadtest;
+
+import com.eviware.soapui.config.LoadTestConfig;
+import com.eviware.soapui.config.LoadTestLimitTypesConfig;
+
+/**
+ * Immutable copy of the LoadTest settings read by the load threads, see {@link WsdlLoadTest#getUseRunSnapshot()}
+ */
+
+final class LoadTestRunSnapshot {
+    final long threadCount;
+    final int startDelay;
+    final long testLimit;
+    final LoadTestLimitTypesConfig.Enum limitType;
+    final long historyLimit;
+    final long sampleInterval;
+    final long maxAssertionErrors;
+    final boolean cancelOnReachedLimit;
+    final boolean cancelExcessiveThreads;
+    final boolean resetStatisticsOnThreadCountChange;
+    final boolean calculateTPSOnTimePassed;
+    final boolean logStatisticsOnThreadChange;
+    final long statisticsLogInterval;
+    final int strategyInterval;
+    final boolean updateStatisticsPerTestStep;
+
+    LoadTestRunSnapshot(LoadTestConfig config) {
+        threadCount = config.getThreadCount();
+        startDelay = config.getStartDelay();
+        testLimit = config.getTestLimit();
+        limitType = config.getLimitType();
+        historyLimit = config.getHistoryLimit();
+        sampleInterval = config.getSampleInterval();
+        maxAssertionErrors = config.getMaxAssertionErrors();
+        cancelOnReachedLimit = config.getCancelOnReachedLimit();
+        cancelExcessiveThreads = config.getCancelExcessiveThreads();
+        resetStatisticsOnThreadCountChange = config.getResetStatisticsOnThreadCountChange();
+        calculateTPSOnTimePassed = config.getCalculateTPSOnTimePassed();
+        logStatisticsOnThreadChange = config.getLogStatisticsOnThreadChange();
+        statisticsLogInterval = config.getStatisticsLogInterval();
+        strategyInterval = config.getStrategyInterval();
+        updateStatisticsPerTestStep = config.getUpdateStatisticsPerTestStep();
+    }
+}
@@ -26,6 +26,7 @@ import com.eviware.soapui.impl.wsdl.AbstractWsdlModelItem;
 import com.eviware.soapui.impl.wsdl.loadtest.assertions.AbstractLoadTestAssertion;
 import com.eviware.soapui.impl.wsdl.loadtest.assertions.LoadTestAssertionRegistry;
 import com.eviware.soapui.impl.wsdl.loadtest.data.LoadTestStatistics;
+import com.eviware.soapui.impl.wsdl.loadtest.data.SampleLogWriter;
 import com.eviware.soapui.impl.wsdl.loadtest.log.LoadTestLog;
 import com.eviware.soapui.impl.wsdl.loadtest.log.LoadTestLogErrorEntry;
 import com.eviware.soapui.impl.wsdl.loadtest.strategy.BurstLoadStrategy;
@@ -34,6 +35,7 @@ import com.eviware.soapui.impl.wsdl.loadtest.strategy.LoadStrategyFactory;
 import com.eviware.soapui.impl.wsdl.loadtest.strategy.LoadStrategyRegistry;
 import com.eviware.soapui.impl.wsdl.loadtest.strategy.SimpleLoadStrategy;
 import com.eviware.soapui.impl.wsdl.support.Configurable;
+import com.eviware.soapui.impl.wsdl.support.XmlBeansPropertiesTestPropertyHolder;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCaseRunner;
 import com.eviware.soapui.impl.wsdl.teststeps.SimplePathPropertySupport;
@@ -62,6 +64,7 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Date;
@@ -86,6 +89,13 @@ public class WsdlLoadTest extends AbstractWsdlModelItem<LoadTestConfig> implemen
     public final static String LIMITTYPE_PROPERRY = WsdlLoadTest.class.getName() + "@limittype";
     public final static String SAMPLEINTERVAL_PROPERRY = WsdlLoadTest.class.getName() + "@sample-interval";
     public static final String MAXASSERTIONERRORS_PROPERTY = WsdlLoadTest.class.getName() + "@max-assertion-errors";
+    public final static String VIRTUAL_THREADS_PROPERTY = WsdlLoadTest.class.getName() + "@virtual-threads";
+    public final static String SAMPLE_LOG_FILE_PROPERTY = WsdlLoadTest.class.getName() + "@sample-log-file";
+    public final static String RUN_SNAPSHOT_PROPERTY = WsdlLoadTest.class.getName() + "@run-snapshot";
+    public final static String NON_BLOCKING_TRANSPORT_PROPERTY = WsdlLoadTest.class.getName()
+            + "@non-blocking-transport";
+    public final static String WRITE_BACK_PROPERTIES_PROPERTY = WsdlLoadTest.class.getName()
+            + "@write-back-properties";
     public final static String SETUP_SCRIPT_PROPERTY = WsdlTestCase.class.getName() + "@setupScript";
     public final static String TEARDOWN_SCRIPT_PROPERTY = WsdlTestCase.class.getName() + "@tearDownScript";
 
@@ -108,6 +118,9 @@ public class WsdlLoadTest extends AbstractWsdlModelItem<LoadTestConfig> implemen
     private List<LoadTestLogErrorEntry> assertionErrors = new TreeList();
     private WsdlLoadTestRunner runner;
     private StatisticsLogger statisticsLogger = new StatisticsLogger();
+    private volatile SampleLogWriter sampleLogWriter;
+    private volatile String runSampleLogFile;
+    private volatile LoadTestRunSnapshot runSnapshot;
     private SoapUIScriptEngine setupScriptEngine;
     private SoapUIScriptEngine tearDownScriptEngine;
     @SuppressWarnings("unused")
@@ -212,7 +225,8 @@ public class WsdlLoadTest extends AbstractWsdlModelItem<LoadTestConfig> implemen
     }
 
     public long getThreadCount() {
-        return getConfig().getThreadCount();
+        LoadTestRunSnapshot snapshot = runSnapshot;
+        return snapshot == null ? getConfig().getThreadCount() : snapshot.threadCount;
     }
 
     public void setThreadCount(long threadCount) {
@@ -226,39 +240,148 @@ public class WsdlLoadTest extends AbstractWsdlModelItem<LoadTestConfig> implemen
         }
 
         getConfig().setThreadCount((int) threadCount);
+        refreshRunSnapshot();
         notifyPropertyChanged(THREADCOUNT_PROPERTY, oldCount, threadCount);
     }
 
     public boolean getResetStatisticsOnThreadCountChange() {
-        return getConfig().getResetStatisticsOnThreadCountChange();
+        LoadTestRunSnapshot snapshot = runSnapshot;
+        return snapshot == null ? getConfig().getResetStatisticsOnThreadCountChange()
+                : snapshot.resetStatisticsOnThreadCountChange;
     }
 
     public void setResetStatisticsOnThreadCountChange(boolean value) {
         getConfig().setResetStatisticsOnThreadCountChange(value);
+        refreshRunSnapshot();
+    }
+
+    /**
+     * If each LoadTest thread is run on its own virtual thread instead of the shared thread pool
+     */
+
+    public boolean getUseVirtualThreads() {
+        return getSettings().getBoolean(VIRTUAL_THREADS_PROPERTY);
+    }
+
+    public void setUseVirtualThreads(boolean value) {
+        getSettings().setBoolean(VIRTUAL_THREADS_PROPERTY, value);
+    }
+
+    /**
+     * The binary file every sample is recorded to during a run, may contain property expansions. An empty value
+     * disables recording.
+     */
+
+    public String getSampleLogFile() {
+        return getSettings().getString(SAMPLE_LOG_FILE_PROPERTY, null);
+    }
+
+    public void setSampleLogFile(String value) {
+        getSettings().setString(SAMPLE_LOG_FILE_PROPERTY, value);
+    }
+
+    /**
+     * Overrides the sample log file for the following runs without changing the saved setting, null restores it
+     */
+
+    public void setRunSampleLogFile(String value) {
+        runSampleLogFile = value;
+    }
+
+    /**
+     * If the HTTP requests of this LoadTest are sent over non-blocking connections, see
+     * NonBlockingHttpRequestTransport
+     */
+
+    public boolean getUseNonBlockingTransport() {
+        return getSettings().getBoolean(NON_BLOCKING_TRANSPORT_PROPERTY);
+    }
+
+    public void setUseNonBlockingTransport(boolean value) {
+        getSettings().setBoolean(NON_BLOCKING_TRANSPORT_PROPERTY, value);
+    }
+
+    /**
+     * If the settings of this LoadTest and its TestCase, and the TestCase, TestSuite and Project properties, are
+     * read from immutable snapshots while running instead of from the shared XmlBeans project document
+     */
+
+    public boolean getUseRunSnapshot() {
+        return getSettings().getBoolean(RUN_SNAPSHOT_PROPERTY);
+    }
+
+    public void setUseRunSnapshot(boolean value) {
+        getSettings().setBoolean(RUN_SNAPSHOT_PROPERTY, value);
+    }
+
+    /**
+     * If property values changed during a run with {@link #getUseRunSnapshot()} are kept when the run ends
+     */
+
+    public boolean getWriteBackProperties() {
+        return getSettings().getBoolean(WRITE_BACK_PROPERTIES_PROPERTY);
+    }
+
+    public void setWriteBackProperties(boolean value) {
+        getSettings().setBoolean(WRITE_BACK_PROPERTIES_PROPERTY, value);
+    }
+
+    /**
+     * Starts the snapshots of a run, property values are only kept apart for the threads marked with
+     * {@link XmlBeansPropertiesTestPropertyHolder#setRunScopeOwner(Object)} for the same run
+     *
+     * @param owner the run
+     */
+
+    synchronized void beginRunSnapshot(Object owner) {
+        runSnapshot = new LoadTestRunSnapshot(getConfig());
+        testCase.beginRunSnapshot(owner);
+        testCase.getTestSuite().beginPropertyRunScope(owner);
+        testCase.getTestSuite().getProject().beginPropertyRunScope(owner);
+    }
+
+    synchronized void endRunSnapshot(Object owner) {
+        boolean writeBack = getWriteBackProperties();
+        testCase.getTestSuite().getProject().endPropertyRunScope(owner, writeBack);
+        testCase.getTestSuite().endPropertyRunScope(owner, writeBack);
+        testCase.endRunSnapshot(owner, writeBack);
+        runSnapshot = null;
+    }
+
+    private synchronized void refreshRunSnapshot() {
+        if (runSnapshot != null) {
+            runSnapshot = new LoadTestRunSnapshot(getConfig());
+        }
     }
 
     public boolean getCancelOnReachedLimit() {
-        return getConfig().getCancelOnReachedLimit();
+        LoadTestRunSnapshot snapshot = runSnapshot;
+        return snapshot == null ? getConfig().getCancelOnReachedLimit() : snapshot.cancelOnReachedLimit;
     }
 
     public void setCancelOnReachedLimit(boolean value) {
         getConfig().setCancelOnReachedLimit(value);
+        refreshRunSnapshot();
     }
 
     public boolean getCancelExcessiveThreads() {
-        return getConfig().getCancelExcessiveThreads();
+        LoadTestRunSnapshot snapshot = runSnapshot;
+        return snapshot == null ? getConfig().getCancelExcessiveThreads() : snapshot.cancelExcessiveThreads;
     }
 
     public void setCancelExcessiveThreads(boolean value) {
         getConfig().setCancelExcessiveThreads(value);
+        refreshRunSnapshot();
     }
 
     public boolean getLogStatisticsOnThreadChange() {
-        return getConfig().getLogStatisticsOnThreadChange();
+        LoadTestRunSnapshot snapshot = runSnapshot;
+        return snapshot == null ? getConfig().getLogStatisticsOnThreadChange() : snapshot.logStatisticsOnThreadChange;
     }
 
     public void setLogStatisticsOnThreadChange(boolean value) {
         getConfig().setLogStatisticsOnThreadChange(value);
+        refreshRunSnapshot();
     }
 
     public String getStatisticsLogFolder() {
@@ -270,15 +393,18 @@ public class WsdlLoadTest extends AbstractWsdlModelItem<LoadTestConfig> implemen
     }
 
     public boolean getCalculateTPSOnTimePassed() {
-        return getConfig().getCalculateTPSOnTimePassed();
+        LoadTestRunSnapshot snapshot = runSnapshot;
+        return snapshot == null ? getConfig().getCalculateTPSOnTimePassed() : snapshot.calculateTPSOnTimePassed;
     }
 
     public void setCalculateTPSOnTimePassed(boolean value) {
         getConfig().setCalculateTPSOnTimePassed(value);
+        refreshRunSnapshot();
     }
 
     public int getStartDelay() {
-        return getConfig().getStartDelay();
+        LoadTestRunSnapshot snapshot = runSnapshot;
+        return snapshot == null ? getConfig().getStartDelay() : snapshot.startDelay;
     }
 
     public void setStartDelay(int startDelay) {
@@ -288,16 +414,19 @@ public class WsdlLoadTest extends AbstractWsdlModelItem<LoadTestConfig> implemen
 
         int oldDelay = getStartDelay();
         getConfig().setStartDelay(startDelay);
+        refreshRunSnapshot();
         notifyPropertyChanged(STARTDELAY_PROPERTY, oldDelay, startDelay);
     }
 
     public long getHistoryLimit() {
-        return getConfig().getHistoryLimit();
+        LoadTestRunSnapshot snapshot = runSnapshot;
+        return snapshot == null ? getConfig().getHistoryLimit() : snapshot.historyLimit;
     }
 
     public void setHistoryLimit(long historyLimit) {
         long oldLimit = getHistoryLimit();
         getConfig().setHistoryLimit(historyLimit);
+        refreshRunSnapshot();
         if (historyLimit == 0)
 
         {
@@ -306,7 +435,8 @@ public class WsdlLoadTest extends AbstractWsdlModelItem<LoadTestConfig> implemen
     }
 
     public long getTestLimit() {
-        return getConfig().getTestLimit();
+        LoadTestRunSnapshot snapshot = runSnapshot;
+        return snapshot == null ? getConfig().getTestLimit() : snapshot.testLimit;
     }
 
     public void setTestLimit(long testLimit) {
@@ -316,11 +446,13 @@ public class WsdlLoadTest extends AbstractWsdlModelItem<LoadTestConfig> implemen
 
         long oldLimit = getTestLimit();
         getConfig().setTestLimit(testLimit);
+        refreshRunSnapshot();
         notifyPropertyChanged(TESTLIMIT_PROPERTY, oldLimit, testLimit);
     }
 
     public long getMaxAssertionErrors() {
-        return getConfig().getMaxAssertionErrors();
+        LoadTestRunSnapshot snapshot = runSnapshot;
+        return snapshot == null ? getConfig().getMaxAssertionErrors() : snapshot.maxAssertionErrors;
     }
 
     public void setMaxAssertionErrors(long testLimit) {
@@ -330,11 +462,13 @@ public class WsdlLoadTest extends AbstractWsdlModelItem<LoadTestConfig> implemen
 
         long oldLimit = getMaxAssertionErrors();
         getConfig().setMaxAssertionErrors(testLimit);
+        refreshRunSnapshot();
         notifyPropertyChanged(MAXASSERTIONERRORS_PROPERTY, oldLimit, testLimit);
     }
 
     public long getStatisticsLogInterval() {
-        return getConfig().getStatisticsLogInterval();
+        LoadTestRunSnapshot snapshot = runSnapshot;
+        return snapshot == null ? getConfig().getStatisticsLogInterval() : snapshot.statisticsLogInterval;
     }
 
     public void setStatisticsLogInterval(int sampleInterval) {
@@ -344,6 +478,7 @@ public class WsdlLoadTest extends AbstractWsdlModelItem<LoadTestConfig> implemen
 
         long oldInterval = getStatisticsLogInterval();
         getConfig().setStatisticsLogInterval(sampleInterval);
+        refreshRunSnapshot();
 
         notifyPropertyChanged(SAMPLEINTERVAL_PROPERRY, oldInterval, sampleInterval);
 
@@ -353,7 +488,8 @@ public class WsdlLoadTest extends AbstractWsdlModelItem<LoadTestConfig> implemen
     }
 
     public long getSampleInterval() {
-        return getConfig().getSampleInterval();
+        LoadTestRunSnapshot snapshot = runSnapshot;
+        return snapshot == null ? getConfig().getSampleInterval() : snapshot.sampleInterval;
     }
 
     public void setSampleInterval(int sampleInterval) {
@@ -363,13 +499,15 @@ public class WsdlLoadTest extends AbstractWsdlModelItem<LoadTestConfig> implemen
 
         long oldInterval = getSampleInterval();
         getConfig().setSampleInterval(sampleInterval);
+        refreshRunSnapshot();
 
         statisticsModel.setUpdateFrequency(sampleInterval);
         notifyPropertyChanged(SAMPLEINTERVAL_PROPERRY, oldInterval, sampleInterval);
     }
 
     public Enum getLimitType() {
-        return getConfig().getLimitType();
+        LoadTestRunSnapshot snapshot = runSnapshot;
+        return snapshot == null ? getConfig().getLimitType() : snapshot.limitType;
     }
 
     public void setLimitType(Enum limitType) {
@@ -379,6 +517,7 @@ public class WsdlLoadTest extends AbstractWsdlModelItem<LoadTestConfig> implemen
 
         Enum oldType = getLimitType();
         getConfig().setLimitType(limitType);
+        refreshRunSnapshot();
         notifyPropertyChanged(LIMITTYPE_PROPERRY, oldType, limitType);
     }
 
@@ -406,11 +545,13 @@ public class WsdlLoadTest extends AbstractWsdlModelItem<LoadTestConfig> implemen
         @Override
         public void afterLoadTest(LoadTestRunner loadTestRunner, LoadTestRunContext context) {
             statisticsLogger.finish();
+            closeSampleLog();
         }
 
         @Override
         public void beforeLoadTest(LoadTestRunner loadTestRunner, LoadTestRunContext context) {
             statisticsLogger.init(context);
+            openSampleLog(context);
 
             if (getStatisticsLogInterval() > 0) {
                 statisticsLogger.start();
@@ -424,12 +565,7 @@ public class WsdlLoadTest extends AbstractWsdlModelItem<LoadTestConfig> implemen
                 for (LoadTestAssertion assertion : assertions) {
                     String error = assertion.assertResults(loadTestRunner, context, testRunner, runContext);
                     if (error != null) {
-                        int threadIndex = 0;
-
-                        try {
-                            threadIndex = Integer.parseInt(runContext.getProperty("ThreadIndex").toString());
-                        } catch (Throwable t) {
-                        }
+                        int threadIndex = getThreadIndex(runContext);
 
                         loadTestLog.addEntry(new LoadTestLogErrorEntry(assertion.getName(), error, assertion.getIcon(),
                                 threadIndex));
@@ -442,6 +578,12 @@ public class WsdlLoadTest extends AbstractWsdlModelItem<LoadTestConfig> implemen
         @Override
         public void afterTestStep(LoadTestRunner loadTestRunner, LoadTestRunContext context, TestCaseRunner testRunner,
                                   TestCaseRunContext runContext, TestStepResult result) {
+            SampleLogWriter writer = sampleLogWriter;
+            if (writer != null) {
+                writer.record(result.getTimeStamp(), testRunner.getTestCase().getIndexOfTestStep(result.getTestStep()),
+                        getThreadIndex(runContext), result.getTimeTaken(), result.getSize(), result.getStatus());
+            }
+
             boolean added = false;
 
             if (!assertions.isEmpty()) {
@@ -449,12 +591,7 @@ public class WsdlLoadTest extends AbstractWsdlModelItem<LoadTestConfig> implemen
                     String error = assertion.assertResult(loadTestRunner, context, result, testRunner, runContext);
                     if (error != null) {
                         int indexOfTestStep = testRunner.getTestCase().getIndexOfTestStep(result.getTestStep());
-                        int threadIndex = 0;
-
-                        try {
-                            threadIndex = Integer.parseInt(runContext.getProperty("ThreadIndex").toString());
-                        } catch (Throwable t) {
-                        }
+                        int threadIndex = getThreadIndex(runContext);
 
                         LoadTestLogErrorEntry errorEntry = new LoadTestLogErrorEntry(assertion.getName(), error, result,
                                 assertion.getIcon(), threadIndex);
@@ -660,6 +797,54 @@ public class WsdlLoadTest extends AbstractWsdlModelItem<LoadTestConfig> implemen
         }
     }
 
+    private static int getThreadIndex(TestCaseRunContext runContext) {
+        try {
+            return Integer.parseInt(runContext.getProperty("ThreadIndex").toString());
+        } catch (Throwable t) {
+            return 0;
+        }
+    }
+
+    private void openSampleLog(LoadTestRunContext context) {
+        String sampleLogFile = runSampleLogFile != null ? runSampleLogFile : context.expand(getSampleLogFile());
+        if (StringUtils.isNullOrEmpty(sampleLogFile)) {
+            return;
+        }
+
+        File file = new File(sampleLogFile);
+        File folder = file.getAbsoluteFile().getParentFile();
+        if (folder != null && !folder.exists() && !folder.mkdirs()) {
+            SoapUI.logError(new Exception("Failed to create sample log folder [" + folder + "]"));
+            return;
+        }
+
+        String[] stepNames = new String[testCase.getTestStepCount()];
+        for (int c = 0; c < stepNames.length; c++) {
+            stepNames[c] = testCase.getTestStepAt(c).getName();
+        }
+
+        try {
+            sampleLogWriter = new SampleLogWriter(file, stepNames, System.currentTimeMillis());
+        } catch (IOException e) {
+            SoapUI.logError(e, "Failed to create sample log [" + sampleLogFile + "]");
+        }
+    }
+
+    private void closeSampleLog() {
+        SampleLogWriter writer = sampleLogWriter;
+        if (writer == null) {
+            return;
+        }
+
+        sampleLogWriter = null;
+        try {
+            writer.close();
+            logger.info("Recorded samples to [" + writer.getFile() + "]");
+        } catch (IOException e) {
+            SoapUI.logError(e);
+        }
+    }
+
     public class StatisticsLogger implements Runnable {
         private boolean stopped;
         private List<PrintWriter> writers = new ArrayList<PrintWriter>();
@@ -726,7 +911,7 @@ public class WsdlLoadTest extends AbstractWsdlModelItem<LoadTestConfig> implemen
         }
 
         private void addHeaders(PrintWriter writer) {
-            writer.print("date,threads,elapsed,min,max,avg,last,cnt,tps,bytes,bps,err,reason\n");
+            writer.print("date,threads,elapsed,min,max,avg,last,cnt,tps,bytes,bps,err,rat,p95,p99,p99.9,reason\n");
         }
 
         public void finish() {
@@ -845,19 +1030,23 @@ public class WsdlLoadTest extends AbstractWsdlModelItem<LoadTestConfig> implemen
     }
 
     public int getStrategyInterval() {
-        return getConfig().getStrategyInterval();
+        LoadTestRunSnapshot snapshot = runSnapshot;
+        return snapshot == null ? getConfig().getStrategyInterval() : snapshot.strategyInterval;
     }
 
     public void setStrategyInterval(int interval) {
         getConfig().setStrategyInterval(interval);
+        refreshRunSnapshot();
     }
 
     public boolean getUpdateStatisticsPerTestStep() {
-        return getConfig().getUpdateStatisticsPerTestStep();
+        LoadTestRunSnapshot snapshot = runSnapshot;
+        return snapshot == null ? getConfig().getUpdateStatisticsPerTestStep() : snapshot.updateStatisticsPerTestStep;
     }
 
     public void setUpdateStatisticsPerTestStep(boolean updateStatisticsPerTestStep) {
         getConfig().setUpdateStatisticsPerTestStep(updateStatisticsPerTestStep);
+        refreshRunSnapshot();
     }
 
     public TestRunner run(StringToObjectMap context, boolean async) {
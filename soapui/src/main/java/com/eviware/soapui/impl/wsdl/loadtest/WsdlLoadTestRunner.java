@@ -22,6 +22,11 @@ import com.eviware.soapui.config.LoadTestLimitTypesConfig;
 import com.eviware.soapui.config.SecurityTestConfig;
 import com.eviware.soapui.config.TestCaseConfig;
 import com.eviware.soapui.impl.wsdl.loadtest.log.LoadTestLogMessageEntry;
+import com.eviware.soapui.impl.wsdl.loadtest.strategy.LoadStrategy;
+import com.eviware.soapui.impl.wsdl.loadtest.strategy.ScheduledLoadStrategy;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.NonBlockingHttpRequestTransport;
+import com.eviware.soapui.impl.wsdl.support.TestRunExecutor;
+import com.eviware.soapui.impl.wsdl.support.XmlBeansPropertiesTestPropertyHolder;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCaseRunner;
 import com.eviware.soapui.model.settings.Settings;
@@ -77,6 +82,9 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
     private TestCaseStarter testCaseStarter;
     private boolean stopped;
     private TestCaseConfig blueprintConfig;
+    private volatile boolean runSnapshot;
+    private boolean nonBlockingTransport;
+    private TestRunExecutor executor = TestRunExecutor.getShared();
 
     public WsdlLoadTestRunner(WsdlLoadTest test) {
         this.loadTest = test;
@@ -90,12 +98,21 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
     void start() {
         loadTest.getTestCase().beforeSave();
 
+        runSnapshot = loadTest.getUseRunSnapshot();
+        if (runSnapshot) {
+            loadTest.beginRunSnapshot(this);
+        }
+
         runners.clear();
         runCount = 0;
         threadCount = 0;
         threadsWaitingToStart = 0;
         startedCount = 0;
         context = new WsdlLoadTestContext(this);
+        // waiting for a non-blocking request parks a virtual thread instead of holding a platform thread
+        nonBlockingTransport = loadTest.getUseNonBlockingTransport();
+        executor = TestRunExecutor.create(loadTest.getUseVirtualThreads() || nonBlockingTransport, "LoadTest "
+                + loadTest.getName());
 
         try {
             loadTest.runSetupScript(context, this);
@@ -140,7 +157,7 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
      */
 
     private void startStrategyThread() {
-        new Thread(new Runnable() {
+        Runnable strategyRunnable = new Runnable() {
             public void run() {
                 while (getStatus() == Status.RUNNING) {
                     try {
@@ -157,13 +174,19 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
                     }
                 }
             }
-        }).start();
+        };
+
+        if (executor.isVirtual()) {
+            executor.submit(strategyRunnable);
+        } else {
+            new Thread(strategyRunnable).start();
+        }
     }
 
     private InternalTestCaseRunner startTestCase(WsdlTestCase testCase) {
         InternalTestCaseRunner testCaseRunner = new InternalTestCaseRunner(testCase, threadCount++);
 
-        SoapUI.getThreadPool().submit(testCaseRunner);
+        executor.submit(testCaseRunner);
         runners.add(testCaseRunner);
         return testCaseRunner;
     }
@@ -287,6 +310,20 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
         if (getProgress() >= 1 || status != Status.RUNNING) {
             stop();
         }
+
+        endRunSnapshot();
+    }
+
+    /**
+     * Ends the snapshot once the run has stopped and all its threads have finished, so that late writes of the
+     * threads still go to the values of the run
+     */
+
+    private synchronized void endRunSnapshot() {
+        if (runSnapshot && stopped && runners.isEmpty()) {
+            runSnapshot = false;
+            loadTest.endRunSnapshot(this);
+        }
     }
 
     private synchronized void stop() {
@@ -324,6 +361,11 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
         context.clear();
         stopped = true;
         blueprintConfig = null;
+
+        endRunSnapshot();
+
+        // running threads are allowed to complete
+        executor.shutdown();
     }
 
     public boolean hasStopped() {
@@ -417,7 +459,7 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
 
                 if (status != Status.RUNNING || getProgress() >= 1) {
                     while (!testCases.isEmpty()) {
-                        testCases.remove(0).release();
+                        releaseTestCase(testCases.remove(0));
                     }
 
                     threadsWaitingToStart = 0;
@@ -446,7 +488,7 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
             if (!canceled) {
                 canceled = true;
                 while (!testCases.isEmpty()) {
-                    testCases.remove(0).release();
+                    releaseTestCase(testCases.remove(0));
                 }
 
                 threadsWaitingToStart = 0;
@@ -467,6 +509,7 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
         }
 
         public void run() {
+            Object previousOwner = XmlBeansPropertiesTestPropertyHolder.setRunScopeOwner(WsdlLoadTestRunner.this);
             try {
                 if (System.getProperty("soapui.enablenamedthreads") != null) {
                     Thread.currentThread().setName(
@@ -482,10 +525,20 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
                         runner.getRunContext().setProperty(TestCaseRunContext.RUN_COUNT, runCount);
                         runner.getRunContext().setProperty(TestCaseRunContext.LOAD_TEST_RUNNER, WsdlLoadTestRunner.this);
                         runner.getRunContext().setProperty(TestCaseRunContext.LOAD_TEST_CONTEXT, context);
+                        if (nonBlockingTransport) {
+                            runner.getRunContext().setProperty(NonBlockingHttpRequestTransport.USE_NON_BLOCKING,
+                                    Boolean.TRUE);
+                        }
                         synchronized (this) {
                             runner.getRunContext().setProperty(TestCaseRunContext.TOTAL_RUN_COUNT, startedCount++);
                         }
 
+                        LoadStrategy loadStrategy = loadTest.getLoadStrategy();
+                        if (loadStrategy instanceof ScheduledLoadStrategy && !((ScheduledLoadStrategy) loadStrategy)
+                                .awaitStart(WsdlLoadTestRunner.this, context, runner.getRunContext())) {
+                            break;
+                        }
+
                         runner.run();
                     } catch (Throwable e) {
                         System.err.println("Error running testcase: " + e);
@@ -499,9 +552,15 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
                     }
                 }
             } finally {
-                finishRunner(this);
-                testCase.release();
-                testCase.removeTestRunListener(testRunListener);
+                try {
+                    loadTest.getStatisticsModel().releaseAccumulator();
+                    releaseTestCase(testCase);
+                    testCase.removeTestRunListener(testRunListener);
+                } finally {
+                    // finished last, the run snapshot may end once all runners have finished
+                    XmlBeansPropertiesTestPropertyHolder.setRunScopeOwner(previousOwner);
+                    finishRunner(this);
+                }
             }
         }
 
@@ -537,12 +596,20 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
     }
 
     public synchronized void updateThreadCount() {
+        updateThreadCount(loadTest.getThreadCount());
+    }
+
+    /**
+     * Starts or cancels threads for this run only, without changing the thread count of the LoadTest
+     *
+     * @param newCount the number of threads that should be running
+     */
+
+    public synchronized void updateThreadCount(long newCount) {
         if (status != Status.RUNNING) {
             return;
         }
 
-        long newCount = loadTest.getThreadCount();
-
         // get list of active runners
         Iterator<InternalTestCaseRunner> iterator = runners.iterator();
         List<InternalTestCaseRunner> activeRunners = new ArrayList<InternalTestCaseRunner>();
@@ -625,9 +692,21 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
         // asserting..
         tc.setDiscardOkResults(false);
         tc.setMaxResults(0);
+
+        // the copy has its own document, but its threads still read settings and properties on every step
+        if (runSnapshot) {
+            tc.beginRunSnapshot(this);
+        }
+
         return tc;
     }
 
+    private void releaseTestCase(WsdlTestCase tc) {
+        // property values of a copy are discarded with it, as without a snapshot
+        tc.endRunSnapshot(this, false);
+        tc.release();
+    }
+
     public String getReason() {
         return reason;
     }
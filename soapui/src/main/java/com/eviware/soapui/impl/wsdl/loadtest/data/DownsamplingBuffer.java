@@ -0,0 +1,156 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+/**
+ * Bounded, column-oriented store of long values for LoadTest data that is collected during the whole run.
+ * <p/>
+ * Every column is a primitive array, so rows cost no objects and the memory used is fixed by the capacity. When
+ * the buffer is full it downsamples: every second row is dropped and from then on only every second added row is
+ * kept, which retains the whole run at a coarser resolution.
+ */
+
+public final class DownsamplingBuffer {
+    public enum AddResult {
+        /**
+         * The row was appended after the existing rows
+         */
+        APPENDED,
+        /**
+         * The row was dropped by downsampling
+         */
+        SKIPPED,
+        /**
+         * The row was added and existing rows moved, listeners should reload all rows
+         */
+        SHIFTED
+    }
+
+    private final int capacity;
+    private final long[][] columns;
+    private int count;
+    private int stride = 1;
+    private int pending;
+
+    /**
+     * @param columnCount number of columns
+     * @param capacity    maximum number of rows, at least 2
+     */
+
+    public DownsamplingBuffer(int columnCount, int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2, was " + capacity);
+        }
+
+        this.capacity = capacity;
+
+        columns = new long[columnCount][];
+        for (int c = 0; c < columnCount; c++) {
+            columns[c] = new long[capacity];
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    public synchronized int getRowCount() {
+        return count;
+    }
+
+    /**
+     * Returns the number of added rows represented by each stored row, 1 until downsampling starts
+     */
+
+    public synchronized int getStride() {
+        return stride;
+    }
+
+    public synchronized AddResult add(long[] row) {
+        if (row.length != columns.length) {
+            throw new IllegalArgumentException("Expected " + columns.length + " values, got " + row.length);
+        }
+
+        if (++pending < stride) {
+            return AddResult.SKIPPED;
+        }
+
+        pending = 0;
+        AddResult result = AddResult.APPENDED;
+
+        if (count == capacity) {
+            compact();
+            result = AddResult.SHIFTED;
+        }
+
+        for (int c = 0; c < columns.length; c++) {
+            columns[c][count] = row[c];
+        }
+
+        count++;
+        return result;
+    }
+
+    /**
+     * Keeps every second row and doubles the stride
+     */
+
+    private void compact() {
+        int kept = (count + 1) / 2;
+        for (long[] column : columns) {
+            for (int r = 1; r < kept; r++) {
+                column[r] = column[r * 2];
+            }
+        }
+
+        count = kept;
+        stride *= 2;
+    }
+
+    /**
+     * Returns the value at the specified position, or 0 if the row no longer exists
+     */
+
+    public synchronized long getValue(int row, int column) {
+        if (row < 0 || row >= count) {
+            return 0;
+        }
+
+        return columns[column][row];
+    }
+
+    public synchronized long[] getRow(int row) {
+        long[] result = new long[columns.length];
+        if (row >= 0 && row < count) {
+            for (int c = 0; c < columns.length; c++) {
+                result[c] = columns[c][row];
+            }
+        }
+
+        return result;
+    }
+
+    public synchronized void clear() {
+        count = 0;
+        stride = 1;
+        pending = 0;
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Constant-memory, high dynamic range histogram of millisecond values. Values below 64 are counted exactly,
+ * larger values fall into 64 linear sub-buckets per power of two, which keeps the relative error of reported
+ * percentiles below 1.6% for any value up to {@link #HIGHEST_TRACKABLE_VALUE}. The buckets of a power of two
+ * are only allocated once a value in that range is recorded.
+ * <p>
+ * A histogram has a single writer, normally the load thread owning the {@link StatisticsAccumulator} it
+ * belongs to; other threads may read it and add it to their own histograms at any time.
+ */
+
+public final class LatencyHistogram {
+    private final static int SUB_BUCKET_BITS = 6;
+    private final static int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private final static int MAGNITUDES = 32;
+    private final static int BLOCK_COUNT = MAGNITUDES + 1;
+
+    /**
+     * Larger values are recorded as this value (about 49 days)
+     */
+
+    public final static long HIGHEST_TRACKABLE_VALUE = (1L << (SUB_BUCKET_BITS + MAGNITUDES)) - 1;
+
+    private final AtomicReferenceArray<AtomicLongArray> blocks = new AtomicReferenceArray<AtomicLongArray>(
+            BLOCK_COUNT);
+
+    public void recordValue(long value) {
+        recordValue(value, 1);
+    }
+
+    public void recordValue(long value, long count) {
+        if (count > 0) {
+            addCount(indexFor(value), count);
+        }
+    }
+
+    public long getTotalCount() {
+        long total = 0;
+        for (int b = 0; b < BLOCK_COUNT; b++) {
+            AtomicLongArray block = blocks.get(b);
+            if (block != null) {
+                for (int c = 0; c < SUB_BUCKET_COUNT; c++) {
+                    total += block.get(c);
+                }
+            }
+        }
+
+        return total;
+    }
+
+    /**
+     * Returns the highest value that is equivalent to the value at the given percentile, or 0 if nothing
+     * has been recorded
+     *
+     * @param percentile the percentile, for example 99.9
+     */
+
+    public long getValueAtPercentile(double percentile) {
+        return getValuesAtPercentiles(percentile)[0];
+    }
+
+    /**
+     * Returns the values at several percentiles, walking the buckets only once
+     *
+     * @param percentiles the percentiles in ascending order, for example 95, 99 and 99.9
+     */
+
+    public long[] getValuesAtPercentiles(double... percentiles) {
+        long[] result = new long[percentiles.length];
+        long[] snapshot = new long[BLOCK_COUNT * SUB_BUCKET_COUNT];
+        long total = 0;
+
+        for (int b = 0; b < BLOCK_COUNT; b++) {
+            AtomicLongArray block = blocks.get(b);
+            if (block != null) {
+                for (int c = 0; c < SUB_BUCKET_COUNT; c++) {
+                    snapshot[b * SUB_BUCKET_COUNT + c] = block.get(c);
+                    total += snapshot[b * SUB_BUCKET_COUNT + c];
+                }
+            }
+        }
+
+        if (total == 0) {
+            return result;
+        }
+
+        int p = 0;
+        long sum = 0;
+        for (int c = 0; c < snapshot.length && p < percentiles.length; c++) {
+            sum += snapshot[c];
+            while (p < percentiles.length && sum >= getTargetCount(percentiles[p], total)) {
+                result[p++] = highestValueAt(c);
+            }
+        }
+
+        for (; p < percentiles.length; p++) {
+            result[p] = highestValueAt(snapshot.length - 1);
+        }
+
+        return result;
+    }
+
+    private static long getTargetCount(double percentile, long total) {
+        double p = Math.min(Math.max(percentile, 0), 100);
+        return Math.max(1, (long) Math.ceil((p / 100) * total));
+    }
+
+    public void add(LatencyHistogram other) {
+        for (int b = 0; b < BLOCK_COUNT; b++) {
+            AtomicLongArray block = other.blocks.get(b);
+            if (block != null) {
+                for (int c = 0; c < SUB_BUCKET_COUNT; c++) {
+                    long count = block.get(c);
+                    if (count > 0) {
+                        addCount(b * SUB_BUCKET_COUNT + c, count);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the counts of an earlier state of this histogram, for example to restart percentiles from a
+     * baseline without discarding the recorded values
+     */
+
+    public void subtract(LatencyHistogram baseline) {
+        for (int b = 0; b < BLOCK_COUNT; b++) {
+            AtomicLongArray other = baseline.blocks.get(b);
+            AtomicLongArray block = blocks.get(b);
+            if (other != null && block != null) {
+                for (int c = 0; c < SUB_BUCKET_COUNT; c++) {
+                    block.lazySet(c, Math.max(0, block.get(c) - other.get(c)));
+                }
+            }
+        }
+    }
+
+    public void reset() {
+        for (int b = 0; b < BLOCK_COUNT; b++) {
+            blocks.set(b, null);
+        }
+    }
+
+    private void addCount(int index, long count) {
+        int b = index / SUB_BUCKET_COUNT;
+        AtomicLongArray block = blocks.get(b);
+        if (block == null) {
+            block = new AtomicLongArray(SUB_BUCKET_COUNT);
+            blocks.set(b, block);
+        }
+
+        // single writer, so a plain read followed by an ordered store is enough
+        int c = index % SUB_BUCKET_COUNT;
+        block.lazySet(c, block.get(c) + count);
+    }
+
+    static int indexFor(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return value < 0 ? 0 : (int) value;
+        }
+
+        if (value > HIGHEST_TRACKABLE_VALUE) {
+            value = HIGHEST_TRACKABLE_VALUE;
+        }
+
+        int magnitude = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> magnitude) - SUB_BUCKET_COUNT;
+        return SUB_BUCKET_COUNT * (magnitude + 1) + subBucket;
+    }
+
+    static long highestValueAt(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        int magnitude = index / SUB_BUCKET_COUNT - 1;
+        long subBucket = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << magnitude) - 1;
+    }
+}
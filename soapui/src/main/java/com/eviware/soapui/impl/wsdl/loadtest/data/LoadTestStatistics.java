@@ -37,26 +37,36 @@ import javax.swing.table.AbstractTableModel;
 import java.awt.Color;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
-import java.util.EmptyStackException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Model holding statistics.. should be refactored into interface for different
  * statistic models
+ * <p>
+ * Load threads record their samples into their own {@link StatisticsAccumulator} without any locking, the
+ * Updater merges all accumulators into the table data on every sample interval. The accumulators of finished
+ * load threads are folded into a single one, so only live threads are merged.
  *
  * @author Ole.Matzura
  */
 
-public final class LoadTestStatistics extends AbstractTableModel implements Runnable {
+public final class LoadTestStatistics extends AbstractTableModel {
     public final static String NO_STATS_TESTCASE_CANCEL_REASON = "NO_STATS_TESTCASE_CANCEL_REASON";
+
+    /**
+     * TestCaseRunContext property holding how many milliseconds a run started after its scheduled start,
+     * set by open-model strategies and added to the recorded times to correct for coordinated omission
+     */
+
+    public final static String SCHEDULE_LAG_PROPERTY = "ScheduleLag";
+    private final static String SCHEDULE_LAG_CHARGED_PROPERTY = "ScheduleLagCharged";
     private final static Logger log = Logger.getLogger(LoadTestStatistics.class);
 
     private final WsdlLoadTest loadTest;
-    private long[][] data;
+    private volatile long[][] data;
 
     private final static int MIN_COLUMN = 0;
     private final static int MAX_COLUMN = 1;
@@ -70,10 +80,15 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
     private final static int SUM_COLUMN = 9;
     private final static int CURRENT_CNT_COLUMN = 10;
     private final static int RATIO_COLUMN = 11;
+    private final static int P95_COLUMN = 12;
+    private final static int P99_COLUMN = 13;
+    private final static int P999_COLUMN = 14;
+    private final static int DATA_COLUMNS = 15;
 
     public static final int TOTAL = -1;
 
     public static final int DEFAULT_SAMPLE_INTERVAL = 250;
+    private static final int MIN_UPDATE_INTERVAL = 50;
 
     private InternalTestRunListener testRunListener;
     private InternalTestSuiteListener testSuiteListener;
@@ -81,14 +96,19 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
 
     private StatisticsHistory history;
 
-    private boolean changed;
+    private volatile boolean changed;
     private long updateFrequency = DEFAULT_SAMPLE_INTERVAL;
-    private Queue<SamplesHolder> samplesStack = new ConcurrentLinkedQueue<SamplesHolder>();
-    private long currentThreadCountStartTime;
-    private long totalAverageSum;
-    private boolean resetStatistics;
-    private boolean running;
-    private boolean adding;
+    private final ThreadLocal<StatisticsAccumulator> threadAccumulator = new ThreadLocal<StatisticsAccumulator>();
+    private final List<StatisticsAccumulator> accumulators = new ArrayList<StatisticsAccumulator>();
+    private StatisticsAccumulator finishedThreads;
+    private volatile int generation;
+    private volatile LatencyHistogram[] histograms;
+    private LatencyHistogram[] histogramBaseline;
+    private long[][] baseline;
+    private long mergedUpdates;
+    private volatile long currentThreadCountStartTime;
+    private volatile boolean resetStatistics;
+    private volatile boolean running;
 
     public LoadTestStatistics(WsdlLoadTest loadTest) {
         this.loadTest = loadTest;
@@ -111,8 +131,15 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
         init();
     }
 
-    private void init() {
-        data = new long[getRowCount()][11];
+    private synchronized void init() {
+        generation++;
+        accumulators.clear();
+        data = new long[getRowCount()][DATA_COLUMNS];
+        finishedThreads = new StatisticsAccumulator(data.length - 1, generation);
+        baseline = new long[data.length][DATA_COLUMNS];
+        histograms = createHistograms(data.length);
+        histogramBaseline = createHistograms(data.length);
+        mergedUpdates = 0;
     }
 
     public StatisticsHistory getHistory() {
@@ -128,7 +155,7 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
     }
 
     public int getColumnCount() {
-        return 12;
+        return 15;
     }
 
     public String getColumnName(int columnIndex) {
@@ -157,6 +184,12 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                 return Statistic.ERRORS.getName();
             case 11:
                 return Statistic.ERRORRATIO.getName();
+            case 12:
+                return Statistic.P95.getName();
+            case 13:
+                return Statistic.P99.getName();
+            case 14:
+                return Statistic.P999.getName();
         }
         return null;
     }
@@ -180,6 +213,7 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
     }
 
     public long getStatistic(int stepIndex, Statistic statistic) {
+        long[][] data = this.data;
         if (stepIndex == TOTAL) {
             stepIndex = data.length - 1;
         }
@@ -197,8 +231,46 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
         }
     }
 
+    /**
+     * Returns the time at the specified percentile for a step, calculated from all samples since the last
+     * reset that were merged at the last statistics update
+     *
+     * @param stepIndex  the index of the step or TOTAL
+     * @param percentile the percentile, for example 99.9
+     */
+
+    public long getPercentile(int stepIndex, double percentile) {
+        LatencyHistogram[] histograms = this.histograms;
+        if (stepIndex == TOTAL) {
+            stepIndex = histograms.length - 1;
+        }
+
+        return stepIndex < 0 || stepIndex >= histograms.length ? 0 : histograms[stepIndex]
+                .getValueAtPercentile(percentile);
+    }
+
+    /**
+     * Returns the table column that shows the specified statistic, or -1 for internal statistics
+     */
+
+    public static int getColumnIndex(Statistic statistic) {
+        switch (statistic) {
+            case SUM:
+            case CURRENT_CNT:
+                return -1;
+            case ERRORRATIO:
+            case P95:
+            case P99:
+            case P999:
+                return statistic.getIndex();
+            default:
+                return statistic.getIndex() + 2;
+        }
+    }
+
     public Object getValueAt(int rowIndex, int columnIndex) {
         WsdlTestCase testCase = loadTest.getTestCase();
+        long[][] data = this.data;
 
         switch (columnIndex) {
             case 0:
@@ -218,6 +290,10 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                 return data[rowIndex][Statistic.COUNT.getIndex()] == 0 ? 0
                         : (long) (((float) data[rowIndex][Statistic.ERRORS.getIndex()] / (float) data[rowIndex][Statistic.COUNT
                         .getIndex()]) * 100);
+            case 12:
+            case 13:
+            case 14:
+                return data == null || rowIndex >= data.length ? new Long(0) : new Long(data[rowIndex][columnIndex]);
             default: {
                 return data == null || rowIndex >= data.length ? new Long(0) : new Long(data[rowIndex][columnIndex - 2]);
             }
@@ -226,188 +302,255 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
 
     public void pushSamples(long[] samples, long[] sizes, long[] sampleCounts, long startTime, long timeTaken,
                             boolean complete) {
+        addSamples(getAccumulator(), samples, sizes, sampleCounts, startTime, timeTaken, complete);
+    }
+
+    private void addSamples(StatisticsAccumulator accumulator, long[] samples, long[] sizes, long[] sampleCounts,
+                            long startTime, long timeTaken, boolean complete) {
         if (!running || samples.length == 0 || sizes.length == 0) {
             return;
         }
 
-        samplesStack.add(new SamplesHolder(samples, sizes, sampleCounts, startTime, timeTaken, complete));
-    }
+        // discard "old" results
+        if (startTime < currentThreadCountStartTime) {
+            return;
+        }
+
+        if (samples.length != accumulator.getStepCount() || sizes.length != accumulator.getStepCount()) {
+            throw new RuntimeException("Unexpected number of samples: " + samples.length + ", exptected "
+                    + accumulator.getStepCount());
+        }
 
-    public void run() {
-        Thread.currentThread().setName(loadTest.getName() + " LoadTestStatistics");
+        long endTime = startTime + timeTaken;
+        long runTime = 0;
 
-        while (running || !samplesStack.isEmpty()) {
-            try {
-                while (!samplesStack.isEmpty()) {
-                    SamplesHolder holder = samplesStack.poll();
-                    if (holder != null) {
-                        addSamples(holder);
-                    }
+        for (int c = 0; c < samples.length; c++) {
+            if (sampleCounts[c] > 0) {
+                // only update when appropriate
+                if (complete != loadTest.getUpdateStatisticsPerTestStep()) {
+                    accumulator.addStepSample(c, samples[c], sizes[c], sampleCounts[c], endTime);
                 }
 
-                Thread.sleep(200);
-            } catch (EmptyStackException e) {
-            } catch (Exception e) {
-                SoapUI.logError(e);
+                runTime += samples[c];
             }
         }
-    }
 
-    private synchronized void addSamples(SamplesHolder holder) {
-        if (adding) {
-            throw new RuntimeException("Already adding!");
+        if (complete) {
+            accumulator.addRun(runTime, endTime);
         }
 
-        adding = true;
+        accumulator.commit();
+    }
+
+    /**
+     * Returns the accumulator for the calling load thread, creating and registering it on first use after a
+     * reset
+     */
 
-        int totalIndex = data.length - 1;
-        if (holder.samples.length != totalIndex || holder.sizes.length != totalIndex) {
-            adding = false;
-            throw new RuntimeException("Unexpected number of samples: " + holder.samples.length + ", exptected "
-                    + (totalIndex));
+    private StatisticsAccumulator getAccumulator() {
+        StatisticsAccumulator accumulator = threadAccumulator.get();
+        if (accumulator == null || accumulator.getGeneration() != generation) {
+            synchronized (this) {
+                accumulator = new StatisticsAccumulator(data.length - 1, generation);
+                accumulators.add(accumulator);
+            }
+
+            threadAccumulator.set(accumulator);
         }
 
-        // discard "old" results
-        if (holder.startTime < currentThreadCountStartTime) {
-            adding = false;
+        return accumulator;
+    }
+
+    /**
+     * Folds the accumulator of the calling load thread into the totals of finished threads so it is no longer
+     * merged on every tick; called by each load thread before it ends
+     */
+
+    public void releaseAccumulator() {
+        StatisticsAccumulator accumulator = threadAccumulator.get();
+        if (accumulator == null) {
             return;
         }
 
-        // first check that this is not a
-        long timePassed = (holder.startTime + holder.timeTaken) - currentThreadCountStartTime;
+        threadAccumulator.remove();
+
+        synchronized (this) {
+            if (accumulators.remove(accumulator)) {
+                finishedThreads.fold(accumulator);
+            }
+        }
+    }
+
+    /**
+     * Merges all thread accumulators into a new data table; only called from the Updater, finish and
+     * snapshots, never from the load threads
+     */
+
+    private synchronized void merge() {
+        long[][] result = new long[data.length][DATA_COLUMNS];
+        int totalIndex = result.length - 1;
+        long[] lastTimes = new long[result.length];
+        long endTime = 0;
+        long updates = 0;
+
+        List<StatisticsAccumulator> mergedAccumulators = new ArrayList<StatisticsAccumulator>(accumulators);
+        mergedAccumulators.add(finishedThreads);
+
+        LatencyHistogram[] mergedHistograms = createHistograms(result.length);
+
+        for (StatisticsAccumulator accumulator : mergedAccumulators) {
+            if (accumulator.getStepCount() != totalIndex) {
+                continue;
+            }
+
+            for (int c = 0; c < result.length; c++) {
+                mergedHistograms[c].add(accumulator.getHistogram(c));
+            }
+
+            for (int c = 0; c < totalIndex; c++) {
+                result[c][CNT_COLUMN] += accumulator.getStep(c, StatisticsAccumulator.STEP_CNT);
+                result[c][SUM_COLUMN] += accumulator.getStep(c, StatisticsAccumulator.STEP_SUM);
+                result[c][BYTES_COLUMN] += accumulator.getStep(c, StatisticsAccumulator.STEP_BYTES);
+                result[c][ERR_COLUMN] += accumulator.getStep(c, StatisticsAccumulator.STEP_ERR);
+
+                long min = accumulator.getStep(c, StatisticsAccumulator.STEP_MIN);
+                if (min > 0 && (min < result[c][MIN_COLUMN] || result[c][MIN_COLUMN] == 0)) {
+                    result[c][MIN_COLUMN] = min;
+                }
+
+                result[c][MAX_COLUMN] = Math.max(result[c][MAX_COLUMN],
+                        accumulator.getStep(c, StatisticsAccumulator.STEP_MAX));
+
+                long lastTime = accumulator.getStep(c, StatisticsAccumulator.STEP_LAST_TIME);
+                if (lastTime > lastTimes[c]) {
+                    lastTimes[c] = lastTime;
+                    result[c][LAST_COLUMN] = accumulator.getStep(c, StatisticsAccumulator.STEP_LAST);
+                }
+            }
+
+            result[totalIndex][CNT_COLUMN] += accumulator.getTotal(StatisticsAccumulator.TOTAL_CNT);
+            result[totalIndex][SUM_COLUMN] += accumulator.getTotal(StatisticsAccumulator.TOTAL_SUM);
+            result[totalIndex][ERR_COLUMN] += accumulator.getTotal(StatisticsAccumulator.TOTAL_ERR);
+
+            long lastTime = accumulator.getTotal(StatisticsAccumulator.TOTAL_LAST_TIME);
+            if (lastTime > lastTimes[totalIndex]) {
+                lastTimes[totalIndex] = lastTime;
+                result[totalIndex][LAST_COLUMN] = accumulator.getTotal(StatisticsAccumulator.TOTAL_LAST);
+            }
+
+            endTime = Math.max(endTime, accumulator.getTotal(StatisticsAccumulator.TOTAL_END_TIME));
+            updates += accumulator.getTotal(StatisticsAccumulator.TOTAL_UPDATES);
+        }
 
         if (resetStatistics) {
-            for (int c = 0; c < data.length; c++) {
-                data[c][CURRENT_CNT_COLUMN] = 0;
-                data[c][AVG_COLUMN] = 0;
-                data[c][SUM_COLUMN] = 0;
-                data[c][TPS_COLUMN] = 0;
-                data[c][BYTES_COLUMN] = 0;
+            for (int c = 0; c < result.length; c++) {
+                baseline[c][CNT_COLUMN] = result[c][CNT_COLUMN];
+                baseline[c][SUM_COLUMN] = result[c][SUM_COLUMN];
+                baseline[c][BYTES_COLUMN] = result[c][BYTES_COLUMN];
             }
 
-            totalAverageSum = 0;
+            // the histograms are cumulative too, so keep the merged state as baseline instead of swapping
+            // in new ones that load threads could still miss
+            histogramBaseline = mergedHistograms;
+            mergedHistograms = createHistograms(result.length);
             resetStatistics = false;
+        } else {
+            for (int c = 0; c < result.length; c++) {
+                mergedHistograms[c].subtract(histogramBaseline[c]);
+            }
         }
 
+        long timePassed = endTime - currentThreadCountStartTime;
+        long threadCount = loadTest.getThreadCount();
+        boolean calculateTPSOnTimePassed = loadTest.getCalculateTPSOnTimePassed();
+
         long totalMin = 0;
         long totalMax = 0;
         long totalBytes = 0;
-        long totalAvg = 0;
-        long totalSum = 0;
-        long totalLast = 0;
 
-        long threadCount = loadTest.getThreadCount();
+        for (int c = 0; c < result.length; c++) {
+            long[] row = result[c];
 
-        for (int c = 0; c < holder.samples.length; c++) {
-            if (holder.sampleCounts[c] > 0) {
-                // only update when appropriate
-                if (holder.complete != loadTest.getUpdateStatisticsPerTestStep()) {
-                    long sampleAvg = holder.samples[c] / holder.sampleCounts[c];
-
-                    data[c][LAST_COLUMN] = sampleAvg;
-                    data[c][CNT_COLUMN] += holder.sampleCounts[c];
-                    data[c][CURRENT_CNT_COLUMN] += holder.sampleCounts[c];
-                    data[c][SUM_COLUMN] += holder.samples[c];
-
-                    if (sampleAvg > 0 && (sampleAvg < data[c][MIN_COLUMN] || data[c][MIN_COLUMN] == 0)) {
-                        data[c][MIN_COLUMN] = sampleAvg;
-                    }
-
-                    if (sampleAvg > data[c][MAX_COLUMN]) {
-                        data[c][MAX_COLUMN] = sampleAvg;
-                    }
-
-                    float average = (float) data[c][SUM_COLUMN] / (float) data[c][CURRENT_CNT_COLUMN];
-
-                    data[c][AVG_COLUMN] = (long) (average * 100);
-                    data[c][BYTES_COLUMN] += holder.sizes[c];
-
-                    if (timePassed > 0) {
-                        if (loadTest.getCalculateTPSOnTimePassed()) {
-                            data[c][TPS_COLUMN] = (data[c][CURRENT_CNT_COLUMN] * 100000) / timePassed;
-                            data[c][BPS_COLUMN] = (data[c][BYTES_COLUMN] * 1000) / timePassed;
-                        } else {
-                            data[c][TPS_COLUMN] = (long) (data[c][AVG_COLUMN] > 0 ? (100000F / average) * threadCount : 0);
-
-                            long avgBytes = data[c][CNT_COLUMN] == 0 ? 0 : data[c][BYTES_COLUMN] / data[c][CNT_COLUMN];
-                            data[c][BPS_COLUMN] = (avgBytes * data[c][TPS_COLUMN]) / 100;
-                        }
-                    }
-                }
+            row[CURRENT_CNT_COLUMN] = row[CNT_COLUMN] - baseline[c][CNT_COLUMN];
+            row[SUM_COLUMN] -= baseline[c][SUM_COLUMN];
 
-                totalMin += data[c][MIN_COLUMN] * holder.sampleCounts[c];
-                totalMax += data[c][MAX_COLUMN] * holder.sampleCounts[c];
-                totalBytes += data[c][BYTES_COLUMN] * holder.sampleCounts[c];
-                totalAvg += data[c][AVG_COLUMN] * holder.sampleCounts[c];
-                totalSum += data[c][SUM_COLUMN] * holder.sampleCounts[c];
-                totalLast += data[c][LAST_COLUMN] * holder.sampleCounts[c];
+            if (c == totalIndex) {
+                row[BYTES_COLUMN] = totalBytes;
+                row[MIN_COLUMN] = totalMin;
+                row[MAX_COLUMN] = totalMax;
             } else {
-                totalMin += data[c][MIN_COLUMN];
-                totalMax += data[c][MAX_COLUMN];
-                totalBytes += data[c][BYTES_COLUMN];
+                row[BYTES_COLUMN] -= baseline[c][BYTES_COLUMN];
+                totalMin += row[MIN_COLUMN];
+                totalMax += row[MAX_COLUMN];
+                totalBytes += row[BYTES_COLUMN];
+            }
+
+            if (row[CURRENT_CNT_COLUMN] == 0) {
+                continue;
             }
-        }
 
-        if (holder.complete) {
-            data[totalIndex][CNT_COLUMN]++;
-            data[totalIndex][CURRENT_CNT_COLUMN]++;
+            long[] percentiles = mergedHistograms[c].getValuesAtPercentiles(95, 99, 99.9);
+            row[P95_COLUMN] = percentiles[0];
+            row[P99_COLUMN] = percentiles[1];
+            row[P999_COLUMN] = percentiles[2];
 
-            totalAverageSum += totalLast * 100;
-            data[totalIndex][AVG_COLUMN] = (long) ((float) totalAverageSum / (float) data[totalIndex][CURRENT_CNT_COLUMN]);
-            data[totalIndex][BYTES_COLUMN] = totalBytes;
+            float average = (float) row[SUM_COLUMN] / (float) row[CURRENT_CNT_COLUMN];
+            row[AVG_COLUMN] = (long) (average * 100);
 
             if (timePassed > 0) {
-                if (loadTest.getCalculateTPSOnTimePassed()) {
-                    data[totalIndex][TPS_COLUMN] = (data[totalIndex][CURRENT_CNT_COLUMN] * 100000) / timePassed;
-                    data[totalIndex][BPS_COLUMN] = (data[totalIndex][BYTES_COLUMN] * 1000) / timePassed;
+                if (calculateTPSOnTimePassed) {
+                    row[TPS_COLUMN] = (row[CURRENT_CNT_COLUMN] * 100000) / timePassed;
+                    row[BPS_COLUMN] = (row[BYTES_COLUMN] * 1000) / timePassed;
                 } else {
-                    data[totalIndex][TPS_COLUMN] = (long) (data[totalIndex][AVG_COLUMN] > 0 ? (10000000F / data[totalIndex][AVG_COLUMN])
-                            * threadCount
-                            : 0);
+                    row[TPS_COLUMN] = (long) (row[AVG_COLUMN] > 0 ? (100000F / average) * threadCount : 0);
 
-                    long avgBytes = data[totalIndex][CNT_COLUMN] == 0 ? 0 : data[totalIndex][BYTES_COLUMN]
-                            / data[totalIndex][CNT_COLUMN];
-
-                    data[totalIndex][BPS_COLUMN] = (avgBytes * data[totalIndex][TPS_COLUMN]) / 100;
+                    long avgBytes = row[CNT_COLUMN] == 0 ? 0 : row[BYTES_COLUMN] / row[CNT_COLUMN];
+                    row[BPS_COLUMN] = (avgBytes * row[TPS_COLUMN]) / 100;
                 }
             }
-
-            data[totalIndex][MIN_COLUMN] = totalMin;
-            data[totalIndex][MAX_COLUMN] = totalMax;
-            data[totalIndex][SUM_COLUMN] = totalSum;
-            data[totalIndex][LAST_COLUMN] = totalLast;
         }
 
-        if (updateFrequency == 0) {
-            fireTableDataChanged();
-        } else {
+        histograms = mergedHistograms;
+        data = result;
+
+        if (updates != mergedUpdates) {
+            mergedUpdates = updates;
             changed = true;
         }
+    }
+
+    private static LatencyHistogram[] createHistograms(int rowCount) {
+        LatencyHistogram[] result = new LatencyHistogram[rowCount];
+        for (int c = 0; c < rowCount; c++) {
+            result[c] = new LatencyHistogram();
+        }
 
-        adding = false;
+        return result;
     }
 
     private final class Updater implements Runnable {
         public void run() {
             Thread.currentThread().setName(loadTest.getName() + " LoadTestStatistics Updater");
 
-            // check all these for catching threading issues
-            while (running || changed || !samplesStack.isEmpty()) {
+            while (running) {
+                merge();
+
                 if (changed) {
-                    fireTableDataChanged();
                     changed = false;
-                }
-
-                if (!running && samplesStack.isEmpty()) {
-                    break;
+                    fireTableDataChanged();
                 }
 
                 try {
-                    Thread.sleep(updateFrequency < 1 ? 1000 : updateFrequency);
+                    Thread.sleep(updateFrequency < 1 ? MIN_UPDATE_INTERVAL : updateFrequency);
                 } catch (InterruptedException e) {
                     SoapUI.logError(e);
                 }
             }
+
+            // pick up the samples recorded after the last tick
+            merge();
+            changed = false;
+            fireTableDataChanged();
         }
     }
 
@@ -423,14 +566,10 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
 
     private class InternalTestRunListener extends LoadTestRunListenerAdapter {
         public void beforeLoadTest(LoadTestRunner loadTestRunner, LoadTestRunContext context) {
-            samplesStack.clear();
+            currentThreadCountStartTime = System.currentTimeMillis();
 
             running = true;
             SoapUI.getThreadPool().submit(updater);
-            SoapUI.getThreadPool().submit(LoadTestStatistics.this);
-
-            currentThreadCountStartTime = System.currentTimeMillis();
-            totalAverageSum = 0;
         }
 
         @Override
@@ -444,17 +583,20 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                     return;
                 }
 
-                long[] samples = new long[testCase.getTestStepCount()];
-                long[] sizes = new long[samples.length];
-                long[] sampleCounts = new long[samples.length];
+                if (!running || testRunner.getStartTime() < currentThreadCountStartTime) {
+                    return;
+                }
 
+                StatisticsAccumulator accumulator = getAccumulator();
                 int index = testCase.getIndexOfTestStep(testStepResult.getTestStep());
-                sampleCounts[index]++;
-
-                samples[index] += testStepResult.getTimeTaken();
-                sizes[index] += testStepResult.getSize();
+                if (index < 0 || index >= accumulator.getStepCount()) {
+                    return;
+                }
 
-                pushSamples(samples, sizes, sampleCounts, testRunner.getStartTime(), testRunner.getTimeTaken(), false);
+                long timeTaken = testStepResult.getTimeTaken() + takeStepScheduleLag(runContext);
+                accumulator.addStepSample(index, timeTaken, testStepResult.getSize(), 1,
+                        testRunner.getStartTime() + testRunner.getTimeTaken());
+                accumulator.commit();
             }
         }
 
@@ -465,12 +607,20 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                 return;
             }
 
+            if (!running) {
+                return;
+            }
+
             List<TestStepResult> results = testRunner.getResults();
             TestCase testCase = testRunner.getTestCase();
 
-            long[] samples = new long[testCase.getTestStepCount()];
-            long[] sizes = new long[samples.length];
-            long[] sampleCounts = new long[samples.length];
+            // reuse the per-thread buffers instead of allocating new arrays for every run
+            StatisticsAccumulator accumulator = getAccumulator();
+            accumulator.clearRun();
+
+            long[] samples = accumulator.getRunTimes();
+            long[] sizes = accumulator.getRunSizes();
+            long[] sampleCounts = accumulator.getRunCounts();
 
             for (int c = 0; c < results.size(); c++) {
                 TestStepResult testStepResult = results.get(c);
@@ -480,7 +630,7 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                 }
 
                 int index = testCase.getIndexOfTestStep(testStepResult.getTestStep());
-                if (index >= 0) {
+                if (index >= 0 && index < samples.length) {
                     sampleCounts[index]++;
 
                     samples[index] += testStepResult.getTimeTaken();
@@ -488,13 +638,55 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                 }
             }
 
-            pushSamples(samples, sizes, sampleCounts, testRunner.getStartTime(), testRunner.getTimeTaken(), true);
+            addScheduleLag(runContext, samples, sampleCounts);
+
+            addSamples(accumulator, samples, sizes, sampleCounts, testRunner.getStartTime(), testRunner.getTimeTaken(),
+                    true);
         }
 
         @Override
         public void afterLoadTest(LoadTestRunner loadTestRunner, LoadTestRunContext context) {
             stop();
         }
+
+        /**
+         * A run that started late because the load threads could not keep up is charged with that delay, on
+         * the first executed step; otherwise the slowest periods would be under-represented in the statistics
+         */
+
+        private void addScheduleLag(TestCaseRunContext runContext, long[] samples, long[] sampleCounts) {
+            long lag = getScheduleLag(runContext);
+            if (lag == 0) {
+                return;
+            }
+
+            for (int c = 0; c < samples.length; c++) {
+                if (sampleCounts[c] > 0) {
+                    samples[c] += lag;
+                    break;
+                }
+            }
+        }
+
+        /**
+         * Returns the schedule lag for the first step sample recorded per step of a run, and 0 for the following
+         * ones; the run total still gets the lag in afterTestCase
+         */
+
+        private long takeStepScheduleLag(TestCaseRunContext runContext) {
+            long lag = getScheduleLag(runContext);
+            if (lag == 0 || runContext.getProperty(SCHEDULE_LAG_CHARGED_PROPERTY) != null) {
+                return 0;
+            }
+
+            runContext.setProperty(SCHEDULE_LAG_CHARGED_PROPERTY, Boolean.TRUE);
+            return lag;
+        }
+
+        private long getScheduleLag(TestCaseRunContext runContext) {
+            Object lag = runContext.getProperty(SCHEDULE_LAG_PROPERTY);
+            return lag instanceof Number ? Math.max(((Number) lag).longValue(), 0) : 0;
+        }
     }
 
     public int getStepCount() {
@@ -576,16 +768,12 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
     }
 
     public void addError(int stepIndex) {
-        if (stepIndex != -1) {
-            data[stepIndex][ERR_COLUMN]++;
-        }
-
-        data[data.length - 1][ERR_COLUMN]++;
-        changed = true;
+        getAccumulator().addError(stepIndex);
     }
 
     public synchronized StringList[] getSnapshot() {
-        long[][] clone = data.clone();
+        merge();
+        long[][] clone = data;
 
         StringList[] result = new StringList[getRowCount()];
 
@@ -596,10 +784,18 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                 switch (columnIndex) {
                     case 4:
                     case 7:
-                        values.add(String.valueOf((float) data[c][columnIndex - 2] / 100));
+                        values.add(String.valueOf((float) clone[c][columnIndex - 2] / 100));
+                        break;
+                    case 11:
+                        values.add(String.valueOf(getValueAt(c, columnIndex)));
+                        break;
+                    case 12:
+                    case 13:
+                    case 14:
+                        values.add(String.valueOf(clone[c][columnIndex]));
                         break;
                     default:
-                        values.add(String.valueOf(data[c][columnIndex - 2]));
+                        values.add(String.valueOf(clone[c][columnIndex - 2]));
                 }
             }
 
@@ -623,7 +819,10 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                 "the number of bytes per second returned by this teststep"), ERRORS(ERR_COLUMN, "err",
                 "the total number of assertion errors for this teststep"), SUM(SUM_COLUMN, "sum", "internal sum"), CURRENT_CNT(
                 CURRENT_CNT_COLUMN, "ccnt", "internal cnt"), ERRORRATIO(RATIO_COLUMN, "rat",
-                "the ratio between exections and failures");
+                "the ratio between exections and failures"), P95(P95_COLUMN, "p95",
+                "the 95th percentile of measured teststep times"), P99(P99_COLUMN, "p99",
+                "the 99th percentile of measured teststep times"), P999(P999_COLUMN, "p99.9",
+                "the 99.9th percentile of measured teststep times");
 
         private final String description;
         private final String name;
@@ -654,39 +853,9 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
         }
     }
 
-    /**
-     * Holds all sample values for a testcase run
-     *
-     * @author ole.matzura
-     */
-
-    private static final class SamplesHolder {
-        private final long[] samples;
-        private final long[] sizes;
-        private final long[] sampleCounts;
-
-        private final long startTime;
-        private final long timeTaken;
-        private final boolean complete;
-
-        public SamplesHolder(long[] samples, long[] sizes, long[] sampleCounts, long startTime, long timeTaken,
-                             boolean complete) {
-            this.samples = samples;
-            this.sizes = sizes;
-            this.startTime = startTime;
-            this.timeTaken = timeTaken;
-            this.sampleCounts = sampleCounts;
-            this.complete = complete;
-        }
-    }
-
     public synchronized void finish() {
-        // push leftover samples
-        while (!samplesStack.isEmpty()) {
-            SamplesHolder holder = samplesStack.poll();
-            if (holder != null) {
-                addSamples(holder);
-            }
-        }
+        // merge leftover samples
+        merge();
+        fireTableDataChanged();
     }
 }
@@ -0,0 +1,115 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+/**
+ * Converts a binary sample log written by {@link SampleLogWriter} to CSV with one line per sample
+ */
+
+public class SampleLogCsvConverter {
+    public final static String HEADER = "timestamp,elapsed,step,thread,timeTaken,bytes,status";
+
+    /**
+     * Writes all samples in the specified log to the writer
+     *
+     * @return the number of converted samples
+     */
+
+    public static long convert(File sampleLog, Writer writer) throws IOException {
+        SampleLogReader reader = new SampleLogReader(sampleLog);
+        long count = 0;
+
+        try {
+            long startTime = reader.getStartTime();
+            writer.write(HEADER);
+            writer.write('\n');
+
+            while (reader.next()) {
+                writer.write(String.valueOf(reader.getTimestamp()));
+                writer.write(',');
+                writer.write(String.valueOf(reader.getTimestamp() - startTime));
+                writer.write(',');
+                writeQuoted(writer, reader.getStepName());
+                writer.write(',');
+                writer.write(String.valueOf(reader.getThread()));
+                writer.write(',');
+                writer.write(String.valueOf(reader.getTimeTaken()));
+                writer.write(',');
+                writer.write(String.valueOf(reader.getSize()));
+                writer.write(',');
+                writer.write(String.valueOf(reader.getStatus()));
+                writer.write('\n');
+                count++;
+            }
+
+            writer.flush();
+        } finally {
+            reader.close();
+        }
+
+        return count;
+    }
+
+    public static long convert(File sampleLog, File csvFile) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(csvFile),
+                SampleLogWriter.UTF8));
+        try {
+            return convert(sampleLog, writer);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static void writeQuoted(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+
+        if (value.indexOf(',') == -1 && value.indexOf('"') == -1 && value.indexOf('\n') == -1) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: SampleLogCsvConverter <sample log> [<csv file>]");
+            System.exit(1);
+        }
+
+        File sampleLog = new File(args[0]);
+        if (args.length == 2) {
+            long count = convert(sampleLog, new File(args[1]));
+            System.out.println("Converted " + count + " samples to [" + args[1] + "]");
+        } else {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(System.out, SampleLogWriter.UTF8));
+            convert(sampleLog, writer);
+        }
+    }
+}
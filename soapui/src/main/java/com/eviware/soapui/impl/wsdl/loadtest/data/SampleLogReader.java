@@ -0,0 +1,180 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import com.eviware.soapui.model.testsuite.TestStepResult.TestStepStatus;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads the samples written by a {@link SampleLogWriter}, one at a time, through a small reusable buffer so that
+ * logs of any size can be processed. A partially written last record (for example after a crash) is ignored.
+ */
+
+public class SampleLogReader implements Closeable {
+    private final static int READ_BUFFER_SIZE = 64 * 1024;
+    private final static TestStepStatus[] STATUSES = TestStepStatus.values();
+
+    private final FileChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+    private final long startTime;
+    private final String[] stepNames;
+    private boolean eof;
+
+    private long timestamp;
+    private int step;
+    private int thread;
+    private long timeTaken;
+    private long size;
+    private TestStepStatus status;
+
+    public SampleLogReader(File file) throws IOException {
+        channel = new FileInputStream(file).getChannel();
+        buffer.flip();
+
+        try {
+            if (!fill(4 + 2 + 8 + 4) || buffer.getInt() != SampleLogWriter.MAGIC) {
+                throw new IOException("[" + file + "] is not a sample log");
+            }
+
+            short version = buffer.getShort();
+            if (version != SampleLogWriter.VERSION) {
+                throw new IOException("Unsupported sample log version [" + version + "] in [" + file + "]");
+            }
+
+            startTime = buffer.getLong();
+            stepNames = new String[buffer.getInt()];
+            for (int c = 0; c < stepNames.length; c++) {
+                if (!fill(4)) {
+                    throw new EOFException("Truncated sample log header in [" + file + "]");
+                }
+
+                byte[] name = new byte[buffer.getInt()];
+                if (!fill(name.length)) {
+                    throw new EOFException("Truncated sample log header in [" + file + "]");
+                }
+
+                buffer.get(name);
+                stepNames[c] = new String(name, SampleLogWriter.UTF8);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Makes sure at least count bytes are available in the buffer, returns false at end of file
+     */
+
+    private boolean fill(int count) throws IOException {
+        if (buffer.remaining() >= count) {
+            return true;
+        }
+
+        if (count > buffer.capacity()) {
+            ByteBuffer larger = ByteBuffer.allocate(count);
+            larger.put(buffer);
+            buffer = larger;
+        } else {
+            buffer.compact();
+        }
+
+        while (buffer.position() < count && !eof) {
+            if (channel.read(buffer) < 0) {
+                eof = true;
+            }
+        }
+
+        buffer.flip();
+        return buffer.remaining() >= count;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public String[] getStepNames() {
+        return stepNames.clone();
+    }
+
+    /**
+     * Advances to the next sample
+     *
+     * @return false if there are no more samples
+     */
+
+    public boolean next() throws IOException {
+        if (!fill(SampleLogWriter.RECORD_SIZE)) {
+            return false;
+        }
+
+        timestamp = buffer.getLong();
+        step = buffer.getShort();
+        thread = buffer.getInt();
+        timeTaken = buffer.getInt();
+        size = buffer.getLong();
+
+        int statusIndex = buffer.get();
+        status = statusIndex >= 0 && statusIndex < STATUSES.length ? STATUSES[statusIndex] : null;
+
+        return true;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public int getStep() {
+        return step;
+    }
+
+    /**
+     * Returns the name of the current sample's step, or null if the step index is unknown
+     */
+
+    public String getStepName() {
+        return step >= 0 && step < stepNames.length ? stepNames[step] : null;
+    }
+
+    public int getThread() {
+        return thread;
+    }
+
+    public long getTimeTaken() {
+        return timeTaken;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public TestStepStatus getStatus() {
+        return status;
+    }
+
+    public void close() throws IOException {
+        channel.close();
+    }
+}
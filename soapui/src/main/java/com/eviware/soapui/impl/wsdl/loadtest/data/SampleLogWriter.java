@@ -0,0 +1,326 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import com.eviware.soapui.model.testsuite.TestStepResult.TestStepStatus;
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Appends every LoadTest sample to a compact binary file. Each load thread copies its samples into its own
+ * preallocated ring of primitive arrays without taking a lock; a background thread drains the rings through a direct
+ * buffer into a FileChannel, so load threads never touch the disk or contend with each other and only wait when the
+ * writer falls a full ring behind.
+ * <p>
+ * The file starts with a header (magic, version, start time and the step names) followed by fixed size records,
+ * see {@link SampleLogReader} for reading it back. Records of one thread are written in the order they were recorded,
+ * records of different threads are interleaved in batches.
+ */
+
+public class SampleLogWriter {
+    public final static int MAGIC = 0x53554C47;
+    public final static short VERSION = 1;
+    public final static int RECORD_SIZE = 8 + 2 + 4 + 4 + 8 + 1;
+    public final static String BUFFER_SIZE_PROPERTY = "soapui.loadtest.samplelog.buffer";
+    public final static int DEFAULT_BUFFER_SIZE = 8192;
+    final static Charset UTF8 = Charset.forName("UTF-8");
+
+    private final static Logger log = Logger.getLogger(SampleLogWriter.class);
+    private final static int WRITE_BATCH_SIZE = 4096;
+    private final static long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private final static long FULL_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final File file;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BATCH_SIZE * RECORD_SIZE);
+    private final Thread writerThread;
+
+    private final int ringCapacity;
+    private final List<SampleRing> rings = new CopyOnWriteArrayList<SampleRing>();
+    private final ThreadLocal<SampleRing> threadRing = new ThreadLocal<SampleRing>();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private volatile boolean closed;
+    private volatile boolean stopped;
+
+    public SampleLogWriter(File file, String[] stepNames, long startTime) throws IOException {
+        this(file, stepNames, startTime, getBufferSize());
+    }
+
+    /**
+     * @param bufferSize the number of samples buffered for each recording thread
+     */
+
+    public SampleLogWriter(File file, String[] stepNames, long startTime, int bufferSize) throws IOException {
+        this.file = file;
+        ringCapacity = Math.max(bufferSize, 16);
+
+        channel = new FileOutputStream(file).getChannel();
+        try {
+            writeHeader(stepNames, startTime);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+
+        writerThread = new Thread(new Runnable() {
+            public void run() {
+                drain();
+            }
+        }, "Sample Log Writer [" + file.getName() + "]");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    public static int getBufferSize() {
+        try {
+            return Integer.parseInt(System.getProperty(BUFFER_SIZE_PROPERTY, String.valueOf(DEFAULT_BUFFER_SIZE)));
+        } catch (NumberFormatException e) {
+            return DEFAULT_BUFFER_SIZE;
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    private void writeHeader(String[] stepNames, long startTime) throws IOException {
+        byte[][] names = new byte[stepNames.length][];
+        int headerSize = 4 + 2 + 8 + 4;
+        for (int c = 0; c < stepNames.length; c++) {
+            names[c] = String.valueOf(stepNames[c]).getBytes(UTF8);
+            headerSize += 4 + names[c].length;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(headerSize);
+        header.putInt(MAGIC);
+        header.putShort(VERSION);
+        header.putLong(startTime);
+        header.putInt(names.length);
+        for (byte[] name : names) {
+            header.putInt(name.length);
+            header.put(name);
+        }
+
+        header.flip();
+        writeFully(header);
+    }
+
+    /**
+     * Queues a sample for writing; waits only if the calling thread's ring is full
+     */
+
+    public void record(long timestamp, int step, int thread, long timeTaken, long size, TestStepStatus status) {
+        if (closed) {
+            droppedCount.incrementAndGet();
+            return;
+        }
+
+        SampleRing ring = threadRing.get();
+        if (ring == null) {
+            ring = new SampleRing(ringCapacity);
+            threadRing.set(ring);
+            rings.add(ring);
+        }
+
+        while (!ring.offer(timestamp, step, thread, timeTaken, size, status)) {
+            if (stopped || Thread.currentThread().isInterrupted()) {
+                droppedCount.incrementAndGet();
+                return;
+            }
+
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(this, FULL_WAIT_NANOS);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                // read before draining so that everything recorded before close() is written
+                boolean done = closed;
+
+                buffer.clear();
+                long drained = 0;
+                for (SampleRing ring : rings) {
+                    drained += ring.drainTo(this);
+                    if (ring.isAbandoned()) {
+                        rings.remove(ring);
+                    }
+                }
+                flushBuffer();
+
+                if (drained == 0) {
+                    if (done) {
+                        break;
+                    }
+
+                    LockSupport.parkNanos(this, IDLE_WAIT_NANOS);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Failed to write sample log [" + file + "]", e);
+        } finally {
+            stopped = true;
+            for (SampleRing ring : rings) {
+                droppedCount.addAndGet(ring.discard());
+            }
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (buffer.position() > 0) {
+            buffer.flip();
+            writeFully(buffer);
+            buffer.clear();
+        }
+    }
+
+    private void writeFully(ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            channel.write(data);
+        }
+    }
+
+    /**
+     * Returns the number of samples that could not be written, for example because the log was already closed
+     */
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Writes all queued samples and closes the file
+     */
+
+    public void close() throws IOException {
+        closed = true;
+        LockSupport.unpark(writerThread);
+
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        channel.close();
+
+        long dropped = getDroppedCount();
+        if (dropped > 0) {
+            log.warn("Dropped " + dropped + " samples from sample log [" + file + "]");
+        }
+    }
+
+    /**
+     * Single-producer, single-consumer ring of the samples of one load thread. The owning thread publishes records
+     * by advancing tail, the writer thread releases them by advancing head.
+     */
+
+    private final static class SampleRing {
+        private final Thread owner = Thread.currentThread();
+        private final long[] timestamps;
+        private final short[] steps;
+        private final int[] threads;
+        private final int[] timesTaken;
+        private final long[] sizes;
+        private final byte[] statuses;
+        private final AtomicLong head = new AtomicLong();
+        private final AtomicLong tail = new AtomicLong();
+
+        SampleRing(int capacity) {
+            timestamps = new long[capacity];
+            steps = new short[capacity];
+            threads = new int[capacity];
+            timesTaken = new int[capacity];
+            sizes = new long[capacity];
+            statuses = new byte[capacity];
+        }
+
+        boolean offer(long timestamp, int step, int thread, long timeTaken, long size, TestStepStatus status) {
+            long t = tail.get();
+            if (t - head.get() == timestamps.length) {
+                return false;
+            }
+
+            int index = (int) (t % timestamps.length);
+            timestamps[index] = timestamp;
+            steps[index] = (short) step;
+            threads[index] = thread;
+            timesTaken[index] = (int) Math.min(Math.max(timeTaken, 0), Integer.MAX_VALUE);
+            sizes[index] = size;
+            statuses[index] = (byte) (status == null ? -1 : status.ordinal());
+
+            tail.lazySet(t + 1);
+            return true;
+        }
+
+        /**
+         * Copies all published records into the writer's buffer, writing it out whenever it fills up
+         */
+
+        long drainTo(SampleLogWriter writer) throws IOException {
+            ByteBuffer buffer = writer.buffer;
+            long h = head.get();
+            long end = tail.get();
+
+            for (long c = h; c < end; c++) {
+                if (buffer.remaining() < RECORD_SIZE) {
+                    head.lazySet(c);
+                    writer.flushBuffer();
+                }
+
+                int index = (int) (c % timestamps.length);
+                buffer.putLong(timestamps[index]);
+                buffer.putShort(steps[index]);
+                buffer.putInt(threads[index]);
+                buffer.putInt(timesTaken[index]);
+                buffer.putLong(sizes[index]);
+                buffer.put(statuses[index]);
+            }
+
+            head.lazySet(end);
+            return end - h;
+        }
+
+        /**
+         * True if the owning thread has ended and all its records were drained
+         */
+
+        boolean isAbandoned() {
+            return !owner.isAlive() && head.get() == tail.get();
+        }
+
+        long discard() {
+            long end = tail.get();
+            long count = end - head.get();
+            head.lazySet(end);
+            return count;
+        }
+    }
+}
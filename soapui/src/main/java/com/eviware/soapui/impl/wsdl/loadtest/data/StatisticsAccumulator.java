@@ -0,0 +1,242 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cumulative LoadTest statistics recorded by a single load thread. Only the owning thread writes, so updates
+ * are plain ordered stores without locking or CAS; the LoadTestStatistics Updater reads all accumulators and
+ * merges them into the table model on each tick, similar to how a LongAdder sums its cells.
+ */
+
+public final class StatisticsAccumulator {
+    final static int STEP_CNT = 0;
+    final static int STEP_SUM = 1;
+    final static int STEP_MIN = 2;
+    final static int STEP_MAX = 3;
+    final static int STEP_LAST = 4;
+    final static int STEP_LAST_TIME = 5;
+    final static int STEP_BYTES = 6;
+    final static int STEP_ERR = 7;
+    final static int STEP_FIELDS = 8;
+
+    final static int TOTAL_CNT = 0;
+    final static int TOTAL_SUM = 1;
+    final static int TOTAL_LAST = 2;
+    final static int TOTAL_LAST_TIME = 3;
+    final static int TOTAL_ERR = 4;
+    final static int TOTAL_END_TIME = 5;
+    final static int TOTAL_UPDATES = 6;
+    final static int TOTAL_FIELDS = 7;
+
+    private final int stepCount;
+    private final int generation;
+    private final int totalOffset;
+    private final AtomicLongArray values;
+    private final LatencyHistogram[] histograms;
+
+    // per-run scratch buffers, only touched by the owning thread
+    private final long[] runTimes;
+    private final long[] runSizes;
+    private final long[] runCounts;
+
+    StatisticsAccumulator(int stepCount, int generation) {
+        this.stepCount = stepCount;
+        this.generation = generation;
+        this.totalOffset = stepCount * STEP_FIELDS;
+        this.values = new AtomicLongArray(totalOffset + TOTAL_FIELDS);
+
+        histograms = new LatencyHistogram[stepCount + 1];
+        for (int c = 0; c < histograms.length; c++) {
+            histograms[c] = new LatencyHistogram();
+        }
+
+        runTimes = new long[stepCount];
+        runSizes = new long[stepCount];
+        runCounts = new long[stepCount];
+    }
+
+    public int getStepCount() {
+        return stepCount;
+    }
+
+    int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Adds the samples of one step for a single run; min/max/last are based on the average time of the
+     * step in that run, as it may have been executed several times
+     */
+
+    void addStepSample(int stepIndex, long timeSum, long size, long count, long endTime) {
+        if (stepIndex < 0 || stepIndex >= stepCount || count <= 0) {
+            return;
+        }
+
+        int offset = stepIndex * STEP_FIELDS;
+        long timeTaken = timeSum / count;
+
+        add(offset + STEP_CNT, count);
+        add(offset + STEP_SUM, timeSum);
+        add(offset + STEP_BYTES, size);
+
+        long min = values.get(offset + STEP_MIN);
+        if (timeTaken > 0 && (timeTaken < min || min == 0)) {
+            values.lazySet(offset + STEP_MIN, timeTaken);
+        }
+
+        if (timeTaken > values.get(offset + STEP_MAX)) {
+            values.lazySet(offset + STEP_MAX, timeTaken);
+        }
+
+        values.lazySet(offset + STEP_LAST, timeTaken);
+        values.lazySet(offset + STEP_LAST_TIME, endTime);
+        updateEndTime(endTime);
+
+        histograms[stepIndex].recordValue(timeTaken, count);
+    }
+
+    /**
+     * Adds a completed TestCase run with the summed step times of that run
+     */
+
+    void addRun(long runTime, long endTime) {
+        add(totalOffset + TOTAL_CNT, 1);
+        add(totalOffset + TOTAL_SUM, runTime);
+        values.lazySet(totalOffset + TOTAL_LAST, runTime);
+        values.lazySet(totalOffset + TOTAL_LAST_TIME, endTime);
+        updateEndTime(endTime);
+
+        histograms[stepCount].recordValue(runTime);
+    }
+
+    void addError(int stepIndex) {
+        if (stepIndex >= 0 && stepIndex < stepCount) {
+            add(stepIndex * STEP_FIELDS + STEP_ERR, 1);
+        }
+
+        add(totalOffset + TOTAL_ERR, 1);
+        add(totalOffset + TOTAL_UPDATES, 1);
+    }
+
+    /**
+     * Marks the end of a recording so the merger knows something has changed
+     */
+
+    void commit() {
+        add(totalOffset + TOTAL_UPDATES, 1);
+    }
+
+    /**
+     * Adds the values of the accumulator of a finished load thread to this one, which must not be written by
+     * any load thread
+     */
+
+    void fold(StatisticsAccumulator other) {
+        if (other.stepCount != stepCount) {
+            return;
+        }
+
+        for (int c = 0; c < stepCount; c++) {
+            int offset = c * STEP_FIELDS;
+
+            add(offset + STEP_CNT, other.getStep(c, STEP_CNT));
+            add(offset + STEP_SUM, other.getStep(c, STEP_SUM));
+            add(offset + STEP_BYTES, other.getStep(c, STEP_BYTES));
+            add(offset + STEP_ERR, other.getStep(c, STEP_ERR));
+
+            long min = other.getStep(c, STEP_MIN);
+            if (min > 0 && (min < values.get(offset + STEP_MIN) || values.get(offset + STEP_MIN) == 0)) {
+                values.lazySet(offset + STEP_MIN, min);
+            }
+
+            if (other.getStep(c, STEP_MAX) > values.get(offset + STEP_MAX)) {
+                values.lazySet(offset + STEP_MAX, other.getStep(c, STEP_MAX));
+            }
+
+            if (other.getStep(c, STEP_LAST_TIME) > values.get(offset + STEP_LAST_TIME)) {
+                values.lazySet(offset + STEP_LAST, other.getStep(c, STEP_LAST));
+                values.lazySet(offset + STEP_LAST_TIME, other.getStep(c, STEP_LAST_TIME));
+            }
+        }
+
+        add(totalOffset + TOTAL_CNT, other.getTotal(TOTAL_CNT));
+        add(totalOffset + TOTAL_SUM, other.getTotal(TOTAL_SUM));
+        add(totalOffset + TOTAL_ERR, other.getTotal(TOTAL_ERR));
+        add(totalOffset + TOTAL_UPDATES, other.getTotal(TOTAL_UPDATES));
+
+        if (other.getTotal(TOTAL_LAST_TIME) > getTotal(TOTAL_LAST_TIME)) {
+            values.lazySet(totalOffset + TOTAL_LAST, other.getTotal(TOTAL_LAST));
+            values.lazySet(totalOffset + TOTAL_LAST_TIME, other.getTotal(TOTAL_LAST_TIME));
+        }
+
+        updateEndTime(other.getTotal(TOTAL_END_TIME));
+
+        for (int c = 0; c < histograms.length; c++) {
+            histograms[c].add(other.histograms[c]);
+        }
+    }
+
+    long getStep(int stepIndex, int field) {
+        return values.get(stepIndex * STEP_FIELDS + field);
+    }
+
+    long getTotal(int field) {
+        return values.get(totalOffset + field);
+    }
+
+    /**
+     * Returns the step time histogram of a step, or of complete runs for the index after the last step
+     */
+
+    LatencyHistogram getHistogram(int index) {
+        return histograms[index];
+    }
+
+    long[] getRunTimes() {
+        return runTimes;
+    }
+
+    long[] getRunSizes() {
+        return runSizes;
+    }
+
+    long[] getRunCounts() {
+        return runCounts;
+    }
+
+    void clearRun() {
+        for (int c = 0; c < stepCount; c++) {
+            runTimes[c] = 0;
+            runSizes[c] = 0;
+            runCounts[c] = 0;
+        }
+    }
+
+    private void updateEndTime(long endTime) {
+        if (endTime > values.get(totalOffset + TOTAL_END_TIME)) {
+            values.lazySet(totalOffset + TOTAL_END_TIME, endTime);
+        }
+    }
+
+    private void add(int index, long delta) {
+        // single writer, so a plain read followed by an ordered store is enough
+        values.lazySet(index, values.get(index) + delta);
+    }
+}
@@ -27,22 +27,27 @@ import org.apache.log4j.Logger;
 import javax.swing.event.TableModelEvent;
 import javax.swing.event.TableModelListener;
 import javax.swing.table.AbstractTableModel;
-import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
- * Collector of statistics to be exposed as TableModels
+ * Collector of statistics to be exposed as TableModels. Snapshots are kept in a DownsamplingBuffer
+ * with the thread count in the first column followed by the statistic values of each row of the statistics table,
+ * so long-running LoadTests use a fixed amount of memory. The number of snapshots is limited by a positive
+ * history limit of the LoadTest, or the soapui.loadtest.history.size system property.
  *
  * @author Ole.Matzura
  */
 
 public class StatisticsHistory {
+    private final static int DEFAULT_HISTORY_SIZE = 10000;
+
     private final LoadTestStatistics statistics;
-    private List<long[][]> data = new ArrayList<long[][]>();
-    private List<Long> threadCounts = new ArrayList<Long>();
+    private DownsamplingBuffer data;
+    private int statisticsRowCount;
+    private int valueCount;
+    private long[] row;
     private Map<Integer, TestStepStatisticsHistory> testStepStatisticHistories = new HashMap<Integer, TestStepStatisticsHistory>();
     private EnumMap<Statistic, StatisticsValueHistory> statisticsValueHistories = new EnumMap<Statistic, StatisticsValueHistory>(
             Statistic.class);
@@ -86,15 +91,44 @@ public class StatisticsHistory {
     }
 
     public int getRowCount() {
-        return data.size();
+        return data == null ? 0 : data.getRowCount();
     }
 
-    public long[][] getHistoryAt(int index) {
-        return data.get(index);
+    public synchronized long[][] getHistoryAt(int index) {
+        long[][] result = new long[statisticsRowCount][valueCount];
+        if (data != null) {
+            long[] values = data.getRow(index);
+            for (int c = 0; c < statisticsRowCount; c++) {
+                System.arraycopy(values, 1 + c * valueCount, result[c], 0, valueCount);
+            }
+        }
+
+        return result;
     }
 
     public long getThreadCountAt(int index) {
-        return threadCounts.get(index);
+        return data == null ? 0 : data.getValue(index, 0);
+    }
+
+    private synchronized long getValueAt(int index, int statisticsRow, int valueIndex) {
+        if (data == null || statisticsRow >= statisticsRowCount || valueIndex < 0 || valueIndex >= valueCount) {
+            return 0;
+        }
+
+        return data.getValue(index, 1 + statisticsRow * valueCount + valueIndex);
+    }
+
+    private int getHistorySize() {
+        long historyLimit = statistics.getLoadTest().getHistoryLimit();
+        if (historyLimit > 1) {
+            return (int) Math.min(historyLimit, Integer.MAX_VALUE);
+        }
+
+        try {
+            return Math.max(2, Integer.parseInt(System.getProperty("soapui.loadtest.history.size")));
+        } catch (Exception e) {
+            return DEFAULT_HISTORY_SIZE;
+        }
     }
 
     public StatisticsHistoryModel getTestStepHistory(int testStepIndex) {
@@ -114,8 +148,9 @@ public class StatisticsHistory {
     }
 
     public void reset() {
-        data.clear();
-        threadCounts.clear();
+        if (data != null) {
+            data.clear();
+        }
 
         for (StatisticsValueHistory history : statisticsValueHistories.values()) {
             history.fireTableDataChanged();
@@ -135,29 +170,47 @@ public class StatisticsHistory {
             int columnCount = statistics.getColumnCount();
             int rowCount = statistics.getRowCount();
 
-            long[][] values = new long[rowCount][columnCount - 2];
+            // the layout of a row depends on the shape of the statistics table, start over if it has changed
+            if (data == null || rowCount != statisticsRowCount || columnCount - 2 != valueCount) {
+                statisticsRowCount = rowCount;
+                valueCount = columnCount - 2;
+                data = new DownsamplingBuffer(1 + rowCount * valueCount, getHistorySize());
+                row = new long[data.getColumnCount()];
+            }
 
+            row[0] = statistics.getLoadTest().getThreadCount();
             for (int c = 0; c < rowCount; c++) {
                 for (int i = 2; i < columnCount; i++) {
+                    int index = 1 + c * valueCount + i - 2;
                     try {
-                        values[c][i - 2] = Long.parseLong(statistics.getValueAt(c, i).toString());
+                        row[index] = Long.parseLong(statistics.getValueAt(c, i).toString());
                     } catch (NumberFormatException ex) {
-                        values[c][i - 2] = (long) Float.parseFloat(statistics.getValueAt(c, i).toString());
+                        row[index] = (long) Float.parseFloat(statistics.getValueAt(c, i).toString());
                     }
                 }
             }
 
-            data.add(values);
-            threadCounts.add(statistics.getLoadTest().getThreadCount());
+            DownsamplingBuffer.AddResult result = data.add(row);
+            if (result == DownsamplingBuffer.AddResult.SKIPPED) {
+                return;
+            }
 
             // notify!
-            int sz = data.size() - 1;
+            int sz = data.getRowCount() - 1;
             for (StatisticsValueHistory history : statisticsValueHistories.values()) {
-                history.fireTableRowsInserted(sz, sz);
+                if (result == DownsamplingBuffer.AddResult.SHIFTED) {
+                    history.fireTableDataChanged();
+                } else {
+                    history.fireTableRowsInserted(sz, sz);
+                }
             }
 
             for (TestStepStatisticsHistory history : testStepStatisticHistories.values()) {
-                history.fireTableRowsInserted(sz, sz);
+                if (result == DownsamplingBuffer.AddResult.SHIFTED) {
+                    history.fireTableDataChanged();
+                } else {
+                    history.fireTableRowsInserted(sz, sz);
+                }
             }
         }
     }
@@ -178,7 +231,7 @@ public class StatisticsHistory {
         }
 
         public int getRowCount() {
-            return data.size();
+            return StatisticsHistory.this.getRowCount();
         }
 
         public int getColumnCount() {
@@ -187,15 +240,11 @@ public class StatisticsHistory {
 
         public Object getValueAt(int rowIndex, int columnIndex) {
             if (columnIndex == 0) {
-                return threadCounts.get(rowIndex);
+                return getThreadCountAt(rowIndex);
             }
 
-            // tolerance..
-            if (rowIndex < data.size()) {
-                return data.get(rowIndex)[testStepIndex][columnIndex - 1];
-            } else {
-                return new Long(0);
-            }
+            // rows that have been downsampled or no longer exist read as 0
+            return StatisticsHistory.this.getValueAt(rowIndex, testStepIndex, columnIndex - 1);
         }
 
         public Class<?> getColumnClass(int columnIndex) {
@@ -203,7 +252,7 @@ public class StatisticsHistory {
         }
 
         public String getColumnName(int column) {
-            return column == 0 ? "ThreadCount" : Statistic.forIndex(column - 1).getName();
+            return column == 0 ? "ThreadCount" : statistics.getColumnName(column + 1);
         }
 
         public void release() {
@@ -213,9 +262,13 @@ public class StatisticsHistory {
 
     private class StatisticsValueHistory extends StatisticsHistoryModel {
         private final Statistic statistic;
+        private final int valueIndex;
 
         public StatisticsValueHistory(Statistic statistic) {
             this.statistic = statistic;
+
+            // history rows hold the values of the statistics table columns, statistics without a column read as 0
+            valueIndex = LoadTestStatistics.getColumnIndex(statistic) - 2;
         }
 
         @SuppressWarnings("unused")
@@ -224,7 +277,7 @@ public class StatisticsHistory {
         }
 
         public int getRowCount() {
-            return data.size();
+            return StatisticsHistory.this.getRowCount();
         }
 
         public int getColumnCount() {
@@ -233,10 +286,10 @@ public class StatisticsHistory {
 
         public Object getValueAt(int rowIndex, int columnIndex) {
             if (columnIndex == 0) {
-                return threadCounts.get(rowIndex);
+                return getThreadCountAt(rowIndex);
             }
 
-            return data.get(rowIndex)[columnIndex - 1][statistic.getIndex()];
+            return StatisticsHistory.this.getValueAt(rowIndex, columnIndex - 1, valueIndex);
         }
 
         public Class<?> getColumnClass(int columnIndex) {
@@ -0,0 +1,296 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.impl.wsdl.loadtest.strategy;
+
+import com.eviware.soapui.impl.wsdl.loadtest.WsdlLoadTest;
+import com.eviware.soapui.impl.wsdl.loadtest.WsdlLoadTestRunner;
+import com.eviware.soapui.impl.wsdl.loadtest.data.LoadTestStatistics;
+import com.eviware.soapui.model.testsuite.LoadTestRunContext;
+import com.eviware.soapui.model.testsuite.LoadTestRunner;
+import com.eviware.soapui.model.testsuite.TestCaseRunContext;
+import com.eviware.soapui.model.testsuite.TestRunner.Status;
+import com.eviware.soapui.support.UISupport;
+import com.eviware.soapui.support.swing.ComponentBag;
+import com.eviware.soapui.support.xml.XmlObjectConfigurationBuilder;
+import com.eviware.soapui.support.xml.XmlObjectConfigurationReader;
+import com.jgoodies.forms.builder.ButtonBarBuilder;
+import org.apache.log4j.Logger;
+import org.apache.xmlbeans.XmlObject;
+
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JSpinner;
+import javax.swing.SpinnerNumberModel;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+/**
+ * Open-model LoadStrategy starting TestCases at a constant arrival rate, independent of how fast earlier runs
+ * complete. Start times are handed out from a shared {@link ArrivalSchedule}; a run that starts after its scheduled
+ * time is charged with the delay in the statistics (see {@link LoadTestStatistics#SCHEDULE_LAG_PROPERTY}) and
+ * additional threads are started, up to the configured maximum, while the schedule is falling behind.
+ * <p>
+ * The added threads only exist for the current run, the thread count of the LoadTest is not changed.
+ */
+
+public class ArrivalRateLoadStrategy extends AbstractLoadStrategy implements ScheduledLoadStrategy {
+    private final static Logger log = Logger.getLogger(ArrivalRateLoadStrategy.class);
+
+    private static final int DEFAULT_START_RATE = 10;
+    private static final int DEFAULT_END_RATE = 10;
+    private static final int DEFAULT_MAX_THREADS = 100;
+    private static final long MAX_SLEEP = 100;
+    public static final String STRATEGY_TYPE = "Rate";
+
+    private int startRate = DEFAULT_START_RATE;
+    private int endRate = DEFAULT_END_RATE;
+    private int maxThreads = DEFAULT_MAX_THREADS;
+
+    private volatile ArrivalSchedule schedule;
+    private long runThreadCount;
+
+    private JPanel configPanel;
+    private JLabel infoLabel;
+    private ComponentBag stateDependantComponents = new ComponentBag();
+
+    private SpinnerNumberModel startRateSpinnerNumberModel;
+    private SpinnerNumberModel endRateSpinnerNumberModel;
+    private SpinnerNumberModel maxThreadsSpinnerNumberModel;
+
+    public ArrivalRateLoadStrategy(XmlObject config, WsdlLoadTest loadTest) {
+        super(STRATEGY_TYPE, loadTest);
+
+        if (config != null) {
+            XmlObjectConfigurationReader reader = new XmlObjectConfigurationReader(config);
+            startRate = reader.readInt("startRate", DEFAULT_START_RATE);
+            endRate = reader.readInt("endRate", DEFAULT_END_RATE);
+            maxThreads = reader.readInt("maxThreads", DEFAULT_MAX_THREADS);
+        }
+    }
+
+    public XmlObject getConfig() {
+        XmlObjectConfigurationBuilder builder = new XmlObjectConfigurationBuilder();
+        builder.add("startRate", startRate);
+        builder.add("endRate", endRate);
+        builder.add("maxThreads", maxThreads);
+        return builder.finish();
+    }
+
+    public void beforeLoadTest(LoadTestRunner loadTestRunner, LoadTestRunContext context) {
+        super.beforeLoadTest(loadTestRunner, context);
+        stateDependantComponents.setEnabled(false);
+
+        synchronized (this) {
+            runThreadCount = ((WsdlLoadTest) loadTestRunner.getLoadTest()).getThreadCount();
+        }
+
+        schedule = new ArrivalSchedule(System.nanoTime());
+    }
+
+    public void afterLoadTest(LoadTestRunner loadTestRunner, LoadTestRunContext context) {
+        stateDependantComponents.setEnabled(true);
+        if (infoLabel != null) {
+            infoLabel.setText("");
+        }
+    }
+
+    public boolean allowThreadCountChangeDuringRun() {
+        return false;
+    }
+
+    /**
+     * Claims the next start time from the shared schedule and waits for it before the run is started, recording
+     * how late the run actually started
+     */
+
+    public boolean awaitStart(LoadTestRunner loadTestRunner, LoadTestRunContext context,
+                              TestCaseRunContext runContext) {
+        ArrivalSchedule schedule = this.schedule;
+        if (schedule == null) {
+            return true;
+        }
+
+        long scheduledTime = schedule.claimStartTime(getCurrentRate((WsdlLoadTestRunner) loadTestRunner));
+
+        try {
+            long delay = scheduledTime - System.nanoTime();
+            while (delay > 0) {
+                if (loadTestRunner.getStatus() != Status.RUNNING) {
+                    return false;
+                }
+
+                long millis = delay / 1000000;
+                Thread.sleep(Math.min(millis, MAX_SLEEP), millis < MAX_SLEEP ? (int) (delay % 1000000) : 0);
+                delay = scheduledTime - System.nanoTime();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        long lag = (System.nanoTime() - scheduledTime) / 1000000;
+        runContext.setProperty(LoadTestStatistics.SCHEDULE_LAG_PROPERTY, lag);
+        return true;
+    }
+
+    private double getCurrentRate(WsdlLoadTestRunner runner) {
+        return ArrivalSchedule.getRate(startRate, endRate, runner.getProgress());
+    }
+
+    /**
+     * Adds threads when the schedule has fallen behind, which means all current threads are busy
+     */
+
+    @Override
+    public void recalculate(LoadTestRunner loadTestRunner, LoadTestRunContext context) {
+        if (loadTestRunner.getStatus() != Status.RUNNING) {
+            return;
+        }
+
+        ArrivalSchedule schedule = this.schedule;
+        if (schedule == null) {
+            return;
+        }
+
+        WsdlLoadTestRunner runner = (WsdlLoadTestRunner) loadTestRunner;
+        double rate = getCurrentRate(runner);
+
+        long now = System.nanoTime();
+        long behind = schedule.getBehind(now);
+
+        if (infoLabel != null) {
+            infoLabel.setText(behind > 0 ? ((int) rate) + "/s, " + (behind / 1000000) + "ms behind" : ((int) rate)
+                    + "/s");
+        }
+
+        long missed = schedule.getMissedStarts(now, rate);
+        if (missed > 0) {
+            synchronized (this) {
+                long newThreadCount = Math.min(maxThreads, runThreadCount + missed);
+                if (newThreadCount > runThreadCount) {
+                    log.debug("Changing threadcount to " + newThreadCount + ", " + missed + " starts behind schedule");
+                    runThreadCount = newThreadCount;
+                    runner.updateThreadCount(newThreadCount);
+                }
+            }
+        }
+    }
+
+    public JComponent getConfigurationPanel() {
+        if (configPanel == null) {
+            ButtonBarBuilder builder = new ButtonBarBuilder();
+
+            startRateSpinnerNumberModel = new SpinnerNumberModel(startRate, 1, 100000, 1);
+            JSpinner startRateSpinner = createSpinner(startRateSpinnerNumberModel,
+                    "Sets the initial number of TestCase starts per second");
+            startRateSpinnerNumberModel.addChangeListener(new ChangeListener() {
+
+                public void stateChanged(ChangeEvent e) {
+                    startRate = startRateSpinnerNumberModel.getNumber().intValue();
+                    notifyConfigurationChanged();
+                }
+            });
+
+            builder.addFixed(new JLabel("Start Rate"));
+            builder.addRelatedGap();
+            builder.addFixed(startRateSpinner);
+            builder.addRelatedGap();
+
+            endRateSpinnerNumberModel = new SpinnerNumberModel(endRate, 1, 100000, 1);
+            JSpinner endRateSpinner = createSpinner(endRateSpinnerNumberModel,
+                    "Sets the final number of TestCase starts per second");
+            endRateSpinnerNumberModel.addChangeListener(new ChangeListener() {
+
+                public void stateChanged(ChangeEvent e) {
+                    endRate = endRateSpinnerNumberModel.getNumber().intValue();
+                    notifyConfigurationChanged();
+                }
+            });
+
+            builder.addFixed(new JLabel("End Rate"));
+            builder.addRelatedGap();
+            builder.addFixed(endRateSpinner);
+            builder.addRelatedGap();
+
+            maxThreadsSpinnerNumberModel = new SpinnerNumberModel(maxThreads, 1, 10000, 1);
+            JSpinner maxThreadsSpinner = createSpinner(maxThreadsSpinnerNumberModel,
+                    "Sets the maximum number of threads used to keep up with the rate");
+            maxThreadsSpinnerNumberModel.addChangeListener(new ChangeListener() {
+
+                public void stateChanged(ChangeEvent e) {
+                    maxThreads = maxThreadsSpinnerNumberModel.getNumber().intValue();
+                    notifyConfigurationChanged();
+                }
+            });
+
+            builder.addFixed(new JLabel("Max Threads"));
+            builder.addRelatedGap();
+            builder.addFixed(maxThreadsSpinner);
+            builder.addRelatedGap();
+
+            infoLabel = new JLabel();
+            builder.addFixed(infoLabel);
+
+            configPanel = builder.getPanel();
+
+            stateDependantComponents.add(startRateSpinner);
+            stateDependantComponents.add(endRateSpinner);
+            stateDependantComponents.add(maxThreadsSpinner);
+        }
+
+        return configPanel;
+    }
+
+    private static JSpinner createSpinner(SpinnerNumberModel model, String toolTipText) {
+        JSpinner spinner = new JSpinner(model);
+        UISupport.setPreferredHeight(spinner, 18);
+        spinner.setToolTipText(toolTipText);
+        return spinner;
+    }
+
+    /**
+     * Factory for ArrivalRateLoadStrategy class
+     */
+
+    public static class Factory implements LoadStrategyFactory {
+        public String getType() {
+            return STRATEGY_TYPE;
+        }
+
+        public LoadStrategy build(XmlObject config, WsdlLoadTest loadTest) {
+            return new ArrivalRateLoadStrategy(config, loadTest);
+        }
+
+        public LoadStrategy create(WsdlLoadTest loadTest) {
+            return new ArrivalRateLoadStrategy(null, loadTest);
+        }
+    }
+
+    public int getStartRate() {
+        return startRate;
+    }
+
+    public int getEndRate() {
+        return endRate;
+    }
+
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+}
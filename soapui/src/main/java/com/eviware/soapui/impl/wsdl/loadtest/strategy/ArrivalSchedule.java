@@ -0,0 +1,74 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.impl.wsdl.loadtest.strategy;
+
+/**
+ * Start times of TestCase runs at a given arrival rate; each run claims the next free slot, independent of when
+ * earlier runs complete. Times are in nanoseconds as returned by System.nanoTime().
+ */
+
+public final class ArrivalSchedule {
+    private long nextStartTime;
+
+    public ArrivalSchedule(long startTime) {
+        nextStartTime = startTime;
+    }
+
+    /**
+     * Returns the start time of the next run and moves the schedule on by one interval at the given rate
+     *
+     * @param rate runs per second
+     */
+
+    public synchronized long claimStartTime(double rate) {
+        long result = nextStartTime;
+        nextStartTime += (long) (1000000000 / Math.max(rate, 1));
+        return result;
+    }
+
+    /**
+     * Returns how many nanoseconds the next unclaimed slot is overdue, or a negative value if it is still ahead
+     */
+
+    public synchronized long getBehind(long now) {
+        return now - nextStartTime;
+    }
+
+    /**
+     * Returns the number of runs that should have started but have not been claimed yet
+     */
+
+    public long getMissedStarts(long now, double rate) {
+        long behind = getBehind(now);
+        return behind < 0 ? 0 : (long) (behind * rate / 1000000000) + 1;
+    }
+
+    /**
+     * Returns the rate ramped linearly from the start to the end rate
+     *
+     * @param progress the LoadTest progress between 0 and 1, or a negative value if the LoadTest has no limit
+     */
+
+    public static double getRate(int startRate, int endRate, float progress) {
+        if (progress < 0) {
+            return Math.max(startRate, 1);
+        }
+
+        return Math.max(startRate + (Math.min(progress, 1) * (endRate - startRate)), 1);
+    }
+}
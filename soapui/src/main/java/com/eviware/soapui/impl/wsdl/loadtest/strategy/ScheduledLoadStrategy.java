@@ -0,0 +1,39 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.impl.wsdl.loadtest.strategy;
+
+import com.eviware.soapui.model.testsuite.LoadTestRunContext;
+import com.eviware.soapui.model.testsuite.LoadTestRunner;
+import com.eviware.soapui.model.testsuite.TestCaseRunContext;
+
+/**
+ * LoadStrategy that decides when each TestCase run of a load thread starts
+ */
+
+public interface ScheduledLoadStrategy extends LoadStrategy {
+    /**
+     * Called by a load thread before it starts its next TestCase run; the run has not started yet, so the
+     * wait is not part of the TestCase time or timeout
+     *
+     * @param runContext the context of the next run
+     * @return false if the run should not be started since the LoadTest is no longer running
+     */
+
+    public boolean awaitStart(LoadTestRunner loadTestRunner, LoadTestRunContext context,
+                              TestCaseRunContext runContext);
+}
@@ -189,10 +189,8 @@ public class WsdlMockDispatcher extends AbstractMockDispatcher {
                 }
             } else {
                 try {
-                    operation = SoapUtils.findOperationForRequest(soapVersion, soapAction,
-                            mockRequest.getRequestXmlObject(), mockService.getMockedOperations(),
-                            mockService.isRequireSoapVersion(), mockService.isRequireSoapAction(),
-                            mockRequest.getRequestAttachments());
+                    operation = mockService.findOperationForRequest(soapVersion, soapAction,
+                            mockRequest.getRequestXmlObject(), mockRequest.getRequestAttachments());
                 } catch (Exception e) {
                     if (mockService.isDispatchResponseMessages()) {
                         try {
@@ -0,0 +1,139 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.impl.wsdl.mock;
+
+import com.eviware.soapui.impl.wsdl.WsdlOperation;
+import com.eviware.soapui.impl.wsdl.support.soap.SoapVersion;
+
+import javax.xml.namespace.QName;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable index of the operations mocked by a WsdlMockService by their request body element and, if the
+ * MockService requires them to match, their SOAPAction and SOAP version, so dispatching a request only has to
+ * examine the operations that can match it instead of walking all of them.
+ * <p/>
+ * Each list keeps the order of the mocked operations; operations whose key could not be determined are included
+ * in all lists so that the result of SoapUtils.findOperationForRequest stays the same as for a full scan. The
+ * MockService drops its index whenever the mocked operations change.
+ */
+
+final class WsdlMockOperationIndex {
+    private final List<WsdlOperation> operations;
+    private final boolean requireSoapAction;
+    private final boolean requireSoapVersion;
+    private final Map<Key, List<WsdlOperation>> operationsByKey = new HashMap<Key, List<WsdlOperation>>();
+    private final List<WsdlOperation> unresolvedOperations = new ArrayList<WsdlOperation>();
+
+    WsdlMockOperationIndex(List<WsdlOperation> operations, boolean requireSoapAction, boolean requireSoapVersion) {
+        this.operations = Collections.unmodifiableList(new ArrayList<WsdlOperation>(operations));
+        this.requireSoapAction = requireSoapAction;
+        this.requireSoapVersion = requireSoapVersion;
+
+        for (WsdlOperation operation : operations) {
+            Key key;
+            try {
+                QName bodyElementName = operation.getRequestBodyElementQName();
+                key = bodyElementName == null ? null : createKey(bodyElementName, operation.getAction(),
+                        operation.getInterface().getSoapVersion());
+            } catch (Exception e) {
+                key = null;
+            }
+
+            if (key == null) {
+                // can not be looked up, so it has to be considered for every request
+                unresolvedOperations.add(operation);
+                for (List<WsdlOperation> list : operationsByKey.values()) {
+                    list.add(operation);
+                }
+            } else {
+                List<WsdlOperation> list = operationsByKey.get(key);
+                if (list == null) {
+                    list = new ArrayList<WsdlOperation>(unresolvedOperations);
+                    operationsByKey.put(key, list);
+                }
+
+                list.add(operation);
+            }
+        }
+    }
+
+    /**
+     * Checks if this index was built for the specified matching rules of the MockService
+     */
+
+    boolean isIndexFor(boolean requireSoapAction, boolean requireSoapVersion) {
+        return this.requireSoapAction == requireSoapAction && this.requireSoapVersion == requireSoapVersion;
+    }
+
+    /**
+     * Returns all indexed operations, in mocked order
+     */
+
+    List<WsdlOperation> getOperations() {
+        return operations;
+    }
+
+    /**
+     * Returns the operations that may match a request with the specified body element, SOAPAction and SOAP
+     * version, in mocked order
+     */
+
+    List<WsdlOperation> getOperations(QName bodyElementName, String soapAction, SoapVersion soapVersion) {
+        List<WsdlOperation> list = operationsByKey.get(createKey(bodyElementName, soapAction, soapVersion));
+        return Collections.unmodifiableList(list == null ? unresolvedOperations : list);
+    }
+
+    private Key createKey(QName bodyElementName, String soapAction, SoapVersion soapVersion) {
+        return new Key(bodyElementName, requireSoapAction ? soapAction : null,
+                requireSoapVersion ? soapVersion : null);
+    }
+
+    private static final class Key {
+        private final QName bodyElementName;
+        private final String soapAction;
+        private final SoapVersion soapVersion;
+
+        Key(QName bodyElementName, String soapAction, SoapVersion soapVersion) {
+            this.bodyElementName = bodyElementName;
+            this.soapAction = soapAction;
+            this.soapVersion = soapVersion;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            Key key = (Key) obj;
+            return bodyElementName.equals(key.bodyElementName)
+                    && (soapAction == null ? key.soapAction == null : soapAction.equals(key.soapAction))
+                    && soapVersion == key.soapVersion;
+        }
+
+        @Override
+        public int hashCode() {
+            return bodyElementName.hashCode() * 31 + (soapAction == null ? 0 : soapAction.hashCode());
+        }
+    }
+}
@@ -25,7 +25,10 @@ import com.eviware.soapui.impl.support.AbstractMockService;
 import com.eviware.soapui.impl.wsdl.WsdlInterface;
 import com.eviware.soapui.impl.wsdl.WsdlOperation;
 import com.eviware.soapui.impl.wsdl.support.HelpUrls;
+import com.eviware.soapui.impl.wsdl.support.soap.SoapUtils;
+import com.eviware.soapui.impl.wsdl.support.soap.SoapVersion;
 import com.eviware.soapui.model.ModelItem;
+import com.eviware.soapui.model.iface.Attachment;
 import com.eviware.soapui.model.iface.Operation;
 import com.eviware.soapui.model.mock.MockDispatcher;
 import com.eviware.soapui.model.mock.MockOperation;
@@ -36,6 +39,8 @@ import com.eviware.soapui.settings.SSLSettings;
 import com.eviware.soapui.support.StringUtils;
 import com.eviware.soapui.support.UISupport;
 import com.eviware.soapui.support.resolver.ResolveDialog;
+import com.eviware.soapui.support.xml.XmlUtils;
+import org.apache.xmlbeans.XmlObject;
 
 import java.io.File;
 import java.io.IOException;
@@ -60,6 +65,8 @@ public class WsdlMockService extends AbstractMockService<WsdlMockOperation, Mock
 
     private WsdlMockOperation faultMockOperation;
     private String mockServiceEndpoint;
+    private final Object operationIndexLock = new Object();
+    private volatile WsdlMockOperationIndex operationIndex;
     public static final String ICON_NAME = "/soap_virt.png";
     public static final String STRING_ID = "MOCK";
 
@@ -260,6 +267,74 @@ public class WsdlMockService extends AbstractMockService<WsdlMockOperation, Mock
         return result;
     }
 
+    /**
+     * Finds the mocked operation for an incoming request. Only the operations with a matching request body element,
+     * and SOAPAction and SOAP version if these are required to match, are examined
+     */
+
+    public WsdlOperation findOperationForRequest(SoapVersion soapVersion, String soapAction, XmlObject requestContent,
+                                                 Attachment[] attachments) throws Exception {
+        boolean requireSoapVersion = isRequireSoapVersion();
+        boolean requireSoapAction = isRequireSoapAction();
+        WsdlMockOperationIndex index = getOperationIndex(requireSoapAction, requireSoapVersion);
+
+        XmlObject contentElm = SoapUtils.getContentElement(requestContent, soapVersion);
+        List<WsdlOperation> operations = contentElm == null ? index.getOperations()
+                : index.getOperations(XmlUtils.getQName(contentElm.getDomNode()), soapAction, soapVersion);
+
+        return SoapUtils.findOperationForRequest(soapVersion, soapAction, requestContent, operations,
+                requireSoapVersion, requireSoapAction, attachments);
+    }
+
+    /**
+     * Returns the index of the mocked operations, building it if the operations have changed since it was last used
+     */
+
+    WsdlMockOperationIndex getOperationIndex(boolean requireSoapAction, boolean requireSoapVersion) {
+        WsdlMockOperationIndex index = operationIndex;
+        if (index != null && index.isIndexFor(requireSoapAction, requireSoapVersion)) {
+            return index;
+        }
+
+        synchronized (operationIndexLock) {
+            index = operationIndex;
+            if (index == null || !index.isIndexFor(requireSoapAction, requireSoapVersion)) {
+                index = new WsdlMockOperationIndex(getMockedOperations(), requireSoapAction, requireSoapVersion);
+                operationIndex = index;
+            }
+
+            return index;
+        }
+    }
+
+    /**
+     * Drops the index of the mocked operations, called whenever a mocked operation or its definition changes
+     */
+
+    void clearOperationIndex() {
+        synchronized (operationIndexLock) {
+            operationIndex = null;
+        }
+    }
+
+    @Override
+    public void addMockOperation(WsdlMockOperation mockOperation) {
+        super.addMockOperation(mockOperation);
+        clearOperationIndex();
+    }
+
+    @Override
+    public void fireMockOperationAdded(MockOperation mockOperation) {
+        clearOperationIndex();
+        super.fireMockOperationAdded(mockOperation);
+    }
+
+    @Override
+    public void fireMockOperationRemoved(MockOperation mockOperation) {
+        clearOperationIndex();
+        super.fireMockOperationRemoved(mockOperation);
+    }
+
     public void replace(WsdlMockOperation mockOperation, MockOperationConfig reloadedMockOperation) {
         int ix = mockOperations.indexOf(mockOperation);
         if (ix == -1) {
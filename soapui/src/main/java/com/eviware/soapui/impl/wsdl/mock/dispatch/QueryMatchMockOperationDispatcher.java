@@ -34,6 +34,8 @@ import com.eviware.soapui.support.StringUtils;
 import com.eviware.soapui.support.UISupport;
 import com.eviware.soapui.support.components.JXToolBar;
 import com.eviware.soapui.support.components.SimpleBindingForm;
+import com.eviware.soapui.support.xml.CompiledPathCache;
+import com.eviware.soapui.support.xml.StreamingXPath;
 import com.eviware.soapui.support.xml.XmlUtils;
 import com.eviware.soapui.ui.support.ModelItemDesktopPanel;
 import com.jgoodies.binding.PresentationModel;
@@ -213,7 +215,8 @@ public class QueryMatchMockOperationDispatcher extends AbstractMockOperationDisp
         Map<String, XmlCursor> cursorCache = new HashMap<String, XmlCursor>();
 
         try {
-            XmlObject xmlObject = request.getRequestXmlObject();
+            List<Query> activeQueries = new ArrayList<Query>();
+            List<String> activePaths = new ArrayList<String>();
 
             for (Query query : getQueries()) {
                 if (query.isDisabled()) {
@@ -222,41 +225,53 @@ public class QueryMatchMockOperationDispatcher extends AbstractMockOperationDisp
 
                 String path = PropertyExpander.expandProperties(request.getContext(), query.getQuery());
                 if (StringUtils.hasContent(path)) {
-                    XmlCursor cursor = cursorCache.get(path);
-                    if (cursor == null && !cursorCache.containsKey(path)) {
-                        cursor = xmlObject.newCursor();
-                        cursor.selectPath(path);
-                        if (!cursor.toNextSelection()) {
-                            cursor.dispose();
-                            cursor = null;
+                    activeQueries.add(query);
+                    activePaths.add(path);
+                }
+            }
+
+            Map<String, String> streamedValues = selectStreamedValues(request, activePaths);
+            if (streamedValues != null) {
+                for (int c = 0; c < activeQueries.size(); c++) {
+                    Query query = activeQueries.get(c);
+                    String path = activePaths.get(c);
+
+                    if (streamedValues.containsKey(path)) {
+                        String value = PropertyExpander.expandProperties(request.getContext(), query.getMatch());
+                        if (value.equals(streamedValues.get(path))) {
+                            return getMatchingResponse(request, query);
                         }
                     }
+                }
 
-                    if (cursor != null) {
-                        String value = PropertyExpander.expandProperties(request.getContext(), query.getMatch());
+                return null;
+            }
 
-                        if (value.equals(XmlUtils.getValueForMatch(cursor))) {
-                            WsdlMockRunContext requestContext = (WsdlMockRunContext) request.getRequestContext();
-                            requestContext.put("usedQueryMatch", query.getName());
-
-                            WsdlMockResponse resp = null;
-                            for (MockResponse mockResponse : this.getMockOperation().getMockResponses()) {
-                                if (query.getResponse().equals(mockResponse.getName())) {
-                                    resp = (WsdlMockResponse) mockResponse;
-                                }
-                            }
-                            // return getMockOperation().getMockResponseByName(
-                            // query.getResponse() );
-                            if (resp != null) {
-                                return resp;
-                            }
-
-                            return ((WsdlMockOperation) getMockOperation()).getMockResponseByName(query.getResponse());
-                        }
+            XmlObject xmlObject = request.getRequestXmlObject();
+
+            for (int c = 0; c < activeQueries.size(); c++) {
+                Query query = activeQueries.get(c);
+                String path = activePaths.get(c);
+
+                XmlCursor cursor = cursorCache.get(path);
+                if (cursor == null && !cursorCache.containsKey(path)) {
+                    cursor = xmlObject.newCursor();
+                    cursor.selectPath(CompiledPathCache.getPath(path));
+                    if (!cursor.toNextSelection()) {
+                        cursor.dispose();
+                        cursor = null;
                     }
+                }
+
+                if (cursor != null) {
+                    String value = PropertyExpander.expandProperties(request.getContext(), query.getMatch());
 
-                    cursorCache.put(path, cursor);
+                    if (value.equals(XmlUtils.getValueForMatch(cursor))) {
+                        return getMatchingResponse(request, query);
+                    }
                 }
+
+                cursorCache.put(path, cursor);
             }
 
             return null;
@@ -271,6 +286,65 @@ public class QueryMatchMockOperationDispatcher extends AbstractMockOperationDisp
         }
     }
 
+    /**
+     * Selects the first match of each path in a single streaming pass over the request content, which stops as
+     * soon as all paths have matched, instead of building an XmlObject for the whole request.
+     *
+     * @return the values of the paths that matched, or null if the paths or the request can not be evaluated this
+     *         way
+     */
+
+    private Map<String, String> selectStreamedValues(MockRequest request, List<String> paths) {
+        if (paths.isEmpty()) {
+            return null;
+        }
+
+        final List<String> distinctPaths = new ArrayList<String>();
+        for (String path : paths) {
+            if (!distinctPaths.contains(path)) {
+                distinctPaths.add(path);
+            }
+        }
+
+        StreamingXPath[] streamingPaths = new StreamingXPath[distinctPaths.size()];
+        for (int c = 0; c < streamingPaths.length; c++) {
+            streamingPaths[c] = StreamingXPath.compile(distinctPaths.get(c));
+            if (streamingPaths[c] == null) {
+                return null;
+            }
+        }
+
+        final Map<String, String> values = new HashMap<String, String>();
+        boolean selected = StreamingXPath.select(request.getRequestContent(), streamingPaths,
+                StreamingXPath.ValueType.MATCH, new StreamingXPath.MatchHandler() {
+                    public boolean onMatch(int pathIndex, String value) {
+                        values.put(distinctPaths.get(pathIndex), value);
+                        return true;
+                    }
+                });
+
+        return selected ? values : null;
+    }
+
+    private WsdlMockResponse getMatchingResponse(MockRequest request, Query query) {
+        WsdlMockRunContext requestContext = (WsdlMockRunContext) request.getRequestContext();
+        requestContext.put("usedQueryMatch", query.getName());
+
+        WsdlMockResponse resp = null;
+        for (MockResponse mockResponse : this.getMockOperation().getMockResponses()) {
+            if (query.getResponse().equals(mockResponse.getName())) {
+                resp = (WsdlMockResponse) mockResponse;
+            }
+        }
+        // return getMockOperation().getMockResponseByName(
+        // query.getResponse() );
+        if (resp != null) {
+            return resp;
+        }
+
+        return ((WsdlMockOperation) getMockOperation()).getMockResponseByName(query.getResponse());
+    }
+
     public Query addQuery(String name) {
         Query query = new Query(conf.addNewQuery());
         query.setName(name);
@@ -31,6 +31,7 @@ import com.eviware.soapui.model.settings.Settings;
 import com.eviware.soapui.support.StringUtils;
 import com.eviware.soapui.support.UISupport;
 import com.eviware.soapui.support.components.JXToolBar;
+import com.eviware.soapui.support.xml.StreamingXPath;
 import com.eviware.soapui.support.xml.XmlUtils;
 import com.eviware.soapui.ui.support.ModelItemDesktopPanel;
 import org.apache.xmlbeans.XmlException;
@@ -53,6 +54,28 @@ public class XPathMockOperationDispatcher extends AbstractMockOperationDispatche
 
     public MockResponse selectMockResponse(MockRequest request, MockResult result)
             throws DispatchException {
+        String path = getMockOperation().getScript();
+        if (StringUtils.isNullOrEmpty(path)) {
+            throw new DispatchException("Missing dispatch XPath expression");
+        }
+
+        // simple paths are evaluated while reading the request and stop at the first value naming a response
+        StreamingXPath streamingPath = StreamingXPath.compile(path);
+        if (streamingPath != null) {
+            final MockResponse[] selected = new MockResponse[1];
+            boolean streamed = StreamingXPath.select(request.getRequestContent(), new StreamingXPath[]{streamingPath},
+                    StreamingXPath.ValueType.NODE, new StreamingXPath.MatchHandler() {
+                        public boolean onMatch(int pathIndex, String value) {
+                            selected[0] = getMockOperation().getMockResponseByName(value);
+                            return selected[0] != null;
+                        }
+                    });
+
+            if (streamed) {
+                return selected[0];
+            }
+        }
+
         XmlObject xmlObject;
         try {
             xmlObject = request.getRequestXmlObject();
@@ -60,11 +83,6 @@ public class XPathMockOperationDispatcher extends AbstractMockOperationDispatche
             throw new DispatchException("Error getting XmlObject for request: " + e);
         }
 
-        String path = getMockOperation().getScript();
-        if (StringUtils.isNullOrEmpty(path)) {
-            throw new DispatchException("Missing dispatch XPath expression");
-        }
-
         String[] values = XmlUtils.selectNodeValues(xmlObject, path);
         for (String value : values) {
             MockResponse mockResponse = getMockOperation().getMockResponseByName(value);
@@ -48,6 +48,7 @@ import javax.management.StringValueExp;
 import javax.swing.AbstractAction;
 import javax.swing.Action;
 import javax.swing.ButtonGroup;
+import javax.swing.JCheckBox;
 import javax.swing.JComponent;
 import javax.swing.JPanel;
 import javax.swing.JProgressBar;
@@ -70,6 +71,7 @@ public class WsdlProjectTestSuitesTabPanel extends JPanel {
     private CancelAction cancelAction = new CancelAction();
     private JToggleButton sequentialButton;
     private JToggleButton parallellButton;
+    private JCheckBox virtualThreadsCheckBox;
     private final InternalProjectListener testSuiteListener = new InternalProjectListener();
     private final InternalTestSuiteRunListener testSuiteRunListener = new InternalTestSuiteRunListener();
     private JTestRunLog testRunLog;
@@ -178,6 +180,20 @@ public class WsdlProjectTestSuitesTabPanel extends JPanel {
         toolbar.add(sequentialButton);
         toolbar.addRelatedGap();
         toolbar.add(parallellButton);
+
+        virtualThreadsCheckBox = new JCheckBox("Virtual Threads", project.getUseVirtualThreads());
+        virtualThreadsCheckBox.setToolTipText(
+                "Parallel TestSuites and TestCases are run on virtual threads (requires Java 21)");
+        virtualThreadsCheckBox.setOpaque(false);
+        virtualThreadsCheckBox.addActionListener(new ActionListener() {
+
+            public void actionPerformed(ActionEvent e) {
+                project.setUseVirtualThreads(virtualThreadsCheckBox.isSelected());
+            }
+        });
+
+        toolbar.addRelatedGap();
+        toolbar.add(virtualThreadsCheckBox);
     }
 
     private JComponent buildTabs() {
@@ -58,6 +58,7 @@ import javax.swing.AbstractAction;
 import javax.swing.Action;
 import javax.swing.BorderFactory;
 import javax.swing.ButtonGroup;
+import javax.swing.JCheckBox;
 import javax.swing.JComponent;
 import javax.swing.JPanel;
 import javax.swing.JProgressBar;
@@ -88,6 +89,7 @@ public class WsdlTestSuiteDesktopPanel extends KeySensitiveModelItemDesktopPanel
     private CancelAction cancelAction = new CancelAction();
     private JToggleButton sequentialButton;
     private JToggleButton parallellButton;
+    private JCheckBox virtualThreadsCheckBox;
     private final InternalTestSuiteListener testSuiteListener = new InternalTestSuiteListener();
     private final InternalTestSuiteRunListener testSuiteRunListener = new InternalTestSuiteRunListener();
     private JTextArea descriptionArea;
@@ -191,6 +193,19 @@ public class WsdlTestSuiteDesktopPanel extends KeySensitiveModelItemDesktopPanel
 
         toolbar.add(sequentialButton);
         toolbar.add(parallellButton);
+
+        virtualThreadsCheckBox = new JCheckBox("Virtual Threads", getModelItem().getUseVirtualThreads());
+        virtualThreadsCheckBox.setToolTipText("Parallel TestCases are run on virtual threads (requires Java 21)");
+        virtualThreadsCheckBox.setOpaque(false);
+        virtualThreadsCheckBox.addActionListener(new ActionListener() {
+
+            public void actionPerformed(ActionEvent e) {
+                getModelItem().setUseVirtualThreads(virtualThreadsCheckBox.isSelected());
+            }
+        });
+
+        toolbar.addRelatedGap();
+        toolbar.add(virtualThreadsCheckBox);
     }
 
     private JComponent buildTabs() {
@@ -37,6 +37,7 @@ import com.eviware.soapui.impl.wsdl.submit.filters.WsrmRequestFilter;
 import com.eviware.soapui.impl.wsdl.submit.filters.WssAuthenticationRequestFilter;
 import com.eviware.soapui.impl.wsdl.submit.filters.WssRequestFilter;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.HttpClientRequestTransport;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.NonBlockingHttpRequestTransport;
 import com.eviware.soapui.impl.wsdl.submit.transports.jms.HermesJmsRequestTransport;
 import com.eviware.soapui.model.iface.SubmitContext;
 import com.eviware.soapui.support.factory.SoapUIFactoryRegistryListener;
@@ -62,6 +63,7 @@ public class RequestTransportRegistry {
     private static Map<String, List<RequestFilter>> addedCustomRequestFilters = new HashMap<String, List<RequestFilter>>();
 
     private static WsdlPackagingRequestFilter wsdlPackagingRequestFilter;
+    private static NonBlockingHttpRequestTransport nonBlockingTransport;
 
     static {
         HttpClientRequestTransport httpTransport = new HttpClientRequestTransport();
@@ -227,6 +229,16 @@ public class RequestTransportRegistry {
             throw new MissingTransportException("Missing transport for protocol [" + protocol + "]");
         }
 
+        // LoadTests that opted in send their requests through the non-blocking client
+        if (transport.getClass() == HttpClientRequestTransport.class && submitContext != null
+                && Boolean.TRUE.equals(submitContext.getProperty(NonBlockingHttpRequestTransport.USE_NON_BLOCKING))) {
+            if (nonBlockingTransport == null) {
+                nonBlockingTransport = new NonBlockingHttpRequestTransport((HttpClientRequestTransport) transport);
+            }
+
+            return nonBlockingTransport;
+        }
+
         return transport;
     }
 
@@ -16,6 +16,7 @@
 
 package com.eviware.soapui.impl.wsdl.submit.filters;
 
+import com.eviware.soapui.SoapUI;
 import com.eviware.soapui.config.EndpointConfig;
 import com.eviware.soapui.impl.wsdl.WsdlRequest;
 import com.eviware.soapui.impl.wsdl.endpoint.DefaultEndpointStrategy;
@@ -25,6 +26,7 @@ import com.eviware.soapui.impl.wsdl.support.wss.IncomingWss;
 import com.eviware.soapui.impl.wsdl.support.wss.OutgoingWss;
 import com.eviware.soapui.impl.wsdl.support.wss.WssContainer;
 import com.eviware.soapui.model.iface.SubmitContext;
+import com.eviware.soapui.settings.WsdlSettings;
 import com.eviware.soapui.support.StringUtils;
 import com.eviware.soapui.support.xml.XmlUtils;
 import org.w3c.dom.Document;
@@ -51,7 +53,7 @@ public class WssRequestFilter extends AbstractWssRequestFilter implements Reques
         if (outgoingWss != null) {
             try {
                 Document wssDocument = getWssDocument(context);
-                if (!"true".equals(System.getProperty("soapui.savewss"))) {
+                if (isKeepPreWssDocument()) {
                     context.setProperty("PreWssProcessedDocument", XmlUtils.serialize(wssDocument));
                 }
 
@@ -73,4 +75,16 @@ public class WssRequestFilter extends AbstractWssRequestFilter implements Reques
             context.setProperty(INCOMING_WSS_PROPERTY, incomingWss);
         }
     }
+
+    /**
+     * The unprocessed copy is only shown as request content in the UI, so headless runs may skip serializing it
+     */
+
+    private static boolean isKeepPreWssDocument() {
+        if ("true".equals(System.getProperty("soapui.savewss"))) {
+            return false;
+        }
+
+        return SoapUI.usingGraphicalEnvironment() || !SoapUI.getSettings().getBoolean(WsdlSettings.SKIP_PRE_WSS_COPY);
+    }
 }
@@ -36,8 +36,10 @@ import org.apache.http.Header;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.lang.ref.SoftReference;
 import java.lang.ref.WeakReference;
 import java.net.URL;
+import java.util.Arrays;
 import java.util.List;
 
 public abstract class BaseHttpResponse implements HttpResponse {
@@ -55,8 +57,10 @@ public abstract class BaseHttpResponse implements HttpResponse {
     private String version;
     private StringToStringMap properties;
     private byte[] rawRequestData;
-    private byte[] rawResponseData;
-    private byte[] rawResponseBody;
+    private byte[] rawResponseHeaders;
+    private ResponseBodyStore rawResponseContent;
+    private SoftReference<byte[]> rawResponseData;
+    private ResponseBodyStore responseBody;
     private int requestContentPos = -1;
     private String xmlContent;
     private Attachment[] attachments = new Attachment[0];
@@ -82,7 +86,7 @@ public abstract class BaseHttpResponse implements HttpResponse {
             Settings settings = httpRequest.getSettings();
 
             try {
-                rawResponseBody = httpMethod.getResponseBody();
+                responseBody = httpMethod.getResponseBodyStore();
             } catch (IOException e) {
                 e.printStackTrace();
             }
@@ -154,7 +158,7 @@ public abstract class BaseHttpResponse implements HttpResponse {
         } catch (ClassCastException cce) {
             attachments = new Attachment[1];
             try {
-                attachments[0] = downloader.createAttachment(rawResponseData, url, httpRequest.get());
+                attachments[0] = downloader.createAttachment(getRawResponseData(), url, httpRequest.get());
             } catch (IOException e) {
                 SoapUI.log.error(e);
             }
@@ -211,12 +215,13 @@ public abstract class BaseHttpResponse implements HttpResponse {
                 }
             }
 
-            if (!httpMethod.isFailed() && httpMethod.hasHttpResponse() && httpMethod.getResponseBody() != null) {
+            // the body is appended on demand so that it is not kept in memory twice
+            if (!httpMethod.isFailed() && httpMethod.hasHttpResponse() && httpMethod.getResponseBodyStore() != null) {
                 rawResponse.write("\r\n".getBytes());
-                rawResponse.write(httpMethod.getResponseBody());
+                rawResponseContent = httpMethod.getResponseBodyStore();
             }
 
-            rawResponseData = rawResponse.toByteArray();
+            rawResponseHeaders = rawResponse.toByteArray();
             rawRequestData = rawRequest.toByteArray();
         } catch (Exception e) {
             e.printStackTrace();
@@ -340,11 +345,52 @@ public abstract class BaseHttpResponse implements HttpResponse {
     }
 
     public byte[] getRawResponseData() {
-        return rawResponseData;
+        if (rawResponseContent == null) {
+            return rawResponseHeaders;
+        }
+
+        byte[] result = rawResponseData == null ? null : rawResponseData.get();
+        if (result == null) {
+            result = getRawResponseData(Integer.MAX_VALUE);
+            rawResponseData = new SoftReference<byte[]>(result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns at most the first maxSize bytes of the raw response, without loading the rest of a body that has
+     * been spilled to disk
+     */
+
+    public byte[] getRawResponseData(int maxSize) {
+        if (rawResponseHeaders == null || rawResponseContent == null) {
+            return rawResponseHeaders;
+        }
+
+        try {
+            long bodySize = Math.max(0, (long) maxSize - rawResponseHeaders.length);
+            byte[] body = rawResponseContent.getBytes(bodySize);
+            byte[] result = Arrays.copyOf(rawResponseHeaders, rawResponseHeaders.length + body.length);
+            System.arraycopy(body, 0, result, rawResponseHeaders.length, body.length);
+            return result;
+        } catch (IOException e) {
+            SoapUI.logError(e);
+            return rawResponseHeaders;
+        }
     }
 
     public byte[] getRawResponseBody() {
-        return rawResponseBody;
+        try {
+            return responseBody == null ? null : responseBody.getBytes();
+        } catch (IOException e) {
+            SoapUI.logError(e);
+            return null;
+        }
+    }
+
+    public ResponseBodyStore getResponseBodyStore() {
+        return responseBody;
     }
 
     public String getMethod() {
@@ -75,6 +75,8 @@ public interface ExtendedHttpMethod extends HttpRequest, HttpUriRequest {
 
     byte[] getResponseBody() throws IOException;
 
+    ResponseBodyStore getResponseBodyStore() throws IOException;
+
     String getResponseBodyAsString() throws IOException;
 
     HttpEntity getRequestEntity();
@@ -80,6 +80,14 @@ public class HttpClientRequestTransport implements BaseHttpRequestTransport {
     public HttpClientRequestTransport() {
     }
 
+    /**
+     * Creates a transport that shares the request filters of the specified transport
+     */
+
+    protected HttpClientRequestTransport(HttpClientRequestTransport filterSource) {
+        filters = filterSource.filters;
+    }
+
     public void addRequestFilter(RequestFilter filter) {
         filters.add(filter);
     }
@@ -228,7 +236,7 @@ public class HttpClientRequestTransport implements BaseHttpRequestTransport {
             }
 
             // submit!
-            httpResponse = submitRequest(httpMethod, httpContext);
+            httpResponse = submitRequest(submitContext, httpMethod, httpContext);
 
             // save request headers captured by interceptor
             saveRequestHeaders(httpMethod, httpContext);
@@ -297,6 +305,16 @@ public class HttpClientRequestTransport implements BaseHttpRequestTransport {
         return (Response) submitContext.getProperty(BaseHttpRequestTransport.RESPONSE);
     }
 
+    /**
+     * Sends the prepared method; subclasses can override this to use another client while keeping the
+     * filters, metrics and response handling of this transport
+     */
+
+    protected org.apache.http.HttpResponse submitRequest(SubmitContext submitContext, ExtendedHttpMethod httpMethod,
+                                                         HttpContext httpContext) throws IOException {
+        return submitRequest(httpMethod, httpContext);
+    }
+
     protected org.apache.http.HttpResponse submitRequest(ExtendedHttpMethod httpMethod, HttpContext httpContext) throws IOException {
         return HttpClientSupport.execute(httpMethod, httpContext);
     }
@@ -361,7 +379,7 @@ public class HttpClientRequestTransport implements BaseHttpRequestTransport {
         
         getMethod.setHeader("Host",uri.getHost());
 
-        org.apache.http.HttpResponse response = submitRequest(getMethod, httpContext);
+        org.apache.http.HttpResponse response = submitRequest(submitContext, getMethod, httpContext);
 
         if (isRedirectResponse(response.getStatusLine().getStatusCode())) {
             if (redirectCount == 10) {
@@ -27,13 +27,9 @@ import org.apache.http.Header;
 import org.apache.http.HeaderElement;
 import org.apache.http.HttpEntity;
 import org.apache.http.NameValuePair;
-import org.apache.http.entity.BufferedHttpEntity;
 import org.apache.http.impl.io.HttpTransportMetricsImpl;
-import org.apache.http.util.EntityUtils;
 
 import javax.net.ssl.SSLSession;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -46,12 +42,14 @@ import java.io.InputStream;
  */
 
 public class HttpMethodSupport {
+    public static final long DEFAULT_SPILL_SIZE = 8 * 1024 * 1024;
+
     private long timeTaken;
     private long startTime;
     private long maxSize;
     private long responseReadTime;
 
-    private byte[] responseBody;
+    private ResponseBodyStore responseBody;
 
     private SSLInfo sslInfo;
     private String dumpFile;
@@ -146,7 +144,8 @@ public class HttpMethodSupport {
             String compressionAlg = HttpClientSupport.getResponseCompressionType(httpResponse);
             if (compressionAlg != null) {
                 try {
-                    return CompressionSupport.decompress(compressionAlg, responseBody);
+                    return CompressionSupport.decompress(compressionAlg, responseBody == null ? null
+                            : responseBody.getBytes());
                 } catch (Exception e) {
                     IOException ioe = new IOException("Decompression of response failed");
                     ioe.initCause(e);
@@ -155,7 +154,7 @@ public class HttpMethodSupport {
             }
         }
 
-        return responseBody;
+        return responseBody == null ? null : responseBody.getBytes();
     }
 
     /**
@@ -228,80 +227,121 @@ public class HttpMethodSupport {
     }
 
     public byte[] getResponseBody() throws IOException {
+        ResponseBodyStore store = getResponseBodyStore();
+        return store == null ? null : store.getBytes();
+    }
+
+    /**
+     * Reads the response entity once into a store that spills large bodies to disk, see
+     * {@link HttpSettings#RESPONSE_SPILL_SIZE}
+     */
+
+    public ResponseBodyStore getResponseBodyStore() throws IOException {
         if (responseBody != null) {
             return responseBody;
         }
 
         if (hasHttpResponse() && httpResponse.getEntity() != null) {
             long now = System.nanoTime();
-            HttpEntity bufferedEntity = new BufferedHttpEntity(httpResponse.getEntity());
-            long contentLength = bufferedEntity.getContentLength();
+            HttpEntity entity = httpResponse.getEntity();
+            // bodies received by the NonBlockingHttpClient have already been read into a store
+            ResponseBodyStore receivedBody = entity instanceof ResponseBodyStoreEntity
+                    ? ((ResponseBodyStoreEntity) entity).getStore() : null;
+            long contentLength = entity.getContentLength();
             if (metrics != null) {
                 metrics.setContentLength(contentLength);
             }
 
-            InputStream instream = bufferedEntity.getContent();
+            long spillSize = SoapUI.getSettings().getLong(HttpSettings.RESPONSE_SPILL_SIZE, DEFAULT_SPILL_SIZE);
+            InputStream instream = receivedBody == null ? entity.getContent() : null;
 
             try {
                 if (maxSize == 0 || (contentLength >= 0 && contentLength <= maxSize)) {
+                    ResponseBodyStore store = receivedBody;
+                    if (store == null) {
+                        store = instream == null ? new ResponseBodyStore(new byte[0]) : ResponseBodyStore.read(
+                                instream, 0, spillSize);
+                    }
                     responseReadTime = System.nanoTime() - now;
-                    responseBody = EntityUtils.toByteArray(bufferedEntity);
 
                     try {
                         if (StringUtils.hasContent(dumpFile)) {
-                            Tools.writeAll(new FileOutputStream(dumpFile), new ByteArrayInputStream(responseBody));
+                            FileOutputStream fileOutputStream = new FileOutputStream(dumpFile);
+                            try {
+                                store.writeTo(fileOutputStream);
+                            } finally {
+                                fileOutputStream.close();
+                            }
                         }
                     } catch (IOException e) {
                         e.printStackTrace();
                     }
 
-                    if (decompress && responseBody.length > 0) {
+                    if (decompress && store.length() > 0) {
                         String compressionAlg = HttpClientSupport.getResponseCompressionType(httpResponse);
                         if (compressionAlg != null) {
-                            try {
-                                responseBody = CompressionSupport.decompress(compressionAlg, responseBody);
-                            } catch (Exception e) {
-                                IOException ioe = new IOException("Decompression of response failed");
-                                ioe.initCause(e);
-                                throw ioe;
-                            }
+                            store = decompress(compressionAlg, store, spillSize);
                         }
                     }
+
+                    responseBody = store;
                 } else {
+                    if (receivedBody != null) {
+                        instream = receivedBody.openStream();
+                    }
+
                     try {
                         if (StringUtils.hasContent(dumpFile) && instream != null) {
                             FileOutputStream fileOutputStream = new FileOutputStream(dumpFile);
                             Tools.writeAll(fileOutputStream, instream);
                             responseReadTime = System.nanoTime() - now;
                             fileOutputStream.close();
+                            instream.close();
                             instream = new FileInputStream(dumpFile);
                         }
                     } catch (IOException e) {
                         e.printStackTrace();
                     }
 
-                    ByteArrayOutputStream outstream = instream == null ? new ByteArrayOutputStream() : Tools.readAll(
-                            instream, maxSize);
+                    responseBody = instream == null ? new ResponseBodyStore(new byte[0]) : ResponseBodyStore.read(
+                            instream, maxSize, spillSize);
 
                     if (responseReadTime == 0) {
                         responseReadTime = System.nanoTime() - now;
                     }
-
-                    responseBody = outstream.toByteArray();
                 }
             } finally {
                 if (instream != null) {
                     instream.close();
                 }
+
+                // only the first maxSize bytes of a received body have been kept
+                if (receivedBody != null && maxSize > 0 && contentLength > maxSize) {
+                    receivedBody.dispose();
+                }
             }
         }
 
-        // convert to ms
-        //responseReadTime /= 1000000;
-
         return responseBody;
     }
 
+    private static ResponseBodyStore decompress(String compressionAlg, ResponseBodyStore store, long spillSize)
+            throws IOException {
+        try {
+            InputStream decompressed = CompressionSupport.decompress(compressionAlg, store.openStream());
+            try {
+                return ResponseBodyStore.read(decompressed, 0, spillSize);
+            } finally {
+                decompressed.close();
+                store.dispose();
+            }
+        } catch (Exception e) {
+            IOException ioe = new IOException("Decompression of response failed");
+            ioe.initCause(e);
+            throw ioe;
+        }
+    }
+
     public SoapUIMetrics getMetrics() {
         return metrics;
     }
@@ -0,0 +1,126 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.impl.wsdl.submit.transports.http;
+
+import com.eviware.soapui.impl.wsdl.support.http.NonBlockingHttpClient;
+import com.eviware.soapui.impl.wsdl.support.http.ProxyUtils;
+import com.eviware.soapui.impl.wsdl.support.http.SoapUIHttpRoute;
+import com.eviware.soapui.model.iface.SubmitContext;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.protocol.ClientContext;
+import org.apache.http.protocol.HttpContext;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * HttpClientRequestTransport that sends requests through the NonBlockingHttpClient. It is not registered as the
+ * HTTP transport; RequestTransportRegistry returns it for the requests of LoadTests that have enabled
+ * {@link com.eviware.soapui.impl.wsdl.loadtest.WsdlLoadTest#getUseNonBlockingTransport()}, and it shares the
+ * request filters of the registered transport.
+ * <p/>
+ * Requests that need a proxy, a request-specific keystore or an authentication challenge are sent with the
+ * blocking HttpClient; this is decided before the request is sent and logged once per reason.
+ */
+
+public class NonBlockingHttpRequestTransport extends HttpClientRequestTransport {
+    /**
+     * SubmitContext property that selects this transport, set by the LoadTest runner
+     */
+
+    public static final String USE_NON_BLOCKING = "useNonBlockingTransport";
+    public static final String NIO_EXCHANGE = "nioExchange";
+
+    private final static Logger log = Logger.getLogger(NonBlockingHttpRequestTransport.class);
+
+    private final Set<String> loggedFallbacks = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    public NonBlockingHttpRequestTransport(HttpClientRequestTransport filterSource) {
+        super(filterSource);
+    }
+
+    @Override
+    public void abortRequest(SubmitContext submitContext) {
+        NonBlockingHttpClient.Exchange exchange = (NonBlockingHttpClient.Exchange) submitContext
+                .getProperty(NIO_EXCHANGE);
+        if (exchange != null) {
+            exchange.abort();
+        }
+
+        super.abortRequest(submitContext);
+    }
+
+    @Override
+    protected HttpResponse submitRequest(SubmitContext submitContext, ExtendedHttpMethod httpMethod,
+                                         HttpContext httpContext) throws IOException {
+        String blockingReason = getBlockingReason(httpMethod, httpContext);
+        if (blockingReason != null) {
+            if (loggedFallbacks.add(blockingReason)) {
+                log.info("Requests " + blockingReason + " are sent with the blocking HTTP client");
+            }
+
+            return super.submitRequest(submitContext, httpMethod, httpContext);
+        }
+
+        NonBlockingHttpClient.Exchange exchange = NonBlockingHttpClient.getInstance().submit(httpMethod, httpContext);
+        submitContext.setProperty(NIO_EXCHANGE, exchange);
+
+        HttpResponse response;
+        try {
+            response = exchange.getResponse();
+        } finally {
+            submitContext.removeProperty(NIO_EXCHANGE);
+        }
+
+        httpMethod.afterReadResponse(null);
+        httpMethod.setHttpResponse(response);
+
+        return response;
+    }
+
+    /**
+     * Returns why the specified request cannot be sent with the non-blocking client, or null if it can
+     */
+
+    static String getBlockingReason(ExtendedHttpMethod httpMethod, HttpContext httpContext) {
+        String scheme = httpMethod.getURI().getScheme();
+        if (!"http".equalsIgnoreCase(scheme) && !"https".equalsIgnoreCase(scheme)) {
+            return "for " + scheme + " endpoints";
+        }
+
+        if (ProxyUtils.isProxyEnabled()) {
+            return "through a proxy";
+        }
+
+        if (httpMethod.getParams().getParameter(SoapUIHttpRoute.SOAPUI_SSL_CONFIG) != null) {
+            return "with a request-specific keystore";
+        }
+
+        // credentials without a preemptive Authorization header are sent in response to a challenge, which is
+        // only handled by the blocking client
+        if (httpContext != null && httpContext.getAttribute(ClientContext.CREDS_PROVIDER) != null
+                && httpMethod.getFirstHeader("Authorization") == null) {
+            return "with non-preemptive authentication";
+        }
+
+        return null;
+    }
+}
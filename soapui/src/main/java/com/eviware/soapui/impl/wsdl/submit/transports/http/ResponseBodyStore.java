@@ -0,0 +1,393 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.impl.wsdl.submit.transports.http;
+
+import org.apache.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the body of a response. Small bodies are kept in memory, bodies larger than the spill threshold are
+ * written to a temporary file which is memory-mapped when read, so only consumers that really need the whole
+ * body as a byte array pay for a heap copy of it.
+ * <p/>
+ * A response is shared by its request, TestStep results and message exchanges, so there is no single owner that
+ * could dispose it. The temporary file of a store is therefore deleted by dispose or, at the latest, once the
+ * store is no longer reachable; files of collected stores are deleted whenever another body is spilled, and the
+ * remaining ones on exit.
+ */
+
+public class ResponseBodyStore {
+    private final static Logger log = Logger.getLogger(ResponseBodyStore.class);
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final long MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private static final ReferenceQueue<Object> collectedOwners = new ReferenceQueue<Object>();
+    private static final Set<TempFile> tempFiles = Collections
+            .newSetFromMap(new ConcurrentHashMap<TempFile, Boolean>());
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread("ResponseBodyStore cleanup") {
+            @Override
+            public void run() {
+                for (TempFile tempFile : tempFiles) {
+                    tempFile.file.delete();
+                }
+            }
+        });
+    }
+
+    private final byte[] data;
+    private final File file;
+    private final long length;
+    private TempFile tempFile;
+    private volatile SoftReference<byte[]> fileData;
+
+    public ResponseBodyStore(byte[] data) {
+        this.data = data;
+        this.file = null;
+        this.length = data.length;
+    }
+
+    private ResponseBodyStore(File file, long length) {
+        this.data = null;
+        this.file = file;
+        this.length = length;
+        this.tempFile = new TempFile(this, file);
+    }
+
+    /**
+     * Reads the stream into a new store without closing it
+     *
+     * @param instream       the stream to read
+     * @param maxSize        maximum number of bytes to read, 0 for no limit
+     * @param spillThreshold bodies larger than this are moved to a temporary file, 0 to always keep them in memory
+     */
+
+    public static ResponseBodyStore read(InputStream instream, long maxSize, long spillThreshold) throws IOException {
+        Writer writer = new Writer(spillThreshold);
+
+        try {
+            byte[] chunk = new byte[BUFFER_SIZE];
+            while (maxSize <= 0 || writer.length() < maxSize) {
+                int toRead = maxSize > 0 ? (int) Math.min(chunk.length, maxSize - writer.length()) : chunk.length;
+                int len = instream.read(chunk, 0, toRead);
+                if (len < 0) {
+                    break;
+                }
+
+                writer.write(chunk, 0, len);
+            }
+
+            return writer.finish();
+        } catch (IOException e) {
+            writer.discard();
+            throw e;
+        }
+    }
+
+    public long length() {
+        return length;
+    }
+
+    public boolean isSpilled() {
+        return file != null;
+    }
+
+    public InputStream openStream() throws IOException {
+        if (file == null) {
+            return new ByteArrayInputStream(data);
+        }
+
+        if (length > MAX_ARRAY_SIZE) {
+            return new FileInputStream(file);
+        }
+
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+            return new ByteBufferInputStream(channel.map(FileChannel.MapMode.READ_ONLY, 0, length));
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    /**
+     * Returns the whole body; for spilled bodies the copy is softly cached so it can be reclaimed under memory
+     * pressure
+     */
+
+    public byte[] getBytes() throws IOException {
+        if (file == null) {
+            return data;
+        }
+
+        byte[] result = fileData == null ? null : fileData.get();
+        if (result == null) {
+            result = getBytes(length);
+            fileData = new SoftReference<byte[]>(result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns at most the first maxSize bytes of the body, without reading the rest of a spilled body
+     */
+
+    public byte[] getBytes(long maxSize) throws IOException {
+        if (length > MAX_ARRAY_SIZE && maxSize > MAX_ARRAY_SIZE) {
+            throw new IOException("Response body of " + length + " bytes is too large to load into memory");
+        }
+
+        int size = (int) Math.min(length, maxSize);
+        if (file == null && size == length) {
+            return data;
+        }
+
+        byte[] result = new byte[size];
+        InputStream in = openStream();
+        try {
+            int offset = 0;
+            while (offset < size) {
+                int len = in.read(result, offset, size - offset);
+                if (len < 0) {
+                    throw new IOException("Unexpected end of response body in " + file);
+                }
+                offset += len;
+            }
+        } finally {
+            in.close();
+        }
+
+        return result;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        if (file == null) {
+            out.write(data);
+            return;
+        }
+
+        InputStream in = openStream();
+        try {
+            byte[] chunk = new byte[BUFFER_SIZE];
+            int len;
+            while ((len = in.read(chunk)) > 0) {
+                out.write(chunk, 0, len);
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Deletes the temporary file of a spilled body, the store cannot be read afterwards
+     */
+
+    public void dispose() {
+        if (tempFile != null) {
+            fileData = null;
+            tempFile.delete();
+        }
+    }
+
+    /**
+     * Deletes the temporary files of stores and writers that have been garbage collected without being disposed
+     */
+
+    static void deleteCollectedFiles() {
+        Reference<?> reference;
+        while ((reference = collectedOwners.poll()) != null) {
+            ((TempFile) reference).delete();
+        }
+    }
+
+    static int getTempFileCount() {
+        return tempFiles.size();
+    }
+
+    /**
+     * Temporary file of a store or writer, tracked until it has been deleted
+     */
+
+    private static class TempFile extends PhantomReference<Object> {
+        private final File file;
+
+        public TempFile(Object owner, File file) {
+            super(owner, collectedOwners);
+            this.file = file;
+            tempFiles.add(this);
+        }
+
+        /**
+         * Stops tracking the file without deleting it, after it has been handed over to another owner
+         */
+
+        public void release() {
+            clear();
+            tempFiles.remove(this);
+        }
+
+        public void delete() {
+            clear();
+            if (!tempFiles.contains(this)) {
+                return;
+            }
+
+            if (file.delete() || !file.exists()) {
+                tempFiles.remove(this);
+            } else {
+                // a mapped buffer may still be open, the file is deleted on exit
+                log.debug("Failed to delete temporary response file " + file + ", will retry on exit");
+            }
+        }
+    }
+
+    /**
+     * Collects a body that arrives in chunks, for example from a non-blocking connection, moving it to a temporary
+     * file once it grows larger than the spill threshold
+     */
+
+    public static class Writer {
+        private final long spillThreshold;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream(BUFFER_SIZE);
+        private OutputStream out = buffer;
+        private File file;
+        private TempFile tempFile;
+        private long length;
+
+        /**
+         * @param spillThreshold bodies larger than this are moved to a temporary file, 0 to always keep them in
+         *                       memory
+         */
+
+        public Writer(long spillThreshold) {
+            this.spillThreshold = spillThreshold;
+        }
+
+        public void write(byte[] chunk, int offset, int len) throws IOException {
+            if (file == null && spillThreshold > 0 && length + len > spillThreshold) {
+                deleteCollectedFiles();
+
+                file = File.createTempFile("soapui-response", ".tmp");
+                tempFile = new TempFile(this, file);
+                out = new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE);
+                buffer.writeTo(out);
+                buffer = null;
+            }
+
+            out.write(chunk, offset, len);
+            length += len;
+        }
+
+        public long length() {
+            return length;
+        }
+
+        /**
+         * Returns the store with everything written so far, the writer cannot be used afterwards
+         */
+
+        public ResponseBodyStore finish() throws IOException {
+            out.close();
+            if (file == null) {
+                return new ResponseBodyStore(buffer.toByteArray());
+            }
+
+            ResponseBodyStore store = new ResponseBodyStore(file, length);
+            tempFile.release();
+            return store;
+        }
+
+        /**
+         * Drops everything written so far, deleting the temporary file if one was created
+         */
+
+        public void discard() {
+            try {
+                out.close();
+            } catch (IOException e) {
+                log.debug("Failed to close temporary response file " + file + ": " + e);
+            }
+
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        public ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+
+            len = Math.min(len, buffer.remaining());
+            buffer.get(b, off, len);
+            return len;
+        }
+
+        @Override
+        public long skip(long n) {
+            int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+
+package com.eviware.soapui.impl.wsdl.submit.transports.http;
+
+import org.apache.http.entity.AbstractHttpEntity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Response entity for a body that has already been read into a ResponseBodyStore, so HttpMethodSupport can use the
+ * store as is instead of reading the body a second time
+ */
+
+public class ResponseBodyStoreEntity extends AbstractHttpEntity {
+    private final ResponseBodyStore store;
+
+    public ResponseBodyStoreEntity(ResponseBodyStore store) {
+        this.store = store;
+    }
+
+    public ResponseBodyStore getStore() {
+        return store;
+    }
+
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    public long getContentLength() {
+        return store.length();
+    }
+
+    public InputStream getContent() throws IOException {
+        return store.openStream();
+    }
+
+    public void writeTo(OutputStream outstream) throws IOException {
+        store.writeTo(outstream);
+    }
+
+    public boolean isStreaming() {
+        return false;
+    }
+}
@@ -25,7 +25,9 @@ import com.eviware.soapui.settings.WsdlSettings;
 import com.eviware.soapui.support.StringUtils;
 import com.eviware.soapui.support.xml.XmlUtils;
 
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.lang.ref.SoftReference;
 
 /**
  * Simple response to a request
@@ -38,6 +40,11 @@ public class SinglePartHttpResponse extends BaseHttpResponse {
     private String requestContent;
     private boolean prettyPrint;
     private long responseSize;
+    private int contentOffset;
+    private String responseCharset;
+    private ResponseBodyStore spilledResponseBody;
+    private SoftReference<String> spilledResponseContent;
+    private boolean spilledResponseContentPrettyPrinted;
 
     public SinglePartHttpResponse(AbstractHttpRequestInterface<?> httpRequest, ExtendedHttpMethod httpMethod,
                                   String requestContent, PropertyExpansionContext context) {
@@ -48,20 +55,19 @@ public class SinglePartHttpResponse extends BaseHttpResponse {
         }
 
         try {
-            byte[] responseBody = httpMethod.getResponseBody();
-            int contentOffset = 0;
+            ResponseBodyStore responseBody = httpMethod.getResponseBodyStore();
             if (responseBody == null) {
-                responseBody = new byte[0];
+                responseBody = new ResponseBodyStore(new byte[0]);
             }
 
-            responseSize = responseBody.length;
+            responseSize = responseBody.length();
 
             String contentType = httpMethod.getResponseContentType();
             String charset = httpMethod.getResponseCharSet();
 
             if (contentType != null && contentType.toLowerCase().endsWith("xml")) {
-                if (responseSize > 3 && responseBody[0] == (byte) 239 && responseBody[1] == (byte) 187
-                        && responseBody[2] == (byte) 191) {
+                byte[] start = responseBody.getBytes(3);
+                if (responseSize > 3 && start[0] == (byte) 239 && start[1] == (byte) 187 && start[2] == (byte) 191) {
                     charset = "UTF-8";
                     contentOffset = 3;
                 }
@@ -71,15 +77,13 @@ public class SinglePartHttpResponse extends BaseHttpResponse {
                 charset = httpRequest.getEncoding();
             }
 
-            charset = StringUtils.unquote(charset);
+            responseCharset = StringUtils.unquote(charset);
 
-            try {
-                responseContent = responseBody.length == 0 ? null : charset == null ? new String(responseBody,
-                        contentOffset, (int) (responseSize - contentOffset)) : new String(responseBody, contentOffset,
-                        (int) (responseSize - contentOffset), charset);
-            } catch (UnsupportedEncodingException e) {
-                SoapUI.getErrorLog().warn(e.toString());
-                responseContent = new String(responseBody, contentOffset, (int) (responseSize - contentOffset));
+            // large bodies stay on disk until somebody actually asks for the content
+            if (responseBody.isSpilled()) {
+                spilledResponseBody = responseBody;
+            } else {
+                responseContent = decodeResponseContent(responseBody);
             }
 
             prettyPrint = httpRequest.getSettings().getBoolean(WsdlSettings.PRETTY_PRINT_RESPONSE_MESSAGES);
@@ -88,7 +92,53 @@ public class SinglePartHttpResponse extends BaseHttpResponse {
         }
     }
 
+    private String decodeResponseContent(ResponseBodyStore responseBody) throws IOException {
+        byte[] data = responseBody.getBytes();
+        int length = data.length - contentOffset;
+
+        try {
+            return data.length == 0 ? null : responseCharset == null ? new String(data, contentOffset, length)
+                    : new String(data, contentOffset, length, responseCharset);
+        } catch (UnsupportedEncodingException e) {
+            SoapUI.getErrorLog().warn(e.toString());
+            return new String(data, contentOffset, length);
+        }
+    }
+
+    /**
+     * Decodes the content of a body that has been spilled to disk; the result is only softly cached, so it can be
+     * reclaimed under memory pressure and is then decoded again from the file
+     */
+
+    private String getSpilledResponseContent(boolean prettyPrint) {
+        String content = spilledResponseContent == null ? null : spilledResponseContent.get();
+        if (content == null || (prettyPrint && !spilledResponseContentPrettyPrinted)) {
+            if (content == null) {
+                try {
+                    content = decodeResponseContent(spilledResponseBody);
+                } catch (IOException e) {
+                    SoapUI.logError(e);
+                    return null;
+                }
+                spilledResponseContentPrettyPrinted = false;
+            }
+
+            if (prettyPrint) {
+                content = XmlUtils.prettyPrintXml(content);
+                spilledResponseContentPrettyPrinted = true;
+            }
+
+            spilledResponseContent = new SoftReference<String>(content);
+        }
+
+        return content;
+    }
+
     public String getContentAsString() {
+        if (spilledResponseBody != null) {
+            return getSpilledResponseContent(prettyPrint);
+        }
+
         if (prettyPrint) {
             responseContent = XmlUtils.prettyPrintXml(responseContent);
             prettyPrint = false;
@@ -98,7 +148,7 @@ public class SinglePartHttpResponse extends BaseHttpResponse {
     }
 
     protected String getResponseContent() {
-        return responseContent;
+        return spilledResponseBody == null ? responseContent : getSpilledResponseContent(false);
     }
 
     public long getContentLength() {
@@ -110,7 +160,9 @@ public class SinglePartHttpResponse extends BaseHttpResponse {
     }
 
     public void setResponseContent(String responseContent) {
-        String oldContent = this.responseContent;
+        String oldContent = getResponseContent();
+        spilledResponseBody = null;
+        spilledResponseContent = null;
         this.responseContent = responseContent;
 
         ((AbstractHttpRequest<?>) getRequest()).notifyPropertyChanged(WsdlRequest.RESPONSE_CONTENT_PROPERTY,
@@ -2,6 +2,7 @@ package com.eviware.soapui.impl.wsdl.submit.transports.http.support.methods;
 
 import com.eviware.soapui.impl.wsdl.submit.transports.http.ExtendedHttpMethod;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.HttpMethodSupport;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.ResponseBodyStore;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.SSLInfo;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.support.metrics.SoapUIMetrics;
 import org.apache.commons.httpclient.util.EncodingUtil;
@@ -131,6 +132,10 @@ public class ExtendedCopyMethod extends HttpCopyMethod implements ExtendedHttpMe
         return httpMethodSupport.getResponseBody();
     }
 
+    public ResponseBodyStore getResponseBodyStore() throws IOException {
+        return httpMethodSupport.getResponseBodyStore();
+    }
+
     @Override
     public String getResponseBodyAsString() throws IOException {
         byte[] rawdata = getResponseBody();
@@ -18,6 +18,7 @@ package com.eviware.soapui.impl.wsdl.submit.transports.http.support.methods;
 
 import com.eviware.soapui.impl.wsdl.submit.transports.http.ExtendedEntityEnclosingHttpMethod;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.HttpMethodSupport;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.ResponseBodyStore;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.SSLInfo;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.support.metrics.SoapUIMetrics;
 import org.apache.commons.httpclient.util.EncodingUtil;
@@ -112,6 +113,10 @@ public final class ExtendedGenericMethod extends HttpPost implements ExtendedEnt
         return httpMethodSupport.getResponseBody();
     }
 
+    public ResponseBodyStore getResponseBodyStore() throws IOException {
+        return httpMethodSupport.getResponseBodyStore();
+    }
+
     public SSLInfo getSSLInfo() {
         return httpMethodSupport.getSSLInfo();
     }
@@ -19,6 +19,7 @@ package com.eviware.soapui.impl.wsdl.submit.transports.http.support.methods;
 import com.eviware.soapui.impl.rest.RestRequestInterface;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.ExtendedHttpMethod;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.HttpMethodSupport;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.ResponseBodyStore;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.SSLInfo;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.support.metrics.SoapUIMetrics;
 import org.apache.commons.httpclient.util.EncodingUtil;
@@ -151,6 +152,10 @@ public final class ExtendedHeadMethod extends HttpHead implements ExtendedHttpMe
         return httpMethodSupport.getResponseBody();
     }
 
+    public ResponseBodyStore getResponseBodyStore() throws IOException {
+        return httpMethodSupport.getResponseBodyStore();
+    }
+
     public String getResponseBodyAsString() throws IOException {
         byte[] rawdata = getResponseBody();
         if (rawdata != null) {
@@ -69,9 +69,17 @@ public abstract class AbstractTestRunner<T extends TestRunnable, T2 extends Test
     }
 
     public void start(boolean async) {
+        start(async, TestRunExecutor.getShared());
+    }
+
+    /**
+     * Starts this runner, when async on the specified executor
+     */
+
+    public void start(boolean async, TestRunExecutor executor) {
         status = Status.RUNNING;
         if (async) {
-            future = SoapUI.getThreadPool().submit(this);
+            future = executor.submit(this);
         } else {
             run();
         }
@@ -21,6 +21,7 @@ import org.apache.http.HttpResponse;
 import org.apache.http.HttpVersion;
 import org.apache.http.client.protocol.ResponseContentEncoding;
 import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.message.BasicHttpResponse;
 import org.apache.http.message.BasicStatusLine;
 
@@ -87,6 +88,19 @@ public class CompressionSupport {
         return IOUtils.toByteArray(response.getEntity().getContent());
     }
 
+    /**
+     * Streaming variant of {@link #decompress(String, byte[])} for content that should not be held in memory
+     */
+
+    public static InputStream decompress(String alg, InputStream content) throws Exception {
+        HttpResponse response = new BasicHttpResponse(new BasicStatusLine(new HttpVersion(1, 0), 0, null));
+        InputStreamEntity entity = new InputStreamEntity(content, -1);
+        entity.setContentEncoding(alg);
+        response.setEntity(entity);
+        new ResponseContentEncoding().process(response, null);
+        return response.getEntity().getContent();
+    }
+
     // createCompressionInputStream can be used in the future if
     // PipedInputStreams are used
     // for sending compressed data instead of creating compressed byte array
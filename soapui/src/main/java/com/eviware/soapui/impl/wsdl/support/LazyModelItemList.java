@@ -0,0 +1,176 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.impl.wsdl.support;
+
+import com.eviware.soapui.config.ModelItemConfig;
+import com.eviware.soapui.impl.wsdl.AbstractWsdlModelItem;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * List of child ModelItems that can be built from their configuration on first access.
+ * <p/>
+ * Items added with {@link #addUnbuilt} are only created when they are retrieved with {@link #get}, which also
+ * happens when iterating over the list. Name and id lookups, indexOf and the other query methods use the
+ * configuration of items that have not been built yet, so they never build items they don't return. Items added
+ * with add/set are regular, already built items.
+ */
+
+public abstract class LazyModelItemList<T extends AbstractWsdlModelItem<C>, C extends ModelItemConfig> extends
+        AbstractList<T> {
+    private final List<T> items = new ArrayList<T>();
+    private final List<C> configs = new ArrayList<C>();
+
+    /**
+     * Creates the item for the specified configuration
+     */
+
+    protected abstract T build(C config);
+
+    /**
+     * Called after an item has been built and added to this list, so it can be looked up by the item itself
+     */
+
+    protected void afterBuild(T item) {
+    }
+
+    public synchronized void addUnbuilt(C config) {
+        items.add(null);
+        configs.add(config);
+        modCount++;
+    }
+
+    @Override
+    public synchronized T get(int index) {
+        T item = items.get(index);
+        if (item == null) {
+            item = build(configs.get(index));
+            items.set(index, item);
+            configs.set(index, null);
+            afterBuild(item);
+        }
+
+        return item;
+    }
+
+    @Override
+    public synchronized int size() {
+        return items.size();
+    }
+
+    @Override
+    public synchronized void add(int index, T item) {
+        items.add(index, item);
+        configs.add(index, null);
+        modCount++;
+    }
+
+    @Override
+    public synchronized T set(int index, T item) {
+        T old = get(index);
+        items.set(index, item);
+        return old;
+    }
+
+    @Override
+    public synchronized T remove(int index) {
+        T item = get(index);
+        items.remove(index);
+        configs.remove(index);
+        modCount++;
+        return item;
+    }
+
+    @Override
+    public synchronized int indexOf(Object o) {
+        return o == null ? -1 : items.indexOf(o);
+    }
+
+    @Override
+    public synchronized int lastIndexOf(Object o) {
+        return o == null ? -1 : items.lastIndexOf(o);
+    }
+
+    public synchronized boolean isBuilt(int index) {
+        return items.get(index) != null;
+    }
+
+    /**
+     * Returns the configuration of the item at the specified index without building it
+     */
+
+    public synchronized C getConfig(int index) {
+        T item = items.get(index);
+        return item == null ? configs.get(index) : item.getConfig();
+    }
+
+    /**
+     * Replaces the configuration of an item that has not been built yet, for example after moving items
+     */
+
+    public synchronized void setUnbuiltConfig(int index, C config) {
+        if (items.get(index) != null) {
+            throw new IllegalStateException("Item at index " + index + " has already been built");
+        }
+
+        configs.set(index, config);
+    }
+
+    public synchronized String getNameAt(int index) {
+        return getConfig(index).getName();
+    }
+
+    public synchronized int indexOfName(String name) {
+        for (int c = 0; c < items.size(); c++) {
+            String itemName = getNameAt(c);
+            if (itemName != null && itemName.equals(name)) {
+                return c;
+            }
+        }
+
+        return -1;
+    }
+
+    public synchronized int indexOfId(String id) {
+        for (int c = 0; c < items.size(); c++) {
+            String itemId = getConfig(c).getId();
+            if (itemId != null && itemId.equals(id)) {
+                return c;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the items that have been built so far, in list order
+     */
+
+    public synchronized List<T> getBuiltItems() {
+        List<T> result = new ArrayList<T>();
+        for (T item : items) {
+            if (item != null) {
+                result.add(item);
+            }
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.impl.wsdl.support;
+
+import com.eviware.soapui.SoapUI;
+import org.apache.log4j.Logger;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes test runners, either on the shared SoapUI thread pool or on a dedicated executor that starts one
+ * virtual thread per runner. Virtual threads are looked up reflectively since they require Java 21; on older
+ * runtimes the dedicated executor falls back to an unbounded pool of platform threads, which still keeps
+ * LoadTest threads from starving the shared pool used by mocks, submits and the UI.
+ */
+
+public abstract class TestRunExecutor {
+    private final static Logger log = Logger.getLogger(TestRunExecutor.class);
+
+    private final static TestRunExecutor SHARED = new SharedTestRunExecutor();
+
+    // every run asks for virtual threads again, so falling back to platform threads is only reported once
+    final static AtomicBoolean fallbackLogged = new AtomicBoolean();
+
+    public abstract Future<?> submit(Runnable runnable);
+
+    /**
+     * Releases the threads of this executor once all submitted runners have finished; does nothing for the
+     * shared executor
+     */
+
+    public abstract void shutdown();
+
+    public abstract boolean isVirtual();
+
+    /**
+     * Returns the executor wrapping SoapUI.getThreadPool()
+     */
+
+    public static TestRunExecutor getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Creates an executor for a single run
+     *
+     * @param virtualThreads if a dedicated virtual-thread executor should be created, otherwise the shared
+     *                       executor is returned
+     * @param name           prefix for the names of created threads
+     */
+
+    public static TestRunExecutor create(boolean virtualThreads, String name) {
+        if (!virtualThreads) {
+            return SHARED;
+        }
+
+        return createDedicated(createVirtualThreadFactory(name), name);
+    }
+
+    /**
+     * Creates a dedicated executor on the specified virtual thread factory, or on platform threads if it is null
+     */
+
+    static TestRunExecutor createDedicated(ThreadFactory virtualFactory, String name) {
+        if (virtualFactory != null) {
+            try {
+                Method method = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+                ExecutorService executor = (ExecutorService) method.invoke(null,
+                        new ContextClassLoaderThreadFactory(virtualFactory));
+                return new DedicatedTestRunExecutor(executor, true);
+            } catch (Exception e) {
+                if (fallbackLogged.compareAndSet(false, true)) {
+                    log.warn("Failed to create virtual thread executor, using platform threads: " + e);
+                }
+            }
+        } else if (fallbackLogged.compareAndSet(false, true)) {
+            log.info("Virtual threads are not available in this Java version, using platform threads");
+        }
+
+        return new DedicatedTestRunExecutor(Executors.newCachedThreadPool(new ContextClassLoaderThreadFactory(
+                new NamedThreadFactory(name))), false);
+    }
+
+    /**
+     * Creates an executor that runs at most the specified number of runners at a time
+     *
+     * @param threads the number of platform threads
+     * @param name    prefix for the names of created threads
+     */
+
+    public static TestRunExecutor createFixed(int threads, String name) {
+        return new DedicatedTestRunExecutor(Executors.newFixedThreadPool(threads, new ContextClassLoaderThreadFactory(
+                new NamedThreadFactory(name))), false);
+    }
+
+    /**
+     * Returns a factory for virtual threads named after the specified prefix, or null before Java 21
+     */
+
+    static ThreadFactory createVirtualThreadFactory(String name) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, name + "-", 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static class SharedTestRunExecutor extends TestRunExecutor {
+        public Future<?> submit(Runnable runnable) {
+            return SoapUI.getThreadPool().submit(runnable);
+        }
+
+        public void shutdown() {
+        }
+
+        public boolean isVirtual() {
+            return false;
+        }
+    }
+
+    private static class DedicatedTestRunExecutor extends TestRunExecutor {
+        private final ExecutorService executor;
+        private final boolean virtual;
+
+        public DedicatedTestRunExecutor(ExecutorService executor, boolean virtual) {
+            this.executor = executor;
+            this.virtual = virtual;
+        }
+
+        public Future<?> submit(Runnable runnable) {
+            return executor.submit(runnable);
+        }
+
+        public void shutdown() {
+            executor.shutdown();
+        }
+
+        public boolean isVirtual() {
+            return virtual;
+        }
+    }
+
+    /**
+     * Gives created threads the extension classloader, like the threads of the shared pool
+     */
+
+    private static class ContextClassLoaderThreadFactory implements ThreadFactory {
+        private final ThreadFactory threadFactory;
+
+        public ContextClassLoaderThreadFactory(ThreadFactory threadFactory) {
+            this.threadFactory = threadFactory;
+        }
+
+        public Thread newThread(Runnable r) {
+            Thread thread = threadFactory.newThread(r);
+            if (SoapUI.getSoapUICore() != null) {
+                thread.setContextClassLoader(SoapUI.getSoapUICore().getExtensionClassLoader());
+            }
+
+            return thread;
+        }
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final String name;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        public NamedThreadFactory(String name) {
+            this.name = name;
+        }
+
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, name + "-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -28,6 +28,7 @@ import com.eviware.soapui.model.testsuite.RenameableTestProperty;
 import com.eviware.soapui.model.testsuite.TestProperty;
 import com.eviware.soapui.model.testsuite.TestPropertyListener;
 import com.eviware.soapui.support.StringUtils;
+import org.apache.log4j.Logger;
 import org.apache.xmlbeans.SchemaType;
 import org.apache.xmlbeans.XmlString;
 
@@ -39,14 +40,21 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class XmlBeansPropertiesTestPropertyHolder implements MutableTestPropertyHolder, Map<String, TestProperty> {
+    private final static Logger log = Logger.getLogger(XmlBeansPropertiesTestPropertyHolder.class);
+
+    private final static ThreadLocal<Object> runScopeOwner = new ThreadLocal<Object>();
+
     private PropertiesTypeConfig config;
     private List<PropertiesStepProperty> properties = new ArrayList<PropertiesStepProperty>();
     private Map<String, PropertiesStepProperty> propertyMap = new LinkedHashMap<String, PropertiesStepProperty>();
@@ -54,6 +62,9 @@ public class XmlBeansPropertiesTestPropertyHolder implements MutableTestProperty
     private ModelItem modelItem;
     private Properties overrideProperties;
     private String propertiesLabel = "Test Properties";
+    private volatile RunScope runScope;
+
+    private final static String NULL_VALUE = new String();
 
     public XmlBeansPropertiesTestPropertyHolder(ModelItem modelItem, PropertiesTypeConfig config) {
         this.modelItem = modelItem;
@@ -211,6 +222,138 @@ public class XmlBeansPropertiesTestPropertyHolder implements MutableTestProperty
         }
     }
 
+    /**
+     * Marks the current thread as one of the threads of the specified run, see {@link #beginRunScope(Object)}
+     *
+     * @param owner the run, or null to unmark the thread
+     * @return the run the thread belonged to before
+     */
+
+    public static Object setRunScopeOwner(Object owner) {
+        Object previous = runScopeOwner.get();
+        if (owner == null) {
+            runScopeOwner.remove();
+        } else {
+            runScopeOwner.set(owner);
+        }
+
+        return previous;
+    }
+
+    /**
+     * Starts a run scope for the specified run: threads marked with {@link #setRunScopeOwner(Object)} read
+     * property values from a concurrent copy of the configuration and write them to a map of their own run, so
+     * that concurrent runners do not contend on the project document. Other threads, like the UI or runs without
+     * a scope, keep reading and writing the configuration, their writes also update the copy. Scopes of the same
+     * run may be nested, its values are kept until its outermost scope ends.
+     */
+
+    public synchronized void beginRunScope(Object owner) {
+        RunScope scope = runScope;
+        if (scope == null) {
+            scope = new RunScope();
+            for (PropertiesStepProperty property : properties) {
+                if (!property.isVirtualProperty()) {
+                    String value = property.propertyConfig.getValue();
+                    scope.values.put(property.getName(), value == null ? NULL_VALUE : value);
+                }
+            }
+
+            runScope = scope;
+        }
+
+        Integer count = scope.owners.get(owner);
+        if (count == null) {
+            scope.owners.put(owner, 1);
+            scope.overlays.put(owner, new ConcurrentHashMap<String, String>());
+        } else {
+            scope.owners.put(owner, count + 1);
+        }
+    }
+
+    /**
+     * Ends a run scope started with {@link #beginRunScope(Object)}
+     *
+     * @param writeBack if values written by the threads of the run should be written to the configuration when
+     *                  its outermost scope ends, otherwise they are discarded
+     */
+
+    public synchronized void endRunScope(Object owner, boolean writeBack) {
+        RunScope scope = runScope;
+        Integer count = scope == null ? null : scope.owners.get(owner);
+        if (count == null) {
+            return;
+        }
+
+        if (count > 1) {
+            scope.owners.put(owner, count - 1);
+            return;
+        }
+
+        scope.owners.remove(owner);
+        Map<String, String> overlay = scope.overlays.remove(owner);
+        if (scope.owners.isEmpty()) {
+            runScope = null;
+        }
+
+        if (overlay.isEmpty()) {
+            return;
+        }
+
+        if (writeBack) {
+            for (Map.Entry<String, String> entry : overlay.entrySet()) {
+                PropertiesStepProperty property = getProperty(entry.getKey());
+                if (property != null && !property.isVirtualProperty()) {
+                    String value = entry.getValue() == NULL_VALUE ? null : entry.getValue();
+                    property.propertyConfig.setValue(value);
+                    if (runScope != null) {
+                        runScope.values.put(entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+        } else {
+            log.info("Discarding " + overlay.size() + " " + propertiesLabel + " value(s) of ["
+                    + (modelItem == null ? "" : modelItem.getName()) + "] changed during the run: "
+                    + overlay.keySet());
+        }
+    }
+
+    public boolean isInRunScope() {
+        return runScope != null;
+    }
+
+    private static class RunScope {
+        // values of the configuration, also updated by writes of threads outside the runs
+        private final ConcurrentMap<String, String> values = new ConcurrentHashMap<String, String>();
+        // values written by the threads of each run
+        private final ConcurrentMap<Object, ConcurrentMap<String, String>> overlays =
+                new ConcurrentHashMap<Object, ConcurrentMap<String, String>>();
+        // nesting count of each run, guarded by the holder
+        private final Map<Object, Integer> owners = new HashMap<Object, Integer>();
+
+        /**
+         * Returns the values written by the run of the current thread, or null if it is not one of the runs of
+         * this scope
+         */
+
+        private ConcurrentMap<String, String> getOverlay() {
+            Object owner = runScopeOwner.get();
+            return owner == null ? null : overlays.get(owner);
+        }
+
+        private void rename(String oldName, String name) {
+            if (values.containsKey(oldName)) {
+                values.put(name, values.remove(oldName));
+            }
+
+            for (ConcurrentMap<String, String> overlay : overlays.values()) {
+                if (overlay.containsKey(oldName)) {
+                    overlay.put(name, overlay.remove(oldName));
+                }
+            }
+        }
+    }
+
     public void resetPropertiesConfig(PropertiesTypeConfig config) {
         this.config = config;
 
@@ -242,10 +385,12 @@ public class XmlBeansPropertiesTestPropertyHolder implements MutableTestProperty
     public class PropertiesStepProperty implements RenameableTestProperty {
         private PropertyConfig propertyConfig;
         private final TestProperty virtualProperty;
+        private volatile String name;
 
         public PropertiesStepProperty(PropertyConfig propertyConfig, TestProperty virtualProperty) {
             this.propertyConfig = propertyConfig;
             this.virtualProperty = virtualProperty;
+            this.name = propertyConfig.getName();
         }
 
         public boolean isVirtualProperty() {
@@ -254,15 +399,22 @@ public class XmlBeansPropertiesTestPropertyHolder implements MutableTestProperty
 
         public void setConfig(PropertyConfig propertyConfig) {
             this.propertyConfig = propertyConfig;
+            this.name = propertyConfig.getName();
         }
 
         public String getName() {
-            return propertyConfig.getName();
+            return name;
         }
 
         public void setName(String name) {
             String oldName = getName();
             propertyConfig.setName(name);
+            this.name = name;
+
+            RunScope scope = runScope;
+            if (scope != null) {
+                scope.rename(oldName, name);
+            }
 
             propertyMap.remove(oldName.toUpperCase());
             propertyMap.put(name.toUpperCase(), this);
@@ -287,12 +439,35 @@ public class XmlBeansPropertiesTestPropertyHolder implements MutableTestProperty
                 return virtualProperty.getValue();
             }
 
+            RunScope scope = runScope;
+            Map<String, String> overlay = scope == null ? null : scope.getOverlay();
+            if (overlay != null) {
+                String value = overlay.get(name);
+                if (value == null) {
+                    value = scope.values.get(name);
+                }
+
+                if (value != null) {
+                    return value == NULL_VALUE ? null : value;
+                }
+            }
+
             return propertyConfig.getValue();
         }
 
         public void setValue(String value) {
             String oldValue = getValue();
-            propertyConfig.setValue(value);
+
+            RunScope scope = runScope;
+            Map<String, String> overlay = scope == null || virtualProperty != null ? null : scope.getOverlay();
+            if (overlay != null) {
+                overlay.put(name, value == null ? NULL_VALUE : value);
+            } else {
+                propertyConfig.setValue(value);
+                if (scope != null && virtualProperty == null) {
+                    scope.values.put(name, value == null ? NULL_VALUE : value);
+                }
+            }
 
             if (overrideProperties != null && overrideProperties.containsKey(getName())) {
                 overrideProperties.remove(getName());
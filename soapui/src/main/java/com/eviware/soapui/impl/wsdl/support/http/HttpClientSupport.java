@@ -40,6 +40,7 @@ import org.apache.http.conn.ClientConnectionManager;
 import org.apache.http.conn.scheme.PlainSocketFactory;
 import org.apache.http.conn.scheme.Scheme;
 import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.scheme.SchemeSocketFactory;
 import org.apache.http.impl.client.BasicCookieStore;
 import org.apache.http.impl.client.DefaultHttpClient;
 import org.apache.http.impl.client.RequestWrapper;
@@ -50,6 +51,7 @@ import org.apache.http.protocol.HttpProcessor;
 import org.apache.http.protocol.HttpRequestExecutor;
 import org.apache.log4j.Logger;
 
+import javax.net.ssl.SSLContext;
 import java.io.File;
 import java.io.IOException;
 import java.net.ProxySelector;
@@ -314,6 +316,17 @@ public class HttpClientSupport {
         return helper.getHttpClient();
     }
 
+    /**
+     * Returns the SSLContext of the https socket factory, configured with the global keystore
+     */
+
+    public static SSLContext getSSLContext() {
+        Scheme scheme = helper.getRegistry().get("https");
+        SchemeSocketFactory socketFactory = scheme == null ? null : scheme.getSchemeSocketFactory();
+        return socketFactory instanceof SoapUISSLSocketFactory ? ((SoapUISSLSocketFactory) socketFactory)
+                .getSSLContext() : null;
+    }
+
     public static void setProxySelector(ProxySelector proxySelector) {
         getHttpClient().setRoutePlanner(new OverridableProxySelectorRoutePlanner(helper.getRegistry(), proxySelector));
     }
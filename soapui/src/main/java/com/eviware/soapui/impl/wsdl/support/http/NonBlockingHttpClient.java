@@ -0,0 +1,1027 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.impl.wsdl.support.http;
+
+import com.eviware.soapui.SoapUI;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.ExtendedHttpMethod;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.HttpMethodSupport;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.ResponseBodyStore;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.ResponseBodyStoreEntity;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.support.metrics.SoapUIMetrics;
+import com.eviware.soapui.settings.HttpSettings;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.CookieStore;
+import org.apache.http.client.params.CookiePolicy;
+import org.apache.http.client.params.HttpClientParams;
+import org.apache.http.client.protocol.ClientContext;
+import org.apache.http.conn.params.ConnRoutePNames;
+import org.apache.http.cookie.Cookie;
+import org.apache.http.cookie.CookieOrigin;
+import org.apache.http.cookie.CookieSpec;
+import org.apache.http.cookie.MalformedCookieException;
+import org.apache.http.cookie.SM;
+import org.apache.http.impl.DefaultConnectionReuseStrategy;
+import org.apache.http.impl.cookie.BestMatchSpec;
+import org.apache.http.impl.nio.DefaultClientIOEventDispatch;
+import org.apache.http.impl.nio.SSLClientIOEventDispatch;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.message.BasicHttpEntityEnclosingRequest;
+import org.apache.http.message.BasicHttpRequest;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.NHttpClientConnection;
+import org.apache.http.nio.NHttpClientHandler;
+import org.apache.http.nio.entity.ConsumingNHttpEntity;
+import org.apache.http.nio.entity.ConsumingNHttpEntityTemplate;
+import org.apache.http.nio.entity.ContentListener;
+import org.apache.http.nio.entity.NByteArrayEntity;
+import org.apache.http.nio.protocol.AsyncNHttpClientHandler;
+import org.apache.http.nio.protocol.NHttpRequestExecutionHandler;
+import org.apache.http.nio.reactor.ConnectingIOReactor;
+import org.apache.http.nio.reactor.IOEventDispatch;
+import org.apache.http.nio.reactor.SessionRequest;
+import org.apache.http.nio.reactor.SessionRequestCallback;
+import org.apache.http.params.CoreConnectionPNames;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.params.SyncBasicHttpParams;
+import org.apache.http.protocol.ExecutionContext;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.ImmutableHttpProcessor;
+import org.apache.http.protocol.RequestConnControl;
+import org.apache.http.protocol.RequestContent;
+import org.apache.http.protocol.RequestExpectContinue;
+import org.apache.http.protocol.RequestTargetHost;
+import org.apache.http.protocol.RequestUserAgent;
+import org.apache.log4j.Logger;
+
+import javax.net.ssl.SSLContext;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * HTTP client on top of the HttpCore NIO reactor: all connections are multiplexed over a small number of
+ * selector threads, so an outstanding request does not occupy a thread while it waits for its response.
+ * <p/>
+ * Connections are kept alive and reused per target host, up to the Max Connections Per Host setting; further
+ * requests wait for one of them to become free. Requests are buffered in memory, response bodies are
+ * read into a ResponseBodyStore as they arrive, so large bodies are spilled to disk just like the bodies read by
+ * the blocking client, and the response is returned as a plain HttpResponse for the existing HttpResponse classes.
+ * Proxies, per-request keystores and authentication challenges are not handled here; see
+ * NonBlockingHttpRequestTransport for when the blocking HttpClient is used instead.
+ */
+
+public class NonBlockingHttpClient {
+    private final static Logger log = Logger.getLogger(NonBlockingHttpClient.class);
+
+    private final static String CONNECTION_STATE = "soapui.nio.connectionState";
+    private final static CookieSpec cookieSpec = new BestMatchSpec();
+
+    private static NonBlockingHttpClient instance;
+
+    private final HttpParams params;
+    private final long spillSize;
+    private final int maxConnectionsPerHost;
+    private final NHttpClientHandler asyncHandler;
+    private final Reactor plainReactor;
+    private Reactor sslReactor;
+    private SSLContext sslContext;
+    private final List<Reactor> drainingReactors = new ArrayList<Reactor>();
+    private final ConcurrentHashMap<String, Route> routes = new ConcurrentHashMap<String, Route>();
+
+    public static synchronized NonBlockingHttpClient getInstance() throws IOException {
+        if (instance == null) {
+            instance = new NonBlockingHttpClient(getIoThreadCount());
+        }
+
+        return instance;
+    }
+
+    private static int getIoThreadCount() {
+        long threads = SoapUI.getSettings().getLong(HttpSettings.NON_BLOCKING_IO_THREADS, 0);
+        return threads > 0 ? (int) threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    private NonBlockingHttpClient(int ioThreads) throws IOException {
+        this(ioThreads, (int) SoapUI.getSettings().getLong(HttpSettings.SOCKET_TIMEOUT,
+                HttpSettings.DEFAULT_SOCKET_TIMEOUT), SoapUI.getSettings().getLong(HttpSettings.RESPONSE_SPILL_SIZE,
+                HttpMethodSupport.DEFAULT_SPILL_SIZE), (int) SoapUI.getSettings().getLong(
+                HttpSettings.MAX_CONNECTIONS_PER_HOST, 500));
+    }
+
+    NonBlockingHttpClient(int ioThreads, int socketTimeout, long spillSize, int maxConnectionsPerHost)
+            throws IOException {
+        this.spillSize = spillSize;
+        this.maxConnectionsPerHost = Math.max(1, maxConnectionsPerHost);
+
+        params = new SyncBasicHttpParams();
+        params.setIntParameter(CoreConnectionPNames.SO_TIMEOUT, socketTimeout);
+        params.setIntParameter(CoreConnectionPNames.SOCKET_BUFFER_SIZE, 8 * 1024);
+        params.setBooleanParameter(CoreConnectionPNames.STALE_CONNECTION_CHECK, false);
+        params.setBooleanParameter(CoreConnectionPNames.TCP_NODELAY, true);
+
+        ImmutableHttpProcessor httpProcessor = new ImmutableHttpProcessor(new HttpRequestInterceptor[]{
+                new RequestContent(), new RequestTargetHost(), new RequestConnControl(), new RequestUserAgent(),
+                new RequestExpectContinue(), new HeaderRequestInterceptor()});
+
+        asyncHandler = new AsyncNHttpClientHandler(httpProcessor, new ExecutionHandler(),
+                new DefaultConnectionReuseStrategy(), params);
+
+        plainReactor = new Reactor("http", ioThreads, null);
+    }
+
+    /**
+     * Starts sending the specified method; the returned Exchange is used to wait for and to abort the request
+     *
+     * @param httpContext the context of the calling request, used for its cookie store and captured headers
+     */
+
+    public Exchange submit(ExtendedHttpMethod method, HttpContext httpContext) throws IOException {
+        Exchange exchange = createExchange(method, httpContext);
+        method.afterWriteRequest();
+
+        SoapUIMetrics metrics = method.getMetrics();
+        if (metrics != null) {
+            metrics.getConnectTimer().start();
+        }
+
+        if (exchange.route.assignOrQueue(exchange)) {
+            try {
+                connect(exchange);
+            } catch (IOException e) {
+                connectionFinished(exchange.route);
+                throw e;
+            }
+        }
+
+        return exchange;
+    }
+
+    Exchange createExchange(ExtendedHttpMethod method, HttpContext httpContext) throws IOException {
+        URI uri = method.getURI();
+        boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+        int port = uri.getPort() == -1 ? (secure ? 443 : 80) : uri.getPort();
+        HttpHost target = new HttpHost(uri.getHost(), port, uri.getScheme());
+
+        Object localAddress = method.getParams().getParameter(ConnRoutePNames.LOCAL_ADDRESS);
+        Route route = getRoute(target.toURI() + (localAddress == null ? "" : "@" + localAddress));
+
+        return new Exchange(method, httpContext, target, createRequest(method, target, httpContext), route);
+    }
+
+    NHttpClientHandler getHandler() {
+        return plainReactor.handler;
+    }
+
+    /**
+     * Stops the reactors and closes all connections
+     */
+
+    synchronized void shutdown() {
+        plainReactor.shutdown();
+        if (sslReactor != null) {
+            sslReactor.shutdown();
+        }
+
+        for (Reactor reactor : drainingReactors) {
+            reactor.shutdown();
+        }
+        drainingReactors.clear();
+    }
+
+    private Route getRoute(String key) {
+        Route route = routes.get(key);
+        if (route == null) {
+            routes.putIfAbsent(key, new Route());
+            route = routes.get(key);
+        }
+
+        return route;
+    }
+
+    /**
+     * Opens a new connection for the exchange, which must hold a connection slot of its route
+     */
+
+    private void connect(Exchange exchange) throws IOException {
+        SoapUIMetrics metrics = exchange.method.getMetrics();
+        if (metrics != null) {
+            metrics.getDNSTimer().start();
+        }
+
+        InetAddress address = InetAddress.getByName(exchange.target.getHostName());
+
+        if (metrics != null) {
+            metrics.getDNSTimer().stop();
+        }
+
+        InetAddress localAddress = (InetAddress) exchange.method.getParams().getParameter(
+                ConnRoutePNames.LOCAL_ADDRESS);
+
+        Reactor reactor = acquireReactor("https".equalsIgnoreCase(exchange.target.getSchemeName()));
+        SessionRequest sessionRequest = reactor.ioReactor.connect(new InetSocketAddress(address, exchange.target
+                .getPort()), localAddress == null ? null : new InetSocketAddress(localAddress, 0), exchange,
+                new ConnectCallback(reactor));
+        sessionRequest.setConnectTimeout(HttpConnectionParams.getConnectionTimeout(exchange.method.getParams()));
+        exchange.sessionRequest = sessionRequest;
+    }
+
+    /**
+     * Hands the connection slot of a closed or failed connection to the next waiting exchange of the route
+     */
+
+    private void connectionFinished(Route route) {
+        Exchange next;
+        while ((next = route.releaseSlot()) != null) {
+            try {
+                connect(next);
+                return;
+            } catch (IOException e) {
+                next.failed(e);
+            }
+        }
+    }
+
+    /**
+     * Returns the reactor for a new connection and counts the connection until releaseReactor is called for it
+     */
+
+    private synchronized Reactor acquireReactor(boolean secure) throws IOException {
+        Reactor reactor = secure ? getSslReactor() : plainReactor;
+        reactor.connections++;
+        return reactor;
+    }
+
+    private synchronized void releaseReactor(Reactor reactor) {
+        reactor.connections--;
+        if (reactor.retired && reactor.connections == 0) {
+            reactor.shutdown();
+            drainingReactors.remove(reactor);
+        }
+    }
+
+    private synchronized Reactor getSslReactor() throws IOException {
+        SSLContext context = HttpClientSupport.getSSLContext();
+        if (context == null) {
+            throw new IOException("SSL is not available");
+        }
+
+        // the keystore has been changed in the settings, requests on the old connections are left to complete
+        if (sslReactor != null && context != sslContext) {
+            retire(sslReactor);
+            sslReactor = null;
+        }
+
+        if (sslReactor == null) {
+            sslContext = context;
+            sslReactor = new Reactor("https", plainReactor.workerCount, context);
+        }
+
+        return sslReactor;
+    }
+
+    /**
+     * Stops using a reactor for new connections and shuts it down once its last connection has been closed
+     */
+
+    private synchronized void retire(Reactor reactor) {
+        reactor.retired = true;
+        if (reactor.connections == 0) {
+            reactor.shutdown();
+            return;
+        }
+
+        drainingReactors.add(reactor);
+        for (Route route : routes.values()) {
+            for (ConnectionState connection : route.removeIdle(reactor)) {
+                connection.close();
+            }
+        }
+    }
+
+    private HttpRequest createRequest(ExtendedHttpMethod method, HttpHost target, HttpContext httpContext)
+            throws IOException {
+        URI uri = method.getURI();
+        String path = uri.getRawPath();
+        if (path == null || path.length() == 0) {
+            path = "/";
+        }
+
+        if (uri.getRawQuery() != null) {
+            path += "?" + uri.getRawQuery();
+        }
+
+        HttpRequest request;
+        HttpEntity entity = method instanceof HttpEntityEnclosingRequest ? ((HttpEntityEnclosingRequest) method)
+                .getEntity() : null;
+
+        if (entity != null) {
+            // buffer the content since not all request entities can be read as a stream
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            entity.writeTo(out);
+
+            NByteArrayEntity bufferedEntity = new NByteArrayEntity(out.toByteArray());
+            bufferedEntity.setContentType(entity.getContentType());
+            bufferedEntity.setContentEncoding(entity.getContentEncoding());
+
+            BasicHttpEntityEnclosingRequest enclosingRequest = new BasicHttpEntityEnclosingRequest(
+                    method.getMethod(), path, method.getProtocolVersion());
+            enclosingRequest.setEntity(bufferedEntity);
+            request = enclosingRequest;
+        } else {
+            request = new BasicHttpRequest(method.getMethod(), path, method.getProtocolVersion());
+        }
+
+        request.setHeaders(method.getAllHeaders());
+        request.setParams(method.getParams());
+        addCookies(request, target, path, httpContext);
+
+        return request;
+    }
+
+    private static CookieStore getCookieStore(HttpRequest request, HttpContext httpContext) {
+        if (httpContext == null || CookiePolicy.IGNORE_COOKIES.equals(HttpClientParams.getCookiePolicy(request
+                .getParams()))) {
+            return null;
+        }
+
+        return (CookieStore) httpContext.getAttribute(ClientContext.COOKIE_STORE);
+    }
+
+    private static void addCookies(HttpRequest request, HttpHost target, String path, HttpContext httpContext) {
+        CookieStore cookieStore = getCookieStore(request, httpContext);
+        if (cookieStore == null) {
+            return;
+        }
+
+        CookieOrigin origin = new CookieOrigin(target.getHostName(), target.getPort(), path,
+                "https".equalsIgnoreCase(target.getSchemeName()));
+        Date now = new Date();
+        List<Cookie> cookies = new ArrayList<Cookie>();
+        for (Cookie cookie : cookieStore.getCookies()) {
+            if (!cookie.isExpired(now) && cookieSpec.match(cookie, origin)) {
+                cookies.add(cookie);
+            }
+        }
+
+        if (!cookies.isEmpty()) {
+            for (Header header : cookieSpec.formatCookies(cookies)) {
+                request.addHeader(header);
+            }
+        }
+    }
+
+    private static void processCookies(Exchange exchange, HttpResponse response) {
+        CookieStore cookieStore = getCookieStore(exchange.request, exchange.httpContext);
+        if (cookieStore == null) {
+            return;
+        }
+
+        CookieOrigin origin = new CookieOrigin(exchange.target.getHostName(), exchange.target.getPort(),
+                exchange.method.getURI().getRawPath() == null ? "/" : exchange.method.getURI().getRawPath(),
+                "https".equalsIgnoreCase(exchange.target.getSchemeName()));
+
+        for (Header header : response.getHeaders(SM.SET_COOKIE)) {
+            try {
+                for (Cookie cookie : cookieSpec.parse(header, origin)) {
+                    try {
+                        cookieSpec.validate(cookie, origin);
+                        cookieStore.addCookie(cookie);
+                    } catch (MalformedCookieException e) {
+                        log.debug("Cookie rejected: " + e.getMessage());
+                    }
+                }
+            } catch (MalformedCookieException e) {
+                log.debug("Invalid cookie header: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns the number of idle connections kept for later requests
+     */
+
+    int getIdleConnectionCount() {
+        int count = 0;
+        for (Route route : routes.values()) {
+            count += route.getIdleConnectionCount();
+        }
+
+        return count;
+    }
+
+    private void release(ConnectionState connection) {
+        if (!connection.route.release(connection)) {
+            // opened with an SSL context that is no longer used
+            connection.close();
+        }
+    }
+
+    private void closed(ConnectionState connection) {
+        connection.route.remove(connection);
+        releaseReactor(connection.reactor);
+
+        Exchange exchange = connection.exchange.getAndSet(null);
+        if (exchange != null && !exchange.isDone()) {
+            if (!exchange.submitted.get()) {
+                // the connection was closed before the request was sent, so just open a new one in its place
+                try {
+                    connect(exchange);
+                    return;
+                } catch (IOException e) {
+                    exchange.failed(e);
+                }
+            } else {
+                exchange.failed(new IOException("Connection closed before response was received"));
+            }
+        }
+
+        connectionFinished(connection.route);
+    }
+
+    /**
+     * The connections to one target host, and the requests waiting for one of them
+     */
+
+    private final class Route {
+        private final Deque<ConnectionState> idle = new ArrayDeque<ConnectionState>();
+        private final Deque<Exchange> waiting = new ArrayDeque<Exchange>();
+        private int connections;
+
+        /**
+         * Hands an idle connection to the exchange, or queues it if all connections to the host are in use
+         *
+         * @return true if a new connection has to be opened for the exchange
+         */
+
+        synchronized boolean assignOrQueue(Exchange exchange) {
+            ConnectionState connection;
+            while ((connection = idle.poll()) != null) {
+                if (connection.assign(exchange)) {
+                    return false;
+                }
+            }
+
+            if (connections >= maxConnectionsPerHost) {
+                waiting.add(exchange);
+                return false;
+            }
+
+            connections++;
+            return true;
+        }
+
+        /**
+         * Hands a connection that has completed its exchange to the next waiting exchange, or keeps it as idle
+         *
+         * @return false if the connection belongs to a retired reactor and has to be closed
+         */
+
+        synchronized boolean release(ConnectionState connection) {
+            if (connection.reactor.retired) {
+                return false;
+            }
+
+            Exchange next;
+            while ((next = waiting.poll()) != null) {
+                if (next.isDone()) {
+                    continue;
+                }
+
+                if (!connection.assign(next)) {
+                    // the connection is closing, the exchange gets the slot once it has been closed
+                    waiting.addFirst(next);
+                }
+                return true;
+            }
+
+            idle.add(connection);
+            return true;
+        }
+
+        /**
+         * Frees the slot of a connection that has been closed or could not be opened
+         *
+         * @return the waiting exchange that the slot has been handed to, which needs a new connection
+         */
+
+        synchronized Exchange releaseSlot() {
+            Exchange next;
+            while ((next = waiting.poll()) != null) {
+                if (!next.isDone()) {
+                    return next;
+                }
+            }
+
+            connections--;
+            return null;
+        }
+
+        synchronized void remove(ConnectionState connection) {
+            idle.remove(connection);
+        }
+
+        synchronized List<ConnectionState> removeIdle(Reactor reactor) {
+            List<ConnectionState> removed = new ArrayList<ConnectionState>();
+            for (Iterator<ConnectionState> iterator = idle.iterator(); iterator.hasNext(); ) {
+                ConnectionState connection = iterator.next();
+                if (connection.reactor == reactor) {
+                    iterator.remove();
+                    removed.add(connection);
+                }
+            }
+
+            return removed;
+        }
+
+        synchronized int getIdleConnectionCount() {
+            return idle.size();
+        }
+    }
+
+    /**
+     * A request sent by the NonBlockingHttpClient
+     */
+
+    public final static class Exchange {
+        private final ExtendedHttpMethod method;
+        private final HttpContext httpContext;
+        private final HttpHost target;
+        private final HttpRequest request;
+        private final Route route;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private final AtomicBoolean submitted = new AtomicBoolean();
+        private volatile SessionRequest sessionRequest;
+        private volatile ConnectionState connection;
+        private volatile HttpResponse response;
+        private volatile Object requestHeaders;
+        private volatile IOException failure;
+
+        private Exchange(ExtendedHttpMethod method, HttpContext httpContext, HttpHost target, HttpRequest request,
+                         Route route) {
+            this.method = method;
+            this.httpContext = httpContext;
+            this.target = target;
+            this.request = request;
+            this.route = route;
+        }
+
+        /**
+         * Waits in the calling thread for the response of this request. The wait is parked on the latch, so a
+         * LoadTest run on virtual threads does not hold a platform thread while the request is outstanding.
+         */
+
+        public HttpResponse getResponse() throws IOException {
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                abort();
+                throw new InterruptedIOException("Request interrupted");
+            }
+
+            if (failure != null) {
+                throw failure;
+            }
+
+            if (httpContext != null && requestHeaders != null) {
+                httpContext.setAttribute(HeaderRequestInterceptor.SOAPUI_REQUEST_HEADERS, requestHeaders);
+            }
+
+            processCookies(this, response);
+            return response;
+        }
+
+        public boolean isDone() {
+            return finished.get();
+        }
+
+        public void abort() {
+            failed(new InterruptedIOException("Request aborted"));
+
+            SessionRequest pendingRequest = sessionRequest;
+            if (pendingRequest != null && !pendingRequest.isCompleted()) {
+                pendingRequest.cancel();
+            }
+
+            ConnectionState activeConnection = connection;
+            if (activeConnection != null) {
+                try {
+                    activeConnection.conn.shutdown();
+                } catch (IOException e) {
+                    log.debug(e.toString());
+                }
+            }
+        }
+
+        private boolean completed(HttpResponse httpResponse) {
+            if (!finished.compareAndSet(false, true)) {
+                return false;
+            }
+
+            response = httpResponse;
+            done.countDown();
+            return true;
+        }
+
+        private void failed(IOException e) {
+            if (finished.compareAndSet(false, true)) {
+                failure = e;
+                done.countDown();
+            }
+        }
+    }
+
+    /**
+     * Per-connection state, kept in the context of the connection
+     */
+
+    private final class ConnectionState {
+        private final NHttpClientConnection conn;
+        private final Route route;
+        private final Reactor reactor;
+        private final AtomicReference<Exchange> exchange = new AtomicReference<Exchange>();
+
+        ConnectionState(NHttpClientConnection conn, Exchange firstExchange, Reactor reactor) {
+            this.conn = conn;
+            this.route = firstExchange.route;
+            this.reactor = reactor;
+            exchange.set(firstExchange);
+            firstExchange.connection = this;
+        }
+
+        /**
+         * Detaches an exchange that has been aborted before its request was sent and returns the connection to the
+         * idle pool
+         */
+
+        boolean releaseIfAborted(Exchange abortedExchange) {
+            if (!abortedExchange.isDone() || !exchange.compareAndSet(abortedExchange, null)) {
+                return false;
+            }
+
+            abortedExchange.connection = null;
+            if (conn.isOpen()) {
+                release(this);
+            }
+
+            return true;
+        }
+
+        /**
+         * Hands an idle connection to a new exchange and asks the reactor to send its request
+         */
+
+        boolean assign(Exchange newExchange) {
+            if (!conn.isOpen() || !exchange.compareAndSet(null, newExchange)) {
+                return false;
+            }
+
+            newExchange.connection = this;
+            SoapUIMetrics metrics = newExchange.method.getMetrics();
+            if (metrics != null) {
+                metrics.getConnectTimer().stop();
+            }
+
+            conn.requestOutput();
+            return true;
+        }
+
+        void close() {
+            try {
+                conn.close();
+            } catch (IOException e) {
+                log.debug("Failed to close connection: " + e);
+            }
+        }
+    }
+
+    private final class ConnectCallback implements SessionRequestCallback {
+        private final Reactor reactor;
+
+        ConnectCallback(Reactor reactor) {
+            this.reactor = reactor;
+        }
+
+        public void completed(SessionRequest request) {
+        }
+
+        public void failed(SessionRequest request) {
+            IOException e = request.getException();
+            failExchange(request, e == null ? new ConnectException("Connect failed") : e);
+        }
+
+        public void timeout(SessionRequest request) {
+            failExchange(request, new SocketTimeoutException("Connect timed out"));
+        }
+
+        public void cancelled(SessionRequest request) {
+            failExchange(request, new InterruptedIOException("Connect cancelled"));
+        }
+
+        private void failExchange(SessionRequest request, IOException e) {
+            releaseReactor(reactor);
+
+            Object attachment = request.getAttachment();
+            if (attachment instanceof Exchange) {
+                Exchange exchange = (Exchange) attachment;
+                exchange.failed(e);
+                connectionFinished(exchange.route);
+            }
+        }
+    }
+
+    /**
+     * Supplies the requests of the exchanges and completes them with the buffered responses
+     */
+
+    private final class ExecutionHandler implements NHttpRequestExecutionHandler {
+        public void initalizeContext(HttpContext context, Object attachment) {
+        }
+
+        public HttpRequest submitRequest(HttpContext context) {
+            ConnectionState connection = (ConnectionState) context.getAttribute(CONNECTION_STATE);
+            Exchange exchange = connection == null ? null : connection.exchange.get();
+            if (exchange == null || connection.releaseIfAborted(exchange)
+                    || !exchange.submitted.compareAndSet(false, true)) {
+                return null;
+            }
+
+            connection.conn.setSocketTimeout(exchange.method.getParams().getIntParameter(
+                    CoreConnectionPNames.SO_TIMEOUT, HttpConnectionParams.getSoTimeout(params)));
+            context.setAttribute(ExecutionContext.HTTP_TARGET_HOST, exchange.target);
+            context.removeAttribute(HeaderRequestInterceptor.SOAPUI_REQUEST_HEADERS);
+
+            SoapUIMetrics metrics = exchange.method.getMetrics();
+            if (metrics != null) {
+                metrics.getTimeToFirstByteTimer().start();
+            }
+
+            return exchange.request;
+        }
+
+        public ConsumingNHttpEntity responseEntity(HttpResponse response, HttpContext context) {
+            return new ConsumingNHttpEntityTemplate(response.getEntity(), new BodyListener());
+        }
+
+        public void handleResponse(HttpResponse response, HttpContext context) throws IOException {
+            ConnectionState connection = (ConnectionState) context.getAttribute(CONNECTION_STATE);
+            Exchange exchange = connection == null ? null : connection.exchange.getAndSet(null);
+
+            ResponseBodyStore store = null;
+            HttpEntity entity = response.getEntity();
+            if (entity instanceof ConsumingNHttpEntityTemplate
+                    && ((ConsumingNHttpEntityTemplate) entity).getContentListener() instanceof BodyListener) {
+                store = ((BodyListener) ((ConsumingNHttpEntityTemplate) entity).getContentListener()).finish();
+
+                ResponseBodyStoreEntity storeEntity = new ResponseBodyStoreEntity(store);
+                storeEntity.setContentType(entity.getContentType());
+                storeEntity.setContentEncoding(entity.getContentEncoding());
+                response.setEntity(storeEntity);
+            }
+
+            if (exchange == null) {
+                if (store != null) {
+                    store.dispose();
+                }
+                return;
+            }
+
+            exchange.requestHeaders = context.getAttribute(HeaderRequestInterceptor.SOAPUI_REQUEST_HEADERS);
+            exchange.connection = null;
+
+            // the response has been read completely, so the connection can be handed on before the caller wakes up
+            release(connection);
+
+            if (!exchange.completed(response) && store != null) {
+                // aborted while the response was received
+                store.dispose();
+            }
+        }
+
+        public void finalizeContext(HttpContext context) {
+        }
+    }
+
+    /**
+     * Writes a response body into a ResponseBodyStore as it is received, so it never has to be buffered as a whole
+     */
+
+    private final class BodyListener implements ContentListener {
+        private final ResponseBodyStore.Writer writer = new ResponseBodyStore.Writer(spillSize);
+        private final ByteBuffer buffer = ByteBuffer.allocate(8 * 1024);
+        private boolean finished;
+
+        public void contentAvailable(ContentDecoder decoder, IOControl ioControl) throws IOException {
+            int len;
+            while ((len = decoder.read(buffer)) > 0) {
+                writer.write(buffer.array(), 0, len);
+                buffer.clear();
+            }
+        }
+
+        ResponseBodyStore finish() throws IOException {
+            finished = true;
+            return writer.finish();
+        }
+
+        /**
+         * Called when the connection is reset, drops a body that was not completely received
+         */
+
+        public void finished() {
+            if (!finished) {
+                finished = true;
+                writer.discard();
+            }
+        }
+    }
+
+    /**
+     * Records the connection state and the SoapUIMetrics timers around the asynchronous handler, and fails the
+     * exchange of a connection on errors
+     */
+
+    private final class MetricsClientHandler implements NHttpClientHandler {
+        private final NHttpClientHandler delegate = asyncHandler;
+        private final Reactor reactor;
+
+        MetricsClientHandler(Reactor reactor) {
+            this.reactor = reactor;
+        }
+
+        public void connected(NHttpClientConnection conn, Object attachment) {
+            Exchange exchange = (Exchange) attachment;
+            exchange.sessionRequest = null;
+            ConnectionState connection = new ConnectionState(conn, exchange, reactor);
+            conn.getContext().setAttribute(CONNECTION_STATE, connection);
+
+            SoapUIMetrics metrics = exchange.method.getMetrics();
+            if (metrics != null) {
+                metrics.getConnectTimer().stop();
+            }
+
+            // aborted while connecting, keep the connection for the next request
+            connection.releaseIfAborted(exchange);
+
+            delegate.connected(conn, attachment);
+        }
+
+        public void requestReady(NHttpClientConnection conn) {
+            delegate.requestReady(conn);
+        }
+
+        public void responseReceived(NHttpClientConnection conn) {
+            Exchange exchange = getExchange(conn);
+            SoapUIMetrics metrics = exchange == null ? null : exchange.method.getMetrics();
+            if (metrics != null) {
+                metrics.getTimeToFirstByteTimer().stop();
+                metrics.getReadTimer().start();
+            }
+
+            delegate.responseReceived(conn);
+        }
+
+        public void inputReady(NHttpClientConnection conn, ContentDecoder decoder) {
+            delegate.inputReady(conn, decoder);
+        }
+
+        public void outputReady(NHttpClientConnection conn, ContentEncoder encoder) {
+            delegate.outputReady(conn, encoder);
+        }
+
+        public void exception(NHttpClientConnection conn, IOException ex) {
+            failExchange(conn, ex);
+            delegate.exception(conn, ex);
+        }
+
+        public void exception(NHttpClientConnection conn, HttpException ex) {
+            failExchange(conn, new IOException(ex.toString()));
+            delegate.exception(conn, ex);
+        }
+
+        public void timeout(NHttpClientConnection conn) {
+            failExchange(conn, new SocketTimeoutException("Read timed out"));
+            delegate.timeout(conn);
+        }
+
+        public void closed(NHttpClientConnection conn) {
+            ConnectionState connection = (ConnectionState) conn.getContext().getAttribute(CONNECTION_STATE);
+            if (connection != null) {
+                NonBlockingHttpClient.this.closed(connection);
+            }
+
+            delegate.closed(conn);
+        }
+
+        private Exchange getExchange(NHttpClientConnection conn) {
+            ConnectionState connection = (ConnectionState) conn.getContext().getAttribute(CONNECTION_STATE);
+            return connection == null ? null : connection.exchange.get();
+        }
+
+        private void failExchange(NHttpClientConnection conn, IOException e) {
+            ConnectionState connection = (ConnectionState) conn.getContext().getAttribute(CONNECTION_STATE);
+            Exchange exchange = connection == null ? null : connection.exchange.getAndSet(null);
+            if (exchange != null) {
+                exchange.failed(e);
+            }
+        }
+    }
+
+    /**
+     * A connecting IO reactor with its dispatch thread
+     */
+
+    private final class Reactor {
+        private final ConnectingIOReactor ioReactor;
+        private final MetricsClientHandler handler;
+        private final int workerCount;
+        // open and connecting connections, guarded by the client
+        private int connections;
+        private volatile boolean retired;
+
+        /**
+         * @param sslContext the SSL context of the connections, null for plain connections
+         */
+
+        Reactor(final String name, int workerCount, SSLContext sslContext) throws IOException {
+            this.workerCount = workerCount;
+            handler = new MetricsClientHandler(this);
+            final IOEventDispatch eventDispatch = sslContext == null ? new DefaultClientIOEventDispatch(handler,
+                    params) : new SSLClientIOEventDispatch(handler, sslContext, params);
+
+            final AtomicInteger threadNumber = new AtomicInteger();
+            ioReactor = new DefaultConnectingIOReactor(workerCount, new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "SoapUI NIO " + name + " " + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            }, new SyncBasicHttpParams());
+
+            Thread dispatchThread = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        ioReactor.execute(eventDispatch);
+                    } catch (InterruptedIOException e) {
+                        log.info("NIO " + name + " reactor interrupted");
+                    } catch (IOException e) {
+                        SoapUI.logError(e, "NIO " + name + " reactor failed");
+                    }
+                }
+            }, "SoapUI NIO " + name + " dispatcher");
+            dispatchThread.setDaemon(true);
+            dispatchThread.start();
+        }
+
+        void shutdown() {
+            try {
+                ioReactor.shutdown();
+            } catch (IOException e) {
+                log.debug("Failed to shut down reactor: " + e);
+            }
+        }
+    }
+}
@@ -87,6 +87,10 @@ public class SoapUISSLSocketFactory extends SSLSocketFactory {
 
     }
 
+    public SSLContext getSSLContext() {
+        return sslContext;
+    }
+
     private static SSLSocket enableSocket(SSLSocket socket) {
         String invalidateSession = System.getProperty("soapui.https.session.invalidate");
         String protocols = System.getProperty("soapui.https.protocols");
@@ -23,6 +23,7 @@ import com.eviware.soapui.model.iface.Attachment;
 import com.eviware.soapui.model.testsuite.AssertionError;
 import com.eviware.soapui.settings.WsdlSettings;
 import com.eviware.soapui.support.StringUtils;
+import com.eviware.soapui.support.xml.ParsedXmlCache;
 import com.eviware.soapui.support.xml.XmlUtils;
 import org.apache.log4j.Logger;
 import org.apache.xmlbeans.SchemaGlobalElement;
@@ -272,8 +273,7 @@ public class WsdlValidator {
             throw new Exception("Missing schema types for message");
         }
 
-        // XmlObject msgXml = XmlObject.Factory.parse( messageContent );
-        XmlObject msgXml = XmlUtils.createXmlObject(messageContent);
+        XmlObject msgXml = ParsedXmlCache.getXmlObject(messageContent);
         Part[] parts = isResponse ? WsdlUtils.getOutputParts(bindingOperation) : WsdlUtils
                 .getInputParts(bindingOperation);
         if (parts == null || parts.length == 0) {
@@ -423,12 +423,8 @@ public class WsdlValidator {
                 errors.add(XmlError.forMessage("Missing schema types for message"));
             } else {
                 if (!WsdlUtils.isOutputSoapEncoded(bindingOperation)) {
-                    XmlOptions xmlOptions = new XmlOptions();
-                    xmlOptions.setLoadLineNumbers();
-                    xmlOptions.setLoadLineNumbers(XmlOptions.LOAD_LINE_NUMBERS_END_ELEMENT);
-                    // XmlObject xml = XmlObject.Factory.parse( message, xmlOptions
-                    // );
-                    XmlObject xml = XmlUtils.createXmlObject(message, xmlOptions);
+                    // shared with the other assertions of this message, so it must not be modified
+                    XmlObject xml = ParsedXmlCache.getXmlObject(message);
 
                     XmlObject[] paths = xml.selectPath("declare namespace env='"
                             + wsdlContext.getSoapVersion().getEnvelopeNamespace() + "';"
@@ -33,6 +33,7 @@ import org.apache.commons.ssl.KeyStoreBuilder;
 import org.apache.commons.ssl.ProbablyBadPasswordException;
 import org.apache.commons.ssl.Util;
 import org.apache.log4j.Logger;
+import org.apache.ws.security.WSSecurityException;
 import org.apache.ws.security.components.crypto.CredentialException;
 import org.apache.ws.security.components.crypto.Merlin;
 import org.apache.ws.security.util.Loader;
@@ -48,10 +49,14 @@ import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.NoSuchProviderException;
+import java.security.PrivateKey;
 import java.security.UnrecoverableKeyException;
 import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class KeyMaterialWssCrypto implements WssCrypto {
     private static final String JCEKS_KEYSTORE_TYPE = "jceks";
@@ -63,6 +68,8 @@ public class KeyMaterialWssCrypto implements WssCrypto {
     private KeyMaterialCryptoConfig config;
     private final WssContainer container;
     private KeyStore keyStore;
+    private FileStamp keyStoreStamp;
+    private volatile KeyMaterialCrypto crypto;
     private BeanPathPropertySupport sourceProperty;
 
     private static final Logger log = Logger.getLogger(KeyMaterialWssCrypto.class);
@@ -88,29 +95,47 @@ public class KeyMaterialWssCrypto implements WssCrypto {
         };
     }
 
+    /**
+     * Returns the Merlin crypto for this keystore. The instance, and the keys and certificates it has looked up, are
+     * reused for as long as the expanded source, the keystore file and the configuration stay the same, so signing
+     * many requests does not reload or decrypt the key material each time.
+     */
+
     public Merlin getCrypto() {
+        String source = sourceProperty.expand();
+        FileStamp stamp = new FileStamp(source);
+        KeyMaterialCrypto result = crypto;
+        if (result != null && result.source.equals(source) && result.stamp.equals(stamp)) {
+            return result;
+        }
+
         try {
             Properties properties = new Properties();
 
             properties.put("org.apache.ws.security.crypto.merlin.keystore.provider", "this");
 
             if (getType() == CryptoType.TRUSTSTORE) {
-                properties.put("org.apache.ws.security.crypto.merlin.truststore.file", sourceProperty.expand());
+                properties.put("org.apache.ws.security.crypto.merlin.truststore.file", source);
             } else {
-                properties.put("org.apache.ws.security.crypto.merlin.keystore.file", sourceProperty.expand());
+                properties.put("org.apache.ws.security.crypto.merlin.keystore.file", source);
                 if (StringUtils.hasContent(getDefaultAlias())) {
                     properties.put("org.apache.ws.security.crypto.merlin.keystore.alias", getDefaultAlias());
                 }
             }
 
-            KeyMaterialCrypto keyMaterialCrypto = new KeyMaterialCrypto(properties);
-            return keyMaterialCrypto;
+            result = new KeyMaterialCrypto(properties, source, stamp);
+            crypto = result;
+            return result;
         } catch (Exception e) {
             e.printStackTrace();
         }
         return null;
     }
 
+    private void resetCrypto() {
+        crypto = null;
+    }
+
     public String getLabel() {
         String source = getSource();
 
@@ -133,11 +158,13 @@ public class KeyMaterialWssCrypto implements WssCrypto {
     public void udpateConfig(KeyMaterialCryptoConfig config) {
         this.config = config;
         sourceProperty.setConfig(config);
+        resetCrypto();
     }
 
     public void setSource(String source) {
         sourceProperty.set(source, true);
         keyStore = null;
+        resetCrypto();
     }
 
     /*
@@ -145,14 +172,18 @@ public class KeyMaterialWssCrypto implements WssCrypto {
      */
     // FIXME Why is this method called like times in a row?
     public KeyStore load() throws Exception {
-        if (keyStore != null) {
+        String crypotFilePath = sourceProperty.expand();
+        FileStamp stamp = new FileStamp(crypotFilePath);
+        if (keyStore != null && stamp.equals(keyStoreStamp)) {
             return keyStore;
         }
 
+        // the stamp is taken before reading, so a file replaced while it is read is loaded again next time
+        keyStoreStamp = stamp;
+
         try {
             UISupport.setHourglassCursor();
 
-            String crypotFilePath = sourceProperty.expand();
             String fileExtension = Files.getFileExtension(crypotFilePath);
             String keystoreType = fileExtensionToKeystoreType(fileExtension);
 
@@ -245,15 +276,18 @@ public class KeyMaterialWssCrypto implements WssCrypto {
 
     public void setAliasPassword(String arg0) {
         config.setAliasPassword(arg0);
+        resetCrypto();
     }
 
     public void setDefaultAlias(String arg0) {
         config.setDefaultAlias(arg0);
+        resetCrypto();
     }
 
     public void setPassword(String arg0) {
         config.setPassword(arg0);
         keyStore = null;
+        resetCrypto();
         getWssContainer().fireCryptoUpdated(this);
     }
 
@@ -265,9 +299,83 @@ public class KeyMaterialWssCrypto implements WssCrypto {
         return (DefaultWssContainer) container;
     }
 
+    /**
+     * Modification time and size of a keystore file, to notice when the file has been replaced on disk
+     */
+
+    private static final class FileStamp {
+        private final long lastModified;
+        private final long length;
+
+        FileStamp(String path) {
+            File file = new File(path);
+            lastModified = file.lastModified();
+            length = file.length();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof FileStamp && ((FileStamp) obj).lastModified == lastModified
+                    && ((FileStamp) obj).length == length;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (lastModified ^ length);
+        }
+    }
+
     private class KeyMaterialCrypto extends Merlin {
-        private KeyMaterialCrypto(Properties properties) throws CredentialException, IOException {
+        private final String source;
+        private final FileStamp stamp;
+        private final ConcurrentMap<String, PrivateKey> privateKeys = new ConcurrentHashMap<String, PrivateKey>();
+        private final ConcurrentMap<String, X509Certificate[]> certificates =
+                new ConcurrentHashMap<String, X509Certificate[]>();
+
+        private KeyMaterialCrypto(Properties properties, String source, FileStamp stamp)
+                throws CredentialException, IOException {
             super(properties);
+            this.source = source;
+            this.stamp = stamp;
+        }
+
+        @Override
+        public PrivateKey getPrivateKey(String identifier, String password) throws WSSecurityException {
+            if (identifier == null) {
+                return super.getPrivateKey(identifier, password);
+            }
+
+            String key = identifier + '\u0000' + password;
+            PrivateKey privateKey = privateKeys.get(key);
+            if (privateKey == null) {
+                privateKey = super.getPrivateKey(identifier, password);
+                if (privateKey != null) {
+                    privateKeys.put(key, privateKey);
+                }
+            }
+
+            return privateKey;
+        }
+
+        @Override
+        public X509Certificate[] getX509Certificates(org.apache.ws.security.components.crypto.CryptoType cryptoType)
+                throws WSSecurityException {
+            if (cryptoType == null || cryptoType.getAlias() == null
+                    || cryptoType.getType() != org.apache.ws.security.components.crypto.CryptoType.TYPE.ALIAS) {
+                return super.getX509Certificates(cryptoType);
+            }
+
+            X509Certificate[] certs = certificates.get(cryptoType.getAlias());
+            if (certs == null) {
+                certs = super.getX509Certificates(cryptoType);
+                if (certs == null) {
+                    return null;
+                }
+
+                certificates.put(cryptoType.getAlias(), certs);
+            }
+
+            return certs.clone();
         }
 
         @Override
@@ -297,6 +405,7 @@ public class KeyMaterialWssCrypto implements WssCrypto {
     public void setCryptoProvider(String provider) {
         config.setCryptoProvider(provider);
         keyStore = null;
+        resetCrypto();
         getWssContainer().fireCryptoUpdated(this);
     }
 
@@ -314,6 +423,7 @@ public class KeyMaterialWssCrypto implements WssCrypto {
 
     public void setType(@Nonnull CryptoType type) {
         config.setType(type.name());
+        resetCrypto();
     }
 
     public void resolve(ResolveContext<?> context) {
@@ -30,7 +30,6 @@ import com.eviware.soapui.support.components.SimpleBindingForm;
 import com.eviware.soapui.support.types.StringToStringMap;
 import com.eviware.soapui.support.xml.XmlObjectConfigurationBuilder;
 import com.eviware.soapui.support.xml.XmlObjectConfigurationReader;
-import com.eviware.soapui.support.xml.XmlUtils;
 import com.jgoodies.binding.PresentationModel;
 import org.apache.ws.security.WSConstants;
 import org.apache.ws.security.WSEncryptionPart;
@@ -41,19 +40,20 @@ import org.apache.xml.security.algorithms.MessageDigestAlgorithm;
 import org.apache.xml.security.signature.XMLSignature;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.Node;
 
 import javax.swing.JComboBox;
 import javax.swing.JComponent;
 import javax.swing.JScrollPane;
 import javax.swing.JTextField;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMResult;
 import javax.xml.transform.dom.DOMSource;
 import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
-import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -191,7 +191,7 @@ public class SignatureEntry extends WssEntryBase {
     }
 
     public void process(WSSecHeader secHeader, Document doc, PropertyExpansionContext context) {
-        StringWriter writer = null;
+        Node backup = null;
 
         try {
             WssCrypto wssCrypto = getWssContainer().getCryptoByName(crypto);
@@ -239,18 +239,16 @@ public class SignatureEntry extends WssEntryBase {
                 wssSign.setParts(wsParts);
             }
 
-            writer = new StringWriter();
-            XmlUtils.serialize(doc, writer);
+            backup = doc.getDocumentElement().cloneNode(true);
 
             wssSign.setCallbackLookup(new BinarySecurityTokenDOMCallbackLookup(doc, wssSign));
             wssSign.build(doc, wssCrypto.getCrypto(), secHeader);
         } catch (Exception e) {
             SoapUI.logError(e);
 
-            if (writer != null && writer.getBuffer().length() > 0) {
+            if (backup != null) {
                 try {
-                    doc.replaceChild(doc.importNode(XmlUtils.parseXml(writer.toString()).getDocumentElement(), true),
-                            doc.getDocumentElement());
+                    doc.replaceChild(backup, doc.getDocumentElement());
                 } catch (Exception e1) {
                     SoapUI.logError(e1);
                 }
@@ -375,6 +373,7 @@ public class SignatureEntry extends WssEntryBase {
      * wsse:BinarySecurityToken
      */
     private static class BinarySecurityTokenDOMCallbackLookup extends DOMCallbackLookup {
+        private static final ThreadLocal<Transformer> TRANSFORMER = new ThreadLocal<Transformer>();
 
         private final ImprovedWSSecSignature wssSign;
 
@@ -394,7 +393,7 @@ public class SignatureEntry extends WssEntryBase {
                        is not yet attached to the DOM tree, so instead return a copy which includes all namespaces */
                     try {
                         DOMResult result = new DOMResult();
-                        Transformer transformer = TransformerFactory.newInstance().newTransformer();
+                        Transformer transformer = getTransformer();
                         transformer.transform(new DOMSource(wssSign.getBinarySecurityTokenElement()), result);
                         return Collections.singletonList(((Document) result.getNode()).getDocumentElement());
                     } catch (TransformerException e) {
@@ -404,5 +403,21 @@ public class SignatureEntry extends WssEntryBase {
             }
             return elements;
         }
+
+        /**
+         * Looking up a TransformerFactory is expensive and Transformers are not thread-safe, so keep one per thread
+         */
+
+        private static Transformer getTransformer() throws TransformerConfigurationException {
+            Transformer transformer = TRANSFORMER.get();
+            if (transformer == null) {
+                transformer = TransformerFactory.newInstance().newTransformer();
+                TRANSFORMER.set(transformer);
+            } else {
+                transformer.reset();
+            }
+
+            return transformer;
+        }
     }
 }
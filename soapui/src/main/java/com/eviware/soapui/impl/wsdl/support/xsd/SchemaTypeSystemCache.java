@@ -0,0 +1,310 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.impl.wsdl.support.xsd;
+
+import com.eviware.soapui.impl.support.definition.InterfaceDefinitionPart;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.io.FileUtils;
+import org.apache.log4j.Logger;
+import org.apache.xmlbeans.SchemaTypeSystem;
+import org.apache.xmlbeans.XmlBeans;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistent cache of compiled SchemaTypeSystems.
+ * <p/>
+ * Compiling the schemas of a large WSDL is by far the most expensive part of loading an interface and used to be
+ * repeated for every interface on every project load and every command-line run. Compiled type systems are saved
+ * to a directory per key (a hash of the definition parts they were compiled from, see {@link #createKey}) and
+ * loaded back lazily through a class loader on that directory, so types are only read from disk when they are
+ * used. Loaded type systems are also kept in memory and shared between all interfaces with identical schemas;
+ * they are read-only, just as the ones returned by XmlBeans.compileXsd.
+ * <p/>
+ * The cache is stored in ${user.home}/.soapui/schema-cache unless the soapui.schema.cache.dir system property
+ * specifies another directory, and can be disabled by setting the soapui.schema.cache system property to false.
+ * Entries that can not be read are ignored and the schemas are compiled as before.
+ * <p/>
+ * Every time an entry is saved, the least recently used entries beyond soapui.schema.cache.entries (default 200)
+ * and entries not used for soapui.schema.cache.days (default 30) are deleted. Entries loaded by this instance are
+ * never deleted by it, since their types are read from the entry directory on demand.
+ */
+
+public final class SchemaTypeSystemCache {
+    private final static Logger log = Logger.getLogger(SchemaTypeSystemCache.class);
+    private final static Charset UTF8 = Charset.forName("UTF-8");
+    private final static String NAME_FILE = "typesystem.name";
+    private final static String TEMP_SUFFIX = ".tmp";
+    private final static long TEMP_MAX_AGE = TimeUnit.HOURS.toMillis(1);
+
+    private static volatile File directory = getDefaultDirectory();
+
+    private final static Cache<String, SchemaTypeSystem> typeSystems = CacheBuilder.newBuilder().softValues()
+            .build();
+
+    private final static Set<String> loadedEntries = Collections.newSetFromMap(
+            new ConcurrentHashMap<String, Boolean>());
+
+    private static volatile int maxEntries = Integer.getInteger("soapui.schema.cache.entries", 200);
+    private static volatile long maxAge = TimeUnit.DAYS.toMillis(Integer.getInteger("soapui.schema.cache.days", 30));
+
+    private SchemaTypeSystemCache() {
+    }
+
+    private static File getDefaultDirectory() {
+        if ("false".equalsIgnoreCase(System.getProperty("soapui.schema.cache"))) {
+            return null;
+        }
+
+        String dir = System.getProperty("soapui.schema.cache.dir");
+        if (dir == null || dir.trim().length() == 0) {
+            dir = System.getProperty("user.home") + File.separator + ".soapui" + File.separator + "schema-cache";
+        }
+
+        return new File(dir);
+    }
+
+    public static boolean isEnabled() {
+        return directory != null;
+    }
+
+    public static File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Sets the cache directory, null disables the cache
+     */
+
+    public static void setDirectory(File directory) {
+        SchemaTypeSystemCache.directory = directory;
+        typeSystems.invalidateAll();
+    }
+
+    /**
+     * Sets the number of entries kept on disk
+     */
+
+    static void setMaxEntries(int maxEntries) {
+        SchemaTypeSystemCache.maxEntries = maxEntries;
+    }
+
+    /**
+     * Sets the time in milliseconds after which an unused entry is deleted from disk
+     */
+
+    static void setMaxAge(long maxAge) {
+        SchemaTypeSystemCache.maxAge = maxAge;
+    }
+
+    /**
+     * Creates the cache key for a type system compiled from the specified definition parts
+     *
+     * @param parts   the definition parts, in the order they are stored in the interface
+     * @param context everything else the compiled result depends on, for example compilation settings
+     */
+
+    public static String createKey(List<? extends InterfaceDefinitionPart> parts, String... context) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, XmlBeans.getVersion());
+            for (String value : context) {
+                update(digest, value);
+            }
+
+            for (InterfaceDefinitionPart part : parts) {
+                update(digest, part.getUrl());
+                update(digest, part.getType());
+                update(digest, part.getContent());
+            }
+
+            StringBuilder key = new StringBuilder();
+            for (byte b : digest.digest()) {
+                key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+
+            return key.toString();
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to create schema cache key", e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value != null) {
+            digest.update(value.getBytes(UTF8));
+        }
+
+        // separator, so that moving text between values changes the key
+        digest.update((byte) 0);
+    }
+
+    /**
+     * Returns the cached type system for the specified key, or null if it has not been cached
+     */
+
+    public static SchemaTypeSystem get(String key) {
+        File dir = directory;
+        if (dir == null || key == null) {
+            return null;
+        }
+
+        SchemaTypeSystem sts = typeSystems.getIfPresent(key);
+        if (sts == null) {
+            File entryDir = new File(dir, key);
+            sts = load(entryDir);
+            if (sts != null) {
+                loadedEntries.add(entryDir.getAbsolutePath());
+                entryDir.setLastModified(System.currentTimeMillis());
+
+                SchemaTypeSystem existing = typeSystems.asMap().putIfAbsent(key, sts);
+                if (existing != null) {
+                    sts = existing;
+                }
+            }
+        }
+
+        return sts;
+    }
+
+    /**
+     * Caches the specified compiled type system in memory and on disk
+     */
+
+    public static void put(String key, SchemaTypeSystem sts) {
+        File dir = directory;
+        if (dir == null || key == null || sts == null) {
+            return;
+        }
+
+        typeSystems.put(key, sts);
+
+        File entryDir = new File(dir, key);
+        if (!entryDir.exists() && save(entryDir, sts)) {
+            prune(dir);
+        }
+    }
+
+    /**
+     * Deletes the entries beyond the size limit, least recently used first, expired entries and abandoned
+     * temporary directories
+     */
+
+    static void prune(File dir) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        List<File> entries = new ArrayList<File>();
+        for (File file : files) {
+            if (!file.isDirectory() || loadedEntries.contains(file.getAbsolutePath())) {
+                continue;
+            }
+
+            long age = now - file.lastModified();
+            if (file.getName().endsWith(TEMP_SUFFIX)) {
+                if (age > TEMP_MAX_AGE) {
+                    FileUtils.deleteQuietly(file);
+                }
+            } else if (age > maxAge) {
+                delete(file);
+            } else {
+                entries.add(file);
+            }
+        }
+
+        if (entries.size() > maxEntries) {
+            Collections.sort(entries, new Comparator<File>() {
+                public int compare(File f1, File f2) {
+                    long m1 = f1.lastModified();
+                    long m2 = f2.lastModified();
+                    return m1 < m2 ? -1 : (m1 == m2 ? 0 : 1);
+                }
+            });
+
+            for (File file : entries.subList(0, entries.size() - maxEntries)) {
+                delete(file);
+            }
+        }
+    }
+
+    private static void delete(File entryDir) {
+        typeSystems.invalidate(entryDir.getName());
+        FileUtils.deleteQuietly(entryDir);
+        log.debug("Deleted compiled schema types in [" + entryDir + "]");
+    }
+
+    static SchemaTypeSystem load(File entryDir) {
+        File nameFile = new File(entryDir, NAME_FILE);
+        if (!nameFile.isFile()) {
+            return null;
+        }
+
+        try {
+            String name = FileUtils.readFileToString(nameFile, UTF8.name()).trim();
+
+            ClassLoader parent = Thread.currentThread().getContextClassLoader();
+            if (parent == null) {
+                parent = SchemaTypeSystemCache.class.getClassLoader();
+            }
+
+            URLClassLoader classLoader = new URLClassLoader(new URL[]{entryDir.toURI().toURL()}, parent);
+            SchemaTypeSystem sts = XmlBeans.typeSystemForClassLoader(classLoader, name);
+
+            log.info("Loaded compiled schema types from [" + entryDir + "]");
+            return sts;
+        } catch (Throwable e) {
+            log.warn("Failed to load compiled schema types from [" + entryDir + "]: " + e);
+            return null;
+        }
+    }
+
+    static boolean save(File entryDir, SchemaTypeSystem sts) {
+        // save to a temporary directory first so that other instances never see partially written entries
+        entryDir.getParentFile().mkdirs();
+        File tempDir = new File(entryDir.getParentFile(), entryDir.getName() + "." + System.nanoTime() + TEMP_SUFFIX);
+
+        try {
+            sts.saveToDirectory(tempDir);
+            FileUtils.writeStringToFile(new File(tempDir, NAME_FILE), sts.getName(), UTF8.name());
+
+            if (tempDir.renameTo(entryDir)) {
+                log.debug("Saved compiled schema types to [" + entryDir + "]");
+                return true;
+            }
+        } catch (Throwable e) {
+            log.warn("Failed to save compiled schema types to [" + entryDir + "]: " + e);
+        }
+
+        FileUtils.deleteQuietly(tempDir);
+        return false;
+    }
+}
@@ -19,6 +19,8 @@ package com.eviware.soapui.impl.wsdl.support.xsd;
 import com.eviware.soapui.SoapUI;
 import com.eviware.soapui.SoapUIExtensionClassLoader;
 import com.eviware.soapui.SoapUIExtensionClassLoader.SoapUIClassLoaderState;
+import com.eviware.soapui.impl.support.definition.DefinitionCache;
+import com.eviware.soapui.impl.support.definition.support.InterfaceCacheDefinitionLoader;
 import com.eviware.soapui.impl.wsdl.support.Constants;
 import com.eviware.soapui.model.settings.SettingsListener;
 import com.eviware.soapui.settings.WsdlSettings;
@@ -53,6 +55,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -68,7 +71,7 @@ import java.util.Set;
 
 public class SchemaUtils {
     private final static Logger log = Logger.getLogger(SchemaUtils.class);
-    private static Map<String, XmlObject> defaultSchemas = new HashMap<String, XmlObject>();
+    private static volatile DefaultSchemas defaultSchemas = new DefaultSchemas(new HashMap<String, XmlObject>(), "");
 
     static {
         initDefaultSchemas();
@@ -90,37 +93,45 @@ public class SchemaUtils {
         });
     }
 
-    public static void initDefaultSchemas() {
+    /**
+     * Loads the default schemas and replaces the current ones when done, so that concurrent loads of schema types
+     * always see a complete set
+     */
+
+    public static synchronized void initDefaultSchemas() {
         SoapUIClassLoaderState state = SoapUIExtensionClassLoader.ensure();
+        Map<String, XmlObject> schemas = new HashMap<String, XmlObject>();
+        StringBuilder sources = new StringBuilder();
 
         try {
-            defaultSchemas.clear();
-
             String root = "/com/eviware/soapui/resources/xsds";
 
-            loadDefaultSchema(SoapUI.class.getResource(root + "/xop.xsd"));
-            loadDefaultSchema(SoapUI.class.getResource(root + "/XMLSchema.xsd"));
-            loadDefaultSchema(SoapUI.class.getResource(root + "/xml.xsd"));
-            loadDefaultSchema(SoapUI.class.getResource(root + "/swaref.xsd"));
-            loadDefaultSchema(SoapUI.class.getResource(root + "/xmime200505.xsd"));
-            loadDefaultSchema(SoapUI.class.getResource(root + "/xmime200411.xsd"));
-            loadDefaultSchema(SoapUI.class.getResource(root + "/soapEnvelope.xsd"));
-            loadDefaultSchema(SoapUI.class.getResource(root + "/soapEncoding.xsd"));
-            loadDefaultSchema(SoapUI.class.getResource(root + "/soapEnvelope12.xsd"));
-            loadDefaultSchema(SoapUI.class.getResource(root + "/soapEncoding12.xsd"));
+            loadDefaultSchema(SoapUI.class.getResource(root + "/xop.xsd"), schemas, sources);
+            loadDefaultSchema(SoapUI.class.getResource(root + "/XMLSchema.xsd"), schemas, sources);
+            loadDefaultSchema(SoapUI.class.getResource(root + "/xml.xsd"), schemas, sources);
+            loadDefaultSchema(SoapUI.class.getResource(root + "/swaref.xsd"), schemas, sources);
+            loadDefaultSchema(SoapUI.class.getResource(root + "/xmime200505.xsd"), schemas, sources);
+            loadDefaultSchema(SoapUI.class.getResource(root + "/xmime200411.xsd"), schemas, sources);
+            loadDefaultSchema(SoapUI.class.getResource(root + "/soapEnvelope.xsd"), schemas, sources);
+            loadDefaultSchema(SoapUI.class.getResource(root + "/soapEncoding.xsd"), schemas, sources);
+            loadDefaultSchema(SoapUI.class.getResource(root + "/soapEnvelope12.xsd"), schemas, sources);
+            loadDefaultSchema(SoapUI.class.getResource(root + "/soapEncoding12.xsd"), schemas, sources);
 
             String schemaDirectory = SoapUI.getSettings().getString(WsdlSettings.SCHEMA_DIRECTORY, null);
             if (StringUtils.hasContent(schemaDirectory)) {
-                loadSchemaDirectory(schemaDirectory);
+                loadSchemaDirectory(schemaDirectory, schemas, sources);
             }
         } catch (Exception e) {
             SoapUI.logError(e);
         } finally {
             state.restore();
         }
+
+        defaultSchemas = new DefaultSchemas(schemas, sources.toString());
     }
 
-    private static void loadSchemaDirectory(String schemaDirectory) throws IOException, MalformedURLException {
+    private static void loadSchemaDirectory(String schemaDirectory, Map<String, XmlObject> schemas,
+                                            StringBuilder sources) throws IOException, MalformedURLException {
         File dir = new File(schemaDirectory);
         if (dir.exists() && dir.isDirectory()) {
             String[] xsdFiles = dir.list();
@@ -132,7 +143,7 @@ public class SchemaUtils {
                         String xsdFile = xsdFiles[c];
                         if (xsdFile.endsWith(".xsd")) {
                             String filename = schemaDirectory + File.separator + xsdFile;
-                            loadDefaultSchema(new URL("file:" + filename));
+                            loadDefaultSchema(new URL("file:" + filename), schemas, sources);
                             cnt++;
                         }
                     } catch (Throwable e) {
@@ -149,7 +160,8 @@ public class SchemaUtils {
         }
     }
 
-    private static void loadDefaultSchema(URL url) throws Exception {
+    private static void loadDefaultSchema(URL url, Map<String, XmlObject> schemas, StringBuilder sources)
+            throws Exception {
         // XmlObject xmlObject = XmlObject.Factory.parse( url );
         XmlObject xmlObject = XmlUtils.createXmlObject(url);
         if (!((Document) xmlObject.getDomNode()).getDocumentElement().getNamespaceURI().equals(Constants.XSD_NS)) {
@@ -158,11 +170,18 @@ public class SchemaUtils {
 
         String targetNamespace = getTargetNamespace(xmlObject);
 
-        if (defaultSchemas.containsKey(targetNamespace)) {
+        if (schemas.containsKey(targetNamespace)) {
             log.warn("Overriding schema for targetNamespace " + targetNamespace);
         }
 
-        defaultSchemas.put(targetNamespace, xmlObject);
+        schemas.put(targetNamespace, xmlObject);
+
+        // compiled type systems include the default schemas, so cached ones must change with them
+        sources.append(url).append(';');
+        if ("file".equals(url.getProtocol())) {
+            File file = new File(url.getPath());
+            sources.append(file.lastModified()).append(';').append(file.length()).append(';');
+        }
 
         log.info("Added default schema from " + url.getPath() + " with targetNamespace " + targetNamespace);
     }
@@ -171,10 +190,24 @@ public class SchemaUtils {
         SoapUIClassLoaderState state = SoapUIExtensionClassLoader.ensure();
 
         try {
+            String cacheKey = createSchemaCacheKey(wsdlUrl, loader);
+            if (cacheKey != null) {
+                SchemaTypeSystem sts = SchemaTypeSystemCache.get(cacheKey);
+                if (sts != null) {
+                    log.info("Loaded schema types for [" + wsdlUrl + "] from schema cache");
+                    return sts;
+                }
+            }
+
             log.info("Loading schema types from [" + wsdlUrl + "]");
             ArrayList<XmlObject> schemas = new ArrayList<XmlObject>(getSchemas(wsdlUrl, loader).values());
 
-            return buildSchemaTypes(schemas);
+            SchemaTypeSystem sts = buildSchemaTypes(schemas);
+            if (cacheKey != null) {
+                SchemaTypeSystemCache.put(cacheKey, sts);
+            }
+
+            return sts;
         } catch (Exception e) {
             SoapUI.logError(e);
             if (e instanceof SchemaException) {
@@ -187,6 +220,37 @@ public class SchemaUtils {
         }
     }
 
+    /**
+     * Schema types can only be cached for definitions loaded from the interface cache, since only their content
+     * is known before loading them
+     */
+
+    private static String createSchemaCacheKey(String wsdlUrl, SchemaLoader loader) throws Exception {
+        if (!SchemaTypeSystemCache.isEnabled() || !(loader instanceof InterfaceCacheDefinitionLoader)) {
+            return null;
+        }
+
+        DefinitionCache definitionCache = ((InterfaceCacheDefinitionLoader) loader).getDefinitionCache();
+        boolean strictSchemaTypes = SoapUI.getSettings().getBoolean(WsdlSettings.STRICT_SCHEMA_TYPES);
+
+        return SchemaTypeSystemCache.createKey(definitionCache.getDefinitionParts(), SoapUI.SOAPUI_VERSION, wsdlUrl,
+                String.valueOf(strictSchemaTypes), defaultSchemas.sources);
+    }
+
+    /**
+     * Immutable set of default schemas and a description of where they were loaded from, replaced as a whole
+     */
+
+    private static final class DefaultSchemas {
+        private final Map<String, XmlObject> schemas;
+        private final String sources;
+
+        private DefaultSchemas(Map<String, XmlObject> schemas, String sources) {
+            this.schemas = Collections.unmodifiableMap(schemas);
+            this.sources = sources;
+        }
+    }
+
     public static SchemaTypeSystem buildSchemaTypes(List<XmlObject> schemas) throws SchemaException {
         XmlOptions options = new XmlOptions();
         options.setCompileNoValidation();
@@ -240,7 +304,7 @@ public class SchemaUtils {
                 // log.info( "schema for [" + tns + "] contained [" + map.toString()
                 // + "] namespaces" );
 
-                if (strictSchemaTypes && defaultSchemas.containsKey(tns)) {
+                if (strictSchemaTypes && defaultSchemas.schemas.containsKey(tns)) {
                     schemas.remove(c);
                     c--;
                 } else {
@@ -253,7 +317,7 @@ public class SchemaUtils {
 
             // schemas.add( soapVersion.getSoapEncodingSchema());
             // schemas.add( soapVersion.getSoapEnvelopeSchema());
-            schemas.addAll(defaultSchemas.values());
+            schemas.addAll(defaultSchemas.schemas.values());
 
             SchemaTypeSystem sts = XmlBeans.compileXsd(schemas.toArray(new XmlObject[schemas.size()]),
                     XmlBeans.getBuiltinTypeSystem(), options);
@@ -435,7 +499,7 @@ public class SchemaUtils {
                     String location = ((SimpleValue) schemaImports[i]).getStringValue();
                     Element elm = ((Attr) schemaImports[i].getDomNode()).getOwnerElement();
 
-                    if (location != null && !defaultSchemas.containsKey(elm.getAttribute("namespace"))) {
+                    if (location != null && !defaultSchemas.schemas.containsKey(elm.getAttribute("namespace"))) {
                         if (!location.startsWith("file:") && location.indexOf("://") == -1) {
                             location = Tools.joinRelativeUrl(wsdlUrl, location);
                         }
@@ -531,7 +595,7 @@ public class SchemaUtils {
         }
 
         if (removeDefault) {
-            namespaces.removeAll(defaultSchemas.keySet());
+            namespaces.removeAll(defaultSchemas.schemas.keySet());
             namespaces.remove(Constants.SOAP11_ENVELOPE_NS);
             namespaces.remove(Constants.SOAP_ENCODING_NS);
         }
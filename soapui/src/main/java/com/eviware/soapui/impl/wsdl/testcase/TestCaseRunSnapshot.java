@@ -0,0 +1,44 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.impl.wsdl.testcase;
+
+import com.eviware.soapui.config.TestCaseConfig;
+
+/**
+ * Immutable copy of the TestCase settings read while running, see {@link WsdlTestCase#beginRunSnapshot(Object)}
+ */
+
+final class TestCaseRunSnapshot {
+    final boolean keepSession;
+    final boolean failOnError;
+    final boolean failTestCaseOnErrors;
+    final boolean searchProperties;
+    final boolean discardOkResults;
+    final int maxResults;
+    final long timeout;
+
+    TestCaseRunSnapshot(TestCaseConfig config) {
+        keepSession = config.getKeepSession();
+        failOnError = config.getFailOnError();
+        failTestCaseOnErrors = config.getFailTestCaseOnErrors();
+        searchProperties = config.getSearchProperties();
+        discardOkResults = config.getDiscardOkResults();
+        maxResults = config.getMaxResults();
+        timeout = config.getTimeout();
+    }
+}
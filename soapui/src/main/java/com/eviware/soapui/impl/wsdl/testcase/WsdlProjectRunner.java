@@ -20,6 +20,7 @@ import com.eviware.soapui.SoapUI;
 import com.eviware.soapui.impl.wsdl.WsdlProject;
 import com.eviware.soapui.impl.wsdl.WsdlTestSuite;
 import com.eviware.soapui.impl.wsdl.support.AbstractTestRunner;
+import com.eviware.soapui.impl.wsdl.support.TestRunExecutor;
 import com.eviware.soapui.model.project.Project;
 import com.eviware.soapui.model.propertyexpansion.DefaultPropertyExpansionContext;
 import com.eviware.soapui.model.support.TestSuiteRunListenerAdapter;
@@ -94,30 +95,38 @@ public class WsdlProjectRunner extends AbstractTestRunner<WsdlProject, WsdlProje
         currentTestSuiteIndex = -1;
         currentTestSuite = null;
 
-        for (TestSuite testSuite : project.getTestSuiteList()) {
-            if (!testSuite.isDisabled()) {
-                testSuite.addTestSuiteRunListener(internalTestRunListener);
-                notifyBeforeRunTestSuite(testSuite);
-                runTestSuite((WsdlTestSuite) testSuite, true);
-            }
-        }
+        TestRunExecutor executor = TestRunExecutor.create(project.getUseVirtualThreads(), "Project "
+                + project.getName());
 
         try {
+            for (int c = 0; c < project.getTestSuiteCount(); c++) {
+                // checked before building, so disabled TestSuites are never built in the lazy model
+                if (!project.isTestSuiteDisabledAt(c)) {
+                    WsdlTestSuite testSuite = project.getTestSuiteAt(c);
+                    testSuite.addTestSuiteRunListener(internalTestRunListener);
+                    notifyBeforeRunTestSuite(testSuite);
+                    runTestSuite(testSuite, true, executor);
+                }
+            }
+
             synchronized (activeRunners) {
                 activeRunners.wait();
             }
         } catch (InterruptedException e) {
             e.printStackTrace();
+        } finally {
+            executor.shutdown();
         }
     }
 
     private void runSequential(WsdlProject project, WsdlProjectRunContext runContext) {
         currentTestSuiteIndex = 0;
         for (; isRunning() && currentTestSuiteIndex < project.getTestSuiteCount(); currentTestSuiteIndex++) {
-            currentTestSuite = (WsdlTestSuite) project.getTestSuiteAt(currentTestSuiteIndex);
-            if (!currentTestSuite.isDisabled()) {
+            if (!project.isTestSuiteDisabledAt(currentTestSuiteIndex)) {
+                currentTestSuite = project.getTestSuiteAt(currentTestSuiteIndex);
                 notifyBeforeRunTestSuite(currentTestSuite);
-                WsdlTestSuiteRunner testSuiteRunner = runTestSuite(currentTestSuite, false);
+                WsdlTestSuiteRunner testSuiteRunner = runTestSuite(currentTestSuite, false,
+                        TestRunExecutor.getShared());
                 activeRunners.remove(testSuiteRunner);
                 finishedRunners.add(testSuiteRunner);
                 notifyAfterRunTestSuite(testSuiteRunner);
@@ -136,14 +145,15 @@ public class WsdlProjectRunner extends AbstractTestRunner<WsdlProject, WsdlProje
         }
     }
 
-    private WsdlTestSuiteRunner runTestSuite(WsdlTestSuite testSuite, boolean async) {
+    private WsdlTestSuiteRunner runTestSuite(WsdlTestSuite testSuite, boolean async, TestRunExecutor executor) {
         DefaultPropertyExpansionContext properties = (DefaultPropertyExpansionContext) getRunContext().getProperties();
         properties.put("#ProjectRunner#", this);
 
         // this is here for backwards compatibility, should be removed eventually
         properties.put("#TestSuiteRunner#", this);
 
-        WsdlTestSuiteRunner currentRunner = testSuite.run(properties, true);
+        WsdlTestSuiteRunner currentRunner = new WsdlTestSuiteRunner(testSuite, properties);
+        currentRunner.start(true, executor);
         activeRunners.add(currentRunner);
         if (!async) {
             currentRunner.waitUntilFinished();
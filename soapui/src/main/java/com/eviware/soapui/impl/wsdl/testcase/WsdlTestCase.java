@@ -96,6 +96,8 @@ public class WsdlTestCase extends AbstractTestPropertyHolderWsdlModelItem<TestCa
     private final boolean forLoadTest;
     private SoapUIScriptEngine setupScriptEngine;
     private SoapUIScriptEngine tearDownScriptEngine;
+    private volatile TestCaseRunSnapshot runSnapshot;
+    private int runSnapshotCount;
     /**
      * runFromHereContext is used only for run from here action
      * TODO: runFromHereContext is only used from UI and should be moved in a UI model. For more information
@@ -181,13 +183,15 @@ public class WsdlTestCase extends AbstractTestPropertyHolderWsdlModelItem<TestCa
     }
 
     public boolean getKeepSession() {
-        return getConfig().getKeepSession();
+        TestCaseRunSnapshot snapshot = runSnapshot;
+        return snapshot == null ? getConfig().getKeepSession() : snapshot.keepSession;
     }
 
     public void setKeepSession(boolean keepSession) {
         boolean old = getKeepSession();
         if (old != keepSession) {
             getConfig().setKeepSession(keepSession);
+            refreshRunSnapshot();
             notifyPropertyChanged(KEEP_SESSION_PROPERTY, old, keepSession);
         }
     }
@@ -231,17 +235,20 @@ public class WsdlTestCase extends AbstractTestPropertyHolderWsdlModelItem<TestCa
     }
 
     public boolean getFailOnError() {
-        return getConfig().getFailOnError();
+        TestCaseRunSnapshot snapshot = runSnapshot;
+        return snapshot == null ? getConfig().getFailOnError() : snapshot.failOnError;
     }
 
     public boolean getFailTestCaseOnErrors() {
-        return getConfig().getFailTestCaseOnErrors();
+        TestCaseRunSnapshot snapshot = runSnapshot;
+        return snapshot == null ? getConfig().getFailTestCaseOnErrors() : snapshot.failTestCaseOnErrors;
     }
 
     public void setFailOnError(boolean failOnError) {
         boolean old = getFailOnError();
         if (old != failOnError) {
             getConfig().setFailOnError(failOnError);
+            refreshRunSnapshot();
             notifyPropertyChanged(FAIL_ON_ERROR_PROPERTY, old, failOnError);
         }
     }
@@ -250,42 +257,49 @@ public class WsdlTestCase extends AbstractTestPropertyHolderWsdlModelItem<TestCa
         boolean old = getFailTestCaseOnErrors();
         if (old != failTestCaseOnErrors) {
             getConfig().setFailTestCaseOnErrors(failTestCaseOnErrors);
+            refreshRunSnapshot();
             notifyPropertyChanged(FAIL_ON_ERRORS_PROPERTY, old, failTestCaseOnErrors);
         }
     }
 
     public boolean getSearchProperties() {
-        return getConfig().getSearchProperties();
+        TestCaseRunSnapshot snapshot = runSnapshot;
+        return snapshot == null ? getConfig().getSearchProperties() : snapshot.searchProperties;
     }
 
     public void setSearchProperties(boolean searchProperties) {
         boolean old = getSearchProperties();
         if (old != searchProperties) {
             getConfig().setSearchProperties(searchProperties);
+            refreshRunSnapshot();
             notifyPropertyChanged(SEARCH_PROPERTIES_PROPERTY, old, searchProperties);
         }
     }
 
     public boolean getDiscardOkResults() {
-        return getConfig().getDiscardOkResults();
+        TestCaseRunSnapshot snapshot = runSnapshot;
+        return snapshot == null ? getConfig().getDiscardOkResults() : snapshot.discardOkResults;
     }
 
     public void setDiscardOkResults(boolean discardOkResults) {
         boolean old = getDiscardOkResults();
         if (old != discardOkResults) {
             getConfig().setDiscardOkResults(discardOkResults);
+            refreshRunSnapshot();
             notifyPropertyChanged(DISCARD_OK_RESULTS, old, discardOkResults);
         }
     }
 
     public int getMaxResults() {
-        return getConfig().getMaxResults();
+        TestCaseRunSnapshot snapshot = runSnapshot;
+        return snapshot == null ? getConfig().getMaxResults() : snapshot.maxResults;
     }
 
     public void setMaxResults(int maxResults) {
         int old = getMaxResults();
         if (old != maxResults) {
             getConfig().setMaxResults(maxResults);
+            refreshRunSnapshot();
             notifyPropertyChanged("maxResults", old, maxResults);
         }
     }
@@ -956,15 +970,58 @@ public class WsdlTestCase extends AbstractTestPropertyHolderWsdlModelItem<TestCa
     }
 
     public long getTimeout() {
-        return getConfig().getTimeout();
+        TestCaseRunSnapshot snapshot = runSnapshot;
+        return snapshot == null ? getConfig().getTimeout() : snapshot.timeout;
     }
 
     public void setTimeout(long timeout) {
         long old = getTimeout();
         getConfig().setTimeout(timeout);
+        refreshRunSnapshot();
         notifyPropertyChanged(TIMEOUT_PROPERTY, old, timeout);
     }
 
+    /**
+     * Reads the run settings and the properties of this TestCase from an immutable snapshot until the matching
+     * {@link #endRunSnapshot(Object, boolean)}, so that many concurrent runners do not contend on the XmlBeans
+     * project document. Changing a setting while in a snapshot updates both the configuration and the snapshot.
+     * Properties are only read from and written to the snapshot by the threads of the specified run, see
+     * {@link #beginPropertyRunScope(Object)}. Calls may be nested.
+     *
+     * @param owner the run the snapshot is taken for
+     */
+
+    public synchronized void beginRunSnapshot(Object owner) {
+        if (runSnapshotCount++ == 0) {
+            runSnapshot = new TestCaseRunSnapshot(getConfig());
+        }
+
+        beginPropertyRunScope(owner);
+    }
+
+    /**
+     * Ends a snapshot started with {@link #beginRunSnapshot(Object)}
+     *
+     * @param writeBackProperties if property values changed by the threads of the run should be kept
+     */
+
+    public synchronized void endRunSnapshot(Object owner, boolean writeBackProperties) {
+        if (runSnapshotCount == 0) {
+            return;
+        }
+
+        endPropertyRunScope(owner, writeBackProperties);
+        if (--runSnapshotCount == 0) {
+            runSnapshot = null;
+        }
+    }
+
+    private synchronized void refreshRunSnapshot() {
+        if (runSnapshot != null) {
+            runSnapshot = new TestCaseRunSnapshot(getConfig());
+        }
+    }
+
     public void exportTestCase(File file) {
         try {
             this.getConfig().newCursor().save(file);
@@ -19,6 +19,7 @@ package com.eviware.soapui.impl.wsdl.testcase;
 import com.eviware.soapui.SoapUI;
 import com.eviware.soapui.impl.wsdl.WsdlTestSuite;
 import com.eviware.soapui.impl.wsdl.support.AbstractTestRunner;
+import com.eviware.soapui.impl.wsdl.support.TestRunExecutor;
 import com.eviware.soapui.model.propertyexpansion.DefaultPropertyExpansionContext;
 import com.eviware.soapui.model.support.TestRunListenerAdapter;
 import com.eviware.soapui.model.testsuite.TestCase;
@@ -45,6 +46,13 @@ import java.util.Set;
 
 public class WsdlTestSuiteRunner extends AbstractTestRunner<WsdlTestSuite, WsdlTestSuiteRunContext> implements
         TestSuiteRunner {
+    /**
+     * Run property with a {@link TestRunExecutor} to run the TestCases of parallel TestSuites on instead of one of
+     * their own, so that the TestCases of all TestSuites in a run share a bounded pool
+     */
+
+    public static final String TEST_CASE_EXECUTOR_PROPERTY = "#TestCaseExecutor#";
+
     private TestSuiteRunListener[] listeners;
     private Set<TestCaseRunner> finishedRunners = new HashSet<TestCaseRunner>();
     private Set<TestCaseRunner> activeRunners = new HashSet<TestCaseRunner>();
@@ -101,30 +109,41 @@ public class WsdlTestSuiteRunner extends AbstractTestRunner<WsdlTestSuite, WsdlT
         currentTestCaseIndex = -1;
         currentTestCase = null;
 
-        for (TestCase testCase : testSuite.getTestCaseList()) {
-            if (!testCase.isDisabled()) {
-                testCase.addTestRunListener(parallellTestRunListener);
-                notifyBeforeRunTestCase(testCase);
-                runTestCase((WsdlTestCase) testCase, true);
-            }
-        }
+        TestRunExecutor sharedExecutor = (TestRunExecutor) runContext.getProperty(TEST_CASE_EXECUTOR_PROPERTY);
+        TestRunExecutor executor = sharedExecutor != null ? sharedExecutor : TestRunExecutor.create(
+                testSuite.getUseVirtualThreads() || testSuite.getProject().getUseVirtualThreads(), "TestSuite "
+                + testSuite.getName());
 
         try {
+            for (int c = 0; c < testSuite.getTestCaseCount(); c++) {
+                // checked before building, so disabled TestCases are never built in the lazy model
+                if (!testSuite.isTestCaseDisabledAt(c)) {
+                    WsdlTestCase testCase = testSuite.getTestCaseAt(c);
+                    testCase.addTestRunListener(parallellTestRunListener);
+                    notifyBeforeRunTestCase(testCase);
+                    runTestCase(testCase, true, executor);
+                }
+            }
+
             synchronized (activeRunners) {
                 activeRunners.wait();
             }
         } catch (InterruptedException e) {
             e.printStackTrace();
+        } finally {
+            if (executor != sharedExecutor) {
+                executor.shutdown();
+            }
         }
     }
 
     private void runSequential(WsdlTestSuite testSuite, WsdlTestSuiteRunContext runContext) {
         currentTestCaseIndex = 0;
         for (; isRunning() && currentTestCaseIndex < testSuite.getTestCaseCount(); currentTestCaseIndex++) {
-            currentTestCase = testSuite.getTestCaseAt(currentTestCaseIndex);
-            if (!currentTestCase.isDisabled()) {
+            if (!testSuite.isTestCaseDisabledAt(currentTestCaseIndex)) {
+                currentTestCase = testSuite.getTestCaseAt(currentTestCaseIndex);
                 notifyBeforeRunTestCase(currentTestCase);
-                TestCaseRunner testCaseRunner = runTestCase(currentTestCase, false);
+                TestCaseRunner testCaseRunner = runTestCase(currentTestCase, false, TestRunExecutor.getShared());
                 activeRunners.remove(testCaseRunner);
                 finishedRunners.add(testCaseRunner);
                 notifyAfterRunTestCase(testCaseRunner);
@@ -143,11 +162,12 @@ public class WsdlTestSuiteRunner extends AbstractTestRunner<WsdlTestSuite, WsdlT
         }
     }
 
-    private TestCaseRunner runTestCase(WsdlTestCase testCaseAt, boolean async) {
+    private TestCaseRunner runTestCase(WsdlTestCase testCaseAt, boolean async, TestRunExecutor executor) {
         DefaultPropertyExpansionContext properties = (DefaultPropertyExpansionContext) getRunContext().getProperties();
         properties.put("#TestSuiteRunner#", this);
 
-        TestCaseRunner currentRunner = testCaseAt.run(properties, true);
+        WsdlTestCaseRunner currentRunner = new WsdlTestCaseRunner(testCaseAt, properties);
+        currentRunner.start(true, executor);
         activeRunners.add(currentRunner);
         if (!async) {
             currentRunner.waitUntilFinished();
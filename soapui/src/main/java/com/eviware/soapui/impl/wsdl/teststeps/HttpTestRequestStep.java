@@ -219,8 +219,11 @@ public class HttpTestRequestStep extends WsdlTestStepWithProperties implements H
             if (event.getNewValue() instanceof SinglePartHttpResponse) {
                 SinglePartHttpResponse response = (SinglePartHttpResponse) event.getNewValue();
                 firePropertyValueChanged("Response", String.valueOf(response), null);
-                String XMLCOntent = response.getContentAsXml();
-                firePropertyValueChanged("ResponseAsXml", String.valueOf(XMLCOntent), null);
+                // the XML representation is created lazily by the response, only build it for listeners
+                if (hasTestPropertyListeners()) {
+                    String XMLCOntent = response.getContentAsXml();
+                    firePropertyValueChanged("ResponseAsXml", String.valueOf(XMLCOntent), null);
+                }
             }
 
             if (event.getPropertyName().equals("domain")) {
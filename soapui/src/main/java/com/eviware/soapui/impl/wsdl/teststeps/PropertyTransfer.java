@@ -31,6 +31,7 @@ import com.eviware.soapui.model.testsuite.TestCase;
 import com.eviware.soapui.model.testsuite.TestProperty;
 import com.eviware.soapui.model.testsuite.TestStep;
 import com.eviware.soapui.support.JsonPathFacade;
+import com.eviware.soapui.support.ParsedJsonCache;
 import com.eviware.soapui.support.PropertyChangeNotifier;
 import com.eviware.soapui.support.StringUtils;
 import com.eviware.soapui.support.resolver.ChooseAnotherPropertySourceResolver;
@@ -39,6 +40,8 @@ import com.eviware.soapui.support.resolver.CreateMissingPropertyResolver;
 import com.eviware.soapui.support.resolver.DisablePropertyTransferResolver;
 import com.eviware.soapui.support.resolver.ResolveContext;
 import com.eviware.soapui.support.resolver.ResolveContext.PathToResolve;
+import com.eviware.soapui.support.xml.CompiledPathCache;
+import com.eviware.soapui.support.xml.ParsedXmlCache;
 import com.eviware.soapui.support.xml.XmlUtils;
 import org.apache.log4j.Logger;
 import org.apache.xmlbeans.XmlCursor;
@@ -344,9 +347,9 @@ public class PropertyTransfer implements PropertyChangeNotifier {
         if (!hasSourcePath()) {
             return sourceValue;
         } else if (getSourcePathLanguage() == PathLanguage.JSONPATH) {
-            return new JsonPathFacade(sourceValue).readObjectValue(getSourcePath());
+            return ParsedJsonCache.getJsonPathFacade(sourceValue).readObjectValue(getSourcePath());
         } else {
-            XmlObject sourceXml = XmlUtils.createXmlObject(sourceValue);
+            XmlObject sourceXml = ParsedXmlCache.getXmlObject(sourceValue);
             XmlCursor sourceCursor = sourceXml.newCursor();
 
             try {
@@ -355,14 +358,14 @@ public class PropertyTransfer implements PropertyChangeNotifier {
                 String pathExpression = PropertyExpander.expandProperties(context, getSourcePath());
                 boolean usingXQuery = getSourcePathLanguage() == PathLanguage.XQUERY;
                 if (usingXQuery) {
-                    XmlCursor resultCursor = sourceCursor.execQuery(pathExpression);
+                    XmlCursor resultCursor = sourceCursor.execQuery(CompiledPathCache.getQuery(pathExpression));
                     sourceCursor.dispose();
                     sourceCursor = resultCursor;
                     if (sourceCursor.toNextToken() != TokenType.START && !getSetNullOnMissingSource() && !getIgnoreEmpty()) {
                         throw new Exception("Missing match for Source XQuery [" + pathExpression + "]");
                     }
                 } else {
-                    sourceCursor.selectPath(pathExpression);
+                    sourceCursor.selectPath(CompiledPathCache.getPath(pathExpression));
                 }
 
                 if (!usingXQuery && !sourceCursor.toNextSelection()) {
@@ -421,7 +424,7 @@ public class PropertyTransfer implements PropertyChangeNotifier {
                 try {
                     List<String> result = new ArrayList<String>();
 
-                    targetCursor.selectPath(targetPath);
+                    targetCursor.selectPath(CompiledPathCache.getPath(targetPath));
 
                     if (!targetCursor.toNextSelection()) {
                         throw new Exception("Missing match for Target XPath [" + targetPath + "]");
@@ -476,8 +479,8 @@ public class PropertyTransfer implements PropertyChangeNotifier {
             if (isResponseProperty(sourceProperty)) {
                 sourcePropertyValue = removeExpansions(sourceProperty.getValue());
             }
-            XmlObject sourceXmlObject = sourcePropertyValue == null ? null : XmlUtils
-                    .createXmlObject(sourcePropertyValue);
+            XmlObject sourceXmlObject = sourcePropertyValue == null ? null : ParsedXmlCache
+                    .getXmlObject(sourcePropertyValue);
             sourceXml = sourceXmlObject == null ? null : sourceXmlObject.newCursor();
         } catch (XmlException e) {
             throw new Exception("Error parsing source property [" + e.getMessage() + "]");
@@ -499,7 +502,7 @@ public class PropertyTransfer implements PropertyChangeNotifier {
             List<String> result = new ArrayList<String>();
 
             String tp = PropertyExpander.expandProperties(context, getTargetPath());
-            targetXml.selectPath(tp);
+            targetXml.selectPath(CompiledPathCache.getPath(tp));
 
             if (!targetXml.hasNextSelection()) {
                 throw new Exception("Missing match for Target XPath [" + tp + "]");
@@ -516,7 +519,7 @@ public class PropertyTransfer implements PropertyChangeNotifier {
                 }
             } else if (getSourcePathLanguage() == PathLanguage.XQUERY) {
                 String sp = PropertyExpander.expandProperties(context, getSourcePath());
-                XmlCursor resultCursor = sourceXml.execQuery(sp);
+                XmlCursor resultCursor = sourceXml.execQuery(CompiledPathCache.getQuery(sp));
                 sourceXml.dispose();
                 sourceXml = resultCursor;
 
@@ -541,7 +544,7 @@ public class PropertyTransfer implements PropertyChangeNotifier {
                 }
             } else {
                 String sp = PropertyExpander.expandProperties(context, getSourcePath());
-                sourceXml.selectPath(sp);
+                sourceXml.selectPath(CompiledPathCache.getPath(sp));
 
                 if (!sourceXml.hasNextSelection()) {
                     if (getSetNullOnMissingSource()) {
@@ -428,9 +428,13 @@ public class RestTestRequestStep extends WsdlTestStepWithProperties implements R
             if (event.getNewValue() instanceof SinglePartHttpResponse) {
                 SinglePartHttpResponse response = (SinglePartHttpResponse) event.getNewValue();
                 firePropertyValueChanged("Response", String.valueOf(response), null);
-                String XMLContent = response.getContentAsXml();
-                // FIXME The value should not be hard coded
-                firePropertyValueChanged("ResponseAsXml", null, XMLContent);
+                // the XML representation is created lazily by the response, so don't convert
+                // large JSON payloads just to notify an empty listener list
+                if (hasTestPropertyListeners()) {
+                    String XMLContent = response.getContentAsXml();
+                    // FIXME The value should not be hard coded
+                    firePropertyValueChanged("ResponseAsXml", null, XMLContent);
+                }
             }
 
             if (event.getPropertyName().equals("domain")) {
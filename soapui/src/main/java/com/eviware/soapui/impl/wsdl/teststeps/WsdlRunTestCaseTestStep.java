@@ -29,7 +29,6 @@ import com.eviware.soapui.impl.wsdl.support.XmlBeansPropertiesTestPropertyHolder
 import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCaseRunner;
 import com.eviware.soapui.model.propertyexpansion.PropertyExpander;
-import com.eviware.soapui.model.support.ModelSupport;
 import com.eviware.soapui.model.support.TestPropertyListenerAdapter;
 import com.eviware.soapui.model.support.TestRunListenerAdapter;
 import com.eviware.soapui.model.support.TestSuiteListenerAdapter;
@@ -128,7 +127,7 @@ public class WsdlRunTestCaseTestStep extends WsdlTestStep {
     }
 
     private WsdlTestCase findTargetTestCase() {
-        return ModelSupport.findModelItemById(getTestCaseId(), getTestCase().getTestSuite().getProject());
+        return getTestCase().getTestSuite().getProject().findTestCaseById(getTestCaseId());
     }
 
     public StringList getReturnProperties() {
@@ -188,6 +188,14 @@ abstract public class WsdlTestStepWithProperties extends WsdlTestStep {
         listeners.remove(listener);
     }
 
+    /**
+     * Lets subclasses skip building expensive property values when nobody is listening for them
+     */
+
+    protected boolean hasTestPropertyListeners() {
+        return !listeners.isEmpty();
+    }
+
     protected void firePropertyAdded(String name) {
         TestPropertyListener[] array = listeners.toArray(new TestPropertyListener[listeners.size()]);
         for (TestPropertyListener listener : array) {
@@ -35,6 +35,8 @@ import com.eviware.soapui.model.testsuite.AssertionException;
 import com.eviware.soapui.support.Tools;
 import com.eviware.soapui.support.UISupport;
 import com.eviware.soapui.support.types.StringList;
+import com.eviware.soapui.support.xml.CompiledPathCache;
+import com.eviware.soapui.support.xml.ParsedXmlCache;
 import com.eviware.soapui.support.xml.XmlUtils;
 import junit.framework.ComparisonFailure;
 import org.apache.xmlbeans.XmlAnySimpleType;
@@ -77,28 +79,26 @@ public class XPathContainsAssertion extends AbstractXmlContainsAssertion {
                 return "Missing content for XPath assertion";
             }
 
-            XmlOptions options = new XmlOptions();
-            if (ignoreComments) {
-                options.setLoadStripComments();
-            }
-
-            // XmlObject xml = XmlObject.Factory.parse( response, options );
-            XmlObject xml = XmlUtils.createXmlObject(response, options);
+            XmlObject xml = ParsedXmlCache.getXmlObject(response, ignoreComments);
             String expandedPath = PropertyExpander.expandProperties(context, path);
-            XmlObject[] items = xml.selectPath(expandedPath);
+            XmlObject[] items = xml.selectPath(CompiledPathCache.getPath(expandedPath));
             AssertedXPathsContainer assertedXPathsContainer = (AssertedXPathsContainer) context
                     .getProperty(AssertedXPathsContainer.ASSERTEDXPATHSCONTAINER_PROPERTY);
 
             XmlObject contentObj = null;
             String expandedContent = PropertyExpander.expandProperties(context, expectedContent);
 
+            // the response is parsed by ParsedXmlCache, the expected content has to drop its comments the same way
+            XmlOptions options = new XmlOptions();
+            if (ignoreComments) {
+                options.setLoadStripComments();
+            }
+
             // stupid check for text selection for those situation that the
             // selected
             // text actually contains xml which should be compared as a string.
             if (!expandedPath.endsWith("text()")) {
                 try {
-                    // contentObj = XmlObject.Factory.parse( expandedContent, options
-                    // );
                     contentObj = XmlUtils.createXmlObject(expandedContent, options);
                 } catch (Exception e) {
                     // this is ok.. it just means that the content to match is not
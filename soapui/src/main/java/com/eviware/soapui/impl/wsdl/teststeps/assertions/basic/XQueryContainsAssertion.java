@@ -32,6 +32,8 @@ import com.eviware.soapui.model.testsuite.AssertionError;
 import com.eviware.soapui.model.testsuite.AssertionException;
 import com.eviware.soapui.support.Tools;
 import com.eviware.soapui.support.UISupport;
+import com.eviware.soapui.support.xml.CompiledPathCache;
+import com.eviware.soapui.support.xml.ParsedXmlCache;
 import com.eviware.soapui.support.xml.XmlUtils;
 import org.apache.xmlbeans.XmlAnySimpleType;
 import org.apache.xmlbeans.XmlObject;
@@ -70,21 +72,20 @@ public class XQueryContainsAssertion extends AbstractXmlContainsAssertion {
                 return "Missing content for XQuery Assertion";
             }
             
-            XmlOptions options = new XmlOptions();
-            if (ignoreComments) {
-                options.setLoadStripComments();
-            }
-
-            // XmlObject xml = XmlObject.Factory.parse( response, options );
-            XmlObject xml = XmlUtils.createXmlObject(response, options);
+            XmlObject xml = ParsedXmlCache.getXmlObject(response, ignoreComments);
             String expandedPath = PropertyExpander.expandProperties(context, path);
-            XmlObject[] items = xml.execQuery(expandedPath);
+            XmlObject[] items = xml.execQuery(CompiledPathCache.getQuery(expandedPath));
 
             XmlObject contentObj = null;
             String expandedContent = PropertyExpander.expandProperties(context, expectedContent);
 
+            // the response is parsed by ParsedXmlCache, the expected content has to drop its comments the same way
+            XmlOptions options = new XmlOptions();
+            if (ignoreComments) {
+                options.setLoadStripComments();
+            }
+
             try {
-                // contentObj = XmlObject.Factory.parse( expandedContent );
                 contentObj = XmlUtils.createXmlObject(expandedContent, options);
             } catch (Exception e) {
                 // this is ok.. it just means that the content to match is not xml
@@ -31,7 +31,7 @@ import com.eviware.soapui.model.propertyexpansion.PropertyExpansionContext;
 import com.eviware.soapui.model.testsuite.Assertable;
 import com.eviware.soapui.model.testsuite.AssertionError;
 import com.eviware.soapui.model.testsuite.AssertionException;
-import com.eviware.soapui.support.JsonPathFacade;
+import com.eviware.soapui.support.ParsedJsonCache;
 import com.eviware.soapui.support.JsonUtil;
 import junit.framework.ComparisonFailure;
 
@@ -138,7 +138,7 @@ public abstract class JsonPathAssertionBase extends XPathContainsAssertion {
     }
 
     protected String readStringValue(String assertableContent, String expandedPath) {
-        Object result = new JsonPathFacade(assertableContent).readObjectValue(expandedPath);
+        Object result = ParsedJsonCache.getJsonPathFacade(assertableContent).readObjectValue(expandedPath);
         return result == null ? null : result.toString();
     }
 
@@ -28,6 +28,7 @@ import com.eviware.soapui.model.testsuite.AssertionException;
 import com.eviware.soapui.model.testsuite.RequestAssertion;
 import com.eviware.soapui.model.testsuite.ResponseAssertion;
 import com.eviware.soapui.support.JsonPathFacade;
+import com.eviware.soapui.support.ParsedJsonCache;
 import com.eviware.soapui.support.StringUtils;
 import com.eviware.soapui.support.UISupport;
 import com.eviware.soapui.support.xml.XmlObjectConfigurationReader;
@@ -166,7 +167,7 @@ public class JsonPathContentAssertion extends JsonPathAssertionBase implements R
                 return "Missing content for JsonPath assertion";
             }
             String expandedPath = PropertyExpander.expandProperties(context, getPath());
-            JsonPathFacade jsonPathFacade = new JsonPathFacade(assertableContent);
+            JsonPathFacade jsonPathFacade = ParsedJsonCache.getJsonPathFacade(assertableContent);
             String result = jsonPathFacade.readStringValue(expandedPath);
             String expandedResult = PropertyExpander.expandProperties(context, result);
 
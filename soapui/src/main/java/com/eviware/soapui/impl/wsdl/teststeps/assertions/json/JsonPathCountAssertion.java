@@ -27,7 +27,7 @@ import com.eviware.soapui.model.testsuite.Assertable;
 import com.eviware.soapui.model.testsuite.AssertionException;
 import com.eviware.soapui.model.testsuite.RequestAssertion;
 import com.eviware.soapui.model.testsuite.ResponseAssertion;
-import com.eviware.soapui.support.JsonPathFacade;
+import com.eviware.soapui.support.ParsedJsonCache;
 import com.eviware.soapui.support.StringUtils;
 import com.eviware.soapui.support.UISupport;
 import junit.framework.Assert;
@@ -80,7 +80,7 @@ public class JsonPathCountAssertion extends JsonPathAssertionBase implements Req
                 contentArea.setText("");
             }
 
-            Object result = new JsonPathFacade(assertableContent).readObjectValue(expandedPath);
+            Object result = ParsedJsonCache.getJsonPathFacade(assertableContent).readObjectValue(expandedPath);
             if (result == null) {
                 UISupport.showErrorMessage("No match in current response");
             } else {
@@ -119,7 +119,7 @@ public class JsonPathCountAssertion extends JsonPathAssertionBase implements Req
                 return "Missing content for JsonPath assertion";
             }
             String expandedPath = PropertyExpander.expandProperties(context, path);
-            Object result = new JsonPathFacade(assertableContent).readObjectValue(expandedPath);
+            Object result = ParsedJsonCache.getJsonPathFacade(assertableContent).readObjectValue(expandedPath);
             String resultSize = getResultSize(result).toString();
 
             String expandedContent = PropertyExpander.expandProperties(context, getExpectedContent());
@@ -28,6 +28,7 @@ import com.eviware.soapui.model.testsuite.AssertionException;
 import com.eviware.soapui.model.testsuite.RequestAssertion;
 import com.eviware.soapui.model.testsuite.ResponseAssertion;
 import com.eviware.soapui.support.JsonPathFacade;
+import com.eviware.soapui.support.ParsedJsonCache;
 import com.eviware.soapui.support.StringUtils;
 import com.eviware.soapui.support.UISupport;
 import junit.framework.Assert;
@@ -78,7 +79,7 @@ public class JsonPathExistenceAssertion extends JsonPathAssertionBase implements
                 contentArea.setText("");
             }
 
-            Object result = new JsonPathFacade(assertableContent).readObjectValue(expandedPath);
+            Object result = ParsedJsonCache.getJsonPathFacade(assertableContent).readObjectValue(expandedPath);
             setExpectedValueFromSelectedNode(contentArea, Boolean.toString(result != null));
 
         } catch (Throwable e) {
@@ -106,7 +107,7 @@ public class JsonPathExistenceAssertion extends JsonPathAssertionBase implements
                 return "Missing content for JsonPath assertion";
             }
             String expandedPath = PropertyExpander.expandProperties(context, path);
-            JsonPathFacade jsonPathFacade = new JsonPathFacade(assertableContent);
+            JsonPathFacade jsonPathFacade = ParsedJsonCache.getJsonPathFacade(assertableContent);
             Object result = jsonPathFacade.readObjectValue(expandedPath);
             String expandedExpectedValue = PropertyExpander.expandProperties(context, getExpectedContent());
             Assert.assertEquals(expandedExpectedValue, Boolean.toString(result != null));
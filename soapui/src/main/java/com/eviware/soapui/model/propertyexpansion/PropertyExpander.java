@@ -154,93 +154,146 @@ public class PropertyExpander implements SoapUIFactoryRegistryListener {
                 return content;
             }
 
-            int ix = content.indexOf("${");
-            if (ix == -1) {
+            if (content.indexOf("${") == -1) {
                 return content;
             }
 
-            StringBuffer buf = new StringBuffer();
-            int lastIx = 0;
-            while (ix != -1) {
-                if (ix > lastIx && content.charAt(ix - 1) == '$') {
-                    buf.append(content.substring(lastIx, ix - 1));
-                    lastIx = ix;
-                    ix = content.indexOf("${", lastIx + 1);
-                    continue;
-                }
+            PropertyExpansionTemplate template = PropertyExpansionTemplate.getTemplate(content);
+            if (template == null) {
+                return expandUncompiled(context, content, entitize);
+            }
 
-                if (ix > lastIx) {
-                    buf.append(content.substring(lastIx, ix));
-                }
+            boolean globalOverrideEnabled = SoapUI.getSettings().getBoolean(GlobalPropertySettings.ENABLE_OVERRIDE);
+            StringBuilder buf = new StringBuilder(template.getLiteralLength() + 16 * template.getSegmentCount());
 
-                int ix2 = content.indexOf('}', ix + 2);
-                if (ix2 == -1) {
-                    break;
+            for (int c = 0; c < template.getSegmentCount(); c++) {
+                if (template.isExpansion(c)) {
+                    String propertyValue = resolveProperty(context, template.getPropertyName(c), content, entitize,
+                            globalOverrideEnabled);
+                    if (propertyValue != null) {
+                        buf.append(propertyValue);
+                    }
+                } else {
+                    template.appendLiteral(buf, c);
                 }
+            }
 
-                // check for nesting
-                int ix3 = content.lastIndexOf("${", ix2);
-                if (ix3 != ix) {
-                    // buf.append( content.substring( ix, ix3 ));
-                    content = content.substring(0, ix3) + expand(context, content.substring(ix3, ix2 + 1))
-                            + content.substring(ix2 + 1);
-
-                    lastIx = ix;
-                    continue;
-                }
+            return buf.toString();
+        } finally {
+            clState.restore();
+        }
+    }
 
-                String propertyName = content.substring(ix + 2, ix2);
-                String propertyValue = null;
+    /**
+     * Expands content containing nested expansions, which can not be compiled into a template since the
+     * expanded value of an inner expansion may change how the rest of the content is parsed
+     */
+
+    private String expandUncompiled(PropertyExpansionContext context, String content, boolean entitize) {
+        int ix = content.indexOf("${");
+        Boolean globalOverrideEnabled = null;
+
+        StringBuffer buf = new StringBuffer();
+        int lastIx = 0;
+        while (ix != -1) {
+            if (ix > lastIx && content.charAt(ix - 1) == '$') {
+                buf.append(content.substring(lastIx, ix - 1));
+                lastIx = ix;
+                ix = content.indexOf("${", lastIx + 1);
+                continue;
+            }
 
-                if (StringUtils.hasContent(propertyName)) {
-                    boolean globalOverrideEnabled = SoapUI.getSettings().getBoolean(GlobalPropertySettings.ENABLE_OVERRIDE);
+            if (ix > lastIx) {
+                buf.append(content.substring(lastIx, ix));
+            }
 
-                    for (int c = 0; c < propertyResolvers.size() && propertyValue == null; c++) {
-                        propertyValue = propertyResolvers.get(c).resolveProperty(context, propertyName,
-                                globalOverrideEnabled);
-                    }
-                }
+            int ix2 = content.indexOf('}', ix + 2);
+            if (ix2 == -1) {
+                break;
+            }
 
-                // found a value?
-                if (propertyValue != null) {
-                    if (!content.equals(propertyValue)) {
-                        propertyValue = expand(context, propertyValue);
-                    }
+            // check for nesting
+            int ix3 = content.lastIndexOf("${", ix2);
+            if (ix3 != ix) {
+                // buf.append( content.substring( ix, ix3 ));
+                content = content.substring(0, ix3) + expand(context, content.substring(ix3, ix2 + 1))
+                        + content.substring(ix2 + 1);
 
-                    if (entitize) {
-                        propertyValue = XmlUtils.entitize(propertyValue);
-                    }
+                lastIx = ix;
+                continue;
+            }
 
-                    TestCase testCase = ModelSupport.getModelItemTestCase(context.getModelItem());
-                    if (debuggingMode && testCase != null) {
-                        StringToStringMap props = debuggingExpandedProperties.get(testCase.getId());
-                        if (props == null) {
-                            props = new StringToStringMap();
-                        }
-                        props.put(propertyName, propertyValue);
-                        debuggingExpandedProperties.put(testCase.getId(), props);
-                    }
-                    buf.append(propertyValue);
-                } else {
-                    // if( log.isEnabledFor( Priority.WARN ))
-                    // log.warn( "Missing property value for [" + propertyName + "]"
-                    // );
+            String propertyName = content.substring(ix + 2, ix2);
+            String propertyValue = null;
 
-                    // buf.append( "${" ).append( propertyName ).append( '}' );
+            if (StringUtils.hasContent(propertyName)) {
+                if (globalOverrideEnabled == null) {
+                    globalOverrideEnabled = SoapUI.getSettings().getBoolean(GlobalPropertySettings.ENABLE_OVERRIDE);
                 }
 
-                lastIx = ix2 + 1;
-                ix = content.indexOf("${", lastIx);
+                propertyValue = resolveProperty(context, propertyName, content, entitize, globalOverrideEnabled);
             }
 
-            if (lastIx < content.length()) {
-                buf.append(content.substring(lastIx));
+            // found a value?
+            if (propertyValue != null) {
+                buf.append(propertyValue);
+            } else {
+                // if( log.isEnabledFor( Priority.WARN ))
+                // log.warn( "Missing property value for [" + propertyName + "]"
+                // );
+
+                // buf.append( "${" ).append( propertyName ).append( '}' );
             }
 
-            return buf.toString();
-        } finally {
-            clState.restore();
+            lastIx = ix2 + 1;
+            ix = content.indexOf("${", lastIx);
+        }
+
+        if (lastIx < content.length()) {
+            buf.append(content.substring(lastIx));
+        }
+
+        return buf.toString();
+    }
+
+    /**
+     * Resolves a single property and expands its value
+     *
+     * @return the expanded value or null if no resolver knows the property
+     */
+
+    private String resolveProperty(PropertyExpansionContext context, String propertyName, String content,
+                                   boolean entitize, boolean globalOverrideEnabled) {
+        String propertyValue = null;
+        for (int c = 0; c < propertyResolvers.size() && propertyValue == null; c++) {
+            propertyValue = propertyResolvers.get(c).resolveProperty(context, propertyName, globalOverrideEnabled);
         }
+
+        if (propertyValue == null) {
+            return null;
+        }
+
+        if (!content.equals(propertyValue)) {
+            propertyValue = expand(context, propertyValue);
+        }
+
+        if (entitize) {
+            propertyValue = XmlUtils.entitize(propertyValue);
+        }
+
+        if (debuggingMode) {
+            TestCase testCase = ModelSupport.getModelItemTestCase(context.getModelItem());
+            if (testCase != null) {
+                StringToStringMap props = debuggingExpandedProperties.get(testCase.getId());
+                if (props == null) {
+                    props = new StringToStringMap();
+                }
+                props.put(propertyName, propertyValue);
+                debuggingExpandedProperties.put(testCase.getId(), props);
+            }
+        }
+
+        return propertyValue;
     }
 
     public String expand(ModelItem contextModelItem, String content) {
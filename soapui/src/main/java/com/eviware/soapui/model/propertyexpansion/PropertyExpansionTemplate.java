@@ -0,0 +1,190 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.model.propertyexpansion;
+
+import com.eviware.soapui.support.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Content string parsed once into literal and property expansion segments, so it can be expanded in a single
+ * pass without rescanning. Templates are cached by content; since an edited request body is a different string
+ * it gets a new template, and the cache is simply cleared when it grows beyond its bound. Content longer than
+ * {@link #MAX_CACHED_CONTENT_LENGTH} is compiled for each expansion but not cached, so large request bodies are
+ * not kept in memory.
+ * <p/>
+ * Content with nested or unterminated expansions is not compiled, as the result of a nested expansion may
+ * change how the rest of the content is parsed; {@link #getTemplate(String)} returns null for such content.
+ */
+
+public final class PropertyExpansionTemplate {
+    private final static int MAX_CACHED_TEMPLATES = 1000;
+    public final static int MAX_CACHED_CONTENT_LENGTH = 16 * 1024;
+    private final static PropertyExpansionTemplate NOT_COMPILABLE = new PropertyExpansionTemplate("", new int[0],
+            new int[0], new String[0]);
+
+    private final static Map<String, PropertyExpansionTemplate> templateCache =
+            new ConcurrentHashMap<String, PropertyExpansionTemplate>();
+
+    private final String content;
+    // for each segment either a property name or null, in which case start/end denote a literal
+    private final String[] propertyNames;
+    private final int[] starts;
+    private final int[] ends;
+    private final int literalLength;
+
+    private PropertyExpansionTemplate(String content, int[] starts, int[] ends, String[] propertyNames) {
+        this.content = content;
+        this.starts = starts;
+        this.ends = ends;
+        this.propertyNames = propertyNames;
+
+        int length = 0;
+        for (int c = 0; c < propertyNames.length; c++) {
+            if (propertyNames[c] == null) {
+                length += ends[c] - starts[c];
+            }
+        }
+
+        literalLength = length;
+    }
+
+    /**
+     * Returns the cached template for the specified content, compiling it if needed
+     *
+     * @return the template or null if the content can not be compiled
+     */
+
+    public static PropertyExpansionTemplate getTemplate(String content) {
+        if (content.length() > MAX_CACHED_CONTENT_LENGTH) {
+            return compile(content);
+        }
+
+        PropertyExpansionTemplate template = templateCache.get(content);
+        if (template == null) {
+            template = compile(content);
+            if (template == null) {
+                template = NOT_COMPILABLE;
+            }
+
+            if (templateCache.size() >= MAX_CACHED_TEMPLATES) {
+                templateCache.clear();
+            }
+
+            templateCache.put(content, template);
+        }
+
+        return template == NOT_COMPILABLE ? null : template;
+    }
+
+    public static void clearCache() {
+        templateCache.clear();
+    }
+
+    /**
+     * Parses the content with the same rules as the PropertyExpander; "$${" escapes an expansion and empty
+     * property names expand to nothing
+     *
+     * @return the template or null if the content contains nested or unterminated expansions
+     */
+
+    static PropertyExpansionTemplate compile(String content) {
+        List<String> names = new ArrayList<String>();
+        List<int[]> ranges = new ArrayList<int[]>();
+
+        int ix = content.indexOf("${");
+        int lastIx = 0;
+        while (ix != -1) {
+            if (ix > lastIx && content.charAt(ix - 1) == '$') {
+                addLiteral(names, ranges, lastIx, ix - 1);
+                lastIx = ix;
+                ix = content.indexOf("${", lastIx + 1);
+                continue;
+            }
+
+            int ix2 = content.indexOf('}', ix + 2);
+            if (ix2 == -1 || content.lastIndexOf("${", ix2) != ix) {
+                return null;
+            }
+
+            addLiteral(names, ranges, lastIx, ix);
+
+            String propertyName = content.substring(ix + 2, ix2);
+            if (StringUtils.hasContent(propertyName)) {
+                names.add(propertyName);
+                ranges.add(new int[]{ix, ix2 + 1});
+            }
+
+            lastIx = ix2 + 1;
+            ix = content.indexOf("${", lastIx);
+        }
+
+        addLiteral(names, ranges, lastIx, content.length());
+
+        int[] starts = new int[ranges.size()];
+        int[] ends = new int[ranges.size()];
+        for (int c = 0; c < starts.length; c++) {
+            starts[c] = ranges.get(c)[0];
+            ends[c] = ranges.get(c)[1];
+        }
+
+        return new PropertyExpansionTemplate(content, starts, ends, names.toArray(new String[names.size()]));
+    }
+
+    private static void addLiteral(List<String> names, List<int[]> ranges, int start, int end) {
+        if (end > start) {
+            names.add(null);
+            ranges.add(new int[]{start, end});
+        }
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public int getSegmentCount() {
+        return propertyNames.length;
+    }
+
+    public boolean isExpansion(int segment) {
+        return propertyNames[segment] != null;
+    }
+
+    /**
+     * Returns the name of the property to expand, i.e. the text between "${" and "}"
+     */
+
+    public String getPropertyName(int segment) {
+        return propertyNames[segment];
+    }
+
+    public void appendLiteral(StringBuilder buf, int segment) {
+        buf.append(content, starts[segment], ends[segment]);
+    }
+
+    /**
+     * The total length of all literal segments, used for sizing the result buffer
+     */
+
+    public int getLiteralLength() {
+        return literalLength;
+    }
+}
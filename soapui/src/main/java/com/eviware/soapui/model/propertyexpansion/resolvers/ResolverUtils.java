@@ -23,7 +23,9 @@ import com.eviware.soapui.model.propertyexpansion.PropertyExpansion;
 import com.eviware.soapui.model.propertyexpansion.PropertyExpansionContext;
 import com.eviware.soapui.model.propertyexpansion.PropertyExpansionUtils;
 import com.eviware.soapui.model.testsuite.TestProperty;
-import com.eviware.soapui.support.JsonPathFacade;
+import com.eviware.soapui.support.ParsedJsonCache;
+import com.eviware.soapui.support.xml.CompiledPathCache;
+import com.eviware.soapui.support.xml.ParsedXmlCache;
 import com.eviware.soapui.support.xml.XmlUtils;
 import org.apache.xmlbeans.XmlObject;
 import org.w3c.dom.Node;
@@ -86,11 +88,11 @@ public class ResolverUtils {
             String value = property instanceof TestProperty ? ((TestProperty) property).getValue() : property
                     .toString();
             if (pathExpression.startsWith("$")) {
-                return new JsonPathFacade(value).readStringValue(pathExpression);
+                return ParsedJsonCache.getJsonPathFacade(value).readStringValue(pathExpression);
             } else {
-                XmlObject xmlObject = XmlUtils.createXmlObject(value);
+                XmlObject xmlObject = ParsedXmlCache.getXmlObject(value);
                 String ns = pathExpression.trim().startsWith("declare namespace") ? "" : XmlUtils.declareXPathNamespaces(xmlObject);
-                Node domNode = XmlUtils.selectFirstDomNode(xmlObject, ns + pathExpression);
+                Node domNode = XmlUtils.selectFirstDomNode(xmlObject, CompiledPathCache.getPath(ns, pathExpression));
                 return domNode == null ? null : XmlUtils.getValueForMatch(domNode, false);
             }
         } catch (Exception e) {
@@ -0,0 +1,218 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+
+package com.eviware.soapui.monitor;
+
+import com.eviware.soapui.impl.support.AbstractMockResponse;
+import com.eviware.soapui.impl.support.AbstractMockService;
+import com.eviware.soapui.impl.support.BaseMockResult;
+import com.eviware.soapui.model.mock.MockResult;
+import org.mortbay.util.ajax.ContinuationSupport;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * Response passed to the MockRunners by the JettyMockEngine, holds back a mock response for its response delay.
+ * <p>
+ * Once a mock response has deferred its delay the body is written to a buffer of its own instead of the Jetty
+ * response, so nothing is sent before the delay has passed. suspend then suspends the request with a Jetty
+ * continuation; the buffered body is written and the MockResult is finished and reported to the MockRunListeners
+ * when the request is resumed.
+ */
+
+class DeferredMockResponse extends HttpServletResponseWrapper {
+    private static final String DEFERRED_MOCK_RESPONSE = "soapui.mock.deferredMockResponse";
+
+    private final HttpServletRequest request;
+    private ByteArrayOutputStream buffer;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+    private MockResult mockResult;
+    private long suspendTime;
+
+    DeferredMockResponse(HttpServletRequest request, HttpServletResponse response) {
+        super(response);
+        this.request = request;
+    }
+
+    /**
+     * Completes a request that is dispatched again after its response delay
+     *
+     * @return true if the request was suspended by a DeferredMockResponse and has now been completed
+     */
+
+    static boolean resume(HttpServletRequest request) throws IOException {
+        DeferredMockResponse deferredResponse = (DeferredMockResponse) request.getAttribute(DEFERRED_MOCK_RESPONSE);
+        if (deferredResponse == null) {
+            return false;
+        }
+
+        request.removeAttribute(DEFERRED_MOCK_RESPONSE);
+        deferredResponse.complete();
+        return true;
+    }
+
+    /**
+     * Suspends the request if the mock response deferred its delay. On the SelectChannelConnector this throws a
+     * RetryRequest which releases the thread, and the request is then completed by resume; other connectors block
+     * until the delay has passed and the request is completed before returning.
+     *
+     * @param mockResult the result of the dispatch, finished and reported once the response has been sent
+     * @return false if no delay was deferred, the response is then left to the caller
+     */
+
+    boolean suspend(MockResult mockResult) throws IOException {
+        Long delay = (Long) request.getAttribute(AbstractMockResponse.DEFERRED_RESPONSE_DELAY);
+        if (delay == null) {
+            return false;
+        }
+
+        request.removeAttribute(AbstractMockResponse.DEFERRED_RESPONSE_DELAY);
+        this.mockResult = mockResult;
+        suspendTime = System.nanoTime();
+
+        request.setAttribute(DEFERRED_MOCK_RESPONSE, this);
+        ContinuationSupport.getContinuation(request, null).suspend(delay);
+        request.removeAttribute(DEFERRED_MOCK_RESPONSE);
+
+        complete();
+        return true;
+    }
+
+    /**
+     * Drops a deferred delay and anything buffered so far, used when the dispatch failed and an error is written
+     * to the Jetty response instead
+     */
+
+    void discard() {
+        request.removeAttribute(AbstractMockResponse.DEFERRED_RESPONSE_DELAY);
+        request.removeAttribute(AbstractMockResponse.DEFERRED_MOCK_SERVICE);
+        if (buffer != null) {
+            buffer.reset();
+        }
+    }
+
+    private void complete() throws IOException {
+        HttpServletResponse response = (HttpServletResponse) getResponse();
+        if (buffer != null) {
+            if (writer != null) {
+                writer.flush();
+            }
+
+            buffer.writeTo(response.getOutputStream());
+            buffer = null;
+        }
+
+        response.flushBuffer();
+
+        if (mockResult instanceof BaseMockResult) {
+            BaseMockResult<?, ?> result = (BaseMockResult<?, ?>) mockResult;
+            result.setTimeTaken(result.getTimeTaken() + (System.nanoTime() - suspendTime) / 1000000);
+        }
+
+        if (mockResult != null) {
+            mockResult.finish();
+        }
+
+        AbstractMockService<?, ?> mockService = (AbstractMockService<?, ?>) request
+                .getAttribute(AbstractMockResponse.DEFERRED_MOCK_SERVICE);
+        if (mockService != null) {
+            request.removeAttribute(AbstractMockResponse.DEFERRED_MOCK_SERVICE);
+            mockService.fireOnMockResult(mockResult);
+        }
+    }
+
+    private boolean isBuffering() {
+        return buffer != null || request.getAttribute(AbstractMockResponse.DEFERRED_RESPONSE_DELAY) != null;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            if (isBuffering()) {
+                buffer = new ByteArrayOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) {
+                        buffer.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) {
+                        buffer.write(b, off, len);
+                    }
+                };
+            } else {
+                outputStream = super.getOutputStream();
+            }
+        }
+
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (isBuffering()) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            } else {
+                writer = super.getWriter();
+            }
+        }
+
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (buffer == null) {
+            super.flushBuffer();
+        } else if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return buffer == null && super.isCommitted();
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (buffer == null) {
+            super.resetBuffer();
+        } else {
+            if (writer != null) {
+                writer.flush();
+            }
+            buffer.reset();
+        }
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        super.reset();
+    }
+}
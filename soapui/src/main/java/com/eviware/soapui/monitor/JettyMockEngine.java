@@ -17,6 +17,7 @@
 package com.eviware.soapui.monitor;
 
 import com.eviware.soapui.SoapUI;
+import com.eviware.soapui.impl.support.AbstractMockResponse;
 import com.eviware.soapui.impl.wsdl.mock.DispatchException;
 import com.eviware.soapui.impl.wsdl.support.soap.SoapMessageBuilder;
 import com.eviware.soapui.impl.wsdl.support.soap.SoapVersion;
@@ -110,6 +111,10 @@ public class JettyMockEngine implements MockEngine {
 
             if (SoapUI.getSettings().getBoolean(SSLSettings.ENABLE_MOCK_SSL) && !addedSslConnector) {
                 updateSslConnectorSettings();
+                if (!sslConnector.isStarted()) {
+                    sslConnector.setThreadPool(createThreadPool(mockService, sslConnector.getPort(),
+                            sslConnector.getAcceptors()));
+                }
                 server.addConnector(sslConnector);
                 addedSslConnector = true;
             } else {
@@ -125,6 +130,7 @@ public class JettyMockEngine implements MockEngine {
                 PropertySupport.applySystemProperties(connector, "soapui.mock.connector", runner.getMockContext().getMockService());
 
                 connector.setPort(port);
+                connector.setThreadPool(createThreadPool(mockService, port, connector.getAcceptors()));
                 if (sslConnector != null) {
                     connector.setConfidentialPort(sslConnector.getPort());
                 }
@@ -157,6 +163,8 @@ public class JettyMockEngine implements MockEngine {
 
                 connectors.put(port, connector);
                 runners.put(port, new HashMap<String, List<MockRunner>>());
+            } else {
+                warnIfThreadPoolIgnored(mockService, port);
             }
 
             Map<String, List<MockRunner>> map = runners.get(port);
@@ -171,6 +179,36 @@ public class JettyMockEngine implements MockEngine {
         }
     }
 
+    private MockServiceThreadPool createThreadPool(MockService mockService, int port, int acceptors) {
+        MockServiceThreadPool threadPool = new MockServiceThreadPool(port, (int) SoapUI.getSettings().getLong(
+                HttpSettings.MOCK_MAX_THREADS, 100), (int) SoapUI.getSettings().getLong(HttpSettings.MOCK_MAX_QUEUED,
+                1000), acceptors);
+        PropertySupport.applySystemProperties(threadPool, "soapui.mock.threadpool", mockService);
+        return threadPool;
+    }
+
+    /**
+     * The thread pool of a port is created for the first MockService started on it, so the pool properties of
+     * MockServices started later on the same port have no effect
+     */
+
+    private void warnIfThreadPoolIgnored(MockService mockService, int port) {
+        SoapUIConnector connector = connectors.get(port);
+        if (connector == null || !(connector.getThreadPool() instanceof MockServiceThreadPool)) {
+            return;
+        }
+
+        MockServiceThreadPool threadPool = (MockServiceThreadPool) connector.getThreadPool();
+        MockServiceThreadPool requested = createThreadPool(mockService, port, connector.getAcceptors());
+        if (requested.getMaxThreads() != threadPool.getMaxThreads()
+                || requested.getMaxQueued() != threadPool.getMaxQueued()
+                || requested.isRejectOverflow() != threadPool.isRejectOverflow()) {
+            log.warn("Ignoring thread pool settings of MockService [" + mockService.getName() + "], port [" + port
+                    + "] is already served with maxThreads [" + threadPool.getMaxThreads() + "], maxQueued ["
+                    + threadPool.getMaxQueued() + "] and rejectOverflow [" + threadPool.isRejectOverflow() + "]");
+        }
+    }
+
     private void initServer() throws Exception {
         server = new Server();
         server.setThreadPool(new SoapUIJettyThreadPool());
@@ -564,6 +602,17 @@ public class JettyMockEngine implements MockEngine {
     private class ServerHandler extends AbstractHandler {
         public void handle(String target, HttpServletRequest request, HttpServletResponse response, int dispatch)
                 throws IOException, ServletException {
+            if (DeferredMockResponse.resume(request)) {
+                return;
+            }
+
+            if (MockServiceThreadPool.isOverflowRequest()) {
+                response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                response.setHeader("Connection", "close");
+                response.flushBuffer();
+                return;
+            }
+
             // find mockService
             Map<String, List<MockRunner>> map = runners.get(request.getLocalPort());
 
@@ -591,9 +640,12 @@ public class JettyMockEngine implements MockEngine {
                 }
 
                 if (wsdlMockRunners != null) {
+                    request.setAttribute(AbstractMockResponse.DEFER_RESPONSE_DELAY, Boolean.TRUE);
+                    DeferredMockResponse deferredResponse = new DeferredMockResponse(request, response);
+                    MockResult result = null;
+
                     try {
                         DispatchException ex = null;
-                        MockResult result = null;
 
                         for (MockRunner wsdlMockRunner : wsdlMockRunners) {
                             if (!wsdlMockRunner.isRunning()) {
@@ -601,9 +653,8 @@ public class JettyMockEngine implements MockEngine {
                             }
 
                             try {
-                                result = wsdlMockRunner.dispatchRequest(request, response);
+                                result = wsdlMockRunner.dispatchRequest(request, deferredResponse);
                                 if (result != null) {
-                                    result.finish();
                                     break;
                                 }
                             } catch (DispatchException e) {
@@ -616,6 +667,7 @@ public class JettyMockEngine implements MockEngine {
                         }
                     } catch (Exception e) {
                         SoapUI.logError(e);
+                        deferredResponse.discard();
 
                         response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
                         response.setContentType("text/html");
@@ -624,6 +676,15 @@ public class JettyMockEngine implements MockEngine {
                                         .getSoapVersionForContentType(request.getContentType(), SoapVersion.Soap11)));
                         // throw new ServletException( e );
                     }
+
+                    // the result is finished by the deferred response once the response delay has passed
+                    if (deferredResponse.suspend(result)) {
+                        return;
+                    }
+
+                    if (result != null) {
+                        result.finish();
+                    }
                 } else {
                     printMockServiceList(response);
                 }
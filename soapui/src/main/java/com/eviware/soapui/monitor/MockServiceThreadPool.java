@@ -0,0 +1,270 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.monitor;
+
+import org.apache.log4j.Logger;
+import org.mortbay.component.AbstractLifeCycle;
+import org.mortbay.thread.ThreadPool;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded Jetty ThreadPool for the connector of one MockService port, so mocks do not compete with LoadTests and
+ * other work on the shared SoapUI thread pool. When all threads are busy and the queue is full, requests are
+ * either handed to a single overflow thread that answers them with 503 Service Unavailable, or left to Jetty to
+ * dispatch again later. The pool is registered as an MBean under
+ * com.eviware.soapui:type=MockThreadPool,port=[port].
+ * <p/>
+ * The properties can be set per MockService with system properties in the soapui.mock.threadpool scope, for
+ * example -Dsoapui.mock.threadpool.maxThreads=${#MockService#threads}
+ */
+
+public class MockServiceThreadPool extends AbstractLifeCycle implements ThreadPool, MockServiceThreadPoolMBean {
+    private final static Logger log = Logger.getLogger(MockServiceThreadPool.class);
+    private final static ThreadLocal<Boolean> overflow = new ThreadLocal<Boolean>();
+
+    private final int port;
+    private final int reservedThreads;
+    private int maxThreads;
+    private int maxQueued;
+    private boolean rejectOverflow = true;
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong completedBefore = new AtomicLong();
+
+    private volatile ThreadPoolExecutor executor;
+    private volatile ThreadPoolExecutor overflowExecutor;
+    private ObjectName objectName;
+
+    /**
+     * @param reservedThreads number of threads kept for the acceptors and selectors of the connector
+     */
+
+    public MockServiceThreadPool(int port, int maxThreads, int maxQueued, int reservedThreads) {
+        this.port = port;
+        this.maxThreads = maxThreads;
+        this.maxQueued = maxQueued;
+        this.reservedThreads = reservedThreads;
+    }
+
+    /**
+     * Returns true if the current thread is answering a request that did not fit in the pool
+     */
+
+    public static boolean isOverflowRequest() {
+        return overflow.get() != null;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        int threads = Math.max(1, maxThreads) + reservedThreads;
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(Math.max(1, maxQueued)), new PoolThreadFactory("SoapUI Mock " + port));
+        executor.allowCoreThreadTimeOut(true);
+
+        if (rejectOverflow) {
+            overflowExecutor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(
+                    Math.max(1, maxQueued)), new PoolThreadFactory("SoapUI Mock " + port + " overflow"));
+            overflowExecutor.allowCoreThreadTimeOut(true);
+        }
+
+        registerMBean();
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        unregisterMBean();
+
+        ThreadPoolExecutor stopped = executor;
+        completedBefore.addAndGet(stopped.getCompletedTaskCount());
+        stopped.shutdown();
+        if (overflowExecutor != null) {
+            overflowExecutor.shutdown();
+            overflowExecutor = null;
+        }
+
+        log.info("Mock thread pool on port [" + port + "] stopped; completed [" + getCompletedRequests()
+                + "], rejected [" + getRejectedRequests() + "]");
+    }
+
+    public boolean dispatch(Runnable job) {
+        ThreadPoolExecutor current = executor;
+        if (current == null || current.isShutdown()) {
+            return false;
+        }
+
+        try {
+            current.execute(job);
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+        }
+
+        ThreadPoolExecutor overflowPool = overflowExecutor;
+        if (overflowPool != null) {
+            try {
+                overflowPool.execute(new OverflowJob(job));
+                return true;
+            } catch (RejectedExecutionException e) {
+                // let Jetty try again later
+            }
+        }
+
+        return false;
+    }
+
+    public void join() throws InterruptedException {
+        ThreadPoolExecutor current = executor;
+        if (current != null) {
+            current.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+
+    public int getThreads() {
+        ThreadPoolExecutor current = executor;
+        return current == null ? 0 : current.getPoolSize();
+    }
+
+    public int getIdleThreads() {
+        ThreadPoolExecutor current = executor;
+        return current == null ? 0 : current.getPoolSize() - current.getActiveCount();
+    }
+
+    public boolean isLowOnThreads() {
+        ThreadPoolExecutor current = executor;
+        return current != null && current.getActiveCount() >= current.getMaximumPoolSize()
+                && !current.getQueue().isEmpty();
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    public void setMaxThreads(int maxThreads) {
+        this.maxThreads = maxThreads;
+    }
+
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    public void setMaxQueued(int maxQueued) {
+        this.maxQueued = maxQueued;
+    }
+
+    public boolean isRejectOverflow() {
+        return rejectOverflow;
+    }
+
+    public void setRejectOverflow(boolean rejectOverflow) {
+        this.rejectOverflow = rejectOverflow;
+    }
+
+    public int getActiveThreads() {
+        ThreadPoolExecutor current = executor;
+        return current == null ? 0 : Math.max(0, current.getActiveCount() - reservedThreads);
+    }
+
+    public int getQueueDepth() {
+        ThreadPoolExecutor current = executor;
+        return current == null ? 0 : current.getQueue().size();
+    }
+
+    public long getCompletedRequests() {
+        ThreadPoolExecutor current = executor;
+        return completedBefore.get() + (current == null || current.isShutdown() ? 0 : current.getCompletedTaskCount());
+    }
+
+    public long getRejectedRequests() {
+        return rejected.get();
+    }
+
+    private void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            objectName = new ObjectName("com.eviware.soapui:type=MockThreadPool,port=" + port);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(this, objectName);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to register MBean for mock thread pool on port [" + port + "]: " + e);
+            objectName = null;
+        }
+    }
+
+    private void unregisterMBean() {
+        if (objectName == null) {
+            return;
+        }
+
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to unregister MBean for mock thread pool on port [" + port + "]: " + e);
+        }
+
+        objectName = null;
+    }
+
+    private static class OverflowJob implements Runnable {
+        private final Runnable job;
+
+        OverflowJob(Runnable job) {
+            this.job = job;
+        }
+
+        public void run() {
+            overflow.set(Boolean.TRUE);
+            try {
+                job.run();
+            } finally {
+                overflow.remove();
+            }
+        }
+    }
+
+    private static class PoolThreadFactory implements ThreadFactory {
+        private final String name;
+        private final AtomicInteger count = new AtomicInteger();
+
+        PoolThreadFactory(String name) {
+            this.name = name;
+        }
+
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
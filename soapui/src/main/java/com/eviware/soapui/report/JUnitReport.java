@@ -26,7 +26,10 @@ import org.apache.xmlbeans.XmlOptions;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -147,6 +150,34 @@ public class JUnitReport {
         return testcase;
     }
 
+    /**
+     * Orders the testcases by the specified names, testcases with other names are kept after them
+     *
+     * @param names the TestCase names in the order the testcases should be in
+     */
+
+    public void sortTestCases(final List<String> names) {
+        Testsuite testsuite = testsuiteDoc.getTestsuite();
+        Testcase[] testcases = testsuite.getTestcaseArray();
+        for (int c = 0; c < testcases.length; c++) {
+            testcases[c] = (Testcase) testcases[c].copy();
+        }
+
+        // stable, so testcases with the same name keep their order
+        Arrays.sort(testcases, new Comparator<Testcase>() {
+            public int compare(Testcase o1, Testcase o2) {
+                return rank(o1) - rank(o2);
+            }
+
+            private int rank(Testcase testcase) {
+                int index = names.indexOf(testcase.getName());
+                return index == -1 ? names.size() : index;
+            }
+        });
+
+        testsuite.setTestcaseArray(testcases);
+    }
+
     private void setSystemProperties(Properties properties) {
         Set<?> keys = System.getProperties().keySet();
         for (Object keyO : keys) {
@@ -47,7 +47,8 @@ import java.util.Map;
 import java.util.Set;
 
 /**
- * Collects TestRun results and creates JUnitReports
+ * Collects TestRun results and creates JUnitReports; the TestCase listener methods are synchronized since
+ * TestCases may run in parallel
  *
  * @author ole.matzura
  */
@@ -72,7 +73,7 @@ public class JUnitReportCollector implements TestRunListener, TestSuiteRunListen
         failures = new HashMap<TestCase, String>();
     }
 
-    public List<String> saveReports(String path) throws Exception {
+    public synchronized List<String> saveReports(String path) throws Exception {
 
         File file = new File(path);
         if (!file.exists() || !file.isDirectory()) {
@@ -93,6 +94,31 @@ public class JUnitReportCollector implements TestRunListener, TestSuiteRunListen
         return result;
     }
 
+    /**
+     * Orders the testcases of each report like the specified TestCases, for runs that finish their TestCases in a
+     * different order than they were started
+     *
+     * @param testCases the TestCases in the order they were started
+     */
+
+    public synchronized void sortTestCases(List<TestCase> testCases) {
+        Map<String, List<String>> names = new HashMap<String, List<String>>();
+        for (TestCase testCase : testCases) {
+            String testSuiteName = testCase.getTestSuite().getName();
+            if (!names.containsKey(testSuiteName)) {
+                names.put(testSuiteName, new ArrayList<String>());
+            }
+
+            names.get(testSuiteName).add(testCase.getName());
+        }
+
+        for (Map.Entry<String, JUnitReport> entry : reports.entrySet()) {
+            if (names.containsKey(entry.getKey())) {
+                entry.getValue().sortTestCases(names.get(entry.getKey()));
+            }
+        }
+    }
+
     public HashMap<String, JUnitReport> getReports() {
         return reports;
     }
@@ -101,7 +127,7 @@ public class JUnitReportCollector implements TestRunListener, TestSuiteRunListen
         report.save(new File(filename));
     }
 
-    public String getReport() {
+    public synchronized String getReport() {
         Set<String> keys = reports.keySet();
         if (keys.size() > 0) {
             String key = (String) keys.toArray()[0];
@@ -110,7 +136,7 @@ public class JUnitReportCollector implements TestRunListener, TestSuiteRunListen
         return "No reports..:";
     }
 
-    public void afterRun(TestCaseRunner testRunner, TestCaseRunContext runContext) {
+    public synchronized void afterRun(TestCaseRunner testRunner, TestCaseRunContext runContext) {
         TestCase testCase = testRunner.getTestCase();
         JUnitReport report = reports.get(testCase.getTestSuite().getName());
 
@@ -142,7 +168,8 @@ public class JUnitReportCollector implements TestRunListener, TestSuiteRunListen
         return testProperties;
     }
 
-    public void afterStep(TestCaseRunner testRunner, TestCaseRunContext runContext, TestStepResult result) {
+    public synchronized void afterStep(TestCaseRunner testRunner, TestCaseRunContext runContext,
+                                       TestStepResult result) {
         TestStep currentStep = result.getTestStep();
         TestCase testCase = currentStep.getTestCase();
 
@@ -194,7 +221,7 @@ public class JUnitReportCollector implements TestRunListener, TestSuiteRunListen
         }
     }
 
-    public void beforeRun(TestCaseRunner testRunner, TestCaseRunContext runContext) {
+    public synchronized void beforeRun(TestCaseRunner testRunner, TestCaseRunContext runContext) {
         TestCase testCase = testRunner.getTestCase();
         TestSuite testSuite = testCase.getTestSuite();
         if (!reports.containsKey(testSuite.getName())) {
@@ -211,7 +238,7 @@ public class JUnitReportCollector implements TestRunListener, TestSuiteRunListen
     public void beforeStep(TestCaseRunner testRunner, TestCaseRunContext runContext, TestStep testStep) {
     }
 
-    public void reset() {
+    public synchronized void reset() {
         reports.clear();
         failures.clear();
         errorCount.clear();
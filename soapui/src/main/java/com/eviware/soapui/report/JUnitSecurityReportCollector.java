@@ -48,7 +48,7 @@ public class JUnitSecurityReportCollector extends JUnitReportCollector implement
     }
 
     @Override
-    public void afterRun(TestCaseRunner testRunner, SecurityTestRunContext runContext) {
+    public synchronized void afterRun(TestCaseRunner testRunner, SecurityTestRunContext runContext) {
         TestCase testCase = testRunner.getTestCase();
 
         SecurityTest securityTest = ((SecurityTestRunner) testRunner).getSecurityTest();
@@ -112,11 +112,12 @@ public class JUnitSecurityReportCollector extends JUnitReportCollector implement
     }
 
     @Override
-    public void afterStep(TestCaseRunner testRunner, SecurityTestRunContext runContext, SecurityTestStepResult result) {
+    public synchronized void afterStep(TestCaseRunner testRunner, SecurityTestRunContext runContext,
+                                       SecurityTestStepResult result) {
     }
 
     @Override
-    public void beforeRun(TestCaseRunner testRunner, SecurityTestRunContext runContext) {
+    public synchronized void beforeRun(TestCaseRunner testRunner, SecurityTestRunContext runContext) {
 
     }
 
@@ -91,6 +91,9 @@ public interface HttpSettings {
     @Setting(name = "Max response size", description = "Maximum size to read from response (0 = no limit)")
     public final static String MAX_RESPONSE_SIZE = HttpSettings.class.getSimpleName() + "@" + "max_response_size";
 
+    @Setting(name = "Response spill size", description = "Responses larger than this are buffered in a temporary file instead of memory (0 = never)", type = SettingType.INT)
+    public final static String RESPONSE_SPILL_SIZE = HttpSettings.class.getSimpleName() + "@" + "response_spill_size";
+
     @Setting(name = "Max Connections Per Host", description = "Maximum number of Connections Per Host")
     public static final String MAX_CONNECTIONS_PER_HOST = HttpSettings.class.getSimpleName() + "@"
             + "max_connections_per_host";
@@ -99,6 +102,16 @@ public interface HttpSettings {
     public static final String MAX_TOTAL_CONNECTIONS = HttpSettings.class.getSimpleName() + "@"
             + "max_total_connections";
 
+    @Setting(name = "Non-blocking I/O threads", description = "Number of I/O threads for non-blocking requests (0 = number of processors)", type = SettingType.INT)
+    public static final String NON_BLOCKING_IO_THREADS = HttpSettings.class.getSimpleName() + "@"
+            + "non_blocking_io_threads";
+
+    @Setting(name = "Mock Max Threads", description = "Maximum number of threads serving the MockServices on each port", type = SettingType.INT)
+    public static final String MOCK_MAX_THREADS = HttpSettings.class.getSimpleName() + "@" + "mock_max_threads";
+
+    @Setting(name = "Mock Max Queued", description = "Maximum number of queued mock requests on each port before responding with 503", type = SettingType.INT)
+    public static final String MOCK_MAX_QUEUED = HttpSettings.class.getSimpleName() + "@" + "mock_max_queued";
+
     @Setting(name = "Leave MockEngine", description = "Leave MockEngine running when stopping MockServices", type = SettingType.BOOLEAN)
     public static final String LEAVE_MOCKENGINE = HttpSettings.class.getSimpleName() + "@" + "leave_mockengine";
 
@@ -65,6 +65,9 @@ public interface WsdlSettings {
     @Setting(name = "Strict schema types", description = "fails schema imports if types/particles are redefined", type = SettingType.BOOLEAN)
     public final static String STRICT_SCHEMA_TYPES = WsdlSettings.class.getSimpleName() + "@" + "strict-schema-types";
 
+    @Setting(name = "Preload Definitions", description = "loads all interface definitions in parallel in the background when a project is opened", type = SettingType.BOOLEAN)
+    public final static String PRELOAD_DEFINITIONS = WsdlSettings.class.getSimpleName() + "@" + "preload-definitions";
+
     @Setting(name = "Compression Limit", description = "minimum message size to compress", type = SettingType.INT)
     public final static String COMPRESSION_LIMIT = WsdlSettings.class.getSimpleName() + "@" + "compression-limit";
 
@@ -75,6 +78,9 @@ public interface WsdlSettings {
     public static final String XML_GENERATION_SKIP_COMMENTS = WsdlSettings.class.getSimpleName() + "@"
             + "xml-generation-skip-comments";
 
+    @Setting(name = "Skip Pre-WSS Copy", description = "do not keep an unprocessed copy of outgoing WSS requests when running from the command-line", type = SettingType.BOOLEAN)
+    public final static String SKIP_PRE_WSS_COPY = WsdlSettings.class.getSimpleName() + "@" + "skip-pre-wss-copy";
+
     @Setting(name = "Trim WSDL", description = "Trims leading and trailing whitespaces from WSDL file (might not work on non 8 bit encoding)", type = SettingType.BOOLEAN)
     public final static String TRIM_WSDL = WsdlSettings.class.getSimpleName() + "@"
             + "trim-wsdl";
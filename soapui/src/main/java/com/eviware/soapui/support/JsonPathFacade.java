@@ -16,6 +16,8 @@
 
 package com.eviware.soapui.support;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.internal.PathToken;
@@ -23,6 +25,7 @@ import com.jayway.jsonpath.internal.PathTokenizer;
 import com.jayway.jsonpath.internal.filter.PathTokenFilter;
 import net.sf.json.JSON;
 import net.sf.json.JSONArray;
+import net.sf.json.JSONNull;
 import net.sf.json.JSONObject;
 import net.sf.json.groovy.JsonSlurper;
 
@@ -31,19 +34,38 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
-import static com.eviware.soapui.support.JsonUtil.isValidJson;
-
 public class JsonPathFacade {
+    private final static Configuration readConfiguration = Configuration.builder()
+            .jsonProvider(new PlainJavaJsonProvider()).build();
+    private final static Cache<String, JsonPath> compiledPaths = CacheBuilder.newBuilder().maximumSize(1000).build();
 
     private String currentJson;
     private Object jsonObject;
+    private final boolean readOnly;
 
     public JsonPathFacade(String targetJson) {
-        if (!isValidJson(targetJson)) {
+        this(targetJson, false);
+    }
+
+    /**
+     * @param readOnly if the facade is shared, see {@link ParsedJsonCache}
+     */
+
+    JsonPathFacade(String targetJson, boolean readOnly) {
+        Object json = null;
+        try {
+            json = new JsonSlurper().parseText(targetJson);
+        } catch (Exception e) {
+            // reported below
+        }
+
+        if (json == null || json instanceof JSONNull) {
             throw new IllegalArgumentException("Invalid JSON: " + targetJson);
         }
+
         this.currentJson = targetJson;
-        jsonObject = new JsonSlurper().parseText(targetJson);
+        this.jsonObject = json;
+        this.readOnly = readOnly;
     }
 
     public String readStringValue(String jsonPathExpression) {
@@ -52,6 +74,11 @@ public class JsonPathFacade {
     }
 
     public void writeValue(String jsonPathExpression, Object value) {
+        if (readOnly) {
+            throw new IllegalStateException("Shared JSON can not be modified");
+        }
+
+        // the path tokens are modified below, so this can not use a cached path
         PlainJavaJsonProvider provider = new PlainJavaJsonProvider();
         Configuration configuration = Configuration.builder().jsonProvider(provider).build();
         jsonObject = provider.parse(currentJson);
@@ -136,10 +163,21 @@ public class JsonPathFacade {
     }
 
     public <T> T readObjectValue(String jsonPathExpression) {
-        PlainJavaJsonProvider provider = new PlainJavaJsonProvider();
-        Configuration configuration = Configuration.builder().jsonProvider(provider).build();
-        JsonPath jsonPath = JsonPath.compile(jsonPathExpression);
-        return jsonPath.read(jsonObject, configuration);
+        return getCompiledPath(jsonPathExpression).read(jsonObject, readConfiguration);
+    }
+
+    /**
+     * Compiled paths are only read when evaluated, so they are shared between all facades and threads
+     */
+
+    private static JsonPath getCompiledPath(String jsonPathExpression) {
+        JsonPath jsonPath = compiledPaths.getIfPresent(jsonPathExpression);
+        if (jsonPath == null) {
+            jsonPath = JsonPath.compile(jsonPathExpression);
+            compiledPaths.put(jsonPathExpression, jsonPath);
+        }
+
+        return jsonPath;
     }
 
     private class JsonWriteDecorator extends PathToken {
@@ -0,0 +1,99 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.support;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared, read-only parsed JSON content for JsonPath evaluation.
+ * <p/>
+ * JsonPath assertions, PropertyTransfers and property resolvers all get the content of a response as a String.
+ * This cache keeps one JsonPathFacade per content String <b>instance</b> (keys are weak and compared by
+ * identity), so the response is parsed once no matter how many expressions are evaluated against it. The returned
+ * facades throw an IllegalStateException on writeValue; create a new JsonPathFacade to modify JSON.
+ *
+ * @see com.eviware.soapui.support.xml.ParsedXmlCache
+ */
+
+public final class ParsedJsonCache {
+    private final static int DEFAULT_MAX_SIZE = 64;
+    private final static int maxSize = getMaxSize();
+
+    private final static Cache<String, JsonPathFacade> facades = CacheBuilder.newBuilder().weakKeys()
+            .maximumSize(Math.max(maxSize, 0)).build();
+
+    private final static AtomicLong hits = new AtomicLong();
+    private final static AtomicLong misses = new AtomicLong();
+
+    private ParsedJsonCache() {
+    }
+
+    private static int getMaxSize() {
+        try {
+            return Integer.parseInt(System.getProperty("soapui.json.parse.cache.size"));
+        } catch (Exception e) {
+            return DEFAULT_MAX_SIZE;
+        }
+    }
+
+    /**
+     * Returns the shared, read-only JsonPathFacade for the specified content
+     *
+     * @throws IllegalArgumentException if the content is not valid JSON
+     */
+
+    public static JsonPathFacade getJsonPathFacade(String content) {
+        if (content == null || maxSize <= 0) {
+            return new JsonPathFacade(content, true);
+        }
+
+        JsonPathFacade facade = facades.getIfPresent(content);
+        if (facade != null) {
+            hits.incrementAndGet();
+            return facade;
+        }
+
+        misses.incrementAndGet();
+
+        facade = new JsonPathFacade(content, true);
+        JsonPathFacade existing = facades.asMap().putIfAbsent(content, facade);
+        return existing == null ? facade : existing;
+    }
+
+    public static long getHitCount() {
+        return hits.get();
+    }
+
+    public static long getMissCount() {
+        return misses.get();
+    }
+
+    public static long getSize() {
+        return facades.size();
+    }
+
+    public static void clear() {
+        facades.invalidateAll();
+
+        hits.set(0);
+        misses.set(0);
+    }
+}
@@ -22,6 +22,8 @@ import com.eviware.soapui.impl.support.AbstractHttpRequestInterface;
 import com.eviware.soapui.impl.wsdl.WsdlRequest;
 import com.eviware.soapui.impl.wsdl.mock.WsdlMockResponse;
 import com.eviware.soapui.impl.wsdl.panels.teststeps.amf.AMFRequest;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.BaseHttpResponse;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.HttpResponse;
 import com.eviware.soapui.impl.wsdl.support.MessageExchangeModelItem;
 import com.eviware.soapui.impl.wsdl.teststeps.AMFRequestTestStep;
 import com.eviware.soapui.model.ModelItem;
@@ -138,14 +140,16 @@ public class RawXmlEditorFactory implements ResponseEditorViewFactory, RequestEd
 
         @Override
         public String getContent() {
-            if (request.getResponse() == null || request.getResponse().getRawResponseData() == null
-                    || request.getResponse().getRawResponseData().length == 0) {
+            HttpResponse response = request.getResponse();
+            int maxSize = (int) SoapUI.getSettings().getLong(UISettings.RAW_RESPONSE_MESSAGE_SIZE, 10000);
+
+            // only read the part that is shown, the body of a large response may be on disk
+            byte[] rawResponseData = response instanceof BaseHttpResponse ? ((BaseHttpResponse) response)
+                    .getRawResponseData(maxSize) : response == null ? null : response.getRawResponseData();
+            if (rawResponseData == null || rawResponseData.length == 0) {
                 return "<missing raw response data>";
             }
 
-            byte[] rawResponseData = request.getResponse().getRawResponseData();
-            int maxSize = (int) SoapUI.getSettings().getLong(UISettings.RAW_RESPONSE_MESSAGE_SIZE, 10000);
-
             if (maxSize < rawResponseData.length) {
                 return new String(Arrays.copyOf(rawResponseData, maxSize));
             } else {
@@ -16,22 +16,28 @@
 
 package com.eviware.soapui.support.scripting;
 
-import com.eviware.soapui.SoapUI;
 import com.eviware.soapui.model.ModelItem;
+import org.apache.log4j.Logger;
 
-import java.util.Stack;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * A pool of script engines
+ * A pool of script engines. Borrowing and returning engines does not lock, release() blocks until all borrowed
+ * engines have been returned or the timeout has passed.
  *
  * @author ole.matzura
  */
 
 public class ScriptEnginePool {
-    private Stack<SoapUIScriptEngine> scriptEngines = new Stack<SoapUIScriptEngine>();
-    private String script;
+    private final static Logger log = Logger.getLogger(ScriptEnginePool.class);
+    private final static long RELEASE_TIMEOUT = 10000;
+
+    private final Queue<SoapUIScriptEngine> scriptEngines = new ConcurrentLinkedQueue<SoapUIScriptEngine>();
+    private final AtomicInteger borrowed = new AtomicInteger();
+    private volatile String script;
     private ModelItem modelItem;
-    private int borrowed;
     private String id;
 
     public ScriptEnginePool(ModelItem modelItem) {
@@ -47,53 +53,63 @@ public class ScriptEnginePool {
     }
 
     public void returnScriptEngine(SoapUIScriptEngine scriptEngine) {
-        synchronized (this) {
-            scriptEngines.push(scriptEngine);
-            borrowed--;
+        scriptEngines.offer(scriptEngine);
+
+        if (borrowed.decrementAndGet() <= 0) {
+            synchronized (this) {
+                notifyAll();
+            }
         }
     }
 
     public SoapUIScriptEngine getScriptEngine() {
-        synchronized (this) {
-            if (scriptEngines.isEmpty()) {
-                if (modelItem != null) {
-                    scriptEngines.push(SoapUIScriptEngineRegistry.create(modelItem));
-                } else {
-                    scriptEngines.push(SoapUIScriptEngineRegistry.getFactory(id).createScriptEngine(null));
-                }
+        SoapUIScriptEngine result = scriptEngines.poll();
+        if (result == null) {
+            // compiled script classes are shared through CompiledScriptCache, so new engines are cheap
+            if (modelItem != null) {
+                result = SoapUIScriptEngineRegistry.create(modelItem);
+            } else {
+                result = SoapUIScriptEngineRegistry.getFactory(id).createScriptEngine(null);
             }
+        }
 
-            SoapUIScriptEngine result = scriptEngines.pop();
-            if (script != null) {
-                result.setScript(script);
-            }
+        String script = this.script;
+        if (script != null) {
+            result.setScript(script);
+        }
 
-            borrowed++;
+        borrowed.incrementAndGet();
 
-            return result;
-        }
+        return result;
     }
 
     public void release() {
-        int waitcount = 10;
-
-        while (borrowed > 0 && waitcount-- > 0) {
-            try {
-                System.out.println("Waiting for " + borrowed + " script engines");
-                Thread.sleep(1000);
-            } catch (InterruptedException e) {
-                SoapUI.logError(e);
+        long deadline = System.currentTimeMillis() + RELEASE_TIMEOUT;
+
+        synchronized (this) {
+            while (borrowed.get() > 0) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    break;
+                }
+
+                log.info("Waiting for " + borrowed.get() + " script engines");
+                try {
+                    wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
             }
         }
 
-        for (SoapUIScriptEngine scriptEngine : scriptEngines) {
+        SoapUIScriptEngine scriptEngine;
+        while ((scriptEngine = scriptEngines.poll()) != null) {
             scriptEngine.release();
         }
 
-        scriptEngines.clear();
-
-        if (borrowed > 0) {
-            System.out.println("Failed to release " + borrowed + " script engines");
+        if (borrowed.get() > 0) {
+            log.warn("Failed to release " + borrowed.get() + " script engines");
         }
     }
 }
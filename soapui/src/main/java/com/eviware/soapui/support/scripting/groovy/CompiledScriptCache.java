@@ -0,0 +1,149 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.support.scripting.groovy;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import groovy.lang.Binding;
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.GroovyShell;
+import groovy.lang.Script;
+import org.codehaus.groovy.control.CompilerConfiguration;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compiled Groovy script classes shared by all script engines.
+ * <p/>
+ * LoadTests clone their TestCase for every thread and mocks keep a pool of engines per script, so without this
+ * cache the same script text was compiled once per engine. Classes are cached per parent ClassLoader and script
+ * text; every engine creates its own Script instance with its own Binding, so only static state of a script is
+ * shared.
+ * <p/>
+ * Parent ClassLoaders are weak keys, so that the loaders of reloaded script libraries and extensions can be
+ * unloaded. A compiled class references its parent ClassLoader, so classes are weak values as well; they are
+ * shared as long as an engine uses them and compiled again once all of those engines have been released.
+ */
+
+public final class CompiledScriptCache {
+    private final static int DEFAULT_MAX_SIZE = 500;
+    private final static int maxSize = getMaxSize();
+
+    private final static Cache<ClassLoader, Cache<String, Class<? extends Script>>> classes = CacheBuilder
+            .newBuilder().weakKeys().build();
+
+    private final static AtomicLong hits = new AtomicLong();
+    private final static AtomicLong misses = new AtomicLong();
+
+    private CompiledScriptCache() {
+    }
+
+    private static int getMaxSize() {
+        try {
+            return Integer.parseInt(System.getProperty("soapui.groovy.script.cache.size"));
+        } catch (Exception e) {
+            return DEFAULT_MAX_SIZE;
+        }
+    }
+
+    static CompilerConfiguration createCompilerConfiguration() {
+        CompilerConfiguration config = new CompilerConfiguration();
+        config.setDebug(true);
+        config.setVerbose(true);
+        return config;
+    }
+
+    /**
+     * Returns the compiled class for the specified script, compiling it the first time it is requested
+     *
+     * @param parentClassLoader the ClassLoader the script classes are loaded with
+     * @return the script class, or null if caching has been disabled with soapui.groovy.script.cache.size=0
+     */
+
+    public static Class<? extends Script> getScriptClass(final ClassLoader parentClassLoader,
+                                                         final String scriptText) {
+        if (maxSize <= 0 || scriptText == null) {
+            return null;
+        }
+
+        try {
+            Cache<String, Class<? extends Script>> scripts = classes.get(parentClassLoader,
+                    new Callable<Cache<String, Class<? extends Script>>>() {
+                        public Cache<String, Class<? extends Script>> call() {
+                            return CacheBuilder.newBuilder().weakValues().maximumSize(maxSize).build();
+                        }
+                    });
+
+            Class<? extends Script> result = scripts.getIfPresent(scriptText);
+            if (result != null) {
+                hits.incrementAndGet();
+                return result;
+            }
+
+            return scripts.get(scriptText, new Callable<Class<? extends Script>>() {
+                public Class<? extends Script> call() {
+                    misses.incrementAndGet();
+                    return compile(parentClassLoader, scriptText);
+                }
+            });
+        } catch (UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Each script gets its own GroovyClassLoader so that evicted classes can be unloaded
+     */
+
+    private static Class<? extends Script> compile(ClassLoader parentClassLoader, String scriptText) {
+        GroovyClassLoader classLoader = new GroovyClassLoader(parentClassLoader);
+        GroovyShell shell = new GroovyShell(classLoader, new Binding(), createCompilerConfiguration());
+        return shell.parse(scriptText).getClass();
+    }
+
+    public static long getHitCount() {
+        return hits.get();
+    }
+
+    public static long getMissCount() {
+        return misses.get();
+    }
+
+    public static long getSize() {
+        long size = 0;
+        for (Cache<String, Class<? extends Script>> scripts : classes.asMap().values()) {
+            size += scripts.size();
+        }
+        return size;
+    }
+
+    public static void clear() {
+        classes.invalidateAll();
+
+        hits.set(0);
+        misses.set(0);
+    }
+}
@@ -24,7 +24,7 @@ import groovy.lang.Binding;
 import groovy.lang.GroovyClassLoader;
 import groovy.lang.GroovyShell;
 import groovy.lang.Script;
-import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.runtime.InvokerHelper;
 
 /**
  * A Groovy ScriptEngine
@@ -43,10 +43,7 @@ public class SoapUIGroovyScriptEngine implements SoapUIScriptEngine {
     public SoapUIGroovyScriptEngine(ClassLoader parentClassLoader) {
         classLoader = new GroovyClassLoader(parentClassLoader);
         binding = new Binding();
-        CompilerConfiguration config = new CompilerConfiguration();
-        config.setDebug(true);
-        config.setVerbose(true);
-        shell = new GroovyShell(classLoader, binding, config);
+        shell = new GroovyShell(classLoader, binding, CompiledScriptCache.createCompilerConfiguration());
     }
 
     protected class ScriptSaver {
@@ -133,7 +130,10 @@ public class SoapUIGroovyScriptEngine implements SoapUIScriptEngine {
         if (script == null) {
             SoapUIClassLoaderState state = SoapUIExtensionClassLoader.ensure();
             try {
-                script = shell.parse(scriptText);
+                Class<? extends Script> scriptClass = CompiledScriptCache.getScriptClass(classLoader.getParent(),
+                        scriptText);
+                script = scriptClass == null ? shell.parse(scriptText) : InvokerHelper.createScript(scriptClass,
+                        binding);
                 script.setBinding(binding);
             } finally {
                 state.restore();
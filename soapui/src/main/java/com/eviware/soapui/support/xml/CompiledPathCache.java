@@ -0,0 +1,180 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.support.xml;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.log4j.Logger;
+import org.apache.xmlbeans.XmlBeans;
+import org.apache.xmlbeans.XmlException;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared, bounded cache of the expression keys returned by {@link XmlBeans#compilePath(String)} and
+ * {@link XmlBeans#compileQuery(String)}.
+ * <p/>
+ * XmlBeans keeps the paths compiled by its own engine in a weak map keyed by the expression string instance, so
+ * expressions built with string concatenation for every evaluation (for example namespace declarations + path)
+ * are compiled over and over again. Passing the cached instance to selectPath keeps those compiled paths alive.
+ * Paths that XmlBeans delegates to Saxon, and all XQueries, are not cached by XmlBeans and are still compiled on
+ * each evaluation; for those this cache only saves rebuilding the expression string.
+ */
+
+public final class CompiledPathCache {
+    private final static Logger log = Logger.getLogger(CompiledPathCache.class);
+
+    private final static int DEFAULT_MAX_SIZE = 500;
+    private final static int maxSize = getMaxSize();
+
+    private final static Cache<Key, String> cache = CacheBuilder.newBuilder().maximumSize(Math.max(maxSize, 0))
+            .build();
+
+    private final static AtomicLong hits = new AtomicLong();
+    private final static AtomicLong misses = new AtomicLong();
+
+    private CompiledPathCache() {
+    }
+
+    private static int getMaxSize() {
+        try {
+            return Integer.parseInt(System.getProperty("soapui.xpath.cache.size"));
+        } catch (Exception e) {
+            return DEFAULT_MAX_SIZE;
+        }
+    }
+
+    /**
+     * Returns the compiled form of the specified XPath, to be passed to selectPath
+     */
+
+    public static String getPath(String path) {
+        return get(false, "", path);
+    }
+
+    /**
+     * Returns the compiled form of namespaces + path, to be passed to selectPath
+     *
+     * @param namespaces namespace declarations, as created by XmlUtils.declareXPathNamespaces
+     */
+
+    public static String getPath(String namespaces, String path) {
+        return get(false, namespaces, path);
+    }
+
+    /**
+     * Returns the compiled form of the specified XQuery, to be passed to execQuery
+     */
+
+    public static String getQuery(String query) {
+        return get(true, "", query);
+    }
+
+    public static String getQuery(String namespaces, String query) {
+        return get(true, namespaces, query);
+    }
+
+    private static String get(boolean query, String namespaces, String path) {
+        if (path == null || maxSize <= 0) {
+            return namespaces == null || path == null ? path : namespaces + path;
+        }
+
+        Key key = new Key(query, namespaces == null ? "" : namespaces, path);
+        String compiled = cache.getIfPresent(key);
+        if (compiled != null) {
+            hits.incrementAndGet();
+            return compiled;
+        }
+
+        misses.incrementAndGet();
+        compiled = compile(query, key.namespaces + path);
+
+        // another thread may have compiled it meanwhile; keep the first instance
+        String existing = cache.asMap().putIfAbsent(key, compiled);
+        return existing == null ? compiled : existing;
+    }
+
+    private static String compile(boolean query, String expression) {
+        try {
+            return query ? XmlBeans.compileQuery(expression) : XmlBeans.compilePath(expression);
+        } catch (XmlException e) {
+            // let selectPath/execQuery report the error as before
+            log.debug("Failed to compile [" + expression + "]: " + e.getMessage());
+            return expression;
+        } catch (RuntimeException e) {
+            log.debug("Failed to compile [" + expression + "]: " + e);
+            return expression;
+        }
+    }
+
+    public static long getHitCount() {
+        return hits.get();
+    }
+
+    public static long getMissCount() {
+        return misses.get();
+    }
+
+    public static long getSize() {
+        return cache.size();
+    }
+
+    public static void clear() {
+        cache.invalidateAll();
+
+        hits.set(0);
+        misses.set(0);
+    }
+
+    public static String getStatistics() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return "size=" + getSize() + ", hits=" + hitCount + ", misses=" + misses.get() + ", hitRatio="
+                + (total == 0 ? 0 : (hitCount * 100) / total) + "%";
+    }
+
+    private static final class Key {
+        private final boolean query;
+        private final String namespaces;
+        private final String path;
+        private final int hash;
+
+        Key(boolean query, String namespaces, String path) {
+            this.query = query;
+            this.namespaces = namespaces;
+            this.path = path;
+            this.hash = (31 * namespaces.hashCode() + path.hashCode()) * 2 + (query ? 1 : 0);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) obj;
+            return hash == other.hash && query == other.query && path.equals(other.path)
+                    && namespaces.equals(other.namespaces);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.support.xml;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.xmlbeans.XmlException;
+import org.apache.xmlbeans.XmlObject;
+import org.apache.xmlbeans.XmlOptions;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared, read-only parsed representations of message content.
+ * <p/>
+ * Assertions, the WsdlValidator, PropertyTransfers and property resolvers all get the content of a message
+ * exchange as a String and used to parse it into their own XmlObject, so a single response could be parsed
+ * ten times or more. This cache keeps the parsed XmlObject per content String <b>instance</b> (keys are weak and
+ * compared by identity), so everyone evaluating the same response shares one lazily created document, and it
+ * is dropped together with the response it was parsed from.
+ * <p/>
+ * The returned XmlObjects are shared: callers must only select, query and read from them and never modify the
+ * document through them or any cursor created from them. Callers that need to change the XML must parse their
+ * own copy with {@link XmlUtils#createXmlObject(String)}. Documents are loaded with end-element line numbers so
+ * that validation errors can be reported on the correct line.
+ */
+
+public final class ParsedXmlCache {
+    private final static int DEFAULT_MAX_SIZE = 64;
+    private final static int maxSize = getMaxSize();
+
+    private final static Cache<String, XmlObject> documents = createCache();
+    private final static Cache<String, XmlObject> documentsWithoutComments = createCache();
+
+    private final static AtomicLong hits = new AtomicLong();
+    private final static AtomicLong misses = new AtomicLong();
+
+    private ParsedXmlCache() {
+    }
+
+    private static int getMaxSize() {
+        try {
+            return Integer.parseInt(System.getProperty("soapui.xml.parse.cache.size"));
+        } catch (Exception e) {
+            return DEFAULT_MAX_SIZE;
+        }
+    }
+
+    private static Cache<String, XmlObject> createCache() {
+        return CacheBuilder.newBuilder().weakKeys().maximumSize(Math.max(maxSize, 0)).build();
+    }
+
+    /**
+     * Returns the shared, read-only XmlObject for the specified content
+     */
+
+    public static XmlObject getXmlObject(String content) throws XmlException {
+        return getXmlObject(content, false);
+    }
+
+    /**
+     * Returns the shared, read-only XmlObject for the specified content
+     *
+     * @param stripComments if comments should be removed from the parsed document
+     */
+
+    public static XmlObject getXmlObject(String content, boolean stripComments) throws XmlException {
+        if (content == null || maxSize <= 0) {
+            return parse(content, stripComments);
+        }
+
+        Cache<String, XmlObject> cache = stripComments ? documentsWithoutComments : documents;
+        XmlObject xmlObject = cache.getIfPresent(content);
+        if (xmlObject != null) {
+            hits.incrementAndGet();
+            return xmlObject;
+        }
+
+        misses.incrementAndGet();
+
+        // parse errors are not cached, the caller reports them as before
+        xmlObject = parse(content, stripComments);
+        XmlObject existing = cache.asMap().putIfAbsent(content, xmlObject);
+        return existing == null ? xmlObject : existing;
+    }
+
+    private static XmlObject parse(String content, boolean stripComments) throws XmlException {
+        XmlOptions options = new XmlOptions();
+        options.setLoadLineNumbers(XmlOptions.LOAD_LINE_NUMBERS_END_ELEMENT);
+        if (stripComments) {
+            options.setLoadStripComments();
+        }
+
+        return XmlUtils.createXmlObject(content, options);
+    }
+
+    public static long getHitCount() {
+        return hits.get();
+    }
+
+    public static long getMissCount() {
+        return misses.get();
+    }
+
+    public static long getSize() {
+        return documents.size() + documentsWithoutComments.size();
+    }
+
+    public static void clear() {
+        documents.invalidateAll();
+        documentsWithoutComments.invalidateAll();
+
+        hits.set(0);
+        misses.set(0);
+    }
+}
@@ -0,0 +1,474 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.support.xml;
+
+import org.apache.log4j.Logger;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Evaluates simple absolute XPath expressions on a stream of XML events, without building an XmlObject for the
+ * whole document, and stops reading as soon as all paths have been resolved.
+ * <p/>
+ * Only namespace declarations followed by a path of child (/) and descendant (//) steps with element names or
+ * wildcards, optionally ending with an attribute step, are supported; {@link #compile(String)} returns null for
+ * everything else. Evaluation gives up (returns false) when a selected element has content whose value can not be
+ * determined in a single pass, in which case callers should fall back to selecting on an XmlObject.
+ */
+
+public final class StreamingXPath {
+    private final static Logger log = Logger.getLogger(StreamingXPath.class);
+
+    private final static int MAX_CACHED_PATHS = 1000;
+    private final static StreamingXPath NOT_SUPPORTED = new StreamingXPath(new Step[0], null);
+    private final static Map<String, StreamingXPath> pathCache = new ConcurrentHashMap<String, StreamingXPath>();
+
+    private final static Pattern NAMESPACE_DECLARATION = Pattern
+            .compile("^declare\\s+namespace\\s+([\\p{L}_][\\p{L}\\p{N}_.\\-]*)\\s*=\\s*(['\"])(.*?)\\2\\s*;?");
+    private final static Pattern STEP = Pattern
+            .compile("^(//|/)(@?)(\\*|[\\p{L}_][\\p{L}\\p{N}_.\\-]*(?::(?:\\*|[\\p{L}_][\\p{L}\\p{N}_.\\-]*))?)");
+
+    private final static XMLInputFactory inputFactory = createInputFactory();
+
+    /**
+     * How the value of a selected element is determined
+     */
+
+    public enum ValueType {
+        /**
+         * As XmlUtils.getValueForMatch(XmlCursor); elements with attributes or other content than a single text
+         * node can not be evaluated
+         */
+        MATCH,
+
+        /**
+         * As XmlUtils.getNodeValue(Node); the text of the first child node if that is text, null otherwise
+         */
+        NODE
+    }
+
+    /**
+     * Receives the values selected by a set of paths in document order
+     */
+
+    public interface MatchHandler {
+        /**
+         * @param pathIndex the index of the path that matched
+         * @param value     the value of the match
+         * @return true if no more matches of this path are needed
+         */
+
+        boolean onMatch(int pathIndex, String value);
+    }
+
+    private final Step[] steps;
+    private final QName attributeName;
+
+    private StreamingXPath(Step[] steps, QName attributeName) {
+        this.steps = steps;
+        this.attributeName = attributeName;
+    }
+
+    /**
+     * Compiles the specified XPath for streaming evaluation
+     *
+     * @return the compiled path, or null if the expression is not supported
+     */
+
+    public static StreamingXPath compile(String xpath) {
+        if (xpath == null) {
+            return null;
+        }
+
+        StreamingXPath path = pathCache.get(xpath);
+        if (path == null) {
+            path = parse(xpath);
+            if (path == null) {
+                path = NOT_SUPPORTED;
+            }
+
+            if (pathCache.size() >= MAX_CACHED_PATHS) {
+                pathCache.clear();
+            }
+
+            pathCache.put(xpath, path);
+        }
+
+        return path == NOT_SUPPORTED ? null : path;
+    }
+
+    static StreamingXPath parse(String xpath) {
+        Map<String, String> namespaces = new HashMap<String, String>();
+        String rest = xpath.trim();
+
+        Matcher matcher = NAMESPACE_DECLARATION.matcher(rest);
+        while (matcher.find()) {
+            namespaces.put(matcher.group(1), matcher.group(3));
+            rest = rest.substring(matcher.end()).trim();
+            matcher = NAMESPACE_DECLARATION.matcher(rest);
+        }
+
+        if (rest.startsWith("declare")) {
+            return null;
+        }
+
+        if (rest.startsWith("$this")) {
+            rest = rest.substring(5);
+        } else if (!rest.startsWith("/")) {
+            rest = "/" + rest;
+        }
+
+        List<Step> steps = new ArrayList<Step>();
+        QName attributeName = null;
+
+        while (rest.length() > 0) {
+            matcher = STEP.matcher(rest);
+            if (!matcher.find() || attributeName != null) {
+                return null;
+            }
+
+            boolean descendant = matcher.group(1).length() == 2;
+            boolean attribute = matcher.group(2).length() > 0;
+            String name = matcher.group(3);
+            rest = rest.substring(matcher.end());
+
+            if (attribute) {
+                if (descendant || name.indexOf('*') >= 0) {
+                    return null;
+                }
+
+                attributeName = createName(name, namespaces);
+                if (attributeName == null) {
+                    return null;
+                }
+            } else if (name.equals("*")) {
+                steps.add(new Step(descendant, null, null));
+            } else if (name.endsWith(":*")) {
+                String namespace = namespaces.get(name.substring(0, name.length() - 2));
+                if (namespace == null) {
+                    return null;
+                }
+
+                steps.add(new Step(descendant, namespace, null));
+            } else {
+                QName qname = createName(name, namespaces);
+                if (qname == null) {
+                    return null;
+                }
+
+                steps.add(new Step(descendant, qname.getNamespaceURI(), qname.getLocalPart()));
+            }
+        }
+
+        if (steps.isEmpty() || steps.size() > 63) {
+            return null;
+        }
+
+        return new StreamingXPath(steps.toArray(new Step[steps.size()]), attributeName);
+    }
+
+    private static QName createName(String name, Map<String, String> namespaces) {
+        int ix = name.indexOf(':');
+        if (ix == -1) {
+            return new QName(name);
+        }
+
+        String namespace = namespaces.get(name.substring(0, ix));
+        return namespace == null ? null : new QName(namespace, name.substring(ix + 1));
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        return factory;
+    }
+
+    /**
+     * Selects the specified paths from the content in a single pass, passing all matches to the handler until it
+     * has received all values it needs
+     *
+     * @return false if the content could not be evaluated in streaming mode; any values already passed to the
+     *         handler should then be discarded
+     */
+
+    public static boolean select(String content, StreamingXPath[] paths, ValueType valueType, MatchHandler handler) {
+        if (content == null || paths.length == 0) {
+            return false;
+        }
+
+        XMLStreamReader reader = null;
+        try {
+            reader = inputFactory.createXMLStreamReader(new StringReader(content));
+            return new Evaluation(paths, valueType, handler).run(reader);
+        } catch (XMLStreamException e) {
+            // let the XmlObject based selection report the error
+            log.debug("Failed to stream content: " + e.getMessage());
+            return false;
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    log.debug(e.toString());
+                }
+            }
+        }
+    }
+
+    private static final class Step {
+        private final boolean descendant;
+        private final String namespaceURI;
+        private final String localName;
+
+        Step(boolean descendant, String namespaceURI, String localName) {
+            this.descendant = descendant;
+            this.namespaceURI = namespaceURI;
+            this.localName = localName;
+        }
+
+        boolean matches(String namespace, String local) {
+            return (namespaceURI == null || namespaceURI.equals(namespace))
+                    && (localName == null || localName.equals(local));
+        }
+    }
+
+    /**
+     * The state of a single evaluation; keeps a bitmask of the reached steps of each path for every open element
+     */
+
+    private static final class Evaluation {
+        private final StreamingXPath[] paths;
+        private final ValueType valueType;
+        private final MatchHandler handler;
+        private final boolean[] done;
+        private final List<long[]> states = new ArrayList<long[]>();
+        private final List<Capture> captures = new ArrayList<Capture>();
+        private int remaining;
+
+        Evaluation(StreamingXPath[] paths, ValueType valueType, MatchHandler handler) {
+            this.paths = paths;
+            this.valueType = valueType;
+            this.handler = handler;
+            this.done = new boolean[paths.length];
+            this.remaining = paths.length;
+
+            long[] documentState = new long[paths.length];
+            for (int c = 0; c < paths.length; c++) {
+                documentState[c] = 1;
+            }
+
+            states.add(documentState);
+            captures.add(null);
+        }
+
+        boolean run(XMLStreamReader reader) throws XMLStreamException {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                switch (event) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        if (!childNode() || !startElement(reader)) {
+                            return false;
+                        }
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        if (!endElement()) {
+                            return false;
+                        }
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        Capture capture = captures.get(captures.size() - 1);
+                        if (capture != null) {
+                            capture.text.append(reader.getText());
+                        }
+                        break;
+                    case XMLStreamConstants.COMMENT:
+                    case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                        if (!childNode()) {
+                            return false;
+                        }
+                        break;
+                    case XMLStreamConstants.DTD:
+                    case XMLStreamConstants.ENTITY_REFERENCE:
+                        return false;
+                    default:
+                        break;
+                }
+
+                if (remaining == 0) {
+                    return true;
+                }
+            }
+
+            return true;
+        }
+
+        private boolean startElement(XMLStreamReader reader) {
+            String namespace = reader.getNamespaceURI();
+            if (namespace == null) {
+                namespace = "";
+            }
+
+            String localName = reader.getLocalName();
+            long[] parentState = states.get(states.size() - 1);
+            long[] state = new long[paths.length];
+            List<Integer> selected = null;
+
+            for (int p = 0; p < paths.length; p++) {
+                if (done[p]) {
+                    continue;
+                }
+
+                Step[] steps = paths[p].steps;
+                long mask = parentState[p];
+                long next = 0;
+                for (int i = 0; mask != 0 && i < steps.length; i++, mask >>>= 1) {
+                    if ((mask & 1) != 0) {
+                        if (steps[i].matches(namespace, localName)) {
+                            next |= 1L << (i + 1);
+                        }
+
+                        if (steps[i].descendant) {
+                            next |= 1L << i;
+                        }
+                    }
+                }
+
+                state[p] = next;
+                if ((next & (1L << steps.length)) != 0) {
+                    QName attributeName = paths[p].attributeName;
+                    if (attributeName != null) {
+                        String value = getAttributeValue(reader, attributeName);
+                        if (value != null) {
+                            match(p, value);
+                        }
+                    } else {
+                        if (selected == null) {
+                            selected = new ArrayList<Integer>();
+                        }
+
+                        selected.add(p);
+                    }
+                }
+            }
+
+            states.add(state);
+
+            if (selected != null) {
+                if (valueType == ValueType.MATCH && reader.getAttributeCount() > 0) {
+                    // serialized as xml by getValueForMatch
+                    return false;
+                }
+
+                captures.add(new Capture(selected));
+            } else {
+                captures.add(null);
+            }
+
+            return true;
+        }
+
+        private String getAttributeValue(XMLStreamReader reader, QName attributeName) {
+            for (int c = 0; c < reader.getAttributeCount(); c++) {
+                String namespace = reader.getAttributeNamespace(c);
+                if (attributeName.getLocalPart().equals(reader.getAttributeLocalName(c))
+                        && attributeName.getNamespaceURI().equals(namespace == null ? "" : namespace)) {
+                    return reader.getAttributeValue(c);
+                }
+            }
+
+            return null;
+        }
+
+        /**
+         * A child element, comment or processing instruction of the current element ends its leading text
+         */
+
+        private boolean childNode() {
+            Capture capture = captures.get(captures.size() - 1);
+            if (capture == null) {
+                return true;
+            }
+
+            captures.set(captures.size() - 1, null);
+            if (valueType == ValueType.MATCH) {
+                return false;
+            }
+
+            return report(capture, capture.text.length() == 0 ? null : capture.text.toString());
+        }
+
+        private boolean endElement() {
+            Capture capture = captures.remove(captures.size() - 1);
+            states.remove(states.size() - 1);
+
+            if (capture == null) {
+                return true;
+            }
+
+            if (capture.text.length() == 0) {
+                // an empty element has no text node
+                return valueType == ValueType.NODE && report(capture, null);
+            }
+
+            return report(capture, capture.text.toString());
+        }
+
+        private boolean report(Capture capture, String value) {
+            for (int p : capture.paths) {
+                if (!done[p]) {
+                    match(p, value);
+                }
+            }
+
+            return true;
+        }
+
+        private void match(int pathIndex, String value) {
+            if (handler.onMatch(pathIndex, value)) {
+                done[pathIndex] = true;
+                remaining--;
+            }
+        }
+    }
+
+    private static final class Capture {
+        private final List<Integer> paths;
+        private final StringBuilder text = new StringBuilder();
+
+        Capture(List<Integer> paths) {
+            this.paths = paths;
+        }
+    }
+}
@@ -0,0 +1,321 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.support.xml;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pretty-prints XML in a single pass over a StAX stream, without building an XmlObject. Elements are indented
+ * with 3 spaces like XmlUtils.serializePretty, elements with only text stay on one line and elements with mixed
+ * content keep their original whitespace. The XML declaration is left out, and unlike XmlUtils.serializePretty
+ * namespace declarations are kept on the elements that declare them instead of being moved up to the root.
+ */
+
+public final class XmlPrettyPrinter {
+    private final static int INDENT = 3;
+    private final static String NEW_LINE = System.getProperty("line.separator", "\n");
+    private final static XMLInputFactory inputFactory = createInputFactory();
+
+    private final XMLStreamReader reader;
+    private final StringBuilder out;
+    private final StringBuilder text = new StringBuilder();
+    private final List<Indent> indents = new ArrayList<Indent>();
+    private boolean[] mixed = new boolean[16];
+    private int[] firstIndent = new int[16];
+    private String whitespace = "";
+    private int depth;
+    private boolean startTagOpen;
+
+    private XmlPrettyPrinter(XMLStreamReader reader, int length) {
+        this.reader = reader;
+        this.out = new StringBuilder(length + length / 4);
+    }
+
+    /**
+     * Returns the pretty-printed XML
+     *
+     * @throws XMLStreamException if the content is not well-formed XML
+     */
+
+    public static String prettyPrint(String xml) throws XMLStreamException {
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(new StringReader(xml));
+        try {
+            XmlPrettyPrinter printer = new XmlPrettyPrinter(reader, xml.length());
+            printer.print();
+            return printer.out.toString();
+        } finally {
+            reader.close();
+        }
+    }
+
+    private void print() throws XMLStreamException {
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    writeStartElement();
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    writeEndElement();
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (depth > 0) {
+                        text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    }
+                    break;
+                case XMLStreamConstants.COMMENT:
+                    startNode();
+                    out.append("<!--").append(reader.getText()).append("-->");
+                    break;
+                case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                    startNode();
+                    out.append("<?").append(reader.getPITarget());
+                    String data = reader.getPIData();
+                    if (data != null && data.length() > 0) {
+                        out.append(' ').append(data);
+                    }
+                    out.append("?>");
+                    break;
+                case XMLStreamConstants.ENTITY_REFERENCE:
+                    text.append('&').append(reader.getLocalName()).append(';');
+                    break;
+                case XMLStreamConstants.DTD:
+                    startNode();
+                    out.append(reader.getText());
+                    break;
+            }
+        }
+    }
+
+    private void writeStartElement() {
+        startNode();
+
+        out.append('<');
+        appendName(reader.getPrefix(), reader.getLocalName());
+
+        for (int c = 0; c < reader.getNamespaceCount(); c++) {
+            String prefix = reader.getNamespacePrefix(c);
+            out.append(prefix == null || prefix.length() == 0 ? " xmlns" : " xmlns:" + prefix);
+            out.append("=\"");
+            appendEscaped(reader.getNamespaceURI(c), true);
+            out.append('"');
+        }
+
+        for (int c = 0; c < reader.getAttributeCount(); c++) {
+            out.append(' ');
+            appendName(reader.getAttributePrefix(c), reader.getAttributeLocalName(c));
+            out.append("=\"");
+            appendEscaped(reader.getAttributeValue(c), true);
+            out.append('"');
+        }
+
+        startTagOpen = true;
+        depth++;
+        if (depth == mixed.length) {
+            mixed = Arrays.copyOf(mixed, depth * 2);
+            firstIndent = Arrays.copyOf(firstIndent, depth * 2);
+        }
+
+        // the content of a mixed element is left alone all the way down
+        mixed[depth] = mixed[depth - 1];
+        firstIndent[depth] = indents.size();
+    }
+
+    private void writeEndElement() {
+        if (startTagOpen) {
+            // no child nodes, so keep the element on one line
+            startTagOpen = false;
+            if (text.length() == 0) {
+                out.append("/>");
+                endElement();
+                return;
+            }
+
+            out.append('>');
+            appendEscaped(text, false);
+            text.setLength(0);
+        } else {
+            flushText();
+            if (!mixed[depth]) {
+                newLine(depth - 1);
+            }
+        }
+
+        out.append("</");
+        appendName(reader.getPrefix(), reader.getLocalName());
+        out.append('>');
+        endElement();
+    }
+
+    private void endElement() {
+        depth--;
+        if (depth == 0) {
+            // nothing outside the root element can turn it into mixed content
+            indents.clear();
+        }
+    }
+
+    /**
+     * Closes a pending start tag and indents the following node, unless it is part of mixed content
+     */
+
+    private void startNode() {
+        if (startTagOpen) {
+            out.append('>');
+            startTagOpen = false;
+        }
+
+        flushText();
+        if (!mixed[depth]) {
+            newLine(depth);
+        }
+    }
+
+    /**
+     * Writes the pending text. Whitespace between the nodes of an element without mixed content is replaced by
+     * the next indentation, the first other text makes the element mixed
+     */
+
+    private void flushText() {
+        if (text.length() == 0) {
+            return;
+        }
+
+        if (mixed[depth]) {
+            appendEscaped(text, false);
+        } else if (isWhitespace(text)) {
+            StringBuilder escaped = new StringBuilder(text.length());
+            appendEscaped(escaped, text, false);
+            whitespace = escaped.toString();
+        } else {
+            setMixed();
+            appendEscaped(text, false);
+        }
+
+        text.setLength(0);
+    }
+
+    /**
+     * Marks the current element as mixed and puts the original whitespace back in place of the indentation that
+     * was already added to its content, since text after the first child nodes is only seen once they are written
+     */
+
+    private void setMixed() {
+        mixed[depth] = true;
+        for (int c = indents.size() - 1; c >= firstIndent[depth]; c--) {
+            Indent indent = indents.remove(c);
+            out.replace(indent.offset, indent.offset + indent.length, indent.whitespace);
+        }
+    }
+
+    private void newLine(int level) {
+        int offset = out.length();
+        if (offset > 0) {
+            out.append(NEW_LINE);
+        }
+
+        for (int c = level * INDENT; c > 0; c--) {
+            out.append(' ');
+        }
+
+        indents.add(new Indent(offset, out.length() - offset, whitespace));
+        whitespace = "";
+    }
+
+    private void appendName(String prefix, String localName) {
+        if (prefix != null && prefix.length() > 0) {
+            out.append(prefix).append(':');
+        }
+
+        out.append(localName);
+    }
+
+    private void appendEscaped(CharSequence value, boolean attribute) {
+        appendEscaped(out, value, attribute);
+    }
+
+    private static void appendEscaped(StringBuilder out, CharSequence value, boolean attribute) {
+        for (int c = 0; c < value.length(); c++) {
+            char ch = value.charAt(c);
+            switch (ch) {
+                case '&':
+                    out.append("&amp;");
+                    break;
+                case '<':
+                    out.append("&lt;");
+                    break;
+                case '>':
+                    out.append("&gt;");
+                    break;
+                case '"':
+                    out.append(attribute ? "&quot;" : "\"");
+                    break;
+                case '\r':
+                    out.append("&#13;");
+                    break;
+                case '\n':
+                    out.append(attribute ? "&#10;" : "\n");
+                    break;
+                case '\t':
+                    out.append(attribute ? "&#9;" : "\t");
+                    break;
+                default:
+                    out.append(ch);
+            }
+        }
+    }
+
+    private static boolean isWhitespace(CharSequence value) {
+        for (int c = 0; c < value.length(); c++) {
+            if (!Character.isWhitespace(value.charAt(c))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static class Indent {
+        private final int offset;
+        private final int length;
+        private final String whitespace;
+
+        Indent(int offset, int length, String whitespace) {
+            this.offset = offset;
+            this.length = length;
+            this.whitespace = whitespace;
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        return factory;
+    }
+}
@@ -573,22 +573,39 @@ public final class XmlUtils {
         return declareXPathNamespaces(XmlObject.Factory.parse(xmlString));
     }
 
-    public static synchronized String prettyPrintXml(String xml) {
-        try {
-            if (!XmlUtils.seemsToBeXml(xml)) {
-                return xml;
-            }
+    /**
+     * Pretty-prints the specified string in a single streaming pass, content that is not well-formed XML is
+     * returned as is
+     */
 
-            StringWriter writer = new StringWriter();
-            XmlUtils.serializePretty(XmlObject.Factory.parse(xml), writer);
-            return writer.toString();
+    public static String prettyPrintXml(String xml) {
+        if (!startsWithTag(xml)) {
+            return xml;
+        }
+
+        try {
+            return XmlPrettyPrinter.prettyPrint(xml);
         } catch (Exception e) {
             log.warn("Failed to prettyPrint xml [" + xml + "]: " + e);
             return xml;
         }
     }
 
-    public static synchronized String prettyPrintXml(XmlObject xml) {
+    private static boolean startsWithTag(String str) {
+        if (str == null) {
+            return false;
+        }
+
+        for (int c = 0; c < str.length(); c++) {
+            if (!Character.isWhitespace(str.charAt(c))) {
+                return str.charAt(c) == '<';
+            }
+        }
+
+        return false;
+    }
+
+    public static String prettyPrintXml(XmlObject xml) {
         if (xml == null) {
             return null;
         }
@@ -881,7 +898,7 @@ public final class XmlUtils {
 
             String namespaces = declareXPathNamespaces(xmlObject);
             if (namespaces != null && namespaces.trim().length() > 0) {
-                xpath = namespaces + xpath;
+                xpath = CompiledPathCache.getPath(namespaces, xpath);
             }
 
             XmlObject[] path = xmlObject.selectPath(xpath);
@@ -1184,7 +1201,7 @@ public final class XmlUtils {
     public static Node selectFirstDomNode(XmlObject xmlObject, String xpath) {
         XmlCursor cursor = xmlObject.newCursor();
         try {
-            cursor.selectPath(xpath);
+            cursor.selectPath(CompiledPathCache.getPath(xpath));
 
             if (cursor.toNextSelection()) {
                 return cursor.getDomNode();
@@ -1201,7 +1218,7 @@ public final class XmlUtils {
 
         XmlCursor cursor = xmlObject.newCursor();
         try {
-            cursor.selectPath(xpath);
+            cursor.selectPath(CompiledPathCache.getPath(xpath));
 
             while (cursor.toNextSelection()) {
                 result.add(cursor.getDomNode());
@@ -1346,7 +1363,7 @@ public final class XmlUtils {
     public static String getXPathValue(String value, String xpath) {
         try {
             XmlObject xmlObject = XmlObject.Factory.parse(value);
-            XmlObject[] nodes = xmlObject.selectPath(xpath);
+            XmlObject[] nodes = xmlObject.selectPath(CompiledPathCache.getPath(xpath));
             if (nodes.length > 0) {
                 return getNodeValue(nodes[0].getDomNode());
             }
@@ -20,7 +20,9 @@ import com.eviware.soapui.SoapUI;
 import com.eviware.soapui.analytics.Analytics;
 import com.eviware.soapui.analytics.AnalyticsHelper;
 import com.eviware.soapui.impl.wsdl.WsdlProject;
+import com.eviware.soapui.impl.wsdl.WsdlTestSuite;
 import com.eviware.soapui.impl.wsdl.loadtest.WsdlLoadTest;
+import com.eviware.soapui.impl.wsdl.loadtest.data.LoadTestStatistics;
 import com.eviware.soapui.impl.wsdl.loadtest.data.actions.ExportLoadTestLogAction;
 import com.eviware.soapui.impl.wsdl.loadtest.data.actions.ExportStatisticsAction;
 import com.eviware.soapui.impl.wsdl.loadtest.log.LoadTestLog;
@@ -39,6 +41,7 @@ import com.eviware.soapui.model.testsuite.TestSuite;
 import com.eviware.soapui.settings.UISettings;
 import com.eviware.soapui.support.SoapUIException;
 import com.eviware.soapui.support.StringUtils;
+import com.eviware.soapui.support.xml.CompiledPathCache;
 import org.apache.commons.cli.CommandLine;
 
 import java.io.File;
@@ -72,6 +75,7 @@ public class SoapUILoadTestRunner extends AbstractSoapUITestRunner implements Lo
     private int limit = -1;
     private long threadCount = -1;
     private boolean saveAfterRun;
+    private String sampleLogFolder;
 
     public static String TITLE = "SoapUI " + SoapUI.SOAPUI_VERSION + " LoadTest Runner";
 
@@ -144,6 +148,10 @@ public class SoapUILoadTestRunner extends AbstractSoapUITestRunner implements Lo
             setSettingsFile(getCommandLineOptionSubstSpace(cmd, "t"));
         }
 
+        if (cmd.hasOption("b")) {
+            setSampleLogFolder(getCommandLineOptionSubstSpace(cmd, "b"));
+        }
+
         setPrintReport(cmd.hasOption("r"));
         setSaveAfterRun(cmd.hasOption("S"));
 
@@ -183,6 +191,14 @@ public class SoapUILoadTestRunner extends AbstractSoapUITestRunner implements Lo
         this.threadCount = threadCount;
     }
 
+    /**
+     * Records every sample of each run LoadTest to a binary sample log in this folder
+     */
+
+    public void setSampleLogFolder(String sampleLogFolder) {
+        this.sampleLogFolder = sampleLogFolder;
+    }
+
     protected SoapUIOptions initCommandLineOptions() {
         SoapUIOptions options = new SoapUIOptions("loadtestrunner");
         options.addOption("e", true, "Sets the endpoint");
@@ -205,6 +221,7 @@ public class SoapUILoadTestRunner extends AbstractSoapUITestRunner implements Lo
         options.addOption("G", true, "Sets global property with name=value");
         options.addOption("P", true, "Sets or overrides project property with name=value");
         options.addOption("S", false, "Saves the project after running the tests");
+        options.addOption("b", true, "Records every LoadTest sample to a binary sample log in the specified folder");
 
         return options;
     }
@@ -268,8 +285,9 @@ public class SoapUILoadTestRunner extends AbstractSoapUITestRunner implements Lo
             throw new Exception("Missing TestSuite named [" + testSuite + "]");
         }
 
+        // compare names first so that a lazy model only builds the selected TestSuites
         for (int c = 0; c < project.getTestSuiteCount(); c++) {
-            if (testSuite == null || project.getTestSuiteAt(c).getName().equalsIgnoreCase(testSuite)) {
+            if (testSuite == null || project.getTestSuiteNameAt(c).equalsIgnoreCase(testSuite)) {
                 runSuite(project.getTestSuiteAt(c));
                 suiteCount++;
             }
@@ -316,7 +334,8 @@ public class SoapUILoadTestRunner extends AbstractSoapUITestRunner implements Lo
 
         long start = System.currentTimeMillis();
         for (int c = 0; c < suite.getTestCaseCount(); c++) {
-            String name = suite.getTestCaseAt(c).getName();
+            String name = suite instanceof WsdlTestSuite ? ((WsdlTestSuite) suite).getTestCaseNameAt(c) : suite
+                    .getTestCaseAt(c).getName();
             if (testCase == null || name.equalsIgnoreCase(testCase)) {
                 runTestCase(suite.getTestCaseAt(c));
                 testCaseCount++;
@@ -366,6 +385,14 @@ public class SoapUILoadTestRunner extends AbstractSoapUITestRunner implements Lo
                 loadTest.setThreadCount(threadCount);
             }
 
+            if (sampleLogFolder != null) {
+                String name = loadTest.getTestCase().getName() + "-" + loadTest.getName();
+                String fileName = StringUtils.createFileName(name, '_') + ".samples";
+                File sampleLogFile = new File(sampleLogFolder, fileName);
+                log.info("Recording samples to [" + sampleLogFile.getAbsolutePath() + "]");
+                loadTest.setRunSampleLogFile(sampleLogFile.getAbsolutePath());
+            }
+
             loadTest.addLoadTestRunListener(this);
             LoadTestRunner runner = loadTest.run();
 
@@ -380,6 +407,13 @@ public class SoapUILoadTestRunner extends AbstractSoapUITestRunner implements Lo
 
             log.info("LoadTest [" + loadTest.getName() + "] finished with status " + runner.getStatus().toString());
 
+            LoadTestStatistics statistics = loadTest.getStatisticsModel();
+            log.info("LoadTest [" + loadTest.getName() + "] TestCase time percentiles: p95="
+                    + statistics.getPercentile(LoadTestStatistics.TOTAL, 95) + ", p99="
+                    + statistics.getPercentile(LoadTestStatistics.TOTAL, 99) + ", p99.9="
+                    + statistics.getPercentile(LoadTestStatistics.TOTAL, 99.9));
+            log.debug("Compiled XPath cache: " + CompiledPathCache.getStatistics());
+
             if (printReport) {
                 log.info("Exporting log and statistics for LoadTest [" + loadTest.getName() + "]");
 
@@ -54,7 +54,9 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static com.eviware.soapui.analytics.SoapUIActions.LAUNCH_SECURITY_TEST_RUNNER;
 import static com.eviware.soapui.analytics.SoapUIActions.LAUNCH_SECURITY_TEST_RUNNER_FROM_UI;
@@ -82,6 +84,7 @@ public class SoapUISecurityTestRunner extends SoapUITestCaseRunner implements Se
     private int securityScanAlertCount;
     private List<SecurityTestStepResult> failedResults = new ArrayList<SecurityTestStepResult>();
     private JUnitSecurityReportCollector reportCollector = new JUnitSecurityReportCollector();
+    private Set<TestCase> listenedTestCases = new HashSet<TestCase>();
 
     /**
      * Runs the tests in the specified soapUI project file, see SoapUI xdocs for
@@ -154,19 +157,39 @@ public class SoapUISecurityTestRunner extends SoapUITestCaseRunner implements Se
 
         List<TestCase> testCasesToRun = new ArrayList<TestCase>();
 
-        // start by listening to all testcases.. (since one testcase can call
-        // another)
-        for (int c = 0; c < project.getTestSuiteCount(); c++) {
-            TestSuite suite = project.getTestSuiteAt(c);
-            for (int i = 0; i < suite.getTestCaseCount(); i++) {
-                TestCase tc = suite.getTestCaseAt(i);
-                if ((testSuite == null || suite.getName().equals(suite.getName())) && testCase != null
-                        && tc.getName().equals(testCase)) {
-                    testCasesToRun.add(tc);
+        if (project.isLazyModel()) {
+            // only build the selected TestCases, the others get their listeners when they are run
+            if (testCase != null) {
+                for (int c = 0; c < project.getTestSuiteCount(); c++) {
+                    if (testSuite == null || project.getTestSuiteNameAt(c).equals(testSuite)) {
+                        WsdlTestSuite suite = project.getTestSuiteAt(c);
+                        for (int i = 0; i < suite.getTestCaseCount(); i++) {
+                            if (testCase.equals(suite.getTestCaseNameAt(i))) {
+                                testCasesToRun.add(suite.getTestCaseAt(i));
+                            }
+                        }
+                    }
                 }
+            }
 
+            for (TestCase tc : testCasesToRun) {
                 addListeners(tc);
             }
+        } else {
+            // start by listening to all testcases.. (since one testcase can call
+            // another)
+            for (int c = 0; c < project.getTestSuiteCount(); c++) {
+                TestSuite suite = project.getTestSuiteAt(c);
+                for (int i = 0; i < suite.getTestCaseCount(); i++) {
+                    TestCase tc = suite.getTestCaseAt(i);
+                    if ((testSuite == null || suite.getName().equals(testSuite)) && testCase != null
+                            && tc.getName().equals(testCase)) {
+                        testCasesToRun.add(tc);
+                    }
+
+                    addListeners(tc);
+                }
+            }
         }
 
         // decide what to run
@@ -212,8 +235,8 @@ public class SoapUISecurityTestRunner extends SoapUITestCaseRunner implements Se
     protected void runProject(WsdlProject project) {
         try {
             log.info(("Running Project [" + project.getName() + "], runType = " + project.getRunType()));
-            for (TestSuite testSuite : project.getTestSuiteList()) {
-                runSuite((WsdlTestSuite) testSuite);
+            for (int c = 0; c < project.getTestSuiteCount(); c++) {
+                runSuite(project.getTestSuiteAt(c));
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -231,6 +254,10 @@ public class SoapUISecurityTestRunner extends SoapUITestCaseRunner implements Se
     }
 
     protected void addListeners(TestCase tc) {
+        if (!listenedTestCases.add(tc)) {
+            return;
+        }
+
         tc.addTestRunListener(this);
         if (isJunitReport()) {
             tc.addTestRunListener(reportCollector);
@@ -261,8 +288,10 @@ public class SoapUISecurityTestRunner extends SoapUITestCaseRunner implements Se
 
     protected void runSuite(WsdlTestSuite suite) {
         try {
-            for (TestCase testCase : suite.getTestCaseList()) {
-                runTestCase((WsdlTestCase) testCase);
+            for (int c = 0; c < suite.getTestCaseCount(); c++) {
+                WsdlTestCase testCase = suite.getTestCaseAt(c);
+                addListeners(testCase);
+                runTestCase(testCase);
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -19,8 +19,10 @@ package com.eviware.soapui.tools;
 import com.eviware.soapui.SoapUI;
 import com.eviware.soapui.analytics.Analytics;
 import com.eviware.soapui.analytics.AnalyticsHelper;
+import com.eviware.soapui.impl.support.definition.support.DefinitionPreloader;
 import com.eviware.soapui.impl.wsdl.WsdlProject;
 import com.eviware.soapui.impl.wsdl.WsdlTestSuite;
+import com.eviware.soapui.impl.wsdl.support.TestRunExecutor;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlProjectRunner;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCaseRunner;
@@ -29,6 +31,7 @@ import com.eviware.soapui.impl.wsdl.teststeps.WsdlRunTestCaseTestStep;
 import com.eviware.soapui.impl.wsdl.teststeps.WsdlTestStep;
 import com.eviware.soapui.impl.wsdl.teststeps.WsdlTestStepResult;
 import com.eviware.soapui.model.iface.Attachment;
+import com.eviware.soapui.model.iface.Interface;
 import com.eviware.soapui.model.iface.MessageExchange;
 import com.eviware.soapui.model.project.ProjectFactoryRegistry;
 import com.eviware.soapui.model.support.ModelSupport;
@@ -62,9 +65,14 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import static com.eviware.soapui.analytics.SoapUIActions.LAUNCH_FUNCTIONAL_TEST_RUNNER;
 import static com.eviware.soapui.analytics.SoapUIActions.LAUNCH_FUNCTIONAL_TEST_RUNNER_FROM_UI;
@@ -90,6 +98,10 @@ public class SoapUITestCaseRunner extends AbstractSoapUITestRunner {
     private List<TestAssertion> assertions = new ArrayList<TestAssertion>();
     private Map<TestAssertion, WsdlTestStepResult> assertionResults = new HashMap<TestAssertion, WsdlTestStepResult>();
     private List<TestCase> failedTests = new ArrayList<TestCase>();
+    private List<Integer> assertionRunIndexes = new ArrayList<Integer>();
+    private List<Integer> failedTestRunIndexes = new ArrayList<Integer>();
+    private Map<TestCase, Integer> runIndexes = new HashMap<TestCase, Integer>();
+    private TestRunExecutor testCaseExecutor;
 
     private int testSuiteCount;
     private int testCaseCount;
@@ -109,6 +121,7 @@ public class SoapUITestCaseRunner extends AbstractSoapUITestRunner {
     private String projectPassword;
     private boolean saveAfterRun;
     private TestCaseRunLogReport testCaseRunLogReport;
+    private int parallel;
 
     /**
      * Runs the tests in the specified soapUI project file, see SoapUI xdocs for
@@ -211,6 +224,10 @@ public class SoapUITestCaseRunner extends AbstractSoapUITestRunner {
 
         setSaveAfterRun(cmd.hasOption("S"));
 
+        if (cmd.hasOption("N")) {
+            setParallel(Integer.parseInt(cmd.getOptionValue("N")));
+        }
+
         if (message.length() > 0) {
             log.error(message);
             return false;
@@ -231,6 +248,21 @@ public class SoapUITestCaseRunner extends AbstractSoapUITestRunner {
         this.saveAfterRun = saveAfterRun;
     }
 
+    /**
+     * Sets the number of TestCases to run at the same time; with more than one thread the TestCases of TestSuites
+     * with the parallel run type, or the TestCases selected with -c, share a pool of that size
+     *
+     * @param parallel the number of parallel threads
+     */
+
+    public void setParallel(int parallel) {
+        this.parallel = parallel;
+    }
+
+    public int getParallel() {
+        return parallel;
+    }
+
     @Override
     public void setProjectPassword(String projectPassword) {
         this.projectPassword = projectPassword;
@@ -270,6 +302,8 @@ public class SoapUITestCaseRunner extends AbstractSoapUITestRunner {
         options.addOption("I", false, "Do not stop if error occurs, ignore them");
         options.addOption("S", false, "Saves the project after running the tests");
         options.addOption("H", true, "Adds a custom HTTP Header to all outgoing requests (name=value), can be specified multiple times");
+        options.addOption("N", "parallel", true, "Sets the number of threads for the TestCases of TestSuites with the"
+                + " parallel run type, or for the TestCases selected with -c");
 
         return options;
     }
@@ -343,6 +377,8 @@ public class SoapUITestCaseRunner extends AbstractSoapUITestRunner {
         initGroovyLog();
 
         assertions.clear();
+        assertionRunIndexes.clear();
+        failedTestRunIndexes.clear();
 
         String projectFile = getProjectFile();
 
@@ -372,21 +408,45 @@ public class SoapUITestCaseRunner extends AbstractSoapUITestRunner {
                     + "]");
         }
 
-        // start by listening to all testcases.. (since one testcase can call
-        // another)
-        for (int c = 0; c < project.getTestSuiteCount(); c++) {
-            TestSuite suite = project.getTestSuiteAt(c);
-            for (int i = 0; i < suite.getTestCaseCount(); i++) {
-                TestCase tc = suite.getTestCaseAt(i);
-                if ((testSuite == null || suite.getName().equals(testSuite)) && testCase != null
-                        && tc.getName().equals(testCase)) {
-                    testCasesToRun.add(tc);
+        List<TestCase> listenedTestCases = new ArrayList<TestCase>();
+
+        if (project.isLazyModel()) {
+            // only build the selected TestCases and the TestCases they run
+            if (testCase != null) {
+                for (int c = 0; c < project.getTestSuiteCount(); c++) {
+                    if (testSuite == null || project.getTestSuiteNameAt(c).equals(testSuite)) {
+                        WsdlTestSuite suite = project.getTestSuiteAt(c);
+                        for (int i = 0; i < suite.getTestCaseCount(); i++) {
+                            if (testCase.equals(suite.getTestCaseNameAt(i))) {
+                                testCasesToRun.add(suite.getTestCaseAt(i));
+                            }
+                        }
+                    }
                 }
+            }
+
+            listenedTestCases.addAll(getTestCasesToRun(project, testCasesToRun));
+        } else {
+            // start by listening to all testcases.. (since one testcase can call
+            // another)
+            for (int c = 0; c < project.getTestSuiteCount(); c++) {
+                TestSuite suite = project.getTestSuiteAt(c);
+                for (int i = 0; i < suite.getTestCaseCount(); i++) {
+                    TestCase tc = suite.getTestCaseAt(i);
+                    if ((testSuite == null || suite.getName().equals(testSuite)) && testCase != null
+                            && tc.getName().equals(testCase)) {
+                        testCasesToRun.add(tc);
+                    }
 
-                addListeners(tc);
+                    listenedTestCases.add(tc);
+                }
             }
         }
 
+        for (TestCase tc : listenedTestCases) {
+            addListeners(tc);
+        }
+
         try {
             // validate testSuite argument
             if (testCase != null && testCasesToRun.size() == 0) {
@@ -399,8 +459,12 @@ public class SoapUITestCaseRunner extends AbstractSoapUITestRunner {
                 }
             }
 
+            preloadDefinitions(project, testCasesToRun);
+
             // decide what to run
-            if (testCasesToRun.size() > 0) {
+            if (parallel > 1) {
+                runParallel(project, testCasesToRun);
+            } else if (testCasesToRun.size() > 0) {
                 for (TestCase testCase : testCasesToRun) {
                     runTestCase((WsdlTestCase) testCase);
                 }
@@ -437,14 +501,252 @@ public class SoapUITestCaseRunner extends AbstractSoapUITestRunner {
 
             return true;
         } finally {
-            for (int c = 0; c < project.getTestSuiteCount(); c++) {
-                TestSuite suite = project.getTestSuiteAt(c);
-                for (int i = 0; i < suite.getTestCaseCount(); i++) {
-                    TestCase tc = suite.getTestCaseAt(i);
-                    removeListeners(tc);
+            for (TestCase tc : listenedTestCases) {
+                removeListeners(tc);
+            }
+        }
+    }
+
+    /**
+     * Returns the TestCases that will be run, including the ones they run with Run TestCase steps
+     */
+
+    protected Set<TestCase> getTestCasesToRun(WsdlProject project, List<TestCase> testCasesToRun) {
+        List<TestCase> testCases = new ArrayList<TestCase>(testCasesToRun);
+        if (testCases.isEmpty()) {
+            testCases.addAll(getEnabledTestCases(project));
+        }
+
+        Set<TestCase> result = new LinkedHashSet<TestCase>();
+        while (!testCases.isEmpty()) {
+            TestCase tc = testCases.remove(0);
+            if (result.add(tc)) {
+                for (TestStep step : tc.getTestStepList()) {
+                    if (step instanceof WsdlRunTestCaseTestStep
+                            && ((WsdlRunTestCaseTestStep) step).getTargetTestCase() != null) {
+                        testCases.add(((WsdlRunTestCaseTestStep) step).getTargetTestCase());
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Loads the definitions of the interfaces used by the TestCases that are about to run in parallel, instead of
+     * one at a time when they are first used; interfaces that are not used by these TestCases are not loaded
+     */
+
+    protected void preloadDefinitions(WsdlProject project, List<TestCase> testCasesToRun) {
+        List<TestCase> testCases = new ArrayList<TestCase>(testCasesToRun);
+        if (testCases.isEmpty()) {
+            testCases.addAll(getEnabledTestCases(project));
+        }
+
+        Set<Interface> interfaces = new LinkedHashSet<Interface>();
+        for (TestCase tc : testCases) {
+            if (tc.isDisabled()) {
+                continue;
+            }
+
+            for (TestStep step : tc.getTestStepList()) {
+                if (step instanceof WsdlTestStep && !step.isDisabled()) {
+                    interfaces.addAll(((WsdlTestStep) step).getRequiredInterfaces());
+                }
+            }
+        }
+
+        DefinitionPreloader.preload(interfaces);
+    }
+
+    /**
+     * Runs the selected TestSuite or the project like a sequential run, with their setup and teardown scripts, run
+     * types and run listeners, but with the TestCases of parallel TestSuites on a pool of the parallel threads.
+     * TestCases selected with -c are run directly on the pool, as they are run directly without it.
+     *
+     * @param project        the project to run
+     * @param testCasesToRun the TestCases selected with -c
+     */
+
+    protected void runParallel(WsdlProject project, List<TestCase> testCasesToRun) throws Exception {
+        if (!testCasesToRun.isEmpty()) {
+            runParallel(testCasesToRun);
+            return;
+        }
+
+        // the TestSuite argument has been validated before
+        WsdlTestSuite suite = testSuite == null ? null : project.getTestSuiteByName(testSuite);
+
+        List<TestCase> testCases = getEnabledTestCases(project);
+        if (!hasParallelTestSuite(testCases)) {
+            log.warn("None of the TestSuites to run has the parallel run type, their TestCases are run sequentially");
+        }
+
+        log.info("Running TestCases of parallel TestSuites on " + parallel + " parallel threads");
+
+        setRunOrder(testCases);
+        testCaseExecutor = TestRunExecutor.createFixed(parallel, "TestCase Runner");
+        try {
+            if (suite != null) {
+                runSuite(suite);
+            } else {
+                runProject(project);
+            }
+        } finally {
+            testCaseExecutor.shutdown();
+            testCaseExecutor = null;
+        }
+
+        sortByRunOrder(testCases);
+    }
+
+    private static boolean hasParallelTestSuite(List<TestCase> testCases) {
+        for (TestCase testCase : testCases) {
+            if (testCase.getTestSuite().getRunType() == TestSuite.TestSuiteRunType.PARALLEL) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the properties to start a TestSuite or Project run with, which pass the pool of a parallel run on to
+     * the TestSuite runners
+     */
+
+    protected StringToObjectMap createRunProperties() {
+        StringToObjectMap properties = new StringToObjectMap();
+        if (testCaseExecutor != null) {
+            properties.put(WsdlTestSuiteRunner.TEST_CASE_EXECUTOR_PROPERTY, testCaseExecutor);
+        }
+
+        return properties;
+    }
+
+    /**
+     * Returns the enabled TestCases of the selected TestSuite, or of all enabled TestSuites. Names and disabled
+     * flags are checked before building, so TestSuites and TestCases that are not returned are never built in the
+     * lazy model
+     */
+
+    private List<TestCase> getEnabledTestCases(WsdlProject project) {
+        List<TestCase> testCases = new ArrayList<TestCase>();
+        for (int c = 0; c < project.getTestSuiteCount(); c++) {
+            if (!isSelectedTestSuite(project, c)) {
+                continue;
+            }
+
+            WsdlTestSuite suite = project.getTestSuiteAt(c);
+            for (int i = 0; i < suite.getTestCaseCount(); i++) {
+                if (!suite.isTestCaseDisabledAt(i)) {
+                    testCases.add(suite.getTestCaseAt(i));
+                }
+            }
+        }
+
+        return testCases;
+    }
+
+    private boolean isSelectedTestSuite(WsdlProject project, int index) {
+        if (testSuite != null) {
+            return project.getTestSuiteNameAt(index).equals(testSuite);
+        }
+
+        return !project.isTestSuiteDisabledAt(index);
+    }
+
+    /**
+     * Runs the specified TestCases on a pool of parallel threads, each with its own run context. Failed assertions,
+     * TestCases and JUnit report entries are put back in the order of the TestCases afterwards, so they are
+     * reported in the same order as in a sequential run
+     *
+     * @param testCases the TestCases to run
+     */
+
+    protected void runParallel(List<TestCase> testCases) throws InterruptedException {
+        log.info("Running " + testCases.size() + " TestCases on " + parallel + " parallel threads");
+
+        setRunOrder(testCases);
+        TestRunExecutor executor = TestRunExecutor.createFixed(parallel, "TestCase Runner");
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+
+        try {
+            for (TestCase testCase : testCases) {
+                final WsdlTestCase tc = (WsdlTestCase) testCase;
+
+                futures.add(executor.submit(new Runnable() {
+                    public void run() {
+                        runTestCase(tc);
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    SoapUI.logError(e.getCause());
                 }
             }
+        } finally {
+            executor.shutdown();
+        }
+
+        sortByRunOrder(testCases);
+    }
+
+    private synchronized void setRunOrder(List<TestCase> testCases) {
+        runIndexes.clear();
+        for (int c = testCases.size() - 1; c >= 0; c--) {
+            runIndexes.put(testCases.get(c), c);
+        }
+    }
+
+    private synchronized void sortByRunOrder(List<TestCase> testCases) {
+        sortByRunIndex(assertions, assertionRunIndexes);
+        sortByRunIndex(failedTests, failedTestRunIndexes);
+
+        if (junitReport) {
+            reportCollector.sortTestCases(testCases);
+        }
+    }
+
+    private static <T> void sortByRunIndex(List<T> items, final List<Integer> runIndexes) {
+        Integer[] order = new Integer[items.size()];
+        for (int c = 0; c < order.length; c++) {
+            order[c] = c;
+        }
+
+        // stable, so the order within a TestCase is kept
+        Arrays.sort(order, new Comparator<Integer>() {
+            public int compare(Integer o1, Integer o2) {
+                return runIndexes.get(o1).compareTo(runIndexes.get(o2));
+            }
+        });
+
+        List<T> sortedItems = new ArrayList<T>();
+        List<Integer> sortedIndexes = new ArrayList<Integer>();
+        for (Integer c : order) {
+            sortedItems.add(items.get(c));
+            sortedIndexes.add(runIndexes.get(c));
         }
+
+        items.clear();
+        items.addAll(sortedItems);
+        runIndexes.clear();
+        runIndexes.addAll(sortedIndexes);
+    }
+
+    /**
+     * Returns the position of the TestCase in the TestCases of a parallel run, TestCases that are only run by
+     * others are put after them
+     */
+
+    private int getRunIndex(TestCase testCase) {
+        Integer index = runIndexes.get(testCase);
+        return index == null ? Integer.MAX_VALUE : index;
     }
 
     protected void removeListeners(TestCase tc) {
@@ -461,7 +763,7 @@ public class SoapUITestCaseRunner extends AbstractSoapUITestRunner {
 
         try {
             log.info(("Running Project [" + project.getName() + "], runType = " + project.getRunType()));
-            WsdlProjectRunner runner = project.run(new StringToObjectMap(), false);
+            WsdlProjectRunner runner = project.run(createRunProperties(), false);
             log.info("Project [" + project.getName() + "] finished with status [" + runner.getStatus() + "] in "
                     + runner.getTimeTaken() + "ms");
         } catch (Exception e) {
@@ -550,7 +852,7 @@ public class SoapUITestCaseRunner extends AbstractSoapUITestRunner {
     protected void runSuite(WsdlTestSuite suite) {
         try {
             log.info(("Running TestSuite [" + suite.getName() + "], runType = " + suite.getRunType()));
-            WsdlTestSuiteRunner runner = suite.run(new StringToObjectMap(), false);
+            WsdlTestSuiteRunner runner = suite.run(createRunProperties(), false);
             log.info("TestSuite [" + suite.getName() + "] finished with status [" + runner.getStatus() + "] in "
                     + (runner.getTimeTaken()) + "ms");
         } catch (Exception e) {
@@ -623,16 +925,19 @@ public class SoapUITestCaseRunner extends AbstractSoapUITestRunner {
             for (int c = 0; c < requestStep.getAssertionCount(); c++) {
                 TestAssertion assertion = requestStep.getAssertionAt(c);
                 log.info("Assertion [" + assertion.getName() + "] has status " + assertion.getStatus());
-                if (assertion.getStatus() == AssertionStatus.FAILED) {
-                    for (AssertionError error : assertion.getErrors()) {
-                        log.error("ASSERTION FAILED -> " + error.getMessage());
+                synchronized (this) {
+                    if (assertion.getStatus() == AssertionStatus.FAILED) {
+                        for (AssertionError error : assertion.getErrors()) {
+                            log.error("ASSERTION FAILED -> " + error.getMessage());
+                        }
+
+                        assertions.add(assertion);
+                        assertionRunIndexes.add(getRunIndex(testRunner.getTestCase()));
+                        assertionResults.put(assertion, (WsdlTestStepResult) result);
                     }
 
-                    assertions.add(assertion);
-                    assertionResults.put(assertion, (WsdlTestStepResult) result);
+                    testAssertionCount++;
                 }
-
-                testAssertionCount++;
             }
         }
 
@@ -709,14 +1014,17 @@ public class SoapUITestCaseRunner extends AbstractSoapUITestRunner {
                     }
                 }
 
-                exportCount++;
+                synchronized (this) {
+                    exportCount++;
+                }
             } catch (Exception e) {
                 log.error("Error saving failed result: " + e, e);
             }
         }
 
-        testStepCount++;
-
+        synchronized (this) {
+            testStepCount++;
+        }
     }
 
     @Override
@@ -724,11 +1032,14 @@ public class SoapUITestCaseRunner extends AbstractSoapUITestRunner {
         log.info("Finished running SoapUI testcase [" + testRunner.getTestCase().getName() + "], time taken: "
                 + testRunner.getTimeTaken() + "ms, status: " + testRunner.getStatus());
 
-        if (testRunner.getStatus() == Status.FAILED) {
-            failedTests.add(testRunner.getTestCase());
-        }
+        synchronized (this) {
+            if (testRunner.getStatus() == Status.FAILED) {
+                failedTests.add(testRunner.getTestCase());
+                failedTestRunIndexes.add(getRunIndex(testRunner.getTestCase()));
+            }
 
-        testCaseCount++;
+            testCaseCount++;
+        }
     }
 
     protected class InternalProjectRunListener extends ProjectRunListenerAdapter {
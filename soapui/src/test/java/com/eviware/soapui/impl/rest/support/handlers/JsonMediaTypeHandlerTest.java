@@ -26,6 +26,7 @@ import com.eviware.soapui.impl.wsdl.submit.transports.http.HttpResponse;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.SinglePartHttpResponse;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.support.metrics.SoapUIMetrics;
 import com.eviware.soapui.model.iface.Request;
+import com.eviware.soapui.model.iface.TypedContent;
 import com.eviware.soapui.model.iface.SubmitContext;
 import com.eviware.soapui.model.propertyexpansion.PropertyExpansionContext;
 import org.apache.commons.httpclient.URI;
@@ -54,6 +55,7 @@ import static org.mockito.Mockito.when;
 public class JsonMediaTypeHandlerTest {
 
     public static final String ENDPOINT = "http://somehost.com";
+    private static final String JSON = "{\"firstName\": \"Kalle\"}";
     private RestRequest restRequest;
     private JsonMediaTypeHandler mediaTypeHandler;
 
@@ -90,6 +92,44 @@ public class JsonMediaTypeHandlerTest {
         assertThat(mediaTypeHandler.createXmlRepresentation(response), containsString("/original/billy"));
     }
 
+    @Test
+    public void convertsJsonBelowConversionLimit() throws Exception {
+        JsonMediaTypeHandler handler = new JsonMediaTypeHandler(JSON.length() + 1);
+
+        assertThat(handler.createXmlRepresentation(makeTypedContent(JSON)), containsString("Kalle"));
+    }
+
+    @Test
+    public void convertsJsonAtConversionLimit() throws Exception {
+        JsonMediaTypeHandler handler = new JsonMediaTypeHandler(JSON.length());
+
+        assertThat(handler.createXmlRepresentation(makeTypedContent(JSON)), containsString("Kalle"));
+    }
+
+    @Test
+    public void skipsJsonAboveConversionLimit() throws Exception {
+        JsonMediaTypeHandler handler = new JsonMediaTypeHandler(JSON.length() - 1);
+
+        assertThat(handler.createXmlRepresentation(makeTypedContent(JSON)), is("<xml/>"));
+    }
+
+    @Test
+    public void skipsJsonAboveDefaultConversionLimit() throws Exception {
+        StringBuilder builder = new StringBuilder("{\"value\": \"");
+        while (builder.length() < JsonMediaTypeHandler.DEFAULT_MAX_XML_CONVERSION_SIZE) {
+            builder.append("xxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxx");
+        }
+        builder.append("\"}");
+
+        assertThat(mediaTypeHandler.createXmlRepresentation(makeTypedContent(builder.toString())), is("<xml/>"));
+    }
+
+    private static TypedContent makeTypedContent(String content) {
+        TypedContent typedContent = mock(TypedContent.class);
+        when(typedContent.getContentAsString()).thenReturn(content);
+        return typedContent;
+    }
+
     private HttpResponse submitRequestAndReceiveResponse(RestRequest restRequest, String originalPath) throws Exception {
         restRequest.setPath(originalPath);
 
@@ -0,0 +1,181 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+
+package com.eviware.soapui.impl.support.definition.support;
+
+import com.eviware.soapui.impl.wsdl.WsdlInterface;
+import com.eviware.soapui.impl.wsdl.support.wsdl.WsdlContext;
+import com.eviware.soapui.impl.wsdl.support.wsdl.WsdlDefinitionLoader;
+import com.eviware.soapui.impl.wsdl.support.wsdl.WsdlInterfaceDefinition;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DefinitionPreloaderTest {
+    private static final String WSDL = "<definitions name='Test' targetNamespace='urn:test' "
+            + "xmlns='http://schemas.xmlsoap.org/wsdl/'/>";
+
+    private File wsdlFile;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws Exception {
+        wsdlFile = File.createTempFile("preload", ".wsdl");
+        FileUtils.writeStringToFile(wsdlFile, WSDL, "UTF-8");
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        wsdlFile.delete();
+        System.clearProperty("soapui.definition.preload.threads");
+    }
+
+    @Test
+    public void loadsDefinitionsOfAllInterfaces() throws Exception {
+        BlockingContext first = new BlockingContext(wsdlFile);
+        BlockingContext second = new BlockingContext(wsdlFile);
+        first.release.countDown();
+        second.release.countDown();
+
+        DefinitionPreloader.preload(Arrays.asList(mockInterface(first), mockInterface(second)));
+
+        assertThat(first.isLoaded(), is(true));
+        assertThat(second.isLoaded(), is(true));
+        assertThat(first.getDefinition(), notNullValue());
+        assertThat(first.loadCount.get(), is(1));
+    }
+
+    @Test
+    public void doesNothingWhenDisabled() throws Exception {
+        System.setProperty("soapui.definition.preload.threads", "0");
+        BlockingContext context = new BlockingContext(wsdlFile);
+        context.release.countDown();
+
+        DefinitionPreloader.preload(Collections.singletonList(mockInterface(context)));
+
+        assertThat(context.isLoaded(), is(false));
+        assertThat(context.loadCount.get(), is(0));
+    }
+
+    @Test
+    public void logsDefinitionsThatFailToLoad() throws Exception {
+        BlockingContext context = new BlockingContext(new File(wsdlFile.getParentFile(), "missing.wsdl"));
+        context.release.countDown();
+
+        DefinitionPreloader.preload(Collections.singletonList(mockInterface(context)));
+
+        assertThat(context.isLoaded(), is(false));
+    }
+
+    @Test
+    public void doesNotHoldContextWhileLoading() throws Exception {
+        final BlockingContext context = new BlockingContext(wsdlFile);
+        Future<Boolean> preload = executor.submit(new Callable<Boolean>() {
+            public Boolean call() throws Exception {
+                return context.loadInCurrentThread();
+            }
+        });
+        assertThat(context.entered.await(10, TimeUnit.SECONDS), is(true));
+
+        Future<Boolean> loaded = executor.submit(new Callable<Boolean>() {
+            public Boolean call() {
+                return context.isLoaded();
+            }
+        });
+        assertThat(loaded.get(1, TimeUnit.SECONDS), is(false));
+
+        // a second preload of the same context does not load it again
+        assertThat(context.loadInCurrentThread(), is(false));
+
+        context.release.countDown();
+        assertThat(preload.get(10, TimeUnit.SECONDS), is(true));
+        assertThat(context.isLoaded(), is(true));
+    }
+
+    @Test
+    public void loadWaitsForRunningPreload() throws Exception {
+        final BlockingContext context = new BlockingContext(wsdlFile);
+        Future<Boolean> preload = executor.submit(new Callable<Boolean>() {
+            public Boolean call() throws Exception {
+                return context.loadInCurrentThread();
+            }
+        });
+        assertThat(context.entered.await(10, TimeUnit.SECONDS), is(true));
+
+        Future<Boolean> load = executor.submit(new Callable<Boolean>() {
+            public Boolean call() throws Exception {
+                return context.loadIfNecessary();
+            }
+        });
+
+        context.release.countDown();
+
+        assertThat(load.get(10, TimeUnit.SECONDS), is(true));
+        preload.get(10, TimeUnit.SECONDS);
+        assertThat(context.loadCount.get(), is(1));
+        assertThat(context.getDefinition(), notNullValue());
+    }
+
+    private static WsdlInterface mockInterface(WsdlContext context) {
+        WsdlInterface iface = mock(WsdlInterface.class);
+        when(iface.getDefinition()).thenReturn(context.getUrl());
+        when(iface.getDefinitionContext()).thenReturn(context);
+        return iface;
+    }
+
+    /**
+     * Standalone context that blocks while loading its definition until released
+     */
+
+    private static class BlockingContext extends WsdlContext {
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger loadCount = new AtomicInteger();
+
+        BlockingContext(File file) throws Exception {
+            super(file.toURI().toURL().toString());
+        }
+
+        @Override
+        protected WsdlInterfaceDefinition loadDefinition(WsdlDefinitionLoader loader) throws Exception {
+            loadCount.incrementAndGet();
+            entered.countDown();
+            release.await();
+            return super.loadDefinition(loader);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+
+package com.eviware.soapui.impl.wsdl;
+
+import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class WsdlProjectLazyModelTest {
+    private static final String STACK_OVERFLOW_ID = "79f1be5e-2d02-4b1f-bf6f-7594616137e5";
+
+    private WsdlProject project;
+
+    @Before
+    public void setUp() {
+        System.setProperty(WsdlProject.LAZY_MODEL_SYSTEM_PROPERTY, "true");
+        project = new WsdlProject(getClass().getResourceAsStream("/sample-soapui-project.xml"), null);
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(WsdlProject.LAZY_MODEL_SYSTEM_PROPERTY);
+        project.release();
+    }
+
+    @Test
+    public void readsTestSuitesWithoutBuildingThem() {
+        assertThat(project.isLazyModel(), is(true));
+        assertThat(project.getTestSuiteCount(), is(2));
+        assertThat(project.getTestSuiteNameAt(1), is("TestSuite 2"));
+        assertThat(project.isTestSuiteDisabledAt(1), is(false));
+    }
+
+    @Test
+    public void findsTestCaseById() {
+        WsdlTestCase testCase = project.findTestCaseById(STACK_OVERFLOW_ID);
+
+        assertThat(testCase.getName(), is("StackOverflow"));
+        assertThat(testCase.getTestSuite().getName(), is("Test Suite"));
+        assertThat(project.findTestCaseById(STACK_OVERFLOW_ID), sameInstance(testCase));
+        assertThat(project.getTestSuiteByName("Test Suite").getTestCaseByName("StackOverflow"),
+                sameInstance(testCase));
+    }
+
+    @Test
+    public void returnsNullForUnknownTestCaseIds() {
+        assertThat(project.findTestCaseById("unknown"), nullValue());
+        assertThat(project.findTestCaseById(null), nullValue());
+    }
+
+    @Test
+    public void readsTestCasesOfTestSuiteWithoutBuildingThem() {
+        WsdlTestSuite testSuite = project.getTestSuiteAt(0);
+
+        assertThat(testSuite.getTestCaseCount(), is(5));
+        assertThat(testSuite.getTestCaseNameAt(4), is("StackOverflow"));
+        assertThat(testSuite.isTestCaseDisabledAt(4), is(false));
+        assertThat(testSuite.getTestCaseAt(4), sameInstance(testSuite.findTestCaseById(STACK_OVERFLOW_ID)));
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+
+package com.eviware.soapui.impl.wsdl.loadtest;
+
+import com.eviware.soapui.impl.wsdl.WsdlProject;
+import com.eviware.soapui.impl.wsdl.WsdlTestSuite;
+import com.eviware.soapui.impl.wsdl.support.XmlBeansPropertiesTestPropertyHolder;
+import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class WsdlLoadTestRunSnapshotTest {
+    private static final Object RUN = new Object();
+
+    private WsdlProject project;
+    private WsdlTestSuite testSuite;
+    private WsdlTestCase testCase;
+    private WsdlLoadTest loadTest;
+
+    @Before
+    public void setUp() throws Exception {
+        project = new WsdlProject();
+        project.addProperty("host").setValue("localhost");
+        testSuite = project.addNewTestSuite("TestSuite");
+        testSuite.addProperty("suiteId").setValue("1");
+        testCase = testSuite.addNewTestCase("TestCase");
+        testCase.addProperty("caseId").setValue("2");
+        loadTest = testCase.addNewLoadTest("LoadTest");
+        loadTest.setThreadCount(5);
+
+        // the test thread acts as one of the load threads of the run
+        XmlBeansPropertiesTestPropertyHolder.setRunScopeOwner(RUN);
+    }
+
+    @After
+    public void tearDown() {
+        XmlBeansPropertiesTestPropertyHolder.setRunScopeOwner(null);
+    }
+
+    @Test
+    public void readsSettingsFromSnapshotAndRefreshesItOnChange() {
+        loadTest.beginRunSnapshot(RUN);
+        try {
+            assertThat(loadTest.getThreadCount(), is(5L));
+
+            loadTest.setThreadCount(8);
+            testCase.setTimeout(1000);
+
+            assertThat(loadTest.getThreadCount(), is(8L));
+            assertThat(testCase.getTimeout(), is(1000L));
+        } finally {
+            loadTest.endRunSnapshot(RUN);
+        }
+
+        assertThat(loadTest.getThreadCount(), is(8L));
+        assertThat(testCase.getTimeout(), is(1000L));
+    }
+
+    @Test
+    public void restoresPropertiesChangedDuringRun() {
+        loadTest.setWriteBackProperties(false);
+        loadTest.beginRunSnapshot(RUN);
+        setPropertiesDuringRun();
+        loadTest.endRunSnapshot(RUN);
+
+        assertThat(project.getPropertyValue("host"), is("localhost"));
+        assertThat(testSuite.getPropertyValue("suiteId"), is("1"));
+        assertThat(testCase.getPropertyValue("caseId"), is("2"));
+    }
+
+    @Test
+    public void writesBackPropertiesChangedDuringRun() {
+        loadTest.setWriteBackProperties(true);
+        loadTest.beginRunSnapshot(RUN);
+        setPropertiesDuringRun();
+        loadTest.endRunSnapshot(RUN);
+
+        assertThat(project.getPropertyValue("host"), is("remote"));
+        assertThat(testSuite.getPropertyValue("suiteId"), is("10"));
+        assertThat(testCase.getPropertyValue("caseId"), is("20"));
+    }
+
+    @Test
+    public void keepsPropertiesChangedOutsideTheRun() throws Exception {
+        loadTest.setWriteBackProperties(false);
+        loadTest.beginRunSnapshot(RUN);
+        setPropertiesDuringRun();
+
+        // like an edit in the UI or a write of another TestCase
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                project.setPropertyValue("host", "edited");
+                testSuite.setPropertyValue("suiteId", "11");
+            }
+        });
+        thread.start();
+        thread.join();
+
+        loadTest.endRunSnapshot(RUN);
+
+        assertThat(project.getPropertyValue("host"), is("edited"));
+        assertThat(testSuite.getPropertyValue("suiteId"), is("11"));
+        assertThat(testCase.getPropertyValue("caseId"), is("2"));
+    }
+
+    @Test
+    public void keepsTestCaseSnapshotUntilOutermostEnd() {
+        testCase.beginRunSnapshot(RUN);
+        testCase.beginRunSnapshot(RUN);
+        testCase.setPropertyValue("caseId", "20");
+
+        testCase.endRunSnapshot(RUN, false);
+        assertThat(testCase.getPropertyValue("caseId"), is("20"));
+
+        testCase.endRunSnapshot(RUN, false);
+        assertThat(testCase.getPropertyValue("caseId"), is("2"));
+
+        // unbalanced ends are ignored
+        testCase.endRunSnapshot(RUN, true);
+        assertThat(testCase.getPropertyValue("caseId"), is("2"));
+    }
+
+    private void setPropertiesDuringRun() {
+        project.setPropertyValue("host", "remote");
+        testSuite.setPropertyValue("suiteId", "10");
+        testCase.setPropertyValue("caseId", "20");
+
+        assertThat(project.getPropertyValue("host"), is("remote"));
+        assertThat(testSuite.getPropertyValue("suiteId"), is("10"));
+        assertThat(testCase.getPropertyValue("caseId"), is("20"));
+    }
+}
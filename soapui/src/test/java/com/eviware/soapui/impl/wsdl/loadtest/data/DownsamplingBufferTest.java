@@ -0,0 +1,67 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import com.eviware.soapui.impl.wsdl.loadtest.data.DownsamplingBuffer.AddResult;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class DownsamplingBufferTest {
+
+    @Test
+    public void downsamplesWhenFull() {
+        DownsamplingBuffer buffer = new DownsamplingBuffer(1, 4);
+        for (int c = 0; c < 4; c++) {
+            buffer.add(new long[]{c});
+        }
+
+        assertThat(buffer.add(new long[]{4}), is(AddResult.SHIFTED));
+        assertThat(buffer.getStride(), is(2));
+        assertThat(buffer.getRowCount(), is(3));
+        assertThat(buffer.getValue(0, 0), is(0L));
+        assertThat(buffer.getValue(1, 0), is(2L));
+        assertThat(buffer.getValue(2, 0), is(4L));
+
+        assertThat(buffer.add(new long[]{5}), is(AddResult.SKIPPED));
+        assertThat(buffer.add(new long[]{6}), is(AddResult.APPENDED));
+        assertThat(buffer.getValue(3, 0), is(6L));
+    }
+
+    @Test
+    public void returnsZeroForMissingRows() {
+        DownsamplingBuffer buffer = new DownsamplingBuffer(1, 4);
+        buffer.add(new long[]{7});
+
+        assertThat(buffer.getValue(5, 0), is(0L));
+        assertThat(buffer.getRow(5)[0], is(0L));
+    }
+
+    @Test
+    public void clearResetsStride() {
+        DownsamplingBuffer buffer = new DownsamplingBuffer(1, 2);
+        for (int c = 0; c < 3; c++) {
+            buffer.add(new long[]{c});
+        }
+
+        buffer.clear();
+
+        assertThat(buffer.getRowCount(), is(0));
+        assertThat(buffer.getStride(), is(1));
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+    private LatencyHistogram histogram;
+
+    @Before
+    public void setUp() {
+        histogram = new LatencyHistogram();
+    }
+
+    @Test
+    public void returnsZeroWhenEmpty() {
+        assertThat(histogram.getValueAtPercentile(99), is(0L));
+        assertThat(histogram.getTotalCount(), is(0L));
+    }
+
+    @Test
+    public void smallValuesAreExact() {
+        for (int c = 1; c <= 50; c++) {
+            histogram.recordValue(c);
+        }
+
+        assertThat(histogram.getValueAtPercentile(50), is(25L));
+        assertThat(histogram.getValueAtPercentile(100), is(50L));
+        assertThat(histogram.getTotalCount(), is(50L));
+    }
+
+    @Test
+    public void largeValuesStayWithinRelativeError() {
+        for (int c = 1; c <= 10000; c++) {
+            histogram.recordValue(c);
+        }
+
+        assertWithinError(histogram.getValueAtPercentile(95), 9500);
+        assertWithinError(histogram.getValueAtPercentile(99), 9900);
+        assertWithinError(histogram.getValueAtPercentile(99.9), 9990);
+    }
+
+    @Test
+    public void bucketsRoundTrip() {
+        for (long value : new long[]{0, 63, 64, 127, 128, 1000, 123456, LatencyHistogram.HIGHEST_TRACKABLE_VALUE}) {
+            long highest = LatencyHistogram.highestValueAt(LatencyHistogram.indexFor(value));
+            assertTrue(value + " -> " + highest, highest >= value);
+            assertTrue(value + " -> " + highest, highest - value <= value / 64);
+        }
+    }
+
+    @Test
+    public void clampsHugeValues() {
+        histogram.recordValue(Long.MAX_VALUE);
+        assertThat(histogram.getValueAtPercentile(50), is(LatencyHistogram.HIGHEST_TRACKABLE_VALUE));
+    }
+
+    @Test
+    public void addsOtherHistogram() {
+        LatencyHistogram other = new LatencyHistogram();
+        histogram.recordValue(10, 3);
+        other.recordValue(20, 1);
+
+        histogram.add(other);
+
+        assertThat(histogram.getTotalCount(), is(4L));
+        assertThat(histogram.getValueAtPercentile(75), is(10L));
+        assertThat(histogram.getValueAtPercentile(100), is(20L));
+    }
+
+    @Test
+    public void calculatesSeveralPercentilesInOnePass() {
+        for (int c = 1; c <= 1000; c++) {
+            histogram.recordValue(c);
+        }
+
+        long[] values = histogram.getValuesAtPercentiles(50, 95, 99.9);
+
+        assertThat(values[0], is(histogram.getValueAtPercentile(50)));
+        assertThat(values[1], is(histogram.getValueAtPercentile(95)));
+        assertThat(values[2], is(histogram.getValueAtPercentile(99.9)));
+        assertWithinError(values[1], 950);
+    }
+
+    @Test
+    public void subtractsBaseline() {
+        histogram.recordValue(10, 5);
+        LatencyHistogram baseline = new LatencyHistogram();
+        baseline.add(histogram);
+        histogram.recordValue(500, 2);
+
+        histogram.subtract(baseline);
+
+        assertThat(histogram.getTotalCount(), is(2L));
+        assertWithinError(histogram.getValueAtPercentile(50), 500);
+    }
+
+    private static void assertWithinError(long actual, long expected) {
+        assertTrue("expected ~" + expected + " but was " + actual, Math.abs(actual - expected) <= expected / 64 + 1);
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import com.eviware.soapui.impl.wsdl.WsdlTestSuite;
+import com.eviware.soapui.impl.wsdl.loadtest.WsdlLoadTest;
+import com.eviware.soapui.impl.wsdl.loadtest.data.LoadTestStatistics.Statistic;
+import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
+import com.eviware.soapui.model.testsuite.LoadTestRunListener;
+import com.eviware.soapui.model.testsuite.TestCaseRunContext;
+import com.eviware.soapui.model.testsuite.TestCaseRunner;
+import com.eviware.soapui.model.testsuite.TestStep;
+import com.eviware.soapui.model.testsuite.TestStepResult;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LoadTestStatisticsTest {
+    private static final long LAG = 40;
+
+    private WsdlLoadTest loadTest;
+    private TestStep firstStep;
+    private TestStep secondStep;
+    private LoadTestStatistics statistics;
+    private LoadTestRunListener listener;
+    private TestCaseRunner testRunner;
+    private TestCaseRunContext runContext;
+
+    @Before
+    public void setUp() {
+        loadTest = mock(WsdlLoadTest.class);
+        WsdlTestCase testCase = mock(WsdlTestCase.class);
+        firstStep = mock(TestStep.class);
+        secondStep = mock(TestStep.class);
+
+        when(loadTest.getName()).thenReturn("LoadTest");
+        when(loadTest.getTestCase()).thenReturn(testCase);
+        when(testCase.getTestSuite()).thenReturn(mock(WsdlTestSuite.class));
+        when(testCase.getTestStepList()).thenReturn(Arrays.asList(firstStep, secondStep));
+        when(testCase.getTestStepCount()).thenReturn(2);
+        when(testCase.getIndexOfTestStep(firstStep)).thenReturn(0);
+        when(testCase.getIndexOfTestStep(secondStep)).thenReturn(1);
+
+        statistics = new LoadTestStatistics(loadTest);
+
+        // the statistics register their own listener before the one of the history
+        ArgumentCaptor<LoadTestRunListener> captor = ArgumentCaptor.forClass(LoadTestRunListener.class);
+        verify(loadTest, atLeastOnce()).addLoadTestRunListener(captor.capture());
+        listener = captor.getAllValues().get(0);
+
+        listener.beforeLoadTest(null, null);
+
+        testRunner = mock(TestCaseRunner.class);
+        when(testRunner.getTestCase()).thenReturn(testCase);
+        when(testRunner.getStartTime()).thenReturn(System.currentTimeMillis() + 1000);
+        when(testRunner.getTimeTaken()).thenReturn(30L);
+
+        runContext = createRunContext();
+        runContext.setProperty(LoadTestStatistics.SCHEDULE_LAG_PROPERTY, LAG);
+    }
+
+    @After
+    public void tearDown() {
+        listener.afterLoadTest(null, null);
+    }
+
+    @Test
+    public void chargesScheduleLagToFirstStepWhenUpdatingPerTestCase() {
+        when(loadTest.getUpdateStatisticsPerTestStep()).thenReturn(false);
+
+        runTestCase();
+
+        assertThat(statistics.getStatistic(0, Statistic.MAXIMUM), is(10 + LAG));
+        assertThat(statistics.getStatistic(1, Statistic.MAXIMUM), is(20L));
+        assertThat(statistics.getStatistic(LoadTestStatistics.TOTAL, Statistic.AVERAGE), is(30 + LAG));
+    }
+
+    @Test
+    public void chargesScheduleLagToFirstStepWhenUpdatingPerTestStep() {
+        when(loadTest.getUpdateStatisticsPerTestStep()).thenReturn(true);
+
+        runTestCase();
+
+        assertThat(statistics.getStatistic(0, Statistic.MAXIMUM), is(10 + LAG));
+        assertThat(statistics.getStatistic(1, Statistic.MAXIMUM), is(20L));
+        assertThat(statistics.getStatistic(LoadTestStatistics.TOTAL, Statistic.AVERAGE), is(30 + LAG));
+    }
+
+    private void runTestCase() {
+        TestStepResult firstResult = createResult(firstStep, 10);
+        TestStepResult secondResult = createResult(secondStep, 20);
+        when(testRunner.getResults()).thenReturn(Arrays.asList(firstResult, secondResult));
+
+        listener.afterTestStep(null, null, testRunner, runContext, firstResult);
+        listener.afterTestStep(null, null, testRunner, runContext, secondResult);
+        listener.afterTestCase(null, null, testRunner, runContext);
+
+        statistics.finish();
+    }
+
+    private static TestStepResult createResult(TestStep testStep, long timeTaken) {
+        TestStepResult result = mock(TestStepResult.class);
+        when(result.getTestStep()).thenReturn(testStep);
+        when(result.getTimeTaken()).thenReturn(timeTaken);
+        return result;
+    }
+
+    private static TestCaseRunContext createRunContext() {
+        final Map<String, Object> properties = new HashMap<String, Object>();
+        TestCaseRunContext runContext = mock(TestCaseRunContext.class);
+
+        when(runContext.getProperty(anyString())).thenAnswer(new Answer<Object>() {
+            public Object answer(InvocationOnMock invocation) {
+                return properties.get(invocation.getArguments()[0]);
+            }
+        });
+        doAnswer(new Answer<Object>() {
+            public Object answer(InvocationOnMock invocation) {
+                properties.put((String) invocation.getArguments()[0], invocation.getArguments()[1]);
+                return null;
+            }
+        }).when(runContext).setProperty(anyString(), any());
+
+        return runContext;
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import com.eviware.soapui.model.testsuite.TestStepResult.TestStepStatus;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.io.StringWriter;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class SampleLogWriterTest {
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("samplelog", ".samples");
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void readsBackAllSamples() throws Exception {
+        SampleLogWriter writer = new SampleLogWriter(file, new String[]{"Login", "Search"}, 1000, 16);
+        for (int c = 0; c < 100; c++) {
+            writer.record(1000 + c, c % 2, c % 5, c * 10, c * 100L, TestStepStatus.OK);
+        }
+        writer.record(2000, 1, 3, Long.MAX_VALUE, -1, TestStepStatus.FAILED);
+        writer.close();
+
+        assertThat(file.length(), is(headerSize("Login", "Search") + 101L * SampleLogWriter.RECORD_SIZE));
+
+        SampleLogReader reader = new SampleLogReader(file);
+        try {
+            assertThat(reader.getStartTime(), is(1000L));
+            assertThat(reader.getStepNames().length, is(2));
+
+            for (int c = 0; c < 100; c++) {
+                assertThat(reader.next(), is(true));
+                assertThat(reader.getTimestamp(), is(1000L + c));
+                assertThat(reader.getStepName(), is(c % 2 == 0 ? "Login" : "Search"));
+                assertThat(reader.getThread(), is(c % 5));
+                assertThat(reader.getTimeTaken(), is(c * 10L));
+                assertThat(reader.getSize(), is(c * 100L));
+                assertThat(reader.getStatus(), is(TestStepStatus.OK));
+            }
+
+            assertThat(reader.next(), is(true));
+            assertThat(reader.getTimeTaken(), is((long) Integer.MAX_VALUE));
+            assertThat(reader.getStatus(), is(TestStepStatus.FAILED));
+            assertThat(reader.next(), is(false));
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void writesSamplesOfConcurrentThreadsInOrder() throws Exception {
+        final SampleLogWriter writer = new SampleLogWriter(file, new String[]{"Step"}, 0, 16);
+        Thread[] threads = new Thread[4];
+        for (int c = 0; c < threads.length; c++) {
+            final int threadIndex = c;
+            threads[c] = new Thread(new Runnable() {
+                public void run() {
+                    for (int i = 0; i < 5000; i++) {
+                        writer.record(i, 0, threadIndex, i, 0, TestStepStatus.OK);
+                    }
+                }
+            });
+            threads[c].start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        writer.close();
+
+        assertThat(writer.getDroppedCount(), is(0L));
+
+        long[] next = new long[threads.length];
+        SampleLogReader reader = new SampleLogReader(file);
+        try {
+            while (reader.next()) {
+                assertThat(reader.getTimestamp(), is(next[reader.getThread()]++));
+            }
+        } finally {
+            reader.close();
+        }
+
+        for (long count : next) {
+            assertThat(count, is(5000L));
+        }
+    }
+
+    @Test
+    public void ignoresTruncatedLastRecord() throws Exception {
+        SampleLogWriter writer = new SampleLogWriter(file, new String[]{"Step"}, 0, 16);
+        writer.record(1, 0, 0, 5, 10, TestStepStatus.OK);
+        writer.record(2, 0, 0, 5, 10, null);
+        writer.close();
+
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.setLength(raf.length() - 3);
+        raf.close();
+
+        SampleLogReader reader = new SampleLogReader(file);
+        try {
+            assertThat(reader.next(), is(true));
+            assertThat(reader.next(), is(false));
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void dropsSamplesAfterClose() throws Exception {
+        SampleLogWriter writer = new SampleLogWriter(file, new String[0], 0, 16);
+        writer.close();
+        writer.record(1, 0, 0, 5, 10, TestStepStatus.OK);
+
+        assertThat(writer.getDroppedCount(), is(1L));
+    }
+
+    @Test
+    public void convertsToCsv() throws Exception {
+        SampleLogWriter writer = new SampleLogWriter(file, new String[]{"Get, \"all\""}, 100, 16);
+        writer.record(150, 0, 2, 12, 340, TestStepStatus.OK);
+        writer.record(160, 1, 2, 12, 340, null);
+        writer.close();
+
+        StringWriter csv = new StringWriter();
+        assertThat(SampleLogCsvConverter.convert(file, csv), is(2L));
+        assertThat(csv.toString(), is(SampleLogCsvConverter.HEADER + "\n"
+                + "150,50,\"Get, \"\"all\"\"\",2,12,340,OK\n"
+                + "160,60,,2,12,340,null\n"));
+
+        SampleLogReader reader = new SampleLogReader(file);
+        reader.next();
+        reader.next();
+        assertThat(reader.getStepName(), nullValue());
+        reader.close();
+    }
+
+    private static long headerSize(String... names) throws Exception {
+        long size = 4 + 2 + 8 + 4;
+        for (String name : names) {
+            size += 4 + name.getBytes("UTF-8").length;
+        }
+        return size;
+    }
+}
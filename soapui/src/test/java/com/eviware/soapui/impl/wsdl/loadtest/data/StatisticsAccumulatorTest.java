@@ -0,0 +1,101 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class StatisticsAccumulatorTest {
+    private StatisticsAccumulator first;
+    private StatisticsAccumulator second;
+    private StatisticsAccumulator merged;
+
+    @Before
+    public void setUp() {
+        first = new StatisticsAccumulator(2, 1);
+        second = new StatisticsAccumulator(2, 1);
+        merged = new StatisticsAccumulator(2, 1);
+    }
+
+    @Test
+    public void foldAddsCountsAndSums() {
+        first.addStepSample(0, 30, 100, 3, 1000);
+        first.addRun(30, 1000);
+        second.addStepSample(0, 20, 50, 1, 2000);
+        second.addStepSample(1, 5, 10, 1, 2000);
+        second.addRun(25, 2000);
+        second.addError(1);
+
+        merged.fold(first);
+        merged.fold(second);
+
+        assertThat(merged.getStep(0, StatisticsAccumulator.STEP_CNT), is(4L));
+        assertThat(merged.getStep(0, StatisticsAccumulator.STEP_SUM), is(50L));
+        assertThat(merged.getStep(0, StatisticsAccumulator.STEP_BYTES), is(150L));
+        assertThat(merged.getStep(1, StatisticsAccumulator.STEP_CNT), is(1L));
+        assertThat(merged.getStep(1, StatisticsAccumulator.STEP_ERR), is(1L));
+        assertThat(merged.getTotal(StatisticsAccumulator.TOTAL_CNT), is(2L));
+        assertThat(merged.getTotal(StatisticsAccumulator.TOTAL_SUM), is(55L));
+        assertThat(merged.getTotal(StatisticsAccumulator.TOTAL_ERR), is(1L));
+        assertThat(merged.getTotal(StatisticsAccumulator.TOTAL_END_TIME), is(2000L));
+        assertThat(merged.getHistogram(0).getTotalCount(), is(4L));
+        assertThat(merged.getHistogram(0).getValueAtPercentile(100), is(20L));
+        assertThat(merged.getHistogram(2).getTotalCount(), is(2L));
+    }
+
+    @Test
+    public void foldKeepsMinMaxAndLatestSample() {
+        first.addStepSample(0, 10, 0, 1, 3000);
+        second.addStepSample(0, 40, 0, 1, 2000);
+        second.addStepSample(0, 5, 0, 1, 2500);
+
+        merged.fold(first);
+        merged.fold(second);
+
+        assertThat(merged.getStep(0, StatisticsAccumulator.STEP_MIN), is(5L));
+        assertThat(merged.getStep(0, StatisticsAccumulator.STEP_MAX), is(40L));
+        assertThat(merged.getStep(0, StatisticsAccumulator.STEP_LAST), is(10L));
+        assertThat(merged.getStep(0, StatisticsAccumulator.STEP_LAST_TIME), is(3000L));
+    }
+
+    @Test
+    public void foldCountsUpdatesSoMergesNoticeChanges() {
+        first.addStepSample(0, 10, 0, 1, 1000);
+        first.commit();
+        second.addError(-1);
+
+        merged.fold(first);
+        merged.fold(second);
+
+        assertThat(merged.getTotal(StatisticsAccumulator.TOTAL_UPDATES), is(2L));
+        assertThat(merged.getTotal(StatisticsAccumulator.TOTAL_ERR), is(1L));
+    }
+
+    @Test
+    public void ignoresAccumulatorsOfOtherTestCaseLayouts() {
+        StatisticsAccumulator other = new StatisticsAccumulator(3, 1);
+        other.addRun(10, 1000);
+
+        merged.fold(other);
+
+        assertThat(merged.getTotal(StatisticsAccumulator.TOTAL_CNT), is(0L));
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+
+package com.eviware.soapui.impl.wsdl.loadtest.strategy;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ArrivalScheduleTest {
+    private static final long START = 1000000000L;
+    private static final long MILLIS = 1000000L;
+
+    @Test
+    public void spacesStartsByRate() {
+        ArrivalSchedule schedule = new ArrivalSchedule(START);
+
+        assertThat(schedule.claimStartTime(10), is(START));
+        assertThat(schedule.claimStartTime(10), is(START + 100 * MILLIS));
+        assertThat(schedule.claimStartTime(20), is(START + 200 * MILLIS));
+        assertThat(schedule.claimStartTime(20), is(START + 250 * MILLIS));
+    }
+
+    @Test
+    public void doesNotWaitForEarlierRuns() {
+        ArrivalSchedule schedule = new ArrivalSchedule(START);
+
+        for (int c = 0; c < 5; c++) {
+            schedule.claimStartTime(100);
+        }
+
+        assertThat(schedule.claimStartTime(100), is(START + 50 * MILLIS));
+    }
+
+    @Test
+    public void reportsMissedStartsWhenBehind() {
+        ArrivalSchedule schedule = new ArrivalSchedule(START);
+        schedule.claimStartTime(10);
+
+        assertThat(schedule.getBehind(START), is(-100 * MILLIS));
+        assertThat(schedule.getMissedStarts(START, 10), is(0L));
+        assertThat(schedule.getMissedStarts(START + 100 * MILLIS, 10), is(1L));
+        assertThat(schedule.getMissedStarts(START + 450 * MILLIS, 10), is(4L));
+    }
+
+    @Test
+    public void rampsRateWithProgress() {
+        assertThat(ArrivalSchedule.getRate(10, 30, -1), is(10.0));
+        assertThat(ArrivalSchedule.getRate(10, 30, 0), is(10.0));
+        assertThat(ArrivalSchedule.getRate(10, 30, 0.5f), is(20.0));
+        assertThat(ArrivalSchedule.getRate(10, 30, 2), is(30.0));
+        assertThat(ArrivalSchedule.getRate(0, 0, 0.5f), is(1.0));
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+
+package com.eviware.soapui.impl.wsdl.mock;
+
+import com.eviware.soapui.config.MockOperationConfig;
+import com.eviware.soapui.config.MockServiceConfig;
+import com.eviware.soapui.impl.wsdl.WsdlInterface;
+import com.eviware.soapui.impl.wsdl.WsdlOperation;
+import com.eviware.soapui.impl.wsdl.support.soap.SoapVersion;
+import com.eviware.soapui.utils.ModelItemFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.xml.namespace.QName;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class WsdlMockOperationIndexTest {
+    private static final QName GET_QUOTE = new QName("urn:quotes", "getQuote");
+    private static final QName GET_NEWS = new QName("urn:quotes", "getNews");
+
+    private WsdlOperation getQuote11;
+    private WsdlOperation getQuote12;
+    private WsdlOperation getNews;
+    private WsdlOperation unresolved;
+
+    @Before
+    public void setUp() throws Exception {
+        getQuote11 = makeOperation(GET_QUOTE, "quote", SoapVersion.Soap11);
+        getQuote12 = makeOperation(GET_QUOTE, "quote12", SoapVersion.Soap12);
+        getNews = makeOperation(GET_NEWS, "news", SoapVersion.Soap11);
+
+        unresolved = makeOperation(null, "unresolved", SoapVersion.Soap11);
+        when(unresolved.getRequestBodyElementQName()).thenThrow(new RuntimeException("missing definition"));
+    }
+
+    @Test
+    public void findsOperationsByBodyElement() {
+        WsdlMockOperationIndex index = new WsdlMockOperationIndex(Arrays.asList(getQuote11, getNews, getQuote12),
+                false, false);
+
+        assertThat(index.getOperations(GET_QUOTE, "other", SoapVersion.Soap11),
+                is(Arrays.asList(getQuote11, getQuote12)));
+        assertThat(index.getOperations(GET_NEWS, null, SoapVersion.Soap12), is(Arrays.asList(getNews)));
+    }
+
+    @Test
+    public void returnsNoOperationsForUnknownBodyElement() {
+        WsdlMockOperationIndex index = new WsdlMockOperationIndex(Arrays.asList(getQuote11, getNews), false, false);
+
+        assertThat(index.getOperations(new QName("urn:quotes", "other"), "quote", SoapVersion.Soap11),
+                is(Collections.<WsdlOperation>emptyList()));
+    }
+
+    @Test
+    public void keysBySoapActionIfRequired() {
+        WsdlMockOperationIndex index = new WsdlMockOperationIndex(Arrays.asList(getQuote11, getQuote12), true, false);
+
+        assertThat(index.getOperations(GET_QUOTE, "quote12", SoapVersion.Soap11), is(Arrays.asList(getQuote12)));
+        assertThat(index.getOperations(GET_QUOTE, "other", SoapVersion.Soap11),
+                is(Collections.<WsdlOperation>emptyList()));
+    }
+
+    @Test
+    public void keysBySoapVersionIfRequired() {
+        WsdlMockOperationIndex index = new WsdlMockOperationIndex(Arrays.asList(getQuote11, getQuote12), false, true);
+
+        assertThat(index.getOperations(GET_QUOTE, null, SoapVersion.Soap11), is(Arrays.asList(getQuote11)));
+        assertThat(index.getOperations(GET_QUOTE, null, SoapVersion.Soap12), is(Arrays.asList(getQuote12)));
+    }
+
+    @Test
+    public void includesUnresolvedOperationsInMockedOrder() {
+        WsdlMockOperationIndex index = new WsdlMockOperationIndex(Arrays.asList(getQuote11, unresolved, getNews),
+                false, false);
+
+        assertThat(index.getOperations(GET_QUOTE, null, SoapVersion.Soap11),
+                is(Arrays.asList(getQuote11, unresolved)));
+        assertThat(index.getOperations(GET_NEWS, null, SoapVersion.Soap11), is(Arrays.asList(unresolved, getNews)));
+        assertThat(index.getOperations(new QName("urn:quotes", "other"), null, SoapVersion.Soap11),
+                is(Arrays.asList(unresolved)));
+    }
+
+    @Test
+    public void mockServiceReusesIndexUntilOperationsChange() throws Exception {
+        WsdlMockService mockService = new WsdlMockService(ModelItemFactory.makeWsdlProject(),
+                MockServiceConfig.Factory.newInstance());
+        WsdlMockOperation quoteMockOperation = makeMockOperation(mockService, getQuote11);
+        mockService.addMockOperation(quoteMockOperation);
+
+        WsdlMockOperationIndex index = mockService.getOperationIndex(false, false);
+        assertThat(mockService.getOperationIndex(false, false), sameInstance(index));
+        assertThat(index.getOperations(GET_NEWS, null, SoapVersion.Soap11), is(Collections.<WsdlOperation>emptyList()));
+
+        WsdlMockOperation newsMockOperation = makeMockOperation(mockService, getNews);
+        mockService.addMockOperation(newsMockOperation);
+        mockService.fireMockOperationAdded(newsMockOperation);
+
+        index = mockService.getOperationIndex(false, false);
+        assertThat(index.getOperations(GET_NEWS, null, SoapVersion.Soap11), is(Arrays.asList(getNews)));
+
+        mockService.removeMockOperation(quoteMockOperation);
+
+        index = mockService.getOperationIndex(false, false);
+        assertThat(index.getOperations(GET_QUOTE, null, SoapVersion.Soap11),
+                is(Collections.<WsdlOperation>emptyList()));
+        assertThat(mockService.getOperationIndex(true, false), not(sameInstance(index)));
+    }
+
+    private static WsdlOperation makeOperation(QName bodyElementName, String action, SoapVersion soapVersion)
+            throws Exception {
+        WsdlInterface iface = mock(WsdlInterface.class);
+        when(iface.getSoapVersion()).thenReturn(soapVersion);
+
+        WsdlOperation operation = mock(WsdlOperation.class);
+        when(operation.getRequestBodyElementQName()).thenReturn(bodyElementName);
+        when(operation.getAction()).thenReturn(action);
+        when(operation.getInterface()).thenReturn(iface);
+        return operation;
+    }
+
+    private static WsdlMockOperation makeMockOperation(WsdlMockService mockService, WsdlOperation operation) {
+        MockOperationConfig config = mockService.getConfig().addNewMockOperation();
+
+        WsdlMockOperation mockOperation = mock(WsdlMockOperation.class);
+        when(mockOperation.getConfig()).thenReturn(config);
+        when(mockOperation.getOperation()).thenReturn(operation);
+        when(mockOperation.getMockService()).thenReturn(mockService);
+        return mockOperation;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+
+package com.eviware.soapui.impl.wsdl.submit.transports.http;
+
+import com.eviware.soapui.impl.wsdl.support.http.SoapUIHttpRoute;
+import org.apache.http.client.CredentialsProvider;
+import org.apache.http.client.protocol.ClientContext;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URI;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class NonBlockingHttpRequestTransportTest {
+    private ExtendedHttpMethod method;
+    private HttpParams params;
+    private HttpContext httpContext;
+
+    @Before
+    public void setUp() {
+        params = new BasicHttpParams();
+        method = mock(ExtendedHttpMethod.class);
+        when(method.getURI()).thenReturn(URI.create("http://localhost:8080/service"));
+        when(method.getParams()).thenReturn(params);
+        httpContext = new BasicHttpContext();
+    }
+
+    @Test
+    public void sendsPlainRequestsNonBlocking() {
+        assertThat(NonBlockingHttpRequestTransport.getBlockingReason(method, httpContext), is(nullValue()));
+    }
+
+    @Test
+    public void sendsRequestsAnsweringAChallengeBlocking() {
+        httpContext.setAttribute(ClientContext.CREDS_PROVIDER, mock(CredentialsProvider.class));
+
+        assertThat(NonBlockingHttpRequestTransport.getBlockingReason(method, httpContext), is(notNullValue()));
+    }
+
+    @Test
+    public void sendsPreemptivelyAuthenticatedRequestsNonBlocking() {
+        httpContext.setAttribute(ClientContext.CREDS_PROVIDER, mock(CredentialsProvider.class));
+        when(method.getFirstHeader("Authorization")).thenReturn(new BasicHeader("Authorization", "Basic dTpw"));
+
+        assertThat(NonBlockingHttpRequestTransport.getBlockingReason(method, httpContext), is(nullValue()));
+    }
+
+    @Test
+    public void sendsRequestsWithOwnKeystoreBlocking() {
+        params.setParameter(SoapUIHttpRoute.SOAPUI_SSL_CONFIG, "keystore.jks password");
+
+        assertThat(NonBlockingHttpRequestTransport.getBlockingReason(method, httpContext), is(notNullValue()));
+    }
+}
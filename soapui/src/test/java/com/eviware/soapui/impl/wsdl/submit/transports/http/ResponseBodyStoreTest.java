@@ -0,0 +1,133 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.impl.wsdl.submit.transports.http;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+
+public class ResponseBodyStoreTest {
+    private static final byte[] CONTENT = "0123456789abcdefghij".getBytes();
+
+    @Test
+    public void keepsSmallBodiesInMemory() throws Exception {
+        ResponseBodyStore store = ResponseBodyStore.read(new ByteArrayInputStream(CONTENT), 0, 100);
+
+        assertThat(store.isSpilled(), is(false));
+        assertThat(store.length(), is((long) CONTENT.length));
+        assertArrayEquals(CONTENT, store.getBytes());
+    }
+
+    @Test
+    public void spillsLargeBodiesToDisk() throws Exception {
+        ResponseBodyStore store = ResponseBodyStore.read(new ByteArrayInputStream(CONTENT), 0, 10);
+        try {
+            assertThat(store.isSpilled(), is(true));
+            assertThat(store.length(), is((long) CONTENT.length));
+            assertArrayEquals(CONTENT, store.getBytes());
+            assertArrayEquals("012".getBytes(), store.getBytes(3));
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            store.writeTo(out);
+            assertArrayEquals(CONTENT, out.toByteArray());
+        } finally {
+            store.dispose();
+        }
+    }
+
+    @Test
+    public void streamsSpilledBodies() throws Exception {
+        ResponseBodyStore store = ResponseBodyStore.read(new ByteArrayInputStream(CONTENT), 0, 1);
+        try {
+            InputStream in = store.openStream();
+            assertThat(in.read(), is((int) '0'));
+            assertThat(in.skip(9), is(9L));
+            assertThat(in.read(), is((int) 'a'));
+            assertThat(in.available(), is(9));
+            in.close();
+        } finally {
+            store.dispose();
+        }
+    }
+
+    @Test
+    public void spillsChunksWrittenPastThreshold() throws Exception {
+        ResponseBodyStore.Writer writer = new ResponseBodyStore.Writer(10);
+        writer.write(CONTENT, 0, 8);
+        writer.write(CONTENT, 8, 12);
+
+        ResponseBodyStore store = writer.finish();
+        try {
+            assertThat(store.isSpilled(), is(true));
+            assertArrayEquals(CONTENT, store.getBytes());
+        } finally {
+            store.dispose();
+        }
+    }
+
+    @Test
+    public void disposeDeletesTemporaryFile() throws Exception {
+        int tempFiles = ResponseBodyStore.getTempFileCount();
+        ResponseBodyStore store = ResponseBodyStore.read(new ByteArrayInputStream(CONTENT), 0, 10);
+        assertThat(ResponseBodyStore.getTempFileCount(), is(tempFiles + 1));
+
+        store.dispose();
+
+        assertThat(ResponseBodyStore.getTempFileCount(), is(tempFiles));
+    }
+
+    @Test
+    public void discardDeletesTemporaryFile() throws Exception {
+        int tempFiles = ResponseBodyStore.getTempFileCount();
+        ResponseBodyStore.Writer writer = new ResponseBodyStore.Writer(10);
+        writer.write(CONTENT, 0, CONTENT.length);
+        assertThat(ResponseBodyStore.getTempFileCount(), is(tempFiles + 1));
+
+        writer.discard();
+
+        assertThat(ResponseBodyStore.getTempFileCount(), is(tempFiles));
+    }
+
+    @Test
+    public void deletesTemporaryFileOfUnreachableStore() throws Exception {
+        int tempFiles = ResponseBodyStore.getTempFileCount();
+        ResponseBodyStore.read(new ByteArrayInputStream(CONTENT), 0, 10);
+        assertThat(ResponseBodyStore.getTempFileCount(), is(tempFiles + 1));
+
+        for (int c = 0; c < 50 && ResponseBodyStore.getTempFileCount() > tempFiles; c++) {
+            System.gc();
+            Thread.sleep(20);
+            ResponseBodyStore.deleteCollectedFiles();
+        }
+
+        assertThat(ResponseBodyStore.getTempFileCount(), is(tempFiles));
+    }
+
+    @Test
+    public void stopsReadingAtMaxSize() throws Exception {
+        ResponseBodyStore store = ResponseBodyStore.read(new ByteArrayInputStream(CONTENT), 5, 0);
+
+        assertArrayEquals("01234".getBytes(), store.getBytes());
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+
+package com.eviware.soapui.impl.wsdl.support;
+
+import com.eviware.soapui.config.ModelItemConfig;
+import com.eviware.soapui.impl.wsdl.AbstractWsdlModelItem;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LazyModelItemListTest {
+
+    private TestList list;
+
+    @Before
+    public void setUp() {
+        list = new TestList();
+        list.addUnbuilt(config("1", "First"));
+        list.addUnbuilt(config("2", "Second"));
+        list.addUnbuilt(config("3", "Third"));
+    }
+
+    @Test
+    public void buildsOnlyTheRequestedItem() {
+        AbstractWsdlModelItem<ModelItemConfig> item = list.get(1);
+
+        assertThat(list.built.size(), is(1));
+        assertThat(item.getConfig().getName(), is("Second"));
+        assertThat(list.isBuilt(0), is(false));
+        assertThat(list.isBuilt(1), is(true));
+        assertThat(list.afterBuilt.get(0), sameInstance(item));
+    }
+
+    @Test
+    public void buildsEachItemOnlyOnce() {
+        AbstractWsdlModelItem<ModelItemConfig> item = list.get(2);
+
+        assertThat(list.get(2), sameInstance(item));
+        assertThat(list.built.size(), is(1));
+    }
+
+    @Test
+    public void looksUpNamesAndIdsWithoutBuilding() {
+        assertThat(list.size(), is(3));
+        assertThat(list.getNameAt(2), is("Third"));
+        assertThat(list.indexOfName("Second"), is(1));
+        assertThat(list.indexOfName("Fourth"), is(-1));
+        assertThat(list.indexOfId("3"), is(2));
+        assertThat(list.indexOfId("4"), is(-1));
+        assertThat(list.getConfig(0).getId(), is("1"));
+
+        assertThat(list.built.isEmpty(), is(true));
+    }
+
+    @Test
+    public void indexOfOnlyMatchesBuiltItems() {
+        AbstractWsdlModelItem<ModelItemConfig> item = list.get(1);
+
+        assertThat(list.indexOf(item), is(1));
+        assertThat(list.indexOf(null), is(-1));
+        assertThat(list.built.size(), is(1));
+    }
+
+    @Test
+    public void keepsConfigsAlignedOnAddAndRemove() {
+        AbstractWsdlModelItem<ModelItemConfig> added = item(config("0", "Zero"));
+        list.add(0, added);
+
+        assertThat(list.size(), is(4));
+        assertThat(list.getNameAt(0), is("Zero"));
+        assertThat(list.getNameAt(3), is("Third"));
+        assertThat(list.indexOfId("2"), is(2));
+
+        AbstractWsdlModelItem<ModelItemConfig> removed = list.remove(2);
+
+        assertThat(removed.getConfig().getName(), is("Second"));
+        assertThat(list.size(), is(3));
+        assertThat(list.getNameAt(2), is("Third"));
+        assertThat(list.isBuilt(2), is(false));
+        assertThat(list.get(0), sameInstance(added));
+    }
+
+    @Test
+    public void setReplacesTheItem() {
+        AbstractWsdlModelItem<ModelItemConfig> replacement = item(config("4", "Fourth"));
+
+        AbstractWsdlModelItem<ModelItemConfig> old = list.set(0, replacement);
+
+        assertThat(old.getConfig().getName(), is("First"));
+        assertThat(list.getNameAt(0), is("Fourth"));
+        assertThat(list.get(0), sameInstance(replacement));
+    }
+
+    @Test
+    public void replacesTheConfigOfUnbuiltItems() {
+        list.setUnbuiltConfig(0, config("5", "Fifth"));
+
+        assertThat(list.getNameAt(0), is("Fifth"));
+        assertThat(list.get(0).getConfig().getId(), is("5"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void doesNotReplaceTheConfigOfBuiltItems() {
+        list.get(0);
+        list.setUnbuiltConfig(0, config("5", "Fifth"));
+    }
+
+    @Test
+    public void returnsBuiltItemsInListOrder() {
+        AbstractWsdlModelItem<ModelItemConfig> third = list.get(2);
+        AbstractWsdlModelItem<ModelItemConfig> first = list.get(0);
+
+        List<AbstractWsdlModelItem<ModelItemConfig>> builtItems = list.getBuiltItems();
+
+        assertThat(builtItems.size(), is(2));
+        assertThat(builtItems.get(0), sameInstance(first));
+        assertThat(builtItems.get(1), sameInstance(third));
+    }
+
+    @Test
+    public void iteratingBuildsAllItems() {
+        List<String> names = new ArrayList<String>();
+        for (AbstractWsdlModelItem<ModelItemConfig> item : list) {
+            names.add(item.getConfig().getName());
+        }
+
+        assertThat(names.size(), is(3));
+        assertThat(names.get(2), is("Third"));
+        assertThat(list.built.size(), is(3));
+        assertThat(list.getConfig(1).getName(), is("Second"));
+    }
+
+    @Test
+    public void handlesConfigsWithoutName() {
+        list.addUnbuilt(config(null, null));
+
+        assertThat(list.indexOfName("Unknown"), is(-1));
+        assertThat(list.indexOfId("Unknown"), is(-1));
+        assertThat(list.getNameAt(3), nullValue());
+    }
+
+    private static ModelItemConfig config(String id, String name) {
+        ModelItemConfig config = mock(ModelItemConfig.class);
+        when(config.getId()).thenReturn(id);
+        when(config.getName()).thenReturn(name);
+        return config;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AbstractWsdlModelItem<ModelItemConfig> item(ModelItemConfig config) {
+        AbstractWsdlModelItem<ModelItemConfig> item = mock(AbstractWsdlModelItem.class);
+        when(item.getConfig()).thenReturn(config);
+        return item;
+    }
+
+    private static class TestList extends LazyModelItemList<AbstractWsdlModelItem<ModelItemConfig>, ModelItemConfig> {
+        private final List<ModelItemConfig> built = new ArrayList<ModelItemConfig>();
+        private final List<AbstractWsdlModelItem<ModelItemConfig>> afterBuilt =
+                new ArrayList<AbstractWsdlModelItem<ModelItemConfig>>();
+
+        @Override
+        protected AbstractWsdlModelItem<ModelItemConfig> build(ModelItemConfig config) {
+            built.add(config);
+            return item(config);
+        }
+
+        @Override
+        protected void afterBuild(AbstractWsdlModelItem<ModelItemConfig> item) {
+            afterBuilt.add(item);
+        }
+    }
+}
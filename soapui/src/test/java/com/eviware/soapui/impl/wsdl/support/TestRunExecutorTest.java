@@ -0,0 +1,208 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+
+package com.eviware.soapui.impl.wsdl.support;
+
+import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.spi.LoggingEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeNotNull;
+
+public class TestRunExecutorTest {
+    private final List<LoggingEvent> events = new ArrayList<LoggingEvent>();
+    private AppenderSkeleton appender;
+
+    @Before
+    public void setUp() {
+        TestRunExecutor.fallbackLogged.set(false);
+
+        appender = new AppenderSkeleton() {
+            protected void append(LoggingEvent event) {
+                events.add(event);
+            }
+
+            public void close() {
+            }
+
+            public boolean requiresLayout() {
+                return false;
+            }
+        };
+        Logger.getLogger(TestRunExecutor.class).addAppender(appender);
+    }
+
+    @After
+    public void tearDown() {
+        Logger.getLogger(TestRunExecutor.class).removeAppender(appender);
+    }
+
+    @Test
+    public void returnsSharedExecutorWithoutVirtualThreads() {
+        assertSame(TestRunExecutor.getShared(), TestRunExecutor.create(false, "Run"));
+    }
+
+    @Test
+    public void runsOnVirtualThreadsWhenAvailable() throws Exception {
+        assumeNotNull(TestRunExecutor.createVirtualThreadFactory("Check"));
+
+        TestRunExecutor executor = TestRunExecutor.create(true, "Virtual");
+        try {
+            assertTrue(executor.isVirtual());
+
+            Thread thread = getRunnerThread(executor);
+            assertThat(thread.getName(), is("Virtual-0"));
+            assertThat(Thread.class.getMethod("isVirtual").invoke(thread), is((Object) Boolean.TRUE));
+            assertTrue(events.isEmpty());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void fallsBackToPlatformThreadsWithoutVirtualThreadFactory() throws Exception {
+        TestRunExecutor executor = TestRunExecutor.createDedicated(null, "Platform");
+        try {
+            assertFalse(executor.isVirtual());
+
+            Thread thread = getRunnerThread(executor);
+            assertThat(thread.getName(), is("Platform-0"));
+            assertTrue(thread.isDaemon());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void logsFallbackOnlyOnce() {
+        TestRunExecutor.createDedicated(null, "First").shutdown();
+        TestRunExecutor.createDedicated(null, "Second").shutdown();
+
+        assertThat(events.size(), is(1));
+        assertThat(events.get(0).getLevel(), is(Level.INFO));
+    }
+
+    @Test
+    public void fixedExecutorRunsAtMostThreadsRunnersAtATime() throws Exception {
+        TestRunExecutor executor = TestRunExecutor.createFixed(2, "Fixed");
+        final CountDownLatch started = new CountDownLatch(2);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        try {
+            for (int c = 0; c < 4; c++) {
+                futures.add(executor.submit(new Runnable() {
+                    public void run() {
+                        int current = running.incrementAndGet();
+                        synchronized (maxRunning) {
+                            maxRunning.set(Math.max(maxRunning.get(), current));
+                        }
+
+                        started.countDown();
+                        try {
+                            release.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+
+                        running.decrementAndGet();
+                    }
+                }));
+            }
+
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            assertThat(running.get(), is(2));
+
+            release.countDown();
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+
+            assertThat(maxRunning.get(), is(2));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shutdownFinishesSubmittedRunnersAndRejectsNewOnes() throws Exception {
+        TestRunExecutor executor = TestRunExecutor.createFixed(1, "Fixed");
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger finished = new AtomicInteger();
+
+        Runnable runner = new Runnable() {
+            public void run() {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                finished.incrementAndGet();
+            }
+        };
+
+        Future<?> first = executor.submit(runner);
+        Future<?> second = executor.submit(runner);
+        executor.shutdown();
+        release.countDown();
+
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertThat(finished.get(), is(2));
+
+        try {
+            executor.submit(runner);
+            fail("Runner was accepted after shutdown");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+    }
+
+    private static Thread getRunnerThread(TestRunExecutor executor) throws Exception {
+        final Thread[] thread = new Thread[1];
+        executor.submit(new Runnable() {
+            public void run() {
+                thread[0] = Thread.currentThread();
+            }
+        }).get(5, TimeUnit.SECONDS);
+
+        return thread[0];
+    }
+}
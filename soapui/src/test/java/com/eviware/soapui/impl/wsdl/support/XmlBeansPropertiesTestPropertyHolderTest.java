@@ -0,0 +1,188 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+
+package com.eviware.soapui.impl.wsdl.support;
+
+import com.eviware.soapui.config.PropertiesTypeConfig;
+import com.eviware.soapui.model.ModelItem;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class XmlBeansPropertiesTestPropertyHolderTest {
+    private static final Object RUN = new Object();
+    private static final Object OTHER_RUN = new Object();
+
+    private PropertiesTypeConfig config;
+    private XmlBeansPropertiesTestPropertyHolder holder;
+
+    @Before
+    public void setUp() {
+        config = PropertiesTypeConfig.Factory.newInstance();
+        holder = new XmlBeansPropertiesTestPropertyHolder(mock(ModelItem.class), config);
+        holder.addProperty("user").setValue("alice");
+        holder.addProperty("empty");
+
+        XmlBeansPropertiesTestPropertyHolder.setRunScopeOwner(RUN);
+    }
+
+    @After
+    public void tearDown() {
+        XmlBeansPropertiesTestPropertyHolder.setRunScopeOwner(null);
+    }
+
+    @Test
+    public void keepsValuesChangedInRunScopeOutOfTheConfiguration() {
+        holder.beginRunScope(RUN);
+        holder.setPropertyValue("user", "bob");
+        holder.setPropertyValue("empty", "set");
+
+        assertThat(holder.getPropertyValue("user"), is("bob"));
+        assertThat(holder.getPropertyValue("empty"), is("set"));
+        assertThat(config.getPropertyArray(0).getValue(), is("alice"));
+        assertThat(config.getPropertyArray(1).getValue(), nullValue());
+
+        holder.endRunScope(RUN, false);
+
+        assertThat(holder.isInRunScope(), is(false));
+        assertThat(holder.getPropertyValue("user"), is("alice"));
+        assertThat(holder.getPropertyValue("empty"), nullValue());
+    }
+
+    @Test
+    public void writesBackChangedValuesWhenRunScopeEnds() {
+        holder.beginRunScope(RUN);
+        holder.setPropertyValue("user", null);
+        holder.setPropertyValue("empty", "set");
+        holder.endRunScope(RUN, true);
+
+        assertThat(config.getPropertyArray(0).getValue(), nullValue());
+        assertThat(config.getPropertyArray(1).getValue(), is("set"));
+        assertThat(holder.getPropertyValue("empty"), is("set"));
+    }
+
+    @Test
+    public void keepsValuesUntilOutermostRunScopeEnds() {
+        holder.beginRunScope(RUN);
+        holder.beginRunScope(RUN);
+        holder.setPropertyValue("user", "bob");
+
+        holder.endRunScope(RUN, false);
+        assertThat(holder.isInRunScope(), is(true));
+        assertThat(holder.getPropertyValue("user"), is("bob"));
+
+        holder.endRunScope(RUN, false);
+        assertThat(holder.getPropertyValue("user"), is("alice"));
+
+        holder.endRunScope(RUN, true);
+        assertThat(holder.isInRunScope(), is(false));
+    }
+
+    @Test
+    public void keepsRunScopeValueOfRenamedProperty() {
+        holder.beginRunScope(RUN);
+        holder.setPropertyValue("user", "bob");
+        holder.renameProperty("user", "login");
+
+        assertThat(holder.getPropertyValue("login"), is("bob"));
+
+        holder.endRunScope(RUN, true);
+        assertThat(config.getPropertyArray(0).getName(), is("login"));
+        assertThat(config.getPropertyArray(0).getValue(), is("bob"));
+    }
+
+    @Test
+    public void isolatesConcurrentWritersFromTheConfiguration() throws Exception {
+        holder.beginRunScope(RUN);
+
+        Thread[] threads = new Thread[4];
+        for (int c = 0; c < threads.length; c++) {
+            threads[c] = new Thread(new Runnable() {
+                public void run() {
+                    XmlBeansPropertiesTestPropertyHolder.setRunScopeOwner(RUN);
+                    for (int i = 0; i < 1000; i++) {
+                        holder.setPropertyValue("user", String.valueOf(i));
+                        holder.getPropertyValue("user");
+                    }
+                }
+            });
+            threads[c].start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(holder.getPropertyValue("user"), is("999"));
+        assertThat(config.getPropertyArray(0).getValue(), is("alice"));
+
+        holder.endRunScope(RUN, false);
+        assertThat(holder.getPropertyValue("user"), is("alice"));
+    }
+
+    @Test
+    public void keepsValuesWrittenByThreadsOutsideTheRun() throws Exception {
+        holder.beginRunScope(RUN);
+        holder.setPropertyValue("user", "bob");
+
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                assertThat(holder.getPropertyValue("user"), is("alice"));
+                holder.setPropertyValue("empty", "edited");
+            }
+        });
+        thread.start();
+        thread.join();
+
+        // the run sees the edit, but not in the configuration of its own values
+        assertThat(holder.getPropertyValue("empty"), is("edited"));
+        assertThat(config.getPropertyArray(1).getValue(), is("edited"));
+
+        holder.endRunScope(RUN, false);
+
+        assertThat(holder.getPropertyValue("user"), is("alice"));
+        assertThat(holder.getPropertyValue("empty"), is("edited"));
+    }
+
+    @Test
+    public void keepsValuesOfConcurrentRunsApart() {
+        holder.beginRunScope(RUN);
+        holder.beginRunScope(OTHER_RUN);
+        holder.setPropertyValue("user", "bob");
+
+        XmlBeansPropertiesTestPropertyHolder.setRunScopeOwner(OTHER_RUN);
+        assertThat(holder.getPropertyValue("user"), is("alice"));
+        holder.setPropertyValue("empty", "other");
+
+        holder.endRunScope(OTHER_RUN, true);
+        assertThat(holder.isInRunScope(), is(true));
+        assertThat(config.getPropertyArray(1).getValue(), is("other"));
+
+        XmlBeansPropertiesTestPropertyHolder.setRunScopeOwner(RUN);
+        assertThat(holder.getPropertyValue("user"), is("bob"));
+        assertThat(holder.getPropertyValue("empty"), is("other"));
+
+        holder.endRunScope(RUN, false);
+        assertThat(holder.isInRunScope(), is(false));
+        assertThat(config.getPropertyArray(0).getValue(), is("alice"));
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+
+package com.eviware.soapui.impl.wsdl.support.http;
+
+import com.eviware.soapui.impl.wsdl.submit.transports.http.ExtendedHttpMethod;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.ResponseBodyStore;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.ResponseBodyStoreEntity;
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.nio.NHttpClientConnection;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class NonBlockingHttpClientTest {
+    private static final String BODY = "<response>non-blocking</response>";
+
+    private NonBlockingHttpClient client;
+    private ServerSocket serverSocket;
+    private final AtomicInteger acceptedConnections = new AtomicInteger();
+    private volatile boolean respond = true;
+    private volatile boolean closeAfterResponse;
+
+    @Before
+    public void setUp() throws Exception {
+        client = new NonBlockingHttpClient(1, 5000, 16, 1);
+
+        serverSocket = new ServerSocket(0);
+        Thread serverThread = new Thread(new Runnable() {
+            public void run() {
+                serve();
+            }
+        });
+        serverThread.setDaemon(true);
+        serverThread.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        client.shutdown();
+        serverSocket.close();
+    }
+
+    @Test
+    public void returnsConnectionToPoolAfterResponse() throws Exception {
+        for (int c = 0; c < 3; c++) {
+            HttpResponse response = client.submit(createMethod(), null).getResponse();
+            assertThat(EntityUtils.toString(response.getEntity()), is(BODY));
+        }
+
+        assertThat(client.getIdleConnectionCount(), is(1));
+        assertThat(acceptedConnections.get(), is(1));
+    }
+
+    @Test
+    public void queuesRequestsBeyondMaxConnectionsPerHost() throws Exception {
+        NonBlockingHttpClient.Exchange first = client.submit(createMethod(), null);
+        NonBlockingHttpClient.Exchange second = client.submit(createMethod(), null);
+
+        assertThat(EntityUtils.toString(first.getResponse().getEntity()), is(BODY));
+        assertThat(EntityUtils.toString(second.getResponse().getEntity()), is(BODY));
+        assertThat(acceptedConnections.get(), is(1));
+    }
+
+    @Test
+    public void opensConnectionForQueuedRequestWhenConnectionIsClosed() throws Exception {
+        closeAfterResponse = true;
+        NonBlockingHttpClient.Exchange first = client.submit(createMethod(), null);
+        NonBlockingHttpClient.Exchange second = client.submit(createMethod(), null);
+
+        assertThat(EntityUtils.toString(first.getResponse().getEntity()), is(BODY));
+        assertThat(EntityUtils.toString(second.getResponse().getEntity()), is(BODY));
+        assertThat(acceptedConnections.get(), is(2));
+    }
+
+    @Test
+    public void spillsLargeResponseBodies() throws Exception {
+        HttpResponse response = client.submit(createMethod(), null).getResponse();
+
+        assertThat(response.getEntity(), instanceOf(ResponseBodyStoreEntity.class));
+        ResponseBodyStore store = ((ResponseBodyStoreEntity) response.getEntity()).getStore();
+        assertTrue(store.isSpilled());
+        assertThat(new String(store.getBytes(), "UTF-8"), is(BODY));
+        store.dispose();
+    }
+
+    @Test
+    public void failsAbortedRequestAndDropsItsConnection() throws Exception {
+        respond = false;
+        NonBlockingHttpClient.Exchange exchange = client.submit(createMethod(), null);
+        waitForConnection();
+
+        exchange.abort();
+
+        try {
+            exchange.getResponse();
+            fail("aborted request returned a response");
+        } catch (InterruptedIOException e) {
+            // expected
+        }
+
+        assertThat(client.getIdleConnectionCount(), is(0));
+    }
+
+    @Test
+    public void returnsConnectionOfRequestAbortedWhileConnectingToPool() throws Exception {
+        NonBlockingHttpClient.Exchange exchange = client.createExchange(createMethod(), null);
+        exchange.abort();
+
+        NHttpClientConnection connection = mock(NHttpClientConnection.class);
+        when(connection.getContext()).thenReturn(new BasicHttpContext());
+        when(connection.isOpen()).thenReturn(true);
+
+        client.getHandler().connected(connection, exchange);
+
+        assertThat(client.getIdleConnectionCount(), is(1));
+    }
+
+    private ExtendedHttpMethod createMethod() {
+        ExtendedHttpMethod method = mock(ExtendedHttpMethod.class);
+        when(method.getURI()).thenReturn(URI.create("http://127.0.0.1:" + serverSocket.getLocalPort() + "/test"));
+        when(method.getMethod()).thenReturn("GET");
+        when(method.getProtocolVersion()).thenReturn(HttpVersion.HTTP_1_1);
+        when(method.getAllHeaders()).thenReturn(new Header[0]);
+        when(method.getParams()).thenReturn(new BasicHttpParams());
+        return method;
+    }
+
+    private void waitForConnection() throws InterruptedException {
+        for (int c = 0; c < 100 && acceptedConnections.get() == 0; c++) {
+            Thread.sleep(20);
+        }
+    }
+
+    private void serve() {
+        while (!serverSocket.isClosed()) {
+            try {
+                final Socket socket = serverSocket.accept();
+                acceptedConnections.incrementAndGet();
+
+                Thread connectionThread = new Thread(new Runnable() {
+                    public void run() {
+                        handle(socket);
+                    }
+                });
+                connectionThread.setDaemon(true);
+                connectionThread.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), "US-ASCII"));
+            OutputStream out = socket.getOutputStream();
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.length() > 0 || !respond) {
+                    continue;
+                }
+
+                byte[] body = BODY.getBytes("UTF-8");
+                out.write(("HTTP/1.1 200 OK\r\nContent-Type: text/xml\r\nContent-Length: " + body.length
+                        + (closeAfterResponse ? "\r\nConnection: close" : "") + "\r\n\r\n").getBytes("US-ASCII"));
+                out.write(body);
+                out.flush();
+
+                if (closeAfterResponse) {
+                    break;
+                }
+            }
+
+            socket.close();
+        } catch (IOException e) {
+            // connection closed by the client
+        }
+    }
+}
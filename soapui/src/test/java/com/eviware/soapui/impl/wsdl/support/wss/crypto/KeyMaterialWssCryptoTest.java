@@ -20,17 +20,21 @@ import com.eviware.soapui.config.KeyMaterialCryptoConfig;
 import com.eviware.soapui.impl.wsdl.WsdlProject;
 import com.eviware.soapui.impl.wsdl.support.wss.DefaultWssContainer;
 import com.eviware.soapui.support.SoapUIException;
+import com.google.common.io.Files;
 import org.apache.xmlbeans.XmlException;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.io.File;
 import java.io.IOException;
 import java.security.KeyStore;
 
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.when;
 
@@ -102,6 +106,37 @@ public class KeyMaterialWssCryptoTest {
         loadCryptoUnsucessfully(CryptoType.KEYSTORE, "pkcs12-test-key.p12", INCORRECT_PASSWORD);
     }
 
+    @Test
+    public void reusesCryptoWhileKeystoreFileIsUnchanged() throws Exception {
+        File keystore = copyToTempFile("jks-test-key.jks");
+        try {
+            initCrypto(CryptoType.KEYSTORE, keystore.getPath(), CORRECT_PASSWORD);
+
+            assertSame(crypto.getCrypto(), crypto.getCrypto());
+            assertSame(crypto.load(), crypto.load());
+        } finally {
+            keystore.delete();
+        }
+    }
+
+    @Test
+    public void reloadsCryptoWhenKeystoreFileChanges() throws Exception {
+        File keystore = copyToTempFile("jks-test-key.jks");
+        try {
+            initCrypto(CryptoType.KEYSTORE, keystore.getPath(), CORRECT_PASSWORD);
+            Object firstCrypto = crypto.getCrypto();
+            KeyStore firstKeyStore = crypto.load();
+
+            Files.copy(new File(getResourcePath("jks-test-key.jks")), keystore);
+            keystore.setLastModified(keystore.lastModified() - 60000);
+
+            assertNotSame(firstCrypto, crypto.getCrypto());
+            assertNotSame(firstKeyStore, crypto.load());
+        } finally {
+            keystore.delete();
+        }
+    }
+
     private void loadCryptoSucessfully(CryptoType type, String filename, String password) {
         String path = initLoad(type, filename, password);
 
@@ -126,13 +161,26 @@ public class KeyMaterialWssCryptoTest {
     }
 
     private String initLoad(CryptoType type, String filename, String password) {
-        String path = KeyMaterialWssCryptoTest.class.getResource(TEST_RESOURCES_DIR + filename).getPath();
+        String path = getResourcePath(filename);
+        initCrypto(type, path, password);
+        return path;
+    }
 
+    private String getResourcePath(String filename) {
+        return KeyMaterialWssCryptoTest.class.getResource(TEST_RESOURCES_DIR + filename).getPath();
+    }
+
+    private File copyToTempFile(String filename) throws IOException {
+        File file = File.createTempFile("keystore", "." + Files.getFileExtension(filename));
+        Files.copy(new File(getResourcePath(filename)), file);
+        return file;
+    }
+
+    private void initCrypto(CryptoType type, String path, String password) {
         when(containerMock.getModelItem()).thenReturn(project);
         when(configMock.getSource()).thenReturn(path);
         when(configMock.getPassword()).thenReturn(password);
 
         crypto = new KeyMaterialWssCrypto(configMock, containerMock, path, password, type);
-        return path;
     }
 }
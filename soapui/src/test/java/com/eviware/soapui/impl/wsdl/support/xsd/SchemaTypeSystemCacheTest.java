@@ -0,0 +1,222 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.impl.wsdl.support.xsd;
+
+import com.eviware.soapui.impl.support.definition.InterfaceDefinitionPart;
+import org.apache.commons.io.FileUtils;
+import org.apache.xmlbeans.SchemaGlobalElement;
+import org.apache.xmlbeans.SchemaType;
+import org.apache.xmlbeans.SchemaTypeSystem;
+import org.apache.xmlbeans.XmlBeans;
+import org.apache.xmlbeans.XmlObject;
+import org.apache.xmlbeans.XmlOptions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.xml.namespace.QName;
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class SchemaTypeSystemCacheTest {
+    private static final String SCHEMA = "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema' "
+            + "targetNamespace='urn:test' xmlns:t='urn:test' elementFormDefault='qualified'>"
+            + "<xs:element name='order'><xs:complexType><xs:sequence><xs:element name='kind' type='t:kind'/>"
+            + "</xs:sequence></xs:complexType></xs:element>"
+            + "<xs:simpleType name='kind'><xs:restriction base='xs:string'><xs:enumeration value='A'/>"
+            + "<xs:enumeration value='B'/></xs:restriction></xs:simpleType></xs:schema>";
+
+    private File originalDirectory;
+    private File directory;
+
+    @Before
+    public void setUp() throws Exception {
+        originalDirectory = SchemaTypeSystemCache.getDirectory();
+        directory = File.createTempFile("schemacache", "");
+        directory.delete();
+
+        SchemaTypeSystemCache.setDirectory(directory);
+    }
+
+    @After
+    public void tearDown() {
+        SchemaTypeSystemCache.setMaxEntries(200);
+        SchemaTypeSystemCache.setMaxAge(TimeUnit.DAYS.toMillis(30));
+        SchemaTypeSystemCache.setDirectory(originalDirectory);
+        FileUtils.deleteQuietly(directory);
+    }
+
+    @Test
+    public void keyDependsOnPartsAndContext() {
+        List<InterfaceDefinitionPart> parts = Collections.singletonList(part("test.xsd", SCHEMA));
+
+        String key = SchemaTypeSystemCache.createKey(parts, "true");
+
+        assertThat(SchemaTypeSystemCache.createKey(parts, "true"), is(key));
+        assertThat(SchemaTypeSystemCache.createKey(parts, "false"), not(key));
+        assertThat(SchemaTypeSystemCache.createKey(Collections.singletonList(part("other.xsd", SCHEMA)), "true"),
+                not(key));
+        assertThat(SchemaTypeSystemCache.createKey(Arrays.asList(part("test.xsd", SCHEMA), part("a", "")), "true"),
+                not(key));
+    }
+
+    @Test
+    public void sharesCompiledTypeSystemInMemory() throws Exception {
+        SchemaTypeSystem sts = compile();
+        SchemaTypeSystemCache.put("key", sts);
+
+        assertThat(SchemaTypeSystemCache.get("key"), sameInstance(sts));
+    }
+
+    @Test
+    public void loadsSavedTypeSystemFromDiskOnce() throws Exception {
+        SchemaTypeSystem compiled = compile();
+        SchemaTypeSystemCache.put("key", compiled);
+        SchemaTypeSystemCache.setDirectory(directory);
+
+        SchemaTypeSystem sts = SchemaTypeSystemCache.get("key");
+
+        assertThat(sts, notNullValue());
+        assertThat(sts, not(sameInstance(compiled)));
+        SchemaGlobalElement element = sts.findElement(new QName("urn:test", "order"));
+        assertThat(element, notNullValue());
+        SchemaType kind = sts.findType(new QName("urn:test", "kind"));
+        assertThat(kind.getEnumerationValues().length, is(2));
+        assertThat(SchemaTypeSystemCache.get("key"), sameInstance(sts));
+    }
+
+    @Test
+    public void returnsNullForUnknownKeys() {
+        assertThat(SchemaTypeSystemCache.get("unknown"), nullValue());
+    }
+
+    @Test
+    public void changedSchemaIsNotServedFromCache() throws Exception {
+        String key = SchemaTypeSystemCache.createKey(Collections.singletonList(part("test.xsd", SCHEMA)));
+        SchemaTypeSystemCache.put(key, compile());
+
+        String changedKey = SchemaTypeSystemCache.createKey(Collections.singletonList(part("test.xsd",
+                SCHEMA.replace("<xs:enumeration value='B'/>", ""))));
+
+        assertThat(SchemaTypeSystemCache.get(changedKey), nullValue());
+        assertThat(SchemaTypeSystemCache.get(key), notNullValue());
+    }
+
+    @Test
+    public void ignoresIncompleteEntries() throws Exception {
+        SchemaTypeSystemCache.put("key", compile());
+        SchemaTypeSystemCache.setDirectory(directory);
+        assertThat(new File(directory, "key/typesystem.name").delete(), is(true));
+
+        assertThat(SchemaTypeSystemCache.get("key"), nullValue());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedEntriesFromDisk() throws Exception {
+        SchemaTypeSystemCache.setMaxEntries(2);
+        SchemaTypeSystem sts = compile();
+        long now = System.currentTimeMillis();
+
+        SchemaTypeSystemCache.put("a", sts);
+        SchemaTypeSystemCache.put("b", sts);
+        new File(directory, "a").setLastModified(now - 20000);
+        new File(directory, "b").setLastModified(now - 10000);
+
+        SchemaTypeSystemCache.put("c", sts);
+
+        assertThat(new File(directory, "a").exists(), is(false));
+        assertThat(new File(directory, "b").exists(), is(true));
+        assertThat(new File(directory, "c").exists(), is(true));
+        assertThat(SchemaTypeSystemCache.get("a"), nullValue());
+    }
+
+    @Test
+    public void evictsExpiredEntriesFromDisk() throws Exception {
+        SchemaTypeSystemCache.setMaxAge(60000);
+        SchemaTypeSystem sts = compile();
+
+        SchemaTypeSystemCache.put("old", sts);
+        new File(directory, "old").setLastModified(System.currentTimeMillis() - 120000);
+
+        SchemaTypeSystemCache.put("new", sts);
+
+        assertThat(new File(directory, "old").exists(), is(false));
+        assertThat(new File(directory, "new").exists(), is(true));
+    }
+
+    @Test
+    public void keepsEntriesLoadedFromDisk() throws Exception {
+        SchemaTypeSystemCache.setMaxEntries(1);
+        SchemaTypeSystem sts = compile();
+
+        SchemaTypeSystemCache.put("loaded", sts);
+        SchemaTypeSystemCache.setDirectory(directory);
+        assertThat(SchemaTypeSystemCache.get("loaded"), notNullValue());
+        new File(directory, "loaded").setLastModified(System.currentTimeMillis() - 10000);
+
+        SchemaTypeSystemCache.put("other", sts);
+
+        assertThat(new File(directory, "loaded").exists(), is(true));
+    }
+
+    @Test
+    public void disabledCacheDoesNotStore() throws Exception {
+        SchemaTypeSystemCache.setDirectory(null);
+        SchemaTypeSystemCache.put("key", compile());
+
+        assertThat(SchemaTypeSystemCache.get("key"), nullValue());
+        assertThat(directory.exists(), is(false));
+    }
+
+    private static SchemaTypeSystem compile() throws Exception {
+        XmlOptions options = new XmlOptions();
+        options.setCompileNoValidation();
+        return XmlBeans.compileXsd(new XmlObject[]{XmlObject.Factory.parse(SCHEMA)}, XmlBeans.getBuiltinTypeSystem(),
+                options);
+    }
+
+    private static InterfaceDefinitionPart part(final String url, final String content) {
+        return new InterfaceDefinitionPart() {
+            public String getUrl() {
+                return url;
+            }
+
+            public String getType() {
+                return "http://www.w3.org/2001/XMLSchema";
+            }
+
+            public String getContent() {
+                return content;
+            }
+
+            public boolean isRootPart() {
+                return false;
+            }
+        };
+    }
+}
@@ -22,14 +22,18 @@ import com.eviware.soapui.config.TestStepConfig;
 import com.eviware.soapui.impl.rest.RestResource;
 import com.eviware.soapui.impl.rest.RestService;
 import com.eviware.soapui.impl.rest.RestServiceFactory;
+import com.eviware.soapui.impl.support.AbstractHttpRequestInterface;
 import com.eviware.soapui.impl.wsdl.WsdlProject;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.SinglePartHttpResponse;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
 import com.eviware.soapui.impl.wsdl.teststeps.registry.RestRequestStepFactory;
+import com.eviware.soapui.model.testsuite.TestPropertyListener;
 import com.eviware.soapui.support.SoapUIException;
 import org.apache.xmlbeans.XmlException;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.beans.PropertyChangeEvent;
 import java.io.IOException;
 
 import static org.hamcrest.CoreMatchers.sameInstance;
@@ -69,4 +73,33 @@ public class RestTestRequestStepTest {
         RestResource foundResource = step.getResource();
         assertThat(foundResource, is(sameInstance(restResource)));
     }
+
+    @Test
+    public void responseIsOnlyConvertedToXmlForPropertyListeners() throws Exception {
+        WsdlTestCase testCase = Mockito.mock(WsdlTestCase.class);
+        WsdlProject project = new WsdlProject();
+        RestService restService = (RestService) project.addNewInterface(INTERFACE_NAME, RestServiceFactory.REST_TYPE);
+        restService.addNewResource(RESOURCE_NAME, PATH).addNewMethod(METHOD_NAME);
+        Mockito.when(testCase.getParent()).thenReturn(project);
+
+        TestStepConfig config = TestStepConfig.Factory.newInstance();
+        RestRequestStepConfig configConfig = (RestRequestStepConfig) config.addNewConfig()
+                .changeType(RestRequestStepConfig.type);
+        configConfig.setService(INTERFACE_NAME);
+        configConfig.setResourcePath(PATH);
+        configConfig.setMethodName(METHOD_NAME);
+        configConfig.setRestRequest(RestRequestConfig.Factory.newInstance());
+
+        RestTestRequestStep step = new RestTestRequestStep(testCase, config, false);
+        SinglePartHttpResponse response = Mockito.mock(SinglePartHttpResponse.class);
+        PropertyChangeEvent event = new PropertyChangeEvent(step.getTestRequest(),
+                AbstractHttpRequestInterface.RESPONSE_PROPERTY, null, response);
+
+        step.propertyChange(event);
+        Mockito.verify(response, Mockito.never()).getContentAsXml();
+
+        step.addTestPropertyListener(Mockito.mock(TestPropertyListener.class));
+        step.propertyChange(event);
+        Mockito.verify(response).getContentAsXml();
+    }
 }
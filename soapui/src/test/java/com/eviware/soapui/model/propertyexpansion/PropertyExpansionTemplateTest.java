@@ -0,0 +1,94 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.model.propertyexpansion;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class PropertyExpansionTemplateTest {
+
+    @Test
+    public void splitsLiteralsAndExpansions() {
+        PropertyExpansionTemplate template = PropertyExpansionTemplate.compile("<a>${#Project#id}</a>${name}");
+
+        assertThat(render(template), is("<a>[#Project#id]</a>[name]"));
+        assertThat(template.getSegmentCount(), is(4));
+        assertThat(template.getLiteralLength(), is(7));
+    }
+
+    @Test
+    public void handlesEscapedExpansions() {
+        assertThat(render(PropertyExpansionTemplate.compile("$${test}")), is("${test}"));
+        assertThat(render(PropertyExpansionTemplate.compile("${test}$${test}")), is("[test]${test}"));
+        assertThat(render(PropertyExpansionTemplate.compile("$${${test}")), is("${[test]"));
+    }
+
+    @Test
+    public void skipsEmptyPropertyNames() {
+        assertThat(render(PropertyExpansionTemplate.compile("a${}b${ }c")), is("abc"));
+    }
+
+    @Test
+    public void doesNotCompileNestedOrUnterminatedExpansions() {
+        assertThat(PropertyExpansionTemplate.compile("${test${exp}}"), nullValue());
+        assertThat(PropertyExpansionTemplate.compile("${#testxml#//value[@id=${id}]/text()}"), nullValue());
+        assertThat(PropertyExpansionTemplate.compile("abc${def"), nullValue());
+    }
+
+    @Test
+    public void cachesTemplates() {
+        String content = "cached ${template}";
+        PropertyExpansionTemplate template = PropertyExpansionTemplate.getTemplate(content);
+
+        assertThat(template, notNullValue());
+        assertThat(PropertyExpansionTemplate.getTemplate(new String(content)), sameInstance(template));
+        assertThat(PropertyExpansionTemplate.getTemplate("${nested${template}}"), nullValue());
+    }
+
+    @Test
+    public void doesNotCacheLargeContent() {
+        StringBuilder content = new StringBuilder("${large}");
+        while (content.length() <= PropertyExpansionTemplate.MAX_CACHED_CONTENT_LENGTH) {
+            content.append("<value>literal</value>");
+        }
+
+        PropertyExpansionTemplate template = PropertyExpansionTemplate.getTemplate(content.toString());
+
+        assertThat(template.getSegmentCount(), is(2));
+        assertThat(PropertyExpansionTemplate.getTemplate(content.toString()), not(sameInstance(template)));
+    }
+
+    private static String render(PropertyExpansionTemplate template) {
+        StringBuilder buf = new StringBuilder();
+        for (int c = 0; c < template.getSegmentCount(); c++) {
+            if (template.isExpansion(c)) {
+                buf.append('[').append(template.getPropertyName(c)).append(']');
+            } else {
+                template.appendLiteral(buf, c);
+            }
+        }
+
+        return buf.toString();
+    }
+}
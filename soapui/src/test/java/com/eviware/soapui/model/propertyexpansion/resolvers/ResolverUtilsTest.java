@@ -16,9 +16,12 @@
 
 package com.eviware.soapui.model.propertyexpansion.resolvers;
 
+import com.eviware.soapui.model.testsuite.TestProperty;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class ResolverUtilsTest {
 
@@ -30,4 +33,13 @@ public class ResolverUtilsTest {
         assertEquals("audi",
                 ResolverUtils.extractXPathPropertyValue("<test><bil>audi</bil><bil>bmw</bil></test>", "//test/bil[1]"));
     }
+
+    @Test
+    public void testExtractXPathPropertyValueAfterValueChanged() throws Exception {
+        TestProperty property = mock(TestProperty.class);
+        when(property.getValue()).thenReturn("<test><bil>audi</bil></test>", "<test><bil>bmw</bil></test>");
+
+        assertEquals("audi", ResolverUtils.extractXPathPropertyValue(property, "//bil"));
+        assertEquals("bmw", ResolverUtils.extractXPathPropertyValue(property, "//bil"));
+    }
 }
@@ -0,0 +1,153 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+
+package com.eviware.soapui.monitor;
+
+import com.eviware.soapui.impl.support.AbstractMockResponse;
+import com.eviware.soapui.impl.support.BaseMockResult;
+import com.eviware.soapui.model.mock.MockOperation;
+import com.eviware.soapui.model.mock.MockRequest;
+import org.junit.After;
+import org.junit.Test;
+import org.mortbay.jetty.Connector;
+import org.mortbay.jetty.Request;
+import org.mortbay.jetty.Server;
+import org.mortbay.jetty.bio.SocketConnector;
+import org.mortbay.jetty.handler.AbstractHandler;
+import org.mortbay.jetty.nio.SelectChannelConnector;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class DeferredMockResponseTest {
+    private static final long DELAY = 300;
+    // the select loop may expire a suspended continuation a few milliseconds early
+    private static final long MIN_DELAY = DELAY - 20;
+    private static final String BODY = "<response>delayed</response>";
+
+    private Server server;
+    private DelayedResult lastResult;
+
+    @After
+    public void stopServer() throws Exception {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void sendsBodyAfterDelayOnSelectChannelConnector() throws Exception {
+        int port = startServer(new SelectChannelConnector());
+
+        // twice, so the second request reuses the connection of the suspended one
+        for (int c = 0; c < 2; c++) {
+            assertDelayedResponse(port);
+        }
+    }
+
+    @Test
+    public void sendsBodyAfterDelayOnBlockingConnector() throws Exception {
+        int port = startServer(new SocketConnector());
+
+        assertDelayedResponse(port);
+    }
+
+    private void assertDelayedResponse(int port) throws Exception {
+        long start = System.nanoTime();
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + port + "/mock")
+                .openConnection();
+
+        assertThat(connection.getResponseCode(), is(200));
+        assertThat(connection.getContentType(), is("text/xml"));
+        assertThat(read(connection.getInputStream()), is(BODY));
+        assertThat((System.nanoTime() - start) / 1000000, greaterThanOrEqualTo(MIN_DELAY));
+
+        assertTrue(lastResult.finished.await(5, TimeUnit.SECONDS));
+        assertThat(lastResult.getTimeTaken(), greaterThanOrEqualTo(MIN_DELAY));
+    }
+
+    private int startServer(Connector connector) throws Exception {
+        connector.setPort(0);
+        server = new Server();
+        server.addConnector(connector);
+        server.setHandler(new AbstractHandler() {
+            public void handle(String target, HttpServletRequest request, HttpServletResponse response, int dispatch)
+                    throws IOException {
+                if (DeferredMockResponse.resume(request)) {
+                    return;
+                }
+
+                ((Request) request).setHandled(true);
+
+                // what AbstractMockResponse.execute does for a response with a delay
+                request.setAttribute(AbstractMockResponse.DEFERRED_RESPONSE_DELAY, DELAY);
+
+                DeferredMockResponse deferredResponse = new DeferredMockResponse(request, response);
+                deferredResponse.setContentType("text/xml");
+                deferredResponse.getOutputStream().write(BODY.getBytes("UTF-8"));
+                deferredResponse.flushBuffer();
+                assertThat(response.isCommitted(), is(false));
+
+                lastResult = new DelayedResult();
+                if (!deferredResponse.suspend(lastResult)) {
+                    throw new IllegalStateException("Response delay was not deferred");
+                }
+            }
+        });
+        server.start();
+
+        return connector.getLocalPort();
+    }
+
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        in.close();
+        return out.toString("UTF-8");
+    }
+
+    private static class DelayedResult extends BaseMockResult<MockRequest, MockOperation> {
+        private final CountDownLatch finished = new CountDownLatch(1);
+
+        public DelayedResult() {
+            super(mock(MockRequest.class));
+        }
+
+        @Override
+        public void finish() {
+            super.finish();
+            finished.countDown();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+
+package com.eviware.soapui.monitor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class MockServiceThreadPoolTest {
+    private static final int PORT = 65123;
+
+    private MockServiceThreadPool threadPool;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    @Before
+    public void setUp() {
+        threadPool = new MockServiceThreadPool(PORT, 1, 1, 0);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        release.countDown();
+        if (threadPool.isStarted()) {
+            threadPool.stop();
+        }
+    }
+
+    @Test
+    public void answersRequestsBeyondFullQueueOnOverflowThread() throws Exception {
+        threadPool.start();
+        fillPool();
+
+        final AtomicBoolean overflowRequest = new AtomicBoolean();
+        final CountDownLatch overflowDone = new CountDownLatch(1);
+        assertTrue(threadPool.dispatch(new Runnable() {
+            public void run() {
+                // JettyMockEngine answers these with 503 Service Unavailable
+                overflowRequest.set(MockServiceThreadPool.isOverflowRequest());
+                overflowDone.countDown();
+            }
+        }));
+
+        assertTrue(overflowDone.await(5, TimeUnit.SECONDS));
+        assertTrue(overflowRequest.get());
+        assertThat(threadPool.getRejectedRequests(), is(1L));
+    }
+
+    @Test
+    public void leavesRequestsBeyondFullQueueToJettyWithoutOverflowThread() throws Exception {
+        threadPool.setRejectOverflow(false);
+        threadPool.start();
+        fillPool();
+
+        assertFalse(threadPool.dispatch(new Runnable() {
+            public void run() {
+            }
+        }));
+        assertThat(threadPool.getRejectedRequests(), is(1L));
+    }
+
+    @Test
+    public void doesNotMarkPooledRequestsAsOverflow() throws Exception {
+        threadPool.start();
+
+        final AtomicBoolean overflowRequest = new AtomicBoolean(true);
+        final CountDownLatch done = new CountDownLatch(1);
+        assertTrue(threadPool.dispatch(new Runnable() {
+            public void run() {
+                overflowRequest.set(MockServiceThreadPool.isOverflowRequest());
+                done.countDown();
+            }
+        }));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertFalse(overflowRequest.get());
+    }
+
+    @Test
+    public void countsActiveQueuedAndCompletedRequests() throws Exception {
+        threadPool.start();
+        fillPool();
+
+        assertThat(threadPool.getActiveThreads(), is(1));
+        assertThat(threadPool.getQueueDepth(), is(1));
+        assertThat(threadPool.getCompletedRequests(), is(0L));
+
+        release.countDown();
+        waitForCompletedRequests(2);
+
+        assertThat(threadPool.getActiveThreads(), is(0));
+        assertThat(threadPool.getQueueDepth(), is(0));
+
+        // the counters survive a restart of the connector
+        threadPool.stop();
+        assertThat(threadPool.getCompletedRequests(), is(2L));
+        threadPool.start();
+        assertThat(threadPool.getCompletedRequests(), is(2L));
+    }
+
+    /**
+     * Occupies the only thread of the pool and its only queue slot
+     */
+
+    private void fillPool() throws InterruptedException {
+        assertTrue(threadPool.dispatch(new Runnable() {
+            public void run() {
+                started.countDown();
+                await(release);
+            }
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertTrue(threadPool.dispatch(new Runnable() {
+            public void run() {
+                await(release);
+            }
+        }));
+    }
+
+    private void waitForCompletedRequests(long count) throws InterruptedException {
+        for (int c = 0; c < 250 && threadPool.getCompletedRequests() < count; c++) {
+            Thread.sleep(20);
+        }
+
+        assertThat(threadPool.getCompletedRequests(), is(count));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
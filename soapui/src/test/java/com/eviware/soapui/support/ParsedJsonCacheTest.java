@@ -0,0 +1,87 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.support;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class ParsedJsonCacheTest {
+    private static final String CONTENT = "{ name: 'soapui', values: [1, 2, 3] }";
+
+    @Test
+    public void readersOfOneResponseShareTheFacade() throws Exception {
+        String response = new String(CONTENT);
+        JsonPathFacade facade = ParsedJsonCache.getJsonPathFacade(response);
+
+        assertThat(ParsedJsonCache.getJsonPathFacade(response), sameInstance(facade));
+        assertThat(facade.readStringValue("$.name"), is("soapui"));
+    }
+
+    @Test
+    public void changedContentIsParsedAgain() throws Exception {
+        String response = new String(CONTENT);
+        JsonPathFacade original = ParsedJsonCache.getJsonPathFacade(response);
+
+        response = response.replace("soapui", "loadui");
+        JsonPathFacade changed = ParsedJsonCache.getJsonPathFacade(response);
+
+        assertThat(changed, not(sameInstance(original)));
+        assertThat(changed.readStringValue("$.name"), is("loadui"));
+        assertThat(original.readStringValue("$.name"), is("soapui"));
+    }
+
+    @Test
+    public void equalContentOfAnotherResponseIsNotShared() throws Exception {
+        JsonPathFacade facade = ParsedJsonCache.getJsonPathFacade(new String(CONTENT));
+
+        assertThat(ParsedJsonCache.getJsonPathFacade(new String(CONTENT)), not(sameInstance(facade)));
+    }
+
+    @Test
+    public void evictsOldestFacadesOfResponsesStillReferenced() throws Exception {
+        List<String> responses = new ArrayList<String>();
+        for (int c = 0; c < 200; c++) {
+            responses.add("{ id: " + c + " }");
+        }
+
+        JsonPathFacade first = ParsedJsonCache.getJsonPathFacade(responses.get(0));
+        for (String response : responses) {
+            ParsedJsonCache.getJsonPathFacade(response);
+        }
+
+        assertThat(ParsedJsonCache.getJsonPathFacade(responses.get(0)), not(sameInstance(first)));
+        assertThat(ParsedJsonCache.getJsonPathFacade(responses.get(199)),
+                sameInstance(ParsedJsonCache.getJsonPathFacade(responses.get(199))));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void sharedFacadeCanNotBeModified() throws Exception {
+        ParsedJsonCache.getJsonPathFacade(new String(CONTENT)).writeValue("$.name", "other");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidJson() throws Exception {
+        ParsedJsonCache.getJsonPathFacade("not json");
+    }
+}
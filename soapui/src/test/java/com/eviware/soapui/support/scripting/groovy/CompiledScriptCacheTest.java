@@ -0,0 +1,71 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.support.scripting.groovy;
+
+import groovy.lang.Binding;
+import groovy.lang.Script;
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.junit.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class CompiledScriptCacheTest {
+    private static final String SCRIPT = "return value * 2";
+
+    private final ClassLoader classLoader = getClass().getClassLoader();
+
+    @Test
+    public void enginesShareTheClassOfTheSameScriptText() {
+        Class<? extends Script> scriptClass = CompiledScriptCache.getScriptClass(classLoader, SCRIPT);
+
+        assertThat(CompiledScriptCache.getScriptClass(classLoader, new String(SCRIPT)),
+                sameInstance((Object) scriptClass));
+        assertThat(CompiledScriptCache.getScriptClass(classLoader, "return 1"),
+                not(sameInstance((Object) scriptClass)));
+    }
+
+    @Test
+    public void compilesScriptsForEachParentClassLoader() {
+        ClassLoader otherClassLoader = new URLClassLoader(new URL[0], classLoader);
+
+        Class<? extends Script> scriptClass = CompiledScriptCache.getScriptClass(classLoader, SCRIPT);
+        Class<? extends Script> otherScriptClass = CompiledScriptCache.getScriptClass(otherClassLoader, SCRIPT);
+
+        assertThat(otherScriptClass, not(sameInstance((Object) scriptClass)));
+        assertThat(CompiledScriptCache.getScriptClass(otherClassLoader, SCRIPT),
+                sameInstance((Object) otherScriptClass));
+    }
+
+    @Test
+    public void instancesHaveTheirOwnBinding() {
+        Class<? extends Script> scriptClass = CompiledScriptCache.getScriptClass(classLoader, SCRIPT);
+
+        Binding first = new Binding();
+        first.setVariable("value", 1);
+        Binding second = new Binding();
+        second.setVariable("value", 21);
+
+        assertThat(InvokerHelper.createScript(scriptClass, first).run(), is((Object) 2));
+        assertThat(InvokerHelper.createScript(scriptClass, second).run(), is((Object) 42));
+    }
+}
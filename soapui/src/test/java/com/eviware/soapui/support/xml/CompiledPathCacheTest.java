@@ -0,0 +1,63 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.support.xml;
+
+import org.apache.xmlbeans.XmlObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class CompiledPathCacheTest {
+    private static final String NAMESPACES = "declare namespace ns='http://test';\n";
+
+    @Before
+    public void setUp() {
+        CompiledPathCache.clear();
+    }
+
+    @Test
+    public void returnsSameCompiledPathForEqualExpressions() {
+        String compiled = CompiledPathCache.getPath(NAMESPACES, "//ns:value");
+
+        assertThat(CompiledPathCache.getPath(new String(NAMESPACES), new String("//ns:value")), sameInstance(compiled));
+        assertThat(compiled, is(NAMESPACES + "//ns:value"));
+        assertThat(CompiledPathCache.getHitCount(), is(1L));
+        assertThat(CompiledPathCache.getMissCount(), is(1L));
+    }
+
+    @Test
+    public void keepsPathsAndQueriesApart() {
+        String path = CompiledPathCache.getPath("//value");
+        String query = CompiledPathCache.getQuery("//value");
+
+        assertThat(query, not(sameInstance(path)));
+        assertThat(CompiledPathCache.getSize(), is(2L));
+    }
+
+    @Test
+    public void compiledPathSelectsNodes() throws Exception {
+        XmlObject xml = XmlObject.Factory.parse("<test xmlns='http://test'><value>1</value><value>2</value></test>");
+
+        XmlObject[] values = xml.selectPath(CompiledPathCache.getPath(NAMESPACES, "ns:test/ns:value"));
+        assertThat(values.length, is(2));
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.support.xml;
+
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlObject;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class ParsedXmlCacheTest {
+    private static final String CONTENT = "<order><!-- comment --><status>open</status></order>";
+
+    @Test
+    public void evaluationsOfOneResponseShareTheDocument() throws Exception {
+        String response = new String(CONTENT);
+        XmlObject xmlObject = ParsedXmlCache.getXmlObject(response);
+
+        assertThat(ParsedXmlCache.getXmlObject(response), sameInstance(xmlObject));
+        assertThat(status(xmlObject), is("open"));
+    }
+
+    @Test
+    public void changedContentIsParsedAgain() throws Exception {
+        String response = new String(CONTENT);
+        XmlObject original = ParsedXmlCache.getXmlObject(response);
+
+        response = response.replace("open", "closed");
+        XmlObject changed = ParsedXmlCache.getXmlObject(response);
+
+        assertThat(changed, not(sameInstance(original)));
+        assertThat(status(changed), is("closed"));
+        assertThat(status(original), is("open"));
+    }
+
+    @Test
+    public void equalContentOfAnotherResponseIsNotShared() throws Exception {
+        XmlObject xmlObject = ParsedXmlCache.getXmlObject(new String(CONTENT));
+
+        assertThat(ParsedXmlCache.getXmlObject(new String(CONTENT)), not(sameInstance(xmlObject)));
+    }
+
+    @Test
+    public void keepsStrippedCommentsApart() throws Exception {
+        String response = new String(CONTENT);
+        XmlObject xmlObject = ParsedXmlCache.getXmlObject(response);
+        XmlObject stripped = ParsedXmlCache.getXmlObject(response, true);
+
+        assertThat(stripped, not(sameInstance(xmlObject)));
+        assertThat(xmlObject.xmlText().contains("comment"), is(true));
+        assertThat(stripped.xmlText().contains("comment"), is(false));
+    }
+
+    @Test
+    public void evictsOldestDocumentsOfResponsesStillReferenced() throws Exception {
+        List<String> responses = new ArrayList<String>();
+        for (int c = 0; c < 200; c++) {
+            responses.add("<order><id>" + c + "</id></order>");
+        }
+
+        XmlObject first = ParsedXmlCache.getXmlObject(responses.get(0));
+        for (String response : responses) {
+            ParsedXmlCache.getXmlObject(response);
+        }
+
+        assertThat(ParsedXmlCache.getXmlObject(responses.get(0)), not(sameInstance(first)));
+        assertThat(ParsedXmlCache.getXmlObject(responses.get(199)),
+                sameInstance(ParsedXmlCache.getXmlObject(responses.get(199))));
+    }
+
+    private static String status(XmlObject xmlObject) {
+        XmlCursor cursor = xmlObject.selectPath("$this/order/status")[0].newCursor();
+        try {
+            return cursor.getTextValue();
+        } finally {
+            cursor.dispose();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.support.xml;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class StreamingXPathTest {
+    private static final String NAMESPACES = "declare namespace soap='http://schemas.xmlsoap.org/soap/envelope/';\n"
+            + "declare namespace ns=\"http://test\";\n";
+    private static final String CONTENT = "<soap:Envelope xmlns:soap='http://schemas.xmlsoap.org/soap/envelope/'>"
+            + "<soap:Header><ns:id xmlns:ns='http://test' type='a'>123</ns:id></soap:Header>"
+            + "<soap:Body><ns:request xmlns:ns='http://test'><ns:item>1</ns:item><ns:item>2</ns:item>"
+            + "<ns:item/></ns:request></soap:Body></soap:Envelope>";
+
+    @Test
+    public void rejectsUnsupportedExpressions() {
+        assertThat(StreamingXPath.compile(NAMESPACES + "//ns:item[1]"), nullValue());
+        assertThat(StreamingXPath.compile(NAMESPACES + "//ns:item/text()"), nullValue());
+        assertThat(StreamingXPath.compile(NAMESPACES + "count(//ns:item)"), nullValue());
+        assertThat(StreamingXPath.compile(NAMESPACES + "//ns:item/.."), nullValue());
+        assertThat(StreamingXPath.compile("//other:item"), nullValue());
+        assertThat(StreamingXPath.compile("declare default element namespace 'http://test'; //item"), nullValue());
+    }
+
+    @Test
+    public void selectsFirstValuesOfSeveralPaths() {
+        String[] values = selectFirst(CONTENT, StreamingXPath.ValueType.MATCH,
+                NAMESPACES + "/soap:Envelope/soap:Body/ns:request/ns:item",
+                NAMESPACES + "$this/soap:Envelope/soap:Header/ns:id/@type",
+                NAMESPACES + "//ns:missing");
+
+        assertThat(values, notNullValue());
+        assertThat(values[0], is("1"));
+        assertThat(values[1], is("a"));
+        assertThat(values[2], nullValue());
+    }
+
+    @Test
+    public void stopsReadingWhenAllPathsAreResolved() {
+        String truncated = CONTENT.substring(0, CONTENT.indexOf("<soap:Body>") + 20);
+        String[] values = selectFirst(truncated, StreamingXPath.ValueType.MATCH, NAMESPACES + "//soap:Header/*/@type");
+
+        assertThat(values, notNullValue());
+        assertThat(values[0], is("a"));
+    }
+
+    @Test
+    public void givesUpOnElementsThatAreSerializedForMatching() {
+        assertThat(selectFirst(CONTENT, StreamingXPath.ValueType.MATCH, NAMESPACES + "//ns:id"), nullValue());
+        assertThat(selectFirst(CONTENT, StreamingXPath.ValueType.MATCH, NAMESPACES + "//ns:request"), nullValue());
+    }
+
+    @Test
+    public void selectsAllNodeValues() {
+        final List<String> values = new ArrayList<String>();
+        StreamingXPath[] paths = {StreamingXPath.compile(NAMESPACES + "//ns:request/ns:*")};
+
+        boolean result = StreamingXPath.select(CONTENT, paths, StreamingXPath.ValueType.NODE,
+                new StreamingXPath.MatchHandler() {
+                    public boolean onMatch(int pathIndex, String value) {
+                        values.add(value);
+                        return false;
+                    }
+                });
+
+        assertThat(result, is(true));
+        assertThat(values.size(), is(3));
+        assertThat(values.get(0), is("1"));
+        assertThat(values.get(1), is("2"));
+        assertThat(values.get(2), nullValue());
+    }
+
+    private static String[] selectFirst(String content, StreamingXPath.ValueType valueType, String... xpaths) {
+        StreamingXPath[] paths = new StreamingXPath[xpaths.length];
+        for (int c = 0; c < xpaths.length; c++) {
+            paths[c] = StreamingXPath.compile(xpaths[c]);
+            assertThat(xpaths[c], paths[c], notNullValue());
+        }
+
+        final String[] values = new String[xpaths.length];
+        boolean result = StreamingXPath.select(content, paths, valueType, new StreamingXPath.MatchHandler() {
+            public boolean onMatch(int pathIndex, String value) {
+                values[pathIndex] = value;
+                return true;
+            }
+        });
+
+        return result ? values : null;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+
+package com.eviware.soapui.support.xml;
+
+import org.junit.Test;
+
+import javax.xml.stream.XMLStreamException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class XmlPrettyPrinterTest {
+    private final static String NL = System.getProperty("line.separator", "\n");
+
+    @Test
+    public void indentsNestedElements() throws Exception {
+        String xml = "<?xml version=\"1.0\"?><a><b><c>text</c><d/></b></a>";
+
+        assertThat(XmlPrettyPrinter.prettyPrint(xml), is("<a>" + NL + "   <b>" + NL + "      <c>text</c>" + NL
+                + "      <d/>" + NL + "   </b>" + NL + "</a>"));
+    }
+
+    @Test
+    public void replacesExistingWhitespace() throws Exception {
+        String xml = "<a>\n\t<b>1</b>\n  <b>2</b>\n</a>";
+
+        assertThat(XmlPrettyPrinter.prettyPrint(xml), is("<a>" + NL + "   <b>1</b>" + NL + "   <b>2</b>" + NL
+                + "</a>"));
+    }
+
+    @Test
+    public void keepsNamespacesAttributesAndEscaping() throws Exception {
+        String xml = "<s:Envelope xmlns:s=\"urn:s\"><s:Body a=\"x &amp; &quot;y&quot;\"><![CDATA[1 < 2]]>"
+                + "</s:Body></s:Envelope>";
+
+        assertThat(XmlPrettyPrinter.prettyPrint(xml), is("<s:Envelope xmlns:s=\"urn:s\">" + NL
+                + "   <s:Body a=\"x &amp; &quot;y&quot;\">1 &lt; 2</s:Body>" + NL + "</s:Envelope>"));
+    }
+
+    @Test
+    public void leavesMixedContentAlone() throws Exception {
+        String xml = "<a>hello <b>big</b> world</a>";
+
+        assertThat(XmlPrettyPrinter.prettyPrint(xml), is(xml));
+    }
+
+    @Test
+    public void leavesTextAfterChildElementsAlone() throws Exception {
+        String xml = "<r><a><b/>tail</a></r>";
+
+        assertThat(XmlPrettyPrinter.prettyPrint(xml), is("<r>" + NL + "   <a><b/>tail</a>" + NL + "</r>"));
+    }
+
+    @Test
+    public void keepsOriginalWhitespaceBetweenSiblingsOfMixedContent() throws Exception {
+        String xml = "<a><b>1</b> <c><d/></c>\n and <e/></a>";
+
+        assertThat(XmlPrettyPrinter.prettyPrint(xml), is(xml));
+    }
+
+    @Test
+    public void indentsElementsAfterMixedContent() throws Exception {
+        String xml = "<r><a><b/>tail</a><c><d/></c></r>";
+
+        assertThat(XmlPrettyPrinter.prettyPrint(xml), is("<r>" + NL + "   <a><b/>tail</a>" + NL + "   <c>" + NL
+                + "      <d/>" + NL + "   </c>" + NL + "</r>"));
+    }
+
+    @Test
+    public void keepsCommentsOnTheirOwnLine() throws Exception {
+        String xml = "<a><!-- note --><b/></a>";
+
+        assertThat(XmlPrettyPrinter.prettyPrint(xml), is("<a>" + NL + "   <!-- note -->" + NL + "   <b/>" + NL
+                + "</a>"));
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void failsOnMalformedXml() throws Exception {
+        XmlPrettyPrinter.prettyPrint("<a><b></a>");
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent
+ * versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the Licence for the specific language governing permissions and limitations
+ * under the Licence.
+ */
+
+
+package com.eviware.soapui.tools;
+
+import com.eviware.soapui.impl.wsdl.WsdlProject;
+import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
+import com.eviware.soapui.impl.wsdl.testcase.WsdlTestSuite;
+import com.eviware.soapui.impl.wsdl.teststeps.WsdlTestStepResult;
+import com.eviware.soapui.junit.Testcase;
+import com.eviware.soapui.model.testsuite.Assertable;
+import com.eviware.soapui.model.testsuite.Assertable.AssertionStatus;
+import com.eviware.soapui.model.testsuite.AssertionError;
+import com.eviware.soapui.model.testsuite.TestAssertion;
+import com.eviware.soapui.model.testsuite.TestCase;
+import com.eviware.soapui.model.testsuite.TestCaseRunContext;
+import com.eviware.soapui.model.testsuite.TestCaseRunner;
+import com.eviware.soapui.model.testsuite.TestProperty;
+import com.eviware.soapui.model.testsuite.TestRunner.Status;
+import com.eviware.soapui.model.testsuite.TestStep;
+import com.eviware.soapui.report.JUnitSecurityReportCollector;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+public class SoapUITestCaseRunnerParallelTest {
+    private static final int TEST_CASE_COUNT = 6;
+    private static final int STEP_COUNT = 2;
+    private static final int THREAD_COUNT = 4;
+
+    private ParallelRunner runner;
+    private List<TestCase> testCases;
+
+    @Before
+    public void setUp() throws Exception {
+        runner = new ParallelRunner();
+        runner.initFromCommandLine(new String[]{"-N", String.valueOf(THREAD_COUNT), "project.xml"}, false);
+
+        testCases = new ArrayList<TestCase>();
+        for (int c = 0; c < TEST_CASE_COUNT; c++) {
+            // every second TestCase fails with one failed assertion per step
+            testCases.add(runner.addTestCase(c, c % 2 == 0));
+        }
+    }
+
+    @Test
+    public void readsThreadCountFromCommandLine() {
+        assertThat(runner.getParallel(), is(THREAD_COUNT));
+    }
+
+    @Test
+    public void runsTestCasesOnParallelThreads() throws Exception {
+        runner.runParallel(testCases);
+
+        assertThat(runner.threads.size(), is(THREAD_COUNT));
+        assertTrue(runner.maxRunning.get() <= THREAD_COUNT);
+        assertThat(runner.getTestStepCount(), is(TEST_CASE_COUNT * STEP_COUNT));
+    }
+
+    @Test
+    public void collectsFailuresOfAllThreads() throws Exception {
+        runner.runParallel(testCases);
+
+        assertThat(runner.getFailedTests().size(), is(3));
+        assertThat(runner.getAssertions().size(), is(6));
+        assertThat(runner.getAssertionResults().size(), is(6));
+    }
+
+    @Test
+    public void ordersFailuresByTestCase() throws Exception {
+        runner.runParallel(testCases);
+
+        // the TestCases finish in reverse order, but are reported in the order they were started
+        List<TestCase> failedTests = runner.getFailedTests();
+        assertThat(failedTests.get(0), sameInstance(testCases.get(0)));
+        assertThat(failedTests.get(1), sameInstance(testCases.get(2)));
+        assertThat(failedTests.get(2), sameInstance(testCases.get(4)));
+
+        List<String> assertionNames = new ArrayList<String>();
+        for (TestAssertion assertion : runner.getAssertions()) {
+            assertionNames.add(assertion.getName());
+        }
+
+        assertThat(assertionNames, is(Arrays.asList("Assertion 0-0", "Assertion 0-1", "Assertion 2-0",
+                "Assertion 2-1", "Assertion 4-0", "Assertion 4-1")));
+    }
+
+    @Test
+    public void ordersJUnitReportByTestCase() throws Exception {
+        runner.setJUnitReport(true);
+        runner.runParallel(testCases);
+
+        Testcase[] reported = runner.collector.getReports().get("TestSuite").finishReport().getTestsuite()
+                .getTestcaseArray();
+
+        assertThat(reported.length, is(TEST_CASE_COUNT));
+        for (int c = 0; c < TEST_CASE_COUNT; c++) {
+            assertThat(reported[c].getName(), is("TestCase " + c));
+        }
+    }
+
+    @Test
+    public void ordersFailureMessageByTestCase() throws Exception {
+        runner.runParallel(testCases);
+
+        try {
+            runner.throwFailureException();
+            fail("Expected failure exception");
+        } catch (Exception e) {
+            String message = e.getMessage();
+            assertTrue(message.indexOf("Assertion 0-1") < message.indexOf("Assertion 2-0"));
+            assertTrue(message.indexOf("Assertion 2-1") < message.indexOf("Assertion 4-0"));
+            assertTrue(message.indexOf("TestCase [TestCase 0]") < message.indexOf("TestCase [TestCase 2]"));
+            assertTrue(message.indexOf("TestCase [TestCase 2]") < message.indexOf("TestCase [TestCase 4]"));
+        }
+    }
+
+    /**
+     * Simulates the TestCase runs by calling the listener methods the way WsdlTestCaseRunner does, from the
+     * thread the TestCase is run on. Later TestCases take less time, so they finish first
+     */
+
+    private static class ParallelRunner extends SoapUITestCaseRunner {
+        private final WsdlTestSuite testSuite = mock(WsdlTestSuite.class);
+        private final Map<TestCase, SimulatedRun> runs = new HashMap<TestCase, SimulatedRun>();
+        private JUnitSecurityReportCollector collector;
+        private final Set<Thread> threads = Collections.synchronizedSet(new HashSet<Thread>());
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maxRunning = new AtomicInteger();
+
+        ParallelRunner() {
+            WsdlProject project = mock(WsdlProject.class);
+            when(project.getName()).thenReturn("Project");
+            when(testSuite.getName()).thenReturn("TestSuite");
+            when(testSuite.getProject()).thenReturn(project);
+        }
+
+        TestCase addTestCase(int index, boolean failed) {
+            WsdlTestCase testCase = mock(WsdlTestCase.class);
+            when(testCase.getName()).thenReturn("TestCase " + index);
+            when(testCase.getTestSuite()).thenReturn(testSuite);
+            when(testCase.getProperties()).thenReturn(Collections.<String, TestProperty>emptyMap());
+
+            SimulatedRun run = new SimulatedRun();
+            run.delay = (TEST_CASE_COUNT - index) * 20;
+            run.testRunner = mock(TestCaseRunner.class);
+            when(run.testRunner.getTestCase()).thenReturn(testCase);
+            when(run.testRunner.getStatus()).thenReturn(failed ? Status.FAILED : Status.FINISHED);
+            when(run.testRunner.getReason()).thenReturn(failed ? "Failing Assertions" : null);
+
+            for (int c = 0; c < STEP_COUNT; c++) {
+                TestStep step = mock(TestStep.class, withSettings().extraInterfaces(Assertable.class));
+                when(step.getName()).thenReturn("Step " + index + "-" + c);
+
+                TestAssertion assertion = mock(TestAssertion.class);
+                when(assertion.getName()).thenReturn("Assertion " + index + "-" + c);
+                when(assertion.getStatus()).thenReturn(failed ? AssertionStatus.FAILED : AssertionStatus.VALID);
+                when(assertion.getErrors()).thenReturn(new AssertionError[0]);
+                when(assertion.getAssertable()).thenReturn((Assertable) step);
+
+                when(((Assertable) step).getAssertionCount()).thenReturn(1);
+                when(((Assertable) step).getAssertionAt(0)).thenReturn(assertion);
+                when(((Assertable) step).getModelItem()).thenReturn(step);
+
+                TestCaseRunContext runContext = mock(TestCaseRunContext.class);
+                when(runContext.getCurrentStep()).thenReturn(step);
+
+                run.runContexts.add(runContext);
+                run.results.add(mock(WsdlTestStepResult.class));
+            }
+
+            runs.put(testCase, run);
+            return testCase;
+        }
+
+        @Override
+        protected JUnitSecurityReportCollector createJUnitSecurityReportCollector() {
+            collector = new JUnitSecurityReportCollector();
+            return collector;
+        }
+
+        @Override
+        protected void runTestCase(WsdlTestCase testCase) {
+            SimulatedRun run = runs.get(testCase);
+            threads.add(Thread.currentThread());
+
+            int current = running.incrementAndGet();
+            while (true) {
+                int max = maxRunning.get();
+                if (current <= max || maxRunning.compareAndSet(max, current)) {
+                    break;
+                }
+            }
+
+            try {
+                beforeRun(run.testRunner, run.runContexts.get(0));
+                if (collector != null) {
+                    collector.beforeRun(run.testRunner, run.runContexts.get(0));
+                }
+
+                for (int c = 0; c < STEP_COUNT; c++) {
+                    Thread.sleep(run.delay);
+                    afterStep(run.testRunner, run.runContexts.get(c), run.results.get(c));
+                }
+
+                afterRun(run.testRunner, run.runContexts.get(0));
+                if (collector != null) {
+                    collector.afterRun(run.testRunner, run.runContexts.get(0));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+    }
+
+    private static class SimulatedRun {
+        private int delay;
+        private TestCaseRunner testRunner;
+        private List<TestCaseRunContext> runContexts = new ArrayList<TestCaseRunContext>();
+        private List<WsdlTestStepResult> results = new ArrayList<WsdlTestStepResult>();
+    }
+}